@@ -64,7 +64,8 @@ class CleaningActivity(StatefulActivity):
     def clean(self):
         self.state.clean_corpora = self.wdir('clean_corpora')
         mmt_tmsclean(self.args.src_lang, self.args.tgt_lang,
-                     self.args.input_path, self.state.clean_corpora, out_format='parallel')
+                     self.args.input_path, self.state.clean_corpora, out_format='parallel',
+                     tmp_path=self.wdir('clean_tmp'))
 
     @activitystep('De-duplicate corpora')
     def dedup(self):
@@ -83,10 +83,12 @@ def mmt_java(main_class, args=None, *,
     return java_cmd
 
 
-def mmt_tmsclean(src_lang, tgt_lang, in_path, out_path, out_format=None, filters=None):
+def mmt_tmsclean(src_lang, tgt_lang, in_path, out_path, out_format=None, filters=None, tmp_path=None):
     args = ['-s', src_lang, '-t', tgt_lang, '--input', in_path, '--output', out_path]
     if out_format is not None:
         args += ['--output-format', out_format]
+    if tmp_path is not None:
+        args += ['--tmp', tmp_path]
     if filters is not None and len(filters) > 0:
         args += ['--filters'] + filters
 
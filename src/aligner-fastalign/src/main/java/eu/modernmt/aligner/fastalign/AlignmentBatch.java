@@ -0,0 +1,154 @@
+package eu.modernmt.aligner.fastalign;
+
+import eu.modernmt.model.Alignment;
+import eu.modernmt.model.Sentence;
+import eu.modernmt.model.Word;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Direct buffers exchanged with the native aligner for a whole batch of sentence pairs.
+ * <p>
+ * Input: all the tokens of the batch are encoded in "text" as UTF-8 bytes one after the other
+ * (spaces replaced by no-break spaces, as in TokensOutputStream); "offsets" holds the end offset of every token
+ * and "lengths" the number of source and target tokens of every pair.
+ * Output: for every pair "output" holds the number of points k followed by k source and k target indices,
+ * while "scores" holds the alignment score.
+ * <p>
+ * Buffers only grow and are meant to be reused by the same thread.
+ */
+class AlignmentBatch {
+
+    private static final int INITIAL_PAIRS = 64;
+    private static final int INITIAL_TOKENS = INITIAL_PAIRS * 64;
+
+    ByteBuffer text = allocate(INITIAL_TOKENS * 8);
+    IntBuffer offsets = allocate(INITIAL_TOKENS * 4).asIntBuffer();
+    IntBuffer lengths = allocate(INITIAL_PAIRS * 2 * 4).asIntBuffer();
+    IntBuffer output = allocate((INITIAL_TOKENS * 2 + INITIAL_PAIRS) * 4).asIntBuffer();
+    FloatBuffer scores = allocate(INITIAL_PAIRS * 4).asFloatBuffer();
+
+    private int size = 0;
+    private int outputSize = 0;
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    public void clear() {
+        text.clear();
+        offsets.clear();
+        lengths.clear();
+        size = 0;
+        outputSize = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(Sentence source, Sentence target) {
+        Word[] sourceWords = source.getWords();
+        Word[] targetWords = target.getWords();
+
+        if (lengths.remaining() < 2)
+            lengths = grow(lengths, lengths.capacity() * 2);
+        lengths.put(sourceWords.length);
+        lengths.put(targetWords.length);
+
+        for (Word word : sourceWords)
+            put(word.getPlaceholder());
+        for (Word word : targetWords)
+            put(word.getPlaceholder());
+
+        size++;
+        // the symmetrized alignment is a subset of the union of the two directional alignments,
+        // that have at most one point per source word and one per target word respectively
+        outputSize += 1 + 2 * (sourceWords.length + targetWords.length);
+    }
+
+    /**
+     * Ensures that output buffers are large enough for the current batch; must be called before the native call.
+     */
+    public void prepareOutput() {
+        if (output.capacity() < outputSize)
+            output = allocate(Math.max(outputSize, output.capacity() * 2) * 4).asIntBuffer();
+        if (scores.capacity() < size)
+            scores = allocate(Math.max(size, scores.capacity() * 2) * 4).asFloatBuffer();
+    }
+
+    public Alignment[] parseAlignments() {
+        Alignment[] alignments = new Alignment[size];
+
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            int length = output.get(position++);
+
+            int[] source = new int[length];
+            int[] target = new int[length];
+
+            for (int j = 0; j < length; j++)
+                source[j] = output.get(position + j);
+            position += length;
+            for (int j = 0; j < length; j++)
+                target[j] = output.get(position + j);
+            position += length;
+
+            alignments[i] = new Alignment(source, target, scores.get(i));
+        }
+
+        return alignments;
+    }
+
+    private void put(String token) {
+        // worst case is 3 bytes per char (surrogate pairs take 4 bytes for 2 chars)
+        if (text.remaining() < token.length() * 3)
+            text = grow(text, Math.max(text.capacity() * 2, text.position() + token.length() * 3));
+
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+
+            if (c == ' ')
+                c = '\u00A0';
+
+            if (c < 0x80) {
+                text.put((byte) c);
+            } else if (c < 0x800) {
+                text.put((byte) (0xC0 | (c >> 6)));
+                text.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < token.length() && Character.isLowSurrogate(token.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, token.charAt(++i));
+                text.put((byte) (0xF0 | (cp >> 18)));
+                text.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                text.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                text.put((byte) (0x80 | (cp & 0x3F)));
+            } else {
+                text.put((byte) (0xE0 | (c >> 12)));
+                text.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                text.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+
+        if (!offsets.hasRemaining())
+            offsets = grow(offsets, offsets.capacity() * 2);
+        offsets.put(text.position());
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        ByteBuffer result = allocate(capacity);
+        buffer.flip();
+        result.put(buffer);
+        return result;
+    }
+
+    private static IntBuffer grow(IntBuffer buffer, int capacity) {
+        IntBuffer result = allocate(capacity * 4).asIntBuffer();
+        buffer.flip();
+        result.put(buffer);
+        return result;
+    }
+
+}
@@ -12,6 +12,9 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.*;
 import java.util.concurrent.*;
 
@@ -28,8 +31,10 @@ public class FastAlign implements Aligner {
         }
     }
 
+    private final ThreadLocal<AlignmentBatch> batches = ThreadLocal.withInitial(AlignmentBatch::new);
     private SymmetrizationStrategy strategy = SymmetrizationStrategy.GROW_DIAGONAL_FINAL_AND;
     private final HashMap<LanguageKey, Long> models;
+    private volatile boolean closed = false;
 
     private static Collection<LanguageDirection> parseLanguagesFromFilename(File file) throws IOException {
         String encoded = FilenameUtils.removeExtension(file.getName());
@@ -50,17 +55,16 @@ public class FastAlign implements Aligner {
         return languages;
     }
 
-    private Map<File, Long> load(File[] paths) {
+    private Map<File, Long> load(File[] paths, int alignerThreads, boolean mapped) {
         int nproc = Runtime.getRuntime().availableProcessors();
         int threads = Math.min(paths.length, nproc);
-        int alignerThreads = Math.max(1, (int) (nproc * 3. / 4.));
 
         ExecutorService executor = Executors.newFixedThreadPool(threads);
 
         try {
             Future<?>[] futures = new Future[paths.length];
             for (int i = 0; i < futures.length; i++)
-                futures[i] = executor.submit(new InitTask(paths[i], alignerThreads));
+                futures[i] = executor.submit(new InitTask(paths[i], alignerThreads, mapped));
 
             HashMap<File, Long> models = new HashMap<>(paths.length);
             for (int i = 0; i < futures.length; i++) {
@@ -84,6 +88,35 @@ public class FastAlign implements Aligner {
     }
 
     public FastAlign(File modelPath) throws IOException {
+        this(modelPath, Math.max(1, (int) (Runtime.getRuntime().availableProcessors() * 3. / 4.)));
+    }
+
+    /**
+     * Loads all the models in the given path.
+     *
+     * @param modelPath the models folder
+     * @param threads   the number of threads used to align large batches, shared by all the models;
+     *                  batches smaller than a native threshold are always aligned on the calling thread,
+     *                  as well as all the batches if threads is 1. The native threads are stopped when
+     *                  the last aligner using them is closed
+     * @throws IOException if the models cannot be loaded
+     */
+    public FastAlign(File modelPath, int threads) throws IOException {
+        this(modelPath, threads, true);
+    }
+
+    /**
+     * Loads all the models in the given path.
+     *
+     * @param modelPath the models folder
+     * @param threads   the number of threads used to align large batches, see {@link #FastAlign(File, int)}
+     * @param mapped    if true, the translation tables of the models in the compact format are memory-mapped
+     *                  from the model files, so that the processes using the same models share their pages;
+     *                  if false, they are read into the process memory. Models in the legacy format are always
+     *                  read into the process memory
+     * @throws IOException if the models cannot be loaded
+     */
+    public FastAlign(File modelPath, int threads, boolean mapped) throws IOException {
         if (!modelPath.isDirectory())
             throw new IOException("Invalid model path: " + modelPath);
 
@@ -94,7 +127,7 @@ public class FastAlign implements Aligner {
 
         logger.info("Loading FastAlign models");
         long now = System.currentTimeMillis();
-        Map<File, Long> handlers = load(paths);
+        Map<File, Long> handlers = load(paths, threads, mapped);
         logger.info("Loaded " + handlers.size() + " FastAlign models in " + (int) ((System.currentTimeMillis() - now) / 1000) + "s");
 
         this.models = new HashMap<>(paths.length);
@@ -111,7 +144,7 @@ public class FastAlign implements Aligner {
         }
     }
 
-    private native long instantiate(String modelFile, int threads);
+    private native long instantiate(String modelFile, int threads, boolean mapped);
 
     @Override
     public boolean isSupported(LanguageDirection direction) {
@@ -136,6 +169,8 @@ public class FastAlign implements Aligner {
 
     @Override
     public Alignment getAlignment(LanguageDirection language, Sentence source, Sentence target, SymmetrizationStrategy strategy) throws AlignerException {
+        ensureOpen();
+
         boolean reversed = false;
 
         LanguageKey key = LanguageKey.parse(language);
@@ -146,12 +181,12 @@ public class FastAlign implements Aligner {
             nativeHandle = models.get(key.reversed());
         }
 
-        int[][] output = new int[1][];
-        float score = align(nativeHandle, reversed, XUtils.toTokensArray(source), XUtils.toTokensArray(target), XUtils.toInt(strategy), output);
-        return XUtils.parseAlignment(output[0], score);
-    }
+        AlignmentBatch batch = batches.get();
+        batch.clear();
+        batch.add(source, target);
 
-    private native float align(long nativeHandle, boolean reversed, String[] source, String[] target, int strategy, int[][] result);
+        return align(nativeHandle, reversed, batch, strategy)[0];
+    }
 
     @Override
     public Alignment[] getAlignments(LanguageDirection language, List<? extends Sentence> sources, List<? extends Sentence> targets) throws AlignerException {
@@ -160,6 +195,8 @@ public class FastAlign implements Aligner {
 
     @Override
     public Alignment[] getAlignments(LanguageDirection language, List<? extends Sentence> sources, List<? extends Sentence> targets, SymmetrizationStrategy strategy) throws AlignerException {
+        ensureOpen();
+
         boolean reversed = false;
 
         LanguageKey key = LanguageKey.parse(language);
@@ -170,47 +207,56 @@ public class FastAlign implements Aligner {
             nativeHandle = models.get(key.reversed());
         }
 
-        String[][] sourceArray = new String[sources.size()][];
-        String[][] targetArray = new String[targets.size()][];
+        AlignmentBatch batch = batches.get();
+        batch.clear();
 
         Iterator<? extends Sentence> sourceIterator = sources.iterator();
         Iterator<? extends Sentence> targetIterator = targets.iterator();
 
-        int i = 0;
-        while (sourceIterator.hasNext() && targetIterator.hasNext()) {
-            sourceArray[i] = XUtils.toTokensArray(sourceIterator.next());
-            targetArray[i] = XUtils.toTokensArray(targetIterator.next());
-            i++;
-        }
+        while (sourceIterator.hasNext() && targetIterator.hasNext())
+            batch.add(sourceIterator.next(), targetIterator.next());
 
-        int[][] result = new int[sourceArray.length][];
-        Alignment[] alignments = new Alignment[result.length];
+        return align(nativeHandle, reversed, batch, strategy);
+    }
 
-        float[] scores = align(nativeHandle, reversed, sourceArray, targetArray, XUtils.toInt(strategy), result);
+    private Alignment[] align(long nativeHandle, boolean reversed, AlignmentBatch batch, SymmetrizationStrategy strategy) {
+        batch.prepareOutput();
+        alignBatch(nativeHandle, reversed, batch.text, batch.offsets, batch.lengths, batch.size(), XUtils.toInt(strategy), batch.output, batch.scores);
+        return batch.parseAlignments();
+    }
 
-        for (int j = 0; j < result.length; j++)
-            alignments[j] = XUtils.parseAlignment(result[j], scores[j]);
+    private native void alignBatch(long nativeHandle, boolean reversed, ByteBuffer text, IntBuffer offsets, IntBuffer lengths, int size,
+                                   int strategy, IntBuffer output, FloatBuffer scores);
 
-        return alignments;
+    private void ensureOpen() {
+        if (closed)
+            throw new IllegalStateException("FastAlign has been closed");
     }
 
-    private native float[] align(long nativeHandle, boolean reversed, String[][] sources, String[][] targets, int strategy, int[][] outputAlignment);
-
     @Override
     protected void finalize() throws Throwable {
         super.finalize();
+        close();
+    }
+
+    /**
+     * Releases the native models and, with the last open aligner, the native threads.
+     * Alignment methods must not be called during or after close().
+     */
+    @Override
+    public synchronized void close() {
+        if (closed)
+            return;
 
-        for (long nativeHandle : models.values())
+        closed = true;
+
+        // the same model is registered for every language pair of its file
+        for (long nativeHandle : new HashSet<>(models.values()))
             dispose(nativeHandle);
 
         models.clear();
     }
 
-    @Override
-    public void close() {
-        // Nothing to do
-    }
-
     private native long dispose(long handle);
 
     private static final class LanguageKey {
@@ -254,15 +300,17 @@ public class FastAlign implements Aligner {
 
         private final File path;
         private final int threads;
+        private final boolean mapped;
 
-        private InitTask(File path, int threads) {
+        private InitTask(File path, int threads, boolean mapped) {
             this.path = path;
             this.threads = threads;
+            this.mapped = mapped;
         }
 
         @Override
         public Long call() {
-            return instantiate(path.getAbsolutePath(), threads);
+            return instantiate(path.getAbsolutePath(), threads, mapped);
         }
 
     }
@@ -1,9 +1,6 @@
 package eu.modernmt.aligner.fastalign;
 
 import eu.modernmt.aligner.Aligner;
-import eu.modernmt.io.TokensOutputStream;
-import eu.modernmt.model.Alignment;
-import eu.modernmt.model.Sentence;
 
 /**
  * Created by davide on 12/05/17.
@@ -25,23 +22,4 @@ class XUtils {
         return 0;
     }
 
-    public static String[] toTokensArray(Sentence sentence) {
-        return TokensOutputStream.tokens(sentence, false, true);
-    }
-
-    public static Alignment parseAlignment(int[] encoded, float score) {
-        if (encoded.length % 2 == 1)
-            throw new Error("Invalid native result length: " + encoded.length);
-
-        int size = encoded.length / 2;
-
-        int[] source = new int[size];
-        int[] target = new int[size];
-
-        System.arraycopy(encoded, 0, source, 0, size);
-        System.arraycopy(encoded, size, target, 0, size);
-
-        return new Alignment(source, target, score);
-    }
-
 }
@@ -8,12 +8,12 @@ using namespace std;
 using namespace mmt;
 using namespace mmt::fastalign;
 
-BidirectionalModel::BidirectionalModel(shared_ptr<bitable_t> table, bool forward, bool use_null,
+BidirectionalModel::BidirectionalModel(shared_ptr<TranslationTable> table, bool forward, bool use_null,
                                        bool favor_diagonal, double prob_align_null, double diagonal_tension)
         : Model(!forward, use_null, favor_diagonal, prob_align_null, diagonal_tension), table(table) {
 }
 
-void BidirectionalModel::Open(istream &in, Model **outForward, Model **outBackward) {
+void BidirectionalModel::Open(istream &in, const string &path, bool mapped, Model **outForward, Model **outBackward) {
     bool use_null;
     bool favor_diagonal;
     double prob_align_null;
@@ -26,37 +26,7 @@ void BidirectionalModel::Open(istream &in, Model **outForward, Model **outBackwa
     in.read((char *) &fwd_diagonal_tension, sizeof(double));
     in.read((char *) &bwd_diagonal_tension, sizeof(double));
 
-    shared_ptr<bitable_t> table(new bitable_t);
-
-    size_t ttable_size;
-    in.read((char *) &ttable_size, sizeof(size_t));
-
-    table->resize(ttable_size);
-
-    while (true) {
-        word_t sourceWord;
-        in.read((char *) &sourceWord, sizeof(word_t));
-
-        if (in.eof())
-            break;
-
-        size_t row_size;
-        in.read((char *) &row_size, sizeof(size_t));
-
-        unordered_map<word_t, pair<float, float>> &row = table->at(sourceWord);
-        row.reserve(row_size);
-
-        for (size_t i = 0; i < row_size; ++i) {
-            word_t targetWord;
-            float first, second;
-
-            in.read((char *) &targetWord, sizeof(word_t));
-            in.read((char *) &first, sizeof(float));
-            in.read((char *) &second, sizeof(float));
-
-            row[targetWord] = pair<float, float>(first, second);
-        }
-    }
+    shared_ptr<TranslationTable> table(TranslationTable::Open(in, path, mapped));
 
     *outForward = new BidirectionalModel(table, true, use_null, favor_diagonal, prob_align_null, fwd_diagonal_tension);
     *outBackward = new BidirectionalModel(table, false, use_null, favor_diagonal, prob_align_null,
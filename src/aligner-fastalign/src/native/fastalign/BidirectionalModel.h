@@ -10,40 +10,37 @@
 #include <string>
 
 #include "Model.h"
+#include "TranslationTable.h"
 #include "Vocabulary.h"
 
 namespace mmt {
     namespace fastalign {
 
-        typedef std::vector<std::unordered_map<word_t, std::pair<float, float>>> bitable_t;
-
         class BidirectionalModel : public Model {
         public:
-            BidirectionalModel(std::shared_ptr<bitable_t> table, bool forward, bool use_null,
+            BidirectionalModel(std::shared_ptr<TranslationTable> table, bool forward, bool use_null,
                                bool favor_diagonal, double prob_align_null, double diagonal_tension);
 
             inline double GetProbability(word_t source, word_t target) override {
                 if (is_reverse)
                     std::swap(source, target);
 
-                if (table->empty())
-                    return kNullProbability;
-                if (source >= table->size())
+                float forward, backward;
+                if (!table->Find(source, target, &forward, &backward))
                     return kNullProbability;
 
-                std::unordered_map<word_t, std::pair<float, float>> &row = table->at(source);
-                auto ptr = row.find(target);
-                return ptr == row.end() ? kNullProbability : (is_reverse ? ptr->second.second : ptr->second.first);
+                return is_reverse ? backward : forward;
             }
 
             inline void IncrementProbability(word_t source, word_t target, double amount) override {
                 // no-op
             }
 
-            static void Open(std::istream &in, Model **outForward, Model **outBackward);
+            static void Open(std::istream &in, const std::string &path, bool mapped,
+                             Model **outForward, Model **outBackward);
 
         private:
-            const std::shared_ptr<bitable_t> table;
+            const std::shared_ptr<TranslationTable> table;
         };
     }
 }
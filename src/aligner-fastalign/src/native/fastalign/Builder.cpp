@@ -10,6 +10,7 @@
 #include "DiagonalAlignment.h"
 #include "Builder.h"
 #include "BidirectionalModel.h"
+#include "TranslationTable.h"
 #include "ioutils.h"
 
 #include <math.h>       /* isnormal */
@@ -24,6 +25,8 @@ using namespace std;
 using namespace mmt;
 using namespace mmt::fastalign;
 
+typedef vector<unordered_map<word_t, pair<float, float>>> bitable_t;
+
 struct LengthPairHash {
     size_t operator()(const pair<length_t, length_t> &x) const {
         return (size_t) ((x.first << 16) | ((x.second) & 0xffff));
@@ -457,21 +460,9 @@ void Builder::MergeAndStore(std::ostream &out, const string &fwd_path, const str
     io_write(out, fwd_prob_align_null);
     io_write(out, fwd_diagonal_tension);
     io_write(out, bwd_diagonal_tension);
-    io_write(out, fwd_ttable_size);
-
-    // writing all entries of the bitable
-    for (word_t src_word = 0; src_word < fwd_ttable_size; ++src_word) {
-        auto &row = table->at(src_word);
-
-        io_write(out, src_word);
-        io_write(out, row.size());
 
-        for (auto tgt_entry = row.begin(); tgt_entry != row.end(); ++tgt_entry) {
-            io_write(out, tgt_entry->first);
-            io_write(out, tgt_entry->second.first);
-            io_write(out, tgt_entry->second.second);
-        }
-    }
+    // writing the bitable in the compact format (rows sorted by target word)
+    TranslationTable::Store(out, *table);
 
     // deleting bitable
     delete table;
@@ -8,31 +8,33 @@
 #include <boost/filesystem.hpp>
 #include "BidirectionalModel.h"
 
-#ifdef _OPENMP
-#include <omp.h>
-#endif
-
 namespace fs = boost::filesystem;
 
 using namespace std;
 using namespace mmt;
 using namespace mmt::fastalign;
 
-FastAligner::FastAligner(const string &path, int threads) {
+FastAligner::FastAligner(const string &path, int threads, bool mapped) {
+    size_t size = threads > 0 ? (size_t) threads : (size_t) thread::hardware_concurrency();
+    if (size > 1)
+        pool.reset(new ThreadPool(size - 1));  // the calling thread takes part in the work too
+
+    Load(path, mapped);
+}
+
+FastAligner::FastAligner(const string &path, shared_ptr<ThreadPool> pool, bool mapped) : pool(pool) {
+    Load(path, mapped);
+}
+
+void FastAligner::Load(const string &path, bool mapped) {
     fs::path model_path = fs::absolute(fs::path(path));
     if (!fs::is_regular(model_path))
         throw invalid_argument("file not found: " + model_path.string());
 
     ifstream in(model_path.string(), ios::binary | ios::in);
     vocabulary = Vocabulary(in);
-    BidirectionalModel::Open(in, &forwardModel, &backwardModel);
+    BidirectionalModel::Open(in, model_path.string(), mapped, &forwardModel, &backwardModel);
     in.close();
-
-    this->threads = threads > 0 ? threads : (int) thread::hardware_concurrency();
-#ifdef _OPENMP
-    omp_set_dynamic(0);
-    omp_set_num_threads(this->threads);
-#endif
 }
 
 FastAligner::~FastAligner() {
@@ -78,7 +80,6 @@ void FastAligner::GetAlignments(const std::vector<std::pair<sentence_t, sentence
     vector<pair<wordvec_t, wordvec_t>> batch;
     batch.resize(_batch.size());
 
-#pragma omp parallel for schedule(dynamic)
     for (size_t i = 0; i < batch.size(); ++i) {
         vocabulary.Encode(_batch[i].first, batch[i].first);
         vocabulary.Encode(_batch[i].second, batch[i].second);
@@ -89,21 +90,32 @@ void FastAligner::GetAlignments(const std::vector<std::pair<sentence_t, sentence
 
 void FastAligner::GetAlignments(const std::vector<std::pair<wordvec_t, wordvec_t>> &batch,
                                 std::vector<alignment_t> &outAlignments, Symmetrization symmetrization) {
-    vector<alignment_t> forwards;
-    vector<alignment_t> backwards;
+    outAlignments.resize(batch.size());
 
-    forwardModel->ComputeAlignments(batch, forwards, &vocabulary);
-    backwardModel->ComputeAlignments(batch, backwards, &vocabulary);
+    if (!pool || pool->Size() == 0 || batch.size() < kParallelBatchThreshold) {
+        AlignRange(batch, 0, batch.size(), outAlignments, symmetrization);
+    } else {
+        // small chunks balance the load of sentences with very different lengths
+        size_t grain = max((size_t) 4, batch.size() / ((pool->Size() + 1) * 8));
 
-    outAlignments.resize(batch.size());
+        pool->ParallelFor(batch.size(), grain, [&](size_t begin, size_t end) {
+            AlignRange(batch, begin, end, outAlignments, symmetrization);
+        });
+    }
+}
 
+void FastAligner::AlignRange(const std::vector<std::pair<wordvec_t, wordvec_t>> &batch, size_t begin, size_t end,
+                             std::vector<alignment_t> &outAlignments, Symmetrization symmetrization) {
     SymAlignment symal;
 
-    for (size_t i = 0; i < batch.size(); ++i) {
-        symal.Reset(batch[i].first.size(), batch[i].second.size());
+    for (size_t i = begin; i < end; ++i) {
+        const wordvec_t &source = batch[i].first;
+        const wordvec_t &target = batch[i].second;
+
+        alignment_t forward = forwardModel->ComputeAlignment(source, target, &vocabulary);
+        alignment_t backward = backwardModel->ComputeAlignment(source, target, &vocabulary);
 
-        alignment_t &forward = forwards[i];
-        alignment_t &backward = backwards[i];
+        symal.Reset(source.size(), target.size());
 
         switch (symmetrization) {
             case GrowDiagonalFinalAnd:
@@ -122,4 +134,4 @@ void FastAligner::GetAlignments(const std::vector<std::pair<wordvec_t, wordvec_t
 
         outAlignments[i] = symal.ToAlignment();
     }
-}
\ No newline at end of file
+}
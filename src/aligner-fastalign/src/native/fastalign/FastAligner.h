@@ -5,8 +5,10 @@
 #ifndef FASTALIGN_ALIGNER_H
 #define FASTALIGN_ALIGNER_H
 
+#include <memory>
 #include <string>
 #include "Model.h"
+#include "ThreadPool.h"
 #include "Vocabulary.h"
 
 namespace mmt {
@@ -19,9 +21,22 @@ namespace mmt {
             Union = 4
         };
 
+        /* Batches smaller than this are aligned on the calling thread */
+        const size_t kParallelBatchThreshold = 32;
+
         class FastAligner {
         public:
-            explicit FastAligner(const std::string &path, int threads = 0);
+            /*
+             * If "mapped" is true and the model is in the compact format, the translation table
+             * is memory-mapped from the model file (and shared between processes) instead of loaded in memory.
+             */
+            explicit FastAligner(const std::string &path, int threads = 0, bool mapped = true);
+
+            /*
+             * Large batches are split across the threads of "pool" (that can be shared by multiple aligners)
+             * plus the calling thread; if "pool" is null all the batches are aligned on the calling thread.
+             */
+            FastAligner(const std::string &path, std::shared_ptr<ThreadPool> pool, bool mapped = true);
 
             alignment_t GetAlignment(const sentence_t &source, const sentence_t &target, Symmetrization symmetrization);
 
@@ -44,7 +59,12 @@ namespace mmt {
             Model *forwardModel;
             Model *backwardModel;
 
-            int threads;
+            std::shared_ptr<ThreadPool> pool;
+
+            void Load(const std::string &path, bool mapped);
+
+            void AlignRange(const std::vector<std::pair<wordvec_t, wordvec_t>> &batch, size_t begin, size_t end,
+                            std::vector<alignment_t> &outAlignments, Symmetrization symmetrization);
         };
 
     }
@@ -0,0 +1,138 @@
+#ifndef MMT_FASTALIGN_THREADPOOL_H
+#define MMT_FASTALIGN_THREADPOOL_H
+
+#include <atomic>
+#include <condition_variable>
+#include <deque>
+#include <exception>
+#include <functional>
+#include <mutex>
+#include <thread>
+#include <vector>
+
+#ifdef __linux__
+#include <pthread.h>
+#endif
+
+namespace mmt {
+    namespace fastalign {
+
+        /*
+         * Fixed size pool of worker threads used to split alignment batches across cores.
+         * ParallelFor() can be called concurrently by multiple threads: the calling thread
+         * always takes part in the work, so a saturated pool degrades to serial execution.
+         */
+        class ThreadPool {
+        public:
+            explicit ThreadPool(size_t threads) {
+                for (size_t i = 0; i < threads; ++i)
+                    workers.emplace_back(&ThreadPool::Run, this);
+            }
+
+            inline size_t Size() const {
+                return workers.size();
+            }
+
+            /*
+             * Calls body(begin, end) over consecutive ranges of at most "grain" elements covering [0, size)
+             * and returns when all of them are done; the first exception thrown by body is re-thrown.
+             */
+            void ParallelFor(size_t size, size_t grain, const std::function<void(size_t, size_t)> &body) {
+                if (grain == 0)
+                    grain = 1;
+
+                size_t chunks = (size + grain - 1) / grain;
+                size_t helpers = std::min(workers.size(), chunks > 0 ? chunks - 1 : 0);
+
+                // state lives on the caller stack: the caller does not return until all helpers are done
+                std::atomic<size_t> next(0);
+                std::mutex lock;
+                std::condition_variable done;
+                size_t pending = helpers;
+                std::exception_ptr error;
+
+                auto work = [&]() {
+                    try {
+                        for (size_t begin = next.fetch_add(grain); begin < size; begin = next.fetch_add(grain))
+                            body(begin, std::min(begin + grain, size));
+                    } catch (...) {
+                        next.store(size);
+
+                        std::lock_guard<std::mutex> guard(lock);
+                        if (!error)
+                            error = std::current_exception();
+                    }
+                };
+
+                if (helpers > 0) {
+                    std::lock_guard<std::mutex> guard(queueLock);
+
+                    for (size_t i = 0; i < helpers; ++i) {
+                        queue.emplace_back([&]() {
+                            work();
+
+                            std::lock_guard<std::mutex> guard(lock);
+                            if (--pending == 0)
+                                done.notify_one();
+                        });
+                    }
+
+                    queueCondition.notify_all();
+                }
+
+                work();
+
+                std::unique_lock<std::mutex> guard(lock);
+                done.wait(guard, [&]() { return pending == 0; });
+
+                if (error)
+                    std::rethrow_exception(error);
+            }
+
+            ~ThreadPool() {
+                {
+                    std::lock_guard<std::mutex> guard(queueLock);
+                    stop = true;
+                }
+
+                queueCondition.notify_all();
+
+                for (auto &worker : workers)
+                    worker.join();
+            }
+
+        private:
+            std::vector<std::thread> workers;
+            std::deque<std::function<void()>> queue;
+            std::mutex queueLock;
+            std::condition_variable queueCondition;
+            bool stop = false;
+
+            void Run() {
+#ifdef __linux__
+                pthread_setname_np(pthread_self(), "fastalign-pool");
+#endif
+
+                while (true) {
+                    std::function<void()> task;
+
+                    {
+                        std::unique_lock<std::mutex> guard(queueLock);
+                        queueCondition.wait(guard, [this]() { return stop || !queue.empty(); });
+
+                        if (stop && queue.empty())
+                            return;
+
+                        task = std::move(queue.front());
+                        queue.pop_front();
+                    }
+
+                    task();
+                }
+            }
+        };
+
+    }
+}
+
+#endif //MMT_FASTALIGN_THREADPOOL_H
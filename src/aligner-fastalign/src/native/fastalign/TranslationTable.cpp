@@ -0,0 +1,216 @@
+#include "TranslationTable.h"
+#include "ioutils.h"
+
+#include <stdexcept>
+#include <fcntl.h>
+#include <unistd.h>
+#include <sys/mman.h>
+#include <sys/stat.h>
+
+using namespace std;
+using namespace mmt;
+using namespace mmt::fastalign;
+
+inline size_t align8(size_t value) {
+    return (value + 7) & ~((size_t) 7);
+}
+
+inline void write_padding(ostream &out) {
+    auto position = (size_t) out.tellp();
+    for (size_t i = position; i < align8(position); ++i)
+        out.put(0);
+}
+
+inline void skip_padding(istream &in) {
+    auto position = (size_t) in.tellg();
+    in.seekg(align8(position), ios::beg);
+}
+
+TranslationTable *TranslationTable::Open(istream &in, const string &path, bool mapped) {
+    auto *table = new TranslationTable();
+
+    try {
+        auto first = io_read<uint64_t>(in);
+
+        if (first != kMagic)
+            table->LoadLegacy(in, (size_t) first);
+        else if (mapped)
+            table->MapCompact(in, path);
+        else
+            table->LoadCompact(in);
+    } catch (...) {
+        delete table;
+        throw;
+    }
+
+    return table;
+}
+
+void TranslationTable::LoadLegacy(istream &in, size_t size) {
+    // legacy format: a sequence of (source, row size, [target, forward, backward]) in any order
+    vector<vector<pair<word_t, pair<float, float>>>> data(size);
+    size_t entries = 0;
+
+    while (true) {
+        auto source = io_read<word_t>(in);
+        if (in.eof())
+            break;
+
+        auto rowSize = io_read<size_t>(in);
+        vector<pair<word_t, pair<float, float>>> &row = data.at(source);
+        row.reserve(row.size() + rowSize);
+
+        for (size_t i = 0; i < rowSize; ++i) {
+            auto target = io_read<word_t>(in);
+            auto fwd = io_read<float>(in);
+            auto bwd = io_read<float>(in);
+
+            row.emplace_back(target, pair<float, float>(fwd, bwd));
+        }
+
+        entries += rowSize;
+    }
+
+    rows = size;
+    offsetsData.resize(rows + 1);
+    targetsData.reserve(entries);
+    forwardData.reserve(entries);
+    backwardData.reserve(entries);
+
+    for (size_t source = 0; source < rows; ++source) {
+        vector<pair<word_t, pair<float, float>>> &row = data[source];
+        sort(row.begin(), row.end(), [](const pair<word_t, pair<float, float>> &a,
+                                        const pair<word_t, pair<float, float>> &b) {
+            return a.first < b.first;
+        });
+
+        offsetsData[source] = targetsData.size();
+        for (auto entry = row.begin(); entry != row.end(); ++entry) {
+            targetsData.push_back(entry->first);
+            forwardData.push_back(entry->second.first);
+            backwardData.push_back(entry->second.second);
+        }
+
+        vector<pair<word_t, pair<float, float>>>().swap(row);
+    }
+
+    offsetsData[rows] = targetsData.size();
+
+    UseHeapData();
+}
+
+void TranslationTable::LoadCompact(istream &in) {
+    rows = (size_t) io_read<uint64_t>(in);
+    auto entries = (size_t) io_read<uint64_t>(in);
+    skip_padding(in);
+
+    offsetsData.resize(rows + 1);
+    targetsData.resize(entries);
+    forwardData.resize(entries);
+    backwardData.resize(entries);
+
+    in.read((char *) offsetsData.data(), (rows + 1) * sizeof(uint64_t));
+    in.read((char *) targetsData.data(), entries * sizeof(word_t));
+    skip_padding(in);
+    in.read((char *) forwardData.data(), entries * sizeof(float));
+    in.read((char *) backwardData.data(), entries * sizeof(float));
+
+    if (!in)
+        throw runtime_error("unexpected end of translation table");
+
+    UseHeapData();
+}
+
+void TranslationTable::MapCompact(istream &in, const string &path) {
+    rows = (size_t) io_read<uint64_t>(in);
+    auto entries = (size_t) io_read<uint64_t>(in);
+    auto start = align8((size_t) in.tellg());
+
+    size_t offsetsBytes = (rows + 1) * sizeof(uint64_t);
+    size_t targetsBytes = align8(entries * sizeof(word_t));
+    size_t scoresBytes = entries * sizeof(float);
+    size_t end = start + offsetsBytes + targetsBytes + 2 * scoresBytes;
+
+    int fd = open(path.c_str(), O_RDONLY);
+    if (fd < 0)
+        throw runtime_error("unable to open model file: " + path);
+
+    struct stat info{};
+    if (fstat(fd, &info) != 0 || (size_t) info.st_size < end) {
+        close(fd);
+        throw runtime_error("truncated translation table in model file: " + path);
+    }
+
+    void *data = mmap(nullptr, (size_t) info.st_size, PROT_READ, MAP_SHARED, fd, 0);
+    close(fd);
+
+    if (data == MAP_FAILED)
+        throw runtime_error("unable to map model file: " + path);
+
+    mapping = data;
+    mappingLength = (size_t) info.st_size;
+
+    const char *base = (const char *) data + start;
+    offsets = (const uint64_t *) base;
+    targets = (const word_t *) (base + offsetsBytes);
+    forward = (const float *) (base + offsetsBytes + targetsBytes);
+    backward = (const float *) (base + offsetsBytes + targetsBytes + scoresBytes);
+}
+
+void TranslationTable::UseHeapData() {
+    offsets = offsetsData.data();
+    targets = targetsData.data();
+    forward = forwardData.data();
+    backward = backwardData.data();
+}
+
+void TranslationTable::Store(ostream &out, const vector<unordered_map<word_t, pair<float, float>>> &table) {
+    size_t size = table.size();
+    vector<uint64_t> rowOffsets(size + 1);
+
+    uint64_t entries = 0;
+    for (size_t source = 0; source < size; ++source) {
+        rowOffsets[source] = entries;
+        entries += table[source].size();
+    }
+    rowOffsets[size] = entries;
+
+    io_write(out, kMagic);
+    io_write(out, (uint64_t) size);
+    io_write(out, entries);
+    write_padding(out);
+
+    out.write((const char *) rowOffsets.data(), rowOffsets.size() * sizeof(uint64_t));
+
+    vector<float> forwardScores;
+    vector<float> backwardScores;
+    forwardScores.reserve(entries);
+    backwardScores.reserve(entries);
+
+    vector<word_t> row;
+    for (size_t source = 0; source < size; ++source) {
+        const unordered_map<word_t, pair<float, float>> &cells = table[source];
+
+        row.clear();
+        for (auto cell = cells.begin(); cell != cells.end(); ++cell)
+            row.push_back(cell->first);
+        sort(row.begin(), row.end());
+
+        out.write((const char *) row.data(), row.size() * sizeof(word_t));
+
+        for (auto target = row.begin(); target != row.end(); ++target) {
+            const pair<float, float> &scores = cells.at(*target);
+            forwardScores.push_back(scores.first);
+            backwardScores.push_back(scores.second);
+        }
+    }
+
+    write_padding(out);
+    out.write((const char *) forwardScores.data(), forwardScores.size() * sizeof(float));
+    out.write((const char *) backwardScores.data(), backwardScores.size() * sizeof(float));
+}
+
+TranslationTable::~TranslationTable() {
+    if (mapping)
+        munmap(mapping, mappingLength);
+}
@@ -0,0 +1,107 @@
+#ifndef MMT_FASTALIGN_TRANSLATIONTABLE_H
+#define MMT_FASTALIGN_TRANSLATIONTABLE_H
+
+#include <algorithm>
+#include <iostream>
+#include <string>
+#include <unordered_map>
+#include <vector>
+#include "alignment.h"
+
+namespace mmt {
+    namespace fastalign {
+
+        /*
+         * Compact (CSR) translation table shared by the forward and backward models:
+         * row "source" spans [offsets[source], offsets[source + 1]) of the parallel arrays
+         * "targets" (sorted ascending), "forward" and "backward".
+         *
+         * On disk the table follows the model header as:
+         *   magic (uint64) | rows (uint64) | entries (uint64) | zero padding to 8 bytes
+         *   offsets (uint64 x rows + 1) | targets (word_t x entries) | zero padding to 8 bytes
+         *   forward (float x entries) | backward (float x entries)
+         * so that the arrays can be used in place from a read-only memory mapping of the file.
+         */
+        class TranslationTable {
+        public:
+            static const uint64_t kMagic = 0x3130525343544d4dULL; // "MMTCSR01"
+
+            /*
+             * Reads the table from the stream; "path" is the same file, mapped in memory
+             * if "mapped" is true and the file is in the compact format.
+             * Tables in the legacy format are always loaded (and compacted) in memory.
+             */
+            static TranslationTable *Open(std::istream &in, const std::string &path, bool mapped);
+
+            /*
+             * Writes the table in the compact format; "out" must be positioned at the end of the model header.
+             */
+            static void Store(std::ostream &out,
+                              const std::vector<std::unordered_map<word_t, std::pair<float, float>>> &table);
+
+            inline bool Find(word_t source, word_t target, float *outForward, float *outBackward) const {
+                if (source >= rows)
+                    return false;
+
+                const word_t *begin = targets + offsets[source];
+                const word_t *end = targets + offsets[source + 1];
+
+                // galloping search from the start of the row: word ids are assigned by decreasing frequency,
+                // so the most frequent targets, which are also the most looked up, are found in a few steps
+                auto length = (size_t) (end - begin);
+                size_t bound = 1;
+                while (bound < length && begin[bound] < target)
+                    bound *= 2;
+
+                const word_t *ptr = std::lower_bound(begin + bound / 2, begin + std::min(bound + 1, length), target);
+
+                if (ptr == end || *ptr != target)
+                    return false;
+
+                size_t index = (size_t) (ptr - targets);
+                *outForward = forward[index];
+                *outBackward = backward[index];
+                return true;
+            }
+
+            inline size_t Size() const {
+                return rows;
+            }
+
+            inline bool IsMapped() const {
+                return mapping != nullptr;
+            }
+
+            ~TranslationTable();
+
+        private:
+            size_t rows = 0;
+            const uint64_t *offsets = nullptr;
+            const word_t *targets = nullptr;
+            const float *forward = nullptr;
+            const float *backward = nullptr;
+
+            // heap storage, used when the table is not mapped
+            std::vector<uint64_t> offsetsData;
+            std::vector<word_t> targetsData;
+            std::vector<float> forwardData;
+            std::vector<float> backwardData;
+
+            void *mapping = nullptr;
+            size_t mappingLength = 0;
+
+            TranslationTable() = default;
+
+            void LoadLegacy(std::istream &in, size_t rows);
+
+            void LoadCompact(std::istream &in);
+
+            void MapCompact(std::istream &in, const std::string &path);
+
+            void UseHeapData();
+        };
+
+    }
+}
+
+#endif //MMT_FASTALIGN_TRANSLATIONTABLE_H
@@ -41,6 +41,23 @@ namespace mmt {
                     output[i] = Get(sentence[i]);
             }
 
+            /**
+             * Encodes "count" tokens starting from token "first" of a UTF-8 buffer where
+             * the tokens are stored one after the other and offsets[i] is the end of the i-th token.
+             */
+            inline const void Encode(const char *text, const int32_t *offsets, size_t first, size_t count,
+                                     wordvec_t &output) const {
+                output.resize(count);
+
+                std::string term;
+                for (size_t i = 0; i < count; ++i) {
+                    size_t index = first + i;
+                    size_t begin = index == 0 ? 0 : (size_t) offsets[index - 1];
+                    term.assign(text + begin, (size_t) offsets[index] - begin);
+                    output[i] = Get(term);
+                }
+            }
+
             inline const score_t GetProbability(const std::string &term, bool is_source) const {
                 return GetProbability(Get(term), is_source);
             }
@@ -5,122 +5,107 @@
 #include "javah/eu_modernmt_aligner_fastalign_FastAlign.h"
 #include "fastalign/FastAligner.h"
 #include "jniutil.h"
-
-#ifdef _OPENMP
-#include <omp.h>
-#endif
+#include <algorithm>
+#include <mutex>
 
 
 using namespace std;
 using namespace mmt;
 using namespace mmt::fastalign;
 
-inline void ParseSentence(JNIEnv *jvm, jobjectArray jarray, vector<string> &output) {
-    jsize size = jvm->GetArrayLength(jarray);
-    output.reserve((size_t) size);
-
-    for (jsize i = 0; i < size; i++) {
-        jstring jword = (jstring) jvm->GetObjectArrayElement(jarray, i);
-        string word = jni_jstrtostr(jvm, jword);
+// All the models loaded in the JVM share the same alignment threads:
+// the pool is owned by the aligners and it is stopped when the last one is disposed
+static mutex poolLock;
+static weak_ptr<ThreadPool> sharedPool;
 
-        output.push_back(word);
-    }
-}
+inline shared_ptr<ThreadPool> GetThreadPool(jint threads) {
+    size_t size = threads > 1 ? (size_t) (threads - 1) : 0;  // calling threads take part in the work too
+    if (size == 0)
+        return nullptr;
 
-inline jintArray AlignmentToArray(JNIEnv *jvm, alignment_t align, bool reversed) {
-    jsize hsize = (jsize) align.points.size();
-    jsize size = (jsize) (hsize * 2);
+    lock_guard<mutex> guard(poolLock);
 
-    jint *buffer = new jint[size];
-    for (jsize i = 0; i < hsize; i++) {
-        pair<length_t, length_t> &pair = align.points[i];
-        buffer[i] = reversed ? pair.second : pair.first;
-        buffer[i + hsize] = reversed ? pair.first : pair.second;
+    shared_ptr<ThreadPool> pool = sharedPool.lock();
+    if (!pool || pool->Size() < size) {
+        pool = make_shared<ThreadPool>(size);
+        sharedPool = pool;
     }
 
-    jintArray jarray = jvm->NewIntArray(size);
-    jvm->SetIntArrayRegion(jarray, 0, size, buffer);
-    delete[] buffer;
-
-    return jarray;
+    return pool;
 }
 
 /*
  * Class:     eu_modernmt_aligner_fastalign_FastAlign
  * Method:    instantiate
- * Signature: (Ljava/lang/String;I)J
+ * Signature: (Ljava/lang/String;IZ)J
  */
 JNIEXPORT jlong JNICALL
-Java_eu_modernmt_aligner_fastalign_FastAlign_instantiate(JNIEnv *jvm, jobject jself, jstring jmodel, jint threads) {
+Java_eu_modernmt_aligner_fastalign_FastAlign_instantiate(JNIEnv *jvm, jobject jself, jstring jmodel, jint threads,
+                                                         jboolean mapped) {
     string modelPath = jni_jstrtostr(jvm, jmodel);
-    return (jlong) new FastAligner(modelPath, threads);
+    return (jlong) new FastAligner(modelPath, GetThreadPool(threads), (bool) mapped);
 }
 
 /*
  * Class:     eu_modernmt_aligner_fastalign_FastAlign
- * Method:    align
- * Signature: (JZ[Ljava/lang/String;[Ljava/lang/String;I[[I)F
+ * Method:    alignBatch
+ * Signature: (JZLjava/nio/ByteBuffer;Ljava/nio/IntBuffer;Ljava/nio/IntBuffer;IILjava/nio/IntBuffer;Ljava/nio/FloatBuffer;)V
  */
-JNIEXPORT jfloat JNICALL
-Java_eu_modernmt_aligner_fastalign_FastAlign_align__JZ_3Ljava_lang_String_2_3Ljava_lang_String_2I_3_3I
-        (JNIEnv *jvm, jobject jself, jlong jhandle, jboolean reversed,
-         jobjectArray jsource, jobjectArray jtarget, jint jstrategy, jobjectArray joutput) {
+JNIEXPORT void JNICALL
+Java_eu_modernmt_aligner_fastalign_FastAlign_alignBatch(JNIEnv *jvm, jobject jself, jlong jhandle, jboolean reversed,
+                                                        jobject jtext, jobject joffsets, jobject jlengths, jint jsize,
+                                                        jint jstrategy, jobject joutput, jobject jscores) {
     FastAligner *aligner = reinterpret_cast<FastAligner *>(jhandle);
 
-    vector<string> source, target;
-    ParseSentence(jvm, reversed ? jtarget : jsource, source);
-    ParseSentence(jvm, reversed ? jsource : jtarget, target);
-
-    alignment_t align = aligner->GetAlignment(source, target, (Symmetrization) jstrategy);
-    jintArray alignment = AlignmentToArray(jvm, align, (bool) reversed);
-    jvm->SetObjectArrayElement(joutput, 0, alignment);
-
-    return (jfloat) align.score;
-}
+    const char *text = (const char *) jvm->GetDirectBufferAddress(jtext);
+    const int32_t *offsets = (const int32_t *) jvm->GetDirectBufferAddress(joffsets);
+    const jint *lengths = (const jint *) jvm->GetDirectBufferAddress(jlengths);
+    jint *output = (jint *) jvm->GetDirectBufferAddress(joutput);
+    jfloat *scores = (jfloat *) jvm->GetDirectBufferAddress(jscores);
+    jlong capacity = jvm->GetDirectBufferCapacity(joutput);
 
-/*
- * Class:     eu_modernmt_aligner_fastalign_FastAlign
- * Method:    align
- * Signature: (JZ[[Ljava/lang/String;[[Ljava/lang/String;I[[I)[F
- */
-JNIEXPORT jfloatArray JNICALL
-Java_eu_modernmt_aligner_fastalign_FastAlign_align__JZ_3_3Ljava_lang_String_2_3_3Ljava_lang_String_2I_3_3I
-        (JNIEnv *jvm, jobject jself, jlong jhandle, jboolean reversed,
-         jobjectArray jsources, jobjectArray jtargets, jint jstrategy, jobjectArray joutput) {
-    FastAligner *aligner = reinterpret_cast<FastAligner *>(jhandle);
-    jsize length = jvm->GetArrayLength(jsources);
+    size_t size = (size_t) jsize;
+    const Vocabulary &vocabulary = aligner->GetVocabulary();
 
-    vector<pair<vector<string>, vector<string>>> batch;
-    batch.reserve((size_t) length);
+    // Tokens are looked up in the vocabulary directly from the UTF-8 buffer,
+    // without creating a Java string or a std::string vector per token
+    vector<pair<wordvec_t, wordvec_t>> batch(size);
+    size_t token = 0;
 
-    for (jsize i = 0; i < length; i++) {
-        jobjectArray jsource = (jobjectArray) jvm->GetObjectArrayElement(jsources, i);
-        jobjectArray jtarget = (jobjectArray) jvm->GetObjectArrayElement(jtargets, i);
+    for (size_t i = 0; i < size; ++i) {
+        size_t sourceLength = (size_t) lengths[i * 2];
+        size_t targetLength = (size_t) lengths[i * 2 + 1];
 
-        vector<string> source, target;
-        ParseSentence(jvm, reversed ? jtarget : jsource, source);
-        ParseSentence(jvm, reversed ? jsource : jtarget, target);
+        wordvec_t &source = reversed ? batch[i].second : batch[i].first;
+        wordvec_t &target = reversed ? batch[i].first : batch[i].second;
 
-        batch.push_back(pair<vector<string>, vector<string>>(source, target));
+        vocabulary.Encode(text, offsets, token, sourceLength, source);
+        token += sourceLength;
+        vocabulary.Encode(text, offsets, token, targetLength, target);
+        token += targetLength;
     }
 
     vector<alignment_t> alignments;
     aligner->GetAlignments(batch, alignments, (Symmetrization) jstrategy);
 
-    jsize size = (jsize) alignments.size();
+    jlong position = 0;
+    for (size_t i = 0; i < size; ++i) {
+        alignment_t &alignment = alignments[i];
 
-    jfloat *jscores = new jfloat[size];
-    for (jsize i = 0; i < size; i++) {
-        jintArray alignment = AlignmentToArray(jvm, alignments[i], (bool) reversed);
-        jvm->SetObjectArrayElement(joutput, i, alignment);
-        jscores[i] = (jfloat) alignments[i].score;
-    }
+        jlong length = (jlong) alignment.points.size();
+        if (position + 1 + length * 2 > capacity)  // never happens with the Java-side sizing
+            length = max((jlong) 0, (capacity - position - 1) / 2);
 
-    jfloatArray jarray = jvm->NewFloatArray(size);
-    jvm->SetFloatArrayRegion(jarray, 0, size, jscores);
-    delete[] jscores;
+        output[position++] = (jint) length;
+        for (jlong j = 0; j < length; ++j) {
+            pair<length_t, length_t> &point = alignment.points[j];
+            output[position + j] = reversed ? point.second : point.first;
+            output[position + length + j] = reversed ? point.first : point.second;
+        }
+        position += length * 2;
 
-    return jarray;
+        scores[i] = (jfloat) alignment.score;
+    }
 }
 
 /*
@@ -0,0 +1,123 @@
+package eu.modernmt.aligner.fastalign;
+
+import eu.modernmt.model.Alignment;
+import eu.modernmt.model.Sentence;
+import eu.modernmt.model.Word;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class AlignmentBatchTest {
+
+    private static Sentence sentence(String... tokens) {
+        Word[] words = new Word[tokens.length];
+        for (int i = 0; i < words.length; i++)
+            words[i] = new Word(tokens[i], " ", " ");
+
+        return new Sentence(words);
+    }
+
+    private static byte[] bytes(AlignmentBatch batch) {
+        byte[] result = new byte[batch.text.position()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = batch.text.get(i);
+
+        return result;
+    }
+
+    @Test
+    public void testTokensAreEncodedAsUTF8() {
+        String[] source = {"hello", "città", "北京", "😀", "a b"};
+        String[] target = {"x", "", "lone\uD800", "\uDC00"};
+
+        AlignmentBatch batch = new AlignmentBatch();
+        batch.add(sentence(source), sentence(target));
+
+        assertEquals(1, batch.size());
+        assertEquals(source.length, batch.lengths.get(0));
+        assertEquals(target.length, batch.lengths.get(1));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        int token = 0;
+        for (String[] tokens : new String[][]{source, target}) {
+            for (String string : tokens) {
+                // spaces are replaced by no-break spaces, unpaired surrogates are encoded with 3 bytes
+                for (int i = 0; i < string.length(); i++) {
+                    char c = string.charAt(i);
+                    byte[] utf8;
+
+                    if (Character.isHighSurrogate(c) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+                        utf8 = string.substring(i, i + 2).getBytes(StandardCharsets.UTF_8);
+                        i++;
+                    } else if (Character.isSurrogate(c)) {
+                        utf8 = new byte[]{(byte) (0xE0 | (c >> 12)), (byte) (0x80 | ((c >> 6) & 0x3F)), (byte) (0x80 | (c & 0x3F))};
+                    } else {
+                        utf8 = String.valueOf(c == ' ' ? '\u00A0' : c).getBytes(StandardCharsets.UTF_8);
+                    }
+
+                    expected.write(utf8, 0, utf8.length);
+                }
+
+                assertEquals(expected.size(), batch.offsets.get(token++));
+            }
+        }
+
+        assertArrayEquals(expected.toByteArray(), bytes(batch));
+    }
+
+    @Test
+    public void testBuffersGrow() {
+        AlignmentBatch batch = new AlignmentBatch();
+
+        StringBuilder longToken = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+            longToken.append('è');
+
+        String[] tokens = new String[300];
+        for (int i = 0; i < tokens.length; i++)
+            tokens[i] = "token" + i;
+
+        for (int i = 0; i < 100; i++)
+            batch.add(sentence(tokens), sentence(longToken.toString(), "end"));
+
+        assertEquals(100, batch.size());
+        assertEquals(100 * (300 + 2), batch.offsets.position());
+        assertEquals(100 * 2, batch.lengths.position());
+
+        batch.prepareOutput();
+        assertTrue(batch.output.capacity() >= 100 * (1 + 2 * (300 + 2)));
+        assertTrue(batch.scores.capacity() >= 100);
+
+        batch.clear();
+        assertEquals(0, batch.size());
+        assertEquals(0, batch.text.position());
+        assertEquals(0, batch.offsets.position());
+    }
+
+    @Test
+    public void testParseAlignments() {
+        AlignmentBatch batch = new AlignmentBatch();
+        batch.add(sentence("a", "b"), sentence("c", "d"));
+        batch.add(sentence("a"), sentence("c"));
+        batch.add(sentence("a", "b", "c"), sentence("d"));
+        batch.prepareOutput();
+
+        int[] output = {2, 0, 1, 1, 0, 0, 2, 0, 1, 0, 0};
+        for (int i = 0; i < output.length; i++)
+            batch.output.put(i, output[i]);
+        batch.scores.put(0, -1.5f);
+        batch.scores.put(1, 0.f);
+        batch.scores.put(2, -3.25f);
+
+        Alignment[] alignments = batch.parseAlignments();
+
+        assertEquals(3, alignments.length);
+        assertEquals(new Alignment(new int[]{0, 1}, new int[]{1, 0}, -1.5f), alignments[0]);
+        assertEquals(new Alignment(new int[0], new int[0], 0.f), alignments[1]);
+        assertEquals(new Alignment(new int[]{0, 1}, new int[]{0, 0}, -3.25f), alignments[2]);
+    }
+
+}
@@ -0,0 +1,298 @@
+package eu.modernmt.aligner.fastalign;
+
+import eu.modernmt.aligner.Aligner;
+import eu.modernmt.lang.Language;
+import eu.modernmt.lang.LanguageDirection;
+import eu.modernmt.model.Alignment;
+import eu.modernmt.model.Sentence;
+import eu.modernmt.model.Word;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeNoException;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * The models in the test resources are trained on a synthetic corpus where the token "w<i>"
+ * translates to "p<i>" and the Italian side contains the extra token "di".
+ */
+public class FastAlignTest {
+
+    static final LanguageDirection EN_IT = new LanguageDirection(Language.ENGLISH, Language.ITALIAN);
+    static final LanguageDirection IT_EN = new LanguageDirection(Language.ITALIAN, Language.ENGLISH);
+
+    @BeforeClass
+    public static void loadLibrary() {
+        try {
+            System.loadLibrary("mmt_fastalign");
+        } catch (UnsatisfiedLinkError e) {
+            assumeNoException("Native library 'mmt_fastalign' not available", e);
+        }
+    }
+
+    static File model(String name) throws Exception {
+        return new File(FastAlignTest.class.getResource(name).toURI());
+    }
+
+    private static Sentence sentence(List<String> tokens) {
+        Word[] words = new Word[tokens.size()];
+        for (int i = 0; i < words.length; i++)
+            words[i] = new Word(tokens.get(i), " ", " ");
+
+        return new Sentence(words);
+    }
+
+    /**
+     * Generates sentence pairs similar to the training corpus, with words unknown
+     * to the model and pairs that have never been seen together.
+     */
+    static List<Sentence[]> pairs(int size, long seed) {
+        Random random = new Random(seed);
+        List<Sentence[]> pairs = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            int length = 1 + random.nextInt(15);
+            List<String> source = new ArrayList<>(length);
+            List<String> target = new ArrayList<>(length + 1);
+
+            for (int j = 0; j < length; j++) {
+                int n = random.nextInt(10) == 0 ? random.nextInt(300) : random.nextInt(30);
+
+                switch (random.nextInt(20)) {
+                    case 0:
+                        source.add("unknown" + j);
+                        target.add("sconosciuta" + j);
+                        break;
+                    case 1:
+                        source.add("w" + n);
+                        break;
+                    case 2:
+                        source.add("w" + n);
+                        target.add("p" + random.nextInt(300));
+                        break;
+                    case 3:
+                        source.add("w" + n);
+                        target.add("di");
+                        target.add("p" + n);
+                        break;
+                    default:
+                        source.add("w" + n);
+                        target.add("p" + n);
+                        break;
+                }
+            }
+
+            if (target.isEmpty())
+                target.add("di");
+
+            pairs.add(new Sentence[]{sentence(source), sentence(target)});
+        }
+
+        return pairs;
+    }
+
+    static Alignment[] alignBatch(Aligner aligner, LanguageDirection language, List<Sentence[]> pairs) throws Exception {
+        List<Sentence> sources = new ArrayList<>(pairs.size());
+        List<Sentence> targets = new ArrayList<>(pairs.size());
+
+        for (Sentence[] pair : pairs) {
+            boolean reversed = language.equals(IT_EN);
+            sources.add(pair[reversed ? 1 : 0]);
+            targets.add(pair[reversed ? 0 : 1]);
+        }
+
+        return aligner.getAlignments(language, sources, targets);
+    }
+
+    private static void assertBatchEqualsSingleSentences(LanguageDirection language) throws Exception {
+        List<Sentence[]> pairs = pairs(200, 42);
+
+        try (FastAlign aligner = new FastAlign(model("compact"))) {
+            Alignment[] batch = alignBatch(aligner, language, pairs);
+            assertEquals(pairs.size(), batch.length);
+
+            for (int i = 0; i < pairs.size(); i++) {
+                Sentence[] pair = pairs.get(i);
+                Alignment single = language.equals(IT_EN) ?
+                        aligner.getAlignment(language, pair[1], pair[0]) :
+                        aligner.getAlignment(language, pair[0], pair[1]);
+
+                assertEquals("Pair " + i, single, batch[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testBatchEqualsSingleSentences() throws Throwable {
+        assertBatchEqualsSingleSentences(EN_IT);
+    }
+
+    @Test
+    public void testReversedBatchEqualsSingleSentences() throws Throwable {
+        assertBatchEqualsSingleSentences(IT_EN);
+    }
+
+    /*
+     * The "legacy" model is the same training run stored by the previous, hash map based, translation table:
+     * it is compacted in memory when loaded, while the compact model is mapped from disk.
+     */
+    @Test
+    public void testCompactModelEqualsLegacyModel() throws Throwable {
+        List<Sentence[]> pairs = pairs(200, 7);
+
+        try (FastAlign compact = new FastAlign(model("compact"));
+             FastAlign legacy = new FastAlign(model("legacy"))) {
+            for (LanguageDirection language : new LanguageDirection[]{EN_IT, IT_EN}) {
+                Alignment[] expected = alignBatch(legacy, language, pairs);
+                Alignment[] actual = alignBatch(compact, language, pairs);
+
+                assertArrayEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testMappedModelEqualsHeapModel() throws Throwable {
+        List<Sentence[]> pairs = pairs(200, 13);
+
+        try (FastAlign mapped = new FastAlign(model("compact"), 2, true);
+             FastAlign heap = new FastAlign(model("compact"), 2, false)) {
+            for (LanguageDirection language : new LanguageDirection[]{EN_IT, IT_EN}) {
+                Alignment[] expected = alignBatch(heap, language, pairs);
+                Alignment[] actual = alignBatch(mapped, language, pairs);
+
+                assertArrayEquals(expected, actual);
+            }
+        }
+    }
+
+    private static boolean isMapped(File file) throws IOException {
+        String path = file.getCanonicalPath();
+        for (String line : Files.readAllLines(new File("/proc/self/maps").toPath(), StandardCharsets.UTF_8)) {
+            if (line.endsWith(" " + path))
+                return true;
+        }
+
+        return false;
+    }
+
+    @Test
+    public void testModelIsMappedOnlyIfRequested() throws Throwable {
+        assumeTrue("Memory mappings are listed in /proc on Linux only", new File("/proc/self/maps").isFile());
+        File file = new File(model("compact"), "en__it.mdl");
+
+        try (FastAlign ignored = new FastAlign(model("compact"), 1, false)) {
+            assertFalse(isMapped(file));
+        }
+
+        try (FastAlign ignored = new FastAlign(model("compact"), 1, true)) {
+            assertTrue(isMapped(file));
+        }
+
+        assertFalse(isMapped(file));
+    }
+
+    @Test
+    public void testAlignment() throws Throwable {
+        Sentence source = sentence(Arrays.asList("w1", "w2", "w3"));
+        Sentence target = sentence(Arrays.asList("p1", "di", "p2", "p3"));
+
+        try (FastAlign aligner = new FastAlign(model("compact"))) {
+            assertTrue(aligner.isSupported(EN_IT));
+            assertTrue(aligner.isSupported(IT_EN));
+
+            Alignment alignment = aligner.getAlignment(EN_IT, source, target);
+
+            assertArrayEquals(new int[]{0, 1, 2}, alignment.getSourceIndexes());
+            assertArrayEquals(new int[]{0, 2, 3}, alignment.getTargetIndexes());
+        }
+    }
+
+    @Test
+    public void testConcurrentAlignmentsEqualSingleThreadedAlignments() throws Throwable {
+        List<Sentence[]> pairs = pairs(500, 11);
+
+        Alignment[] expected;
+        Alignment[] expectedReversed;
+        try (FastAlign aligner = new FastAlign(model("compact"), 1)) {
+            expected = alignBatch(aligner, EN_IT, pairs);
+            expectedReversed = alignBatch(aligner, IT_EN, pairs);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (FastAlign aligner = new FastAlign(model("compact"), 4)) {
+            List<Future<Alignment[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                LanguageDirection language = i % 2 == 0 ? EN_IT : IT_EN;
+                futures.add(executor.submit(() -> alignBatch(aligner, language, pairs)));
+            }
+
+            for (int i = 0; i < futures.size(); i++)
+                assertArrayEquals(i % 2 == 0 ? expected : expectedReversed, futures.get(i).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int countPoolThreads() throws IOException {
+        File[] tasks = new File("/proc/self/task").listFiles();
+        assertNotNull(tasks);
+
+        int count = 0;
+        for (File task : tasks) {
+            try {
+                String name = new String(Files.readAllBytes(new File(task, "comm").toPath()), StandardCharsets.UTF_8);
+                if (name.trim().equals("fastalign-pool"))
+                    count++;
+            } catch (IOException e) {
+                // thread terminated in the meantime
+            }
+        }
+
+        return count;
+    }
+
+    @Test
+    public void testThreadsAreStoppedWithTheLastAligner() throws Throwable {
+        assumeTrue("Native threads are listed in /proc on Linux only", new File("/proc/self/task").isDirectory());
+        assertEquals(0, countPoolThreads());
+
+        FastAlign first = new FastAlign(model("compact"), 4);
+        FastAlign second = new FastAlign(model("compact"), 2);
+        FastAlign sequential = new FastAlign(model("compact"), 1);
+
+        // calling threads take part in the work, the larger pool is shared
+        assertEquals(3, countPoolThreads());
+
+        first.close();
+        first.close();
+        assertEquals(3, countPoolThreads());
+
+        second.close();
+        assertEquals(0, countPoolThreads());
+
+        sequential.close();
+
+        Sentence[] pair = pairs(1, 1).get(0);
+        try {
+            first.getAlignment(EN_IT, pair[0], pair[1]);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+}
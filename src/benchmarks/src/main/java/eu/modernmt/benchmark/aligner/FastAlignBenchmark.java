@@ -0,0 +1,163 @@
+package eu.modernmt.benchmark.aligner;
+
+import eu.modernmt.aligner.AlignerException;
+import eu.modernmt.aligner.fastalign.FastAlign;
+import eu.modernmt.lang.Language;
+import eu.modernmt.lang.LanguageDirection;
+import eu.modernmt.model.Sentence;
+import eu.modernmt.model.Word;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures FastAlign batch alignment with 1 to N native threads over a synthetic model
+ * (random vocabulary and translation table written in the compact model format).
+ * Requires the native library in the library path:
+ * <pre>java -Djava.library.path=/path/to/mmt/build/lib -jar mmt-benchmarks.jar FastAlign</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FastAlignBenchmark {
+
+    private static final LanguageDirection LANGUAGE = new LanguageDirection(Language.fromString("en"), Language.fromString("it"));
+    private static final long TABLE_MAGIC = 0x3130525343544d4dL; // "MMTCSR01"
+
+    @Param({"16", "256", "4096"})
+    public int batchSize;
+
+    @Param({"1", "4", "16"})
+    public int threads;
+
+    @Param({"20000"})
+    public int vocabularySize;
+
+    @Param({"32"})
+    public int rowSize;
+
+    private File modelPath;
+    private FastAlign aligner;
+    private List<Sentence> sources;
+    private List<Sentence> targets;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Random random = new Random(42);
+
+        modelPath = Files.createTempDirectory("FastAlignBenchmark").toFile();
+        writeModel(new File(modelPath, "en__it.mdl"), random);
+
+        aligner = new FastAlign(modelPath, threads);
+
+        sources = new ArrayList<>(batchSize);
+        targets = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            sources.add(sentence(random));
+            targets.add(sentence(random));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        aligner.close();
+        FileUtils.deleteQuietly(modelPath);
+    }
+
+    private Sentence sentence(Random random) {
+        Word[] words = new Word[5 + random.nextInt(40)];
+        for (int i = 0; i < words.length; i++)
+            words[i] = new Word(word(random.nextInt(vocabularySize)), " ", " ");
+        return new Sentence(words);
+    }
+
+    private static String word(int index) {
+        return "w" + index;
+    }
+
+    private void writeModel(File file, Random random) throws IOException {
+        int rows = vocabularySize + 2; // ids 0 and 1 are the null and unknown words
+        long entries = (long) rows * rowSize;
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) (64 + vocabularySize * 24L + 8 * (rows + 1) + entries * 12 + 16))
+                .order(ByteOrder.nativeOrder());
+
+        // Vocabulary: header string, then (source prob, target prob, word) ordered by id
+        putString(buffer, "size=" + vocabularySize + " case_sensitive=1");
+        for (int i = 0; i < vocabularySize; i++) {
+            buffer.putFloat(1.f);
+            buffer.putFloat(1.f);
+            putString(buffer, word(i));
+        }
+
+        // Model header: use_null, favor_diagonal, prob_align_null, forward and backward diagonal tension
+        buffer.put((byte) 1);
+        buffer.put((byte) 1);
+        buffer.putDouble(0.08);
+        buffer.putDouble(4.0);
+        buffer.putDouble(4.0);
+
+        // Translation table
+        buffer.putLong(TABLE_MAGIC);
+        buffer.putLong(rows);
+        buffer.putLong(entries);
+        pad(buffer);
+
+        for (long offset = 0; offset <= entries; offset += rowSize)
+            buffer.putLong(offset);
+
+        for (int row = 0; row < rows; row++) {
+            TreeSet<Integer> columns = new TreeSet<>();
+            while (columns.size() < rowSize)
+                columns.add(2 + random.nextInt(vocabularySize));
+            for (int target : columns)
+                buffer.putInt(target);
+        }
+        pad(buffer);
+
+        for (int direction = 0; direction < 2; direction++) {
+            for (long i = 0; i < entries; i++)
+                buffer.putFloat(random.nextFloat() / rowSize);
+        }
+
+        buffer.flip();
+        try (FileChannel channel = new FileOutputStream(file).getChannel()) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    private static void putString(ByteBuffer buffer, String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static void pad(ByteBuffer buffer) {
+        while (buffer.position() % 8 != 0)
+            buffer.put((byte) 0);
+    }
+
+    @Benchmark
+    public void align(Blackhole blackhole) throws AlignerException {
+        blackhole.consume(aligner.getAlignments(LANGUAGE, sources, targets));
+    }
+
+}
@@ -0,0 +1,88 @@
+package eu.modernmt.benchmark.cleaning;
+
+import eu.modernmt.benchmark.processing.SampleCorpus;
+import eu.modernmt.cleaning.CorpusFilter;
+import eu.modernmt.cleaning.filters.RareNgramFilter;
+import eu.modernmt.lang.Language;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to initialize the RareNgramFilter (count the trigrams of a whole corpus and select the vocabulary)
+ * against the previous HashMap based implementation. The corpus is made of the bundled sample sentences,
+ * each one followed by a few random words built from the characters of the sample, so that the vocabulary
+ * keeps growing with the corpus size as it does on real data.
+ * Run with "-prof gc" to compare the memory allocated by the two implementations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RareNgramFilterBenchmark {
+
+    private static final int RANDOM_WORDS_PER_LINE = 3;
+
+    @Param({"en", "zh"})
+    public String language;
+
+    @Param({"200000"})
+    public int lines;
+
+    private Language lang;
+    private String[] corpus;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        lang = Language.fromString(language);
+
+        SampleCorpus sample = SampleCorpus.forLanguage(lang);
+        StringBuilder alphabet = new StringBuilder();
+        for (int i = 0; i < sample.size(); i++) {
+            for (char c : sample.get(i).toCharArray()) {
+                if (Character.isLetter(c) && alphabet.indexOf(String.valueOf(c)) < 0)
+                    alphabet.append(c);
+            }
+        }
+
+        Random random = new Random(42);
+        corpus = new String[lines];
+
+        for (int i = 0; i < lines; i++) {
+            StringBuilder line = new StringBuilder(sample.next());
+
+            for (int w = 0; w < RANDOM_WORDS_PER_LINE; w++) {
+                line.append(' ');
+                for (int c = 4 + random.nextInt(6); c > 0; c--)
+                    line.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            corpus[i] = line.toString();
+        }
+    }
+
+    private Object initialize(CorpusFilter filter) {
+        CorpusFilter.Initializer initializer = filter.getInitializer();
+        initializer.onBegin();
+        for (int i = 0; i < corpus.length; i++)
+            initializer.onLine(lang, corpus[i], i);
+        initializer.onEnd();
+
+        return filter;
+    }
+
+    @Benchmark
+    public Object legacy() {
+        return initialize(new LegacyRareNgramFilter());
+    }
+
+    @Benchmark
+    public Object primitive() {
+        return initialize(new RareNgramFilter());
+    }
+
+}
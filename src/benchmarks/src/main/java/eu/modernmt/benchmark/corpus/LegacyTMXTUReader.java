@@ -0,0 +1,175 @@
+package eu.modernmt.benchmark.corpus;
+
+import eu.modernmt.lang.Language;
+import eu.modernmt.lang.LanguageDirection;
+import eu.modernmt.model.corpus.TranslationUnit;
+import eu.modernmt.model.corpus.impl.tmx.TMXCorpus;
+import eu.modernmt.xml.XMLUtils;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * Copy of the XMLEventReader based TMXTUReader, kept as a baseline for TMXReaderBenchmark.
+ */
+public class LegacyTMXTUReader {
+
+    private final HashMap<String, Language> languages = new HashMap<>();
+    private final HashMap<Language, HashMap<Language, LanguageDirection>> directions = new HashMap<>();
+    private final ArrayList<TranslationUnit> resultCache = new ArrayList<>(8);
+
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat(TMXCorpus.TMX_DATE_FORMAT);
+    private Language headerSourceLanguage = null;
+
+    public LegacyTMXTUReader() {
+        dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+    }
+
+    private Language getLanguage(String tag) {
+        return tag == null ? null : languages.computeIfAbsent(tag, Language::fromString);
+    }
+
+    private LanguageDirection getDirection(Language source, Language target) {
+        return directions.computeIfAbsent(source, key -> new HashMap<>())
+                .computeIfAbsent(target, key -> new LanguageDirection(source, target));
+    }
+
+    public List<TranslationUnit> read(XMLEventReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            XMLEvent event = reader.nextEvent();
+
+            switch (event.getEventType()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    StartElement element = event.asStartElement();
+                    String name = XMLUtils.getLocalName(element);
+                    if ("header".equals(name)) {
+                        readHeader(element);
+                    } else if ("tu".equals(name)) {
+                        return readTu(reader, element);
+                    }
+
+                    break;
+            }
+        }
+
+        return null;
+    }
+
+    private void readHeader(StartElement header) {
+        this.headerSourceLanguage = getLanguage(XMLUtils.getAttributeValue(header, null, "srclang"));
+    }
+
+    private List<TranslationUnit> readTu(XMLEventReader reader, StartElement tu) throws XMLStreamException {
+        this.resultCache.clear();
+
+        Date tuTimestamp = getTimestamp(tu);
+        String tuid = getTuid(tu);
+        Language tuSourceLanguage = getLanguage(XMLUtils.getAttributeValue(tu, null, "srclang"));
+
+        Language sourceLanguage = tuSourceLanguage == null ? headerSourceLanguage : tuSourceLanguage;
+        String sourceText = null;
+
+        while (reader.hasNext()) {
+            XMLEvent event = reader.nextEvent();
+
+            switch (event.getEventType()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    StartElement element = event.asStartElement();
+
+                    if ("tuv".equals(XMLUtils.getLocalName(element))) {
+                        String _lang = XMLUtils.getAttributeValue(element, TMXCorpus.XML_NAMESPACE, "lang");
+                        if (_lang == null)
+                            _lang = XMLUtils.getAttributeValue(element, null, "lang");
+                        if (_lang == null)
+                            throw new XMLStreamException(format("Missing language for 'tuv'", event));
+
+                        Language lang = getLanguage(_lang);
+                        if (sourceLanguage == null)
+                            sourceLanguage = lang; // The first <TUV> element in a <TU> is expected to be the source.
+
+                        Date tuvTimestamp = getTimestamp(element);
+
+                        Date timestamp = tuvTimestamp == null ? tuTimestamp : tuvTimestamp;
+                        String text = readTuv(reader, element);
+
+                        if (sourceLanguage.isEqualOrMoreGenericThan(lang)) {
+                            sourceText = text;
+                        } else {
+                            LanguageDirection language = getDirection(sourceLanguage, lang);
+                            resultCache.add(new TranslationUnit(tuid, language, null, text, timestamp));
+                        }
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if ("tu".equals(XMLUtils.getLocalName(event.asEndElement()))) {
+                        if (sourceText == null)
+                            throw new XMLStreamException(format("Missing source text in <tu> element", event));
+                        if (resultCache.isEmpty())
+                            throw new XMLStreamException(format("Not enough <tuv> elements found in <tu> element", event));
+
+                        for (TranslationUnit entry : resultCache)
+                            entry.source = sourceText;
+
+                        return resultCache;
+                    }
+                    break;
+            }
+        }
+
+        throw new XMLStreamException(format("Missing closing tag for 'tuv' element", tu));
+    }
+
+    private String readTuv(XMLEventReader reader, StartElement tuv) throws XMLStreamException {
+        while (reader.hasNext()) {
+            XMLEvent event = reader.nextEvent();
+
+            switch (event.getEventType()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    StartElement element = event.asStartElement();
+
+                    if ("seg".equals(XMLUtils.getLocalName(element))) {
+                        return XMLUtils.getXMLContent(reader, element, false)
+                                .replace('\n', ' ');
+                    }
+                    break;
+            }
+        }
+
+        throw new XMLStreamException(format("Missing 'seg' inside 'tuv' element", tuv));
+    }
+
+    private Date getTimestamp(StartElement tu) throws XMLStreamException {
+        Date timestamp = null;
+
+        String date = XMLUtils.getAttributeValue(tu, null, "changedate");
+        if (date == null)
+            date = XMLUtils.getAttributeValue(tu, null, "creationdate");
+
+        if (date != null) {
+            try {
+                timestamp = dateFormat.parse(date);
+            } catch (ParseException | NumberFormatException e) {
+                throw new XMLStreamException(format("Invalid date '" + date + "'", tu), e);
+            }
+        }
+
+        return timestamp;
+    }
+
+    private String getTuid(StartElement tu) {
+        return XMLUtils.getAttributeValue(tu, null, "tuid");
+    }
+
+    private static String format(String message, XMLEvent event) {
+        Location location = event == null ? null : event.getLocation();
+        return location == null ? message : (message + " at line " + location.getLineNumber());
+    }
+
+}
@@ -0,0 +1,175 @@
+package eu.modernmt.benchmark.corpus;
+
+import eu.modernmt.io.FileProxy;
+import eu.modernmt.io.UTF8Charset;
+import eu.modernmt.model.corpus.TUReader;
+import eu.modernmt.model.corpus.TranslationUnit;
+import eu.modernmt.model.corpus.impl.tmx.TMXCorpus;
+import eu.modernmt.xml.XMLUtils;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamException;
+import java.io.*;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the legacy XMLEventReader based TMX parsing with the XMLStreamReader based one,
+ * both single-threaded and split in chunks over all the available cores.
+ * TMXCorpus parses in parallel only plain files larger than 64MB on multi-core machines, and reads any other
+ * FileProxy sequentially: the default synthetic TMX is large enough to take the parallel path.
+ * Set the "file" parameter to benchmark a real TMX:
+ * <pre>java -jar mmt-benchmarks.jar TMXReader -p file=/path/to/memory.tmx</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TMXReaderBenchmark {
+
+    private static final String[] WORDS = new String[]{
+            "the", "translation", "memory", "is", "updated", "with", "new", "segments", "from", "customer",
+            "files", "and", "every", "unit", "contains", "inline", "markup", "&amp;", "dates"
+    };
+
+    private static final String[] TARGETS = new String[]{"it", "fr", "de", "es-ES"};
+
+    @Param({""})
+    public String file;
+
+    @Param({"200000"})
+    public int units;
+
+    /**
+     * A plain file that TMXCorpus cannot split in chunks
+     */
+    private static class SequentialFileProxy implements FileProxy {
+
+        private final FileProxy file;
+
+        SequentialFileProxy(File file) {
+            this.file = FileProxy.wrap(file);
+        }
+
+        @Override
+        public String getFilename() {
+            return file.getFilename();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return file.getInputStream();
+        }
+
+        @Override
+        public OutputStream getOutputStream(boolean append) throws IOException {
+            return file.getOutputStream(append);
+        }
+
+    }
+
+    private File tmx;
+    private boolean generated;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        if (file != null && !file.isEmpty()) {
+            tmx = new File(file);
+            generated = false;
+        } else {
+            tmx = File.createTempFile("TMXReaderBenchmark", ".tmx");
+            generated = true;
+            generate(tmx, units);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        if (generated)
+            FileUtils.deleteQuietly(tmx);
+    }
+
+    private static void generate(File file, int units) throws IOException {
+        Random random = new Random(42);
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), UTF8Charset.get()))) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<tmx version=\"1.4\">\n");
+            writer.write("<header srclang=\"en-US\" creationtool=\"mmt\" datatype=\"plaintext\"/>\n<body>\n");
+
+            for (int i = 0; i < units; i++) {
+                String date = String.format("2019%02d%02dT%02d%02d%02dZ",
+                        1 + (i / 1000) % 12, 1 + (i / 100) % 28, (i / 10) % 24, i % 60, 0);
+
+                writer.write("<tu tuid=\"" + i + "\" creationdate=\"" + date + "\">\n");
+                writer.write("<prop type=\"x-domain\">benchmark</prop>\n");
+                writer.write("<tuv xml:lang=\"en-US\"><seg>" + sentence(random) + "</seg></tuv>\n");
+
+                String target = TARGETS[random.nextInt(TARGETS.length)];
+                writer.write("<tuv xml:lang=\"" + target + "\" changedate=\"" + date + "\"><seg>" + sentence(random) + "</seg></tuv>\n");
+                writer.write("</tu>\n");
+            }
+
+            writer.write("</body>\n</tmx>\n");
+        }
+    }
+
+    private static String sentence(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int length = 5 + random.nextInt(25);
+
+        for (int j = 0; j < length; j++) {
+            if (j > 0) builder.append(' ');
+
+            if (random.nextInt(20) == 0)
+                builder.append("<bpt i=\"1\">&lt;b&gt;</bpt>").append(WORDS[random.nextInt(WORDS.length)]).append("<ept i=\"1\">&lt;/b&gt;</ept>");
+            else
+                builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+
+        return builder.toString();
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) throws IOException, XMLStreamException {
+        LegacyTMXTUReader tuReader = new LegacyTMXTUReader();
+
+        try (InputStream stream = new FileInputStream(tmx)) {
+            XMLEventReader reader = XMLUtils.createEventReader(stream);
+
+            try {
+                List<TranslationUnit> tus;
+                while ((tus = tuReader.read(reader)) != null) {
+                    for (TranslationUnit tu : tus)
+                        blackhole.consume(tu);
+                }
+            } finally {
+                XMLUtils.closeQuietly(reader);
+            }
+        }
+    }
+
+    @Benchmark
+    public void cursor(Blackhole blackhole) throws IOException {
+        try (TUReader reader = new TMXCorpus(new SequentialFileProxy(tmx)).getContentReader()) {
+            TranslationUnit tu;
+            while ((tu = reader.read()) != null)
+                blackhole.consume(tu);
+        }
+    }
+
+    @Benchmark
+    public void parallel(Blackhole blackhole) throws IOException {
+        try (TUReader reader = new TMXCorpus(tmx).getContentReader()) {
+            TranslationUnit tu;
+            while ((tu = reader.read()) != null)
+                blackhole.consume(tu);
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package eu.modernmt.benchmark.dedup;
+
+import eu.modernmt.cleaning.dedup.CorporaBloomFilter;
+import eu.modernmt.lang.Language;
+import eu.modernmt.lang.LanguageDirection;
+import eu.modernmt.model.corpus.TranslationUnit;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures put() throughput of the lock-free CorporaBloomFilter against the previous
+ * synchronized Guava based implementation, with 1, 8 and 32 concurrent threads.
+ * Every thread inserts its own stream of translation units in a shared filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CorporaBloomFilterBenchmark {
+
+    private static final LanguageDirection LANGUAGE = new LanguageDirection(Language.fromString("en"), Language.fromString("it"));
+    private static final int UNITS_PER_THREAD = 1 << 16;
+
+    @Param({"10000000"})
+    public long expectedEntries;
+
+    private CorporaBloomFilter filter;
+    private LegacyCorporaBloomFilter legacyFilter;
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Units {
+
+        private final TranslationUnit[] units = new TranslationUnit[UNITS_PER_THREAD];
+        private int index = 0;
+
+        @Setup(Level.Trial)
+        public void setup(CorporaBloomFilterBenchmark benchmark) {
+            int thread = benchmark.threadCounter.incrementAndGet();
+            Random random = new Random(thread);
+
+            for (int i = 0; i < units.length; i++) {
+                String source = "source sentence number " + random.nextLong() + " from thread " + thread;
+                String target = "frase di destinazione numero " + random.nextLong();
+                units[i] = new TranslationUnit(null, LANGUAGE, source, target);
+            }
+        }
+
+        TranslationUnit next() {
+            TranslationUnit unit = units[index];
+            index = (index + 1) & (UNITS_PER_THREAD - 1);
+            return unit;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        filter = new CorporaBloomFilter(expectedEntries);
+        legacyFilter = new LegacyCorporaBloomFilter(expectedEntries);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean legacy_1(Units units) {
+        return legacyFilter.put(units.next());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean legacy_8(Units units) {
+        return legacyFilter.put(units.next());
+    }
+
+    @Benchmark
+    @Threads(32)
+    public boolean legacy_32(Units units) {
+        return legacyFilter.put(units.next());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean concurrent_1(Units units) {
+        return filter.put(units.next());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean concurrent_8(Units units) {
+        return filter.put(units.next());
+    }
+
+    @Benchmark
+    @Threads(32)
+    public boolean concurrent_32(Units units) {
+        return filter.put(units.next());
+    }
+
+}
@@ -0,0 +1,66 @@
+package eu.modernmt.benchmark.dedup;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.google.common.hash.PrimitiveSink;
+import eu.modernmt.io.UTF8Charset;
+import eu.modernmt.model.corpus.TranslationUnit;
+
+/**
+ * Copy of the synchronized Guava based CorporaBloomFilter, kept as a baseline for CorporaBloomFilterBenchmark.
+ */
+public class LegacyCorporaBloomFilter {
+
+    private final BloomFilter<String> bloomFilter;
+
+    public LegacyCorporaBloomFilter(long expectedEntries) {
+        this(expectedEntries, 1. / 1000000.);
+    }
+
+    public LegacyCorporaBloomFilter(long expectedEntries, double fpp) {
+        this.bloomFilter = BloomFilter.create(new StringFunnel(), expectedEntries, fpp);
+    }
+
+    public boolean put(TranslationUnit tu) {
+        synchronized (bloomFilter) {
+            // This is not thread safe, even in v24
+            return bloomFilter.put(StringFunnel.toString(tu));
+        }
+    }
+
+    public boolean put(String line) {
+        synchronized (bloomFilter) {
+            // This is not thread safe, even in v24
+            return bloomFilter.put(line);
+        }
+    }
+
+    public boolean contains(TranslationUnit tu) {
+        synchronized (bloomFilter) {
+            // This is not thread safe, even in v24
+            return bloomFilter.mightContain(StringFunnel.toString(tu));
+        }
+    }
+
+    public boolean contains(String line) {
+        synchronized (bloomFilter) {
+            // This is not thread safe, even in v24
+            return bloomFilter.mightContain(line);
+        }
+    }
+
+    static final class StringFunnel implements Funnel<String> {
+
+        public static String toString(TranslationUnit tu) {
+            return tu.language.toString() + '\n' +
+                    tu.source.replace('\n', ' ') + '\n' +
+                    tu.target.replace('\n', ' ');
+        }
+
+        @Override
+        public void funnel(String from, PrimitiveSink into) {
+            into.putString(from, UTF8Charset.get());
+        }
+
+    }
+}
@@ -0,0 +1,89 @@
+package eu.modernmt.benchmark.io;
+
+import eu.modernmt.io.FileProxy;
+import eu.modernmt.io.LineReader;
+import eu.modernmt.io.UTF8Charset;
+import eu.modernmt.io.UnixLineReader;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the legacy char-based UnixLineReader with the byte-based one,
+ * both on a plain InputStream and on a memory-mapped file.
+ * One operation reads the whole generated file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UnixLineReaderBenchmark {
+
+    private static final String[] WORDS = new String[]{
+            "the", "translation", "memory", "è", "città", "über", "größe", "日本語", "テキスト", "модель",
+            "corpus", "alignment", " ", "and", "of", "a", "segment", "παράδειγμα", "نص", "preprocessing"
+    };
+
+    @Param({"100000"})
+    public int lines;
+
+    @Param({"false", "true"})
+    public boolean crlf;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = File.createTempFile("UnixLineReaderBenchmark", ".txt");
+
+        Random random = new Random(42);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), UTF8Charset.get()))) {
+            for (int i = 0; i < lines; i++) {
+                int length = 5 + random.nextInt(40);
+                for (int j = 0; j < length; j++) {
+                    if (j > 0) writer.write(' ');
+                    writer.write(WORDS[random.nextInt(WORDS.length)]);
+                }
+
+                writer.write(crlf ? "\r\n" : "\n");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        FileUtils.deleteQuietly(file);
+    }
+
+    private static void drain(LineReader reader, Blackhole blackhole) throws IOException {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null)
+                blackhole.consume(line);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) throws IOException {
+        drain(new LegacyUnixLineReader(new FileInputStream(file), UTF8Charset.get()), blackhole);
+    }
+
+    @Benchmark
+    public void stream(Blackhole blackhole) throws IOException {
+        drain(new UnixLineReader(new FileInputStream(file), UTF8Charset.get()), blackhole);
+    }
+
+    @Benchmark
+    public void mapped(Blackhole blackhole) throws IOException {
+        drain(new UnixLineReader(FileProxy.wrap(file), UTF8Charset.get()), blackhole);
+    }
+
+}
@@ -0,0 +1,80 @@
+package eu.modernmt.benchmark.processing;
+
+import eu.modernmt.lang.Language;
+import eu.modernmt.processing.tokenizer.BaseTokenizer;
+import eu.modernmt.processing.tokenizer.TokenizedString;
+import eu.modernmt.processing.tokenizer.corenlp.CoreNLPTokenAnnotator;
+import eu.modernmt.processing.tokenizer.jflex.annotators.CommonTermsTokenAnnotator;
+import eu.modernmt.processing.tokenizer.jflex.annotators.EnglishTokenAnnotator;
+import eu.modernmt.processing.tokenizer.kuromoji.KuromojiTokenAnnotator;
+import eu.modernmt.processing.tokenizer.languagetool.LanguageToolTokenAnnotator;
+import eu.modernmt.processing.tokenizer.lucene.LuceneTokenAnnotator;
+import eu.modernmt.processing.tokenizer.opennlp.OpenNLPTokenAnnotator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a single tokenizer annotator on the sample corpus of a language,
+ * to compare the annotator families available for the same language.
+ * The "annotator" parameter has the form "family:language", e.g. "lucene:en" or "corenlp:en";
+ * OpenNLP annotators require the text processing models in the MMT home.
+ * One operation annotates one sentence, so the score is in sentences per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnnotatorBenchmark {
+
+    @Param({"jflex:en", "common:en", "lucene:en", "corenlp:en", "lucene:de", "corenlp:fr", "corenlp:ar", "lucene:ar",
+            "opennlp:da", "languagetool:gl", "kuromoji:ja"})
+    public String annotator;
+
+    private SampleCorpus corpus;
+    private BaseTokenizer.Annotator instance;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        String[] parts = annotator.split(":", 2);
+        Language language = Language.fromString(parts[1]);
+
+        corpus = SampleCorpus.forLanguage(language);
+        instance = newAnnotator(parts[0], language);
+    }
+
+    private static BaseTokenizer.Annotator newAnnotator(String family, Language language) {
+        switch (family) {
+            case "jflex":
+                if (!Language.ENGLISH.getLanguage().equals(language.getLanguage()))
+                    throw new IllegalArgumentException("Only English JFlex annotator is supported by this benchmark");
+                return new EnglishTokenAnnotator((Reader) null);
+            case "common":
+                return new CommonTermsTokenAnnotator((Reader) null);
+            case "lucene":
+                return LuceneTokenAnnotator.forLanguage(language);
+            case "corenlp":
+                return CoreNLPTokenAnnotator.forLanguage(language);
+            case "opennlp":
+                return OpenNLPTokenAnnotator.forLanguage(language);
+            case "languagetool":
+                return LanguageToolTokenAnnotator.forLanguage(language);
+            case "kuromoji":
+                return new KuromojiTokenAnnotator();
+            default:
+                throw new IllegalArgumentException("Unknown annotator family: " + family);
+        }
+    }
+
+    @Benchmark
+    public TokenizedString annotate() {
+        TokenizedString string = new TokenizedString(corpus.next(), true);
+        instance.annotate(string);
+        return string;
+    }
+
+}
@@ -0,0 +1,185 @@
+package eu.modernmt.benchmark.processing;
+
+import eu.modernmt.io.UTF8Charset;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the text processing benchmarks with the GC profiler and compares the results with a saved baseline,
+ * entirely offline. Usage:
+ * <pre>
+ * java -cp mmt-benchmarks.jar eu.modernmt.benchmark.processing.BaselineComparison --save baseline.tsv [regexp...]
+ * java -cp mmt-benchmarks.jar eu.modernmt.benchmark.processing.BaselineComparison --compare baseline.tsv [--tolerance 0.05] [regexp...]
+ * </pre>
+ * Regular expressions select the benchmarks to run, as in the JMH command line
+ * (default: all the benchmarks in this package).
+ * The baseline is a tab separated file with benchmark, parameters, sentences/s and bytes allocated per sentence.
+ * SingleShotTime benchmarks, that measure a batch of sentences per operation, are converted to sentences/s;
+ * their allocation is not reported, since the GC profiler also counts the preparation of the batch.
+ * When comparing, the process exits with status 1 if any throughput is lower than the baseline by more than the tolerance.
+ */
+public class BaselineComparison {
+
+    private static final String ALLOCATION_RESULT = "·gc.alloc.rate.norm";
+
+    private static class Score {
+
+        final double throughput;
+        final double allocation;
+
+        Score(double throughput, double allocation) {
+            this.throughput = throughput;
+            this.allocation = allocation;
+        }
+
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        File save = null;
+        File compare = null;
+        double tolerance = 0.05;
+        List<String> includes = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--save":
+                    save = new File(args[++i]);
+                    break;
+                case "--compare":
+                    compare = new File(args[++i]);
+                    break;
+                case "--tolerance":
+                    tolerance = Double.parseDouble(args[++i]);
+                    break;
+                default:
+                    includes.add(args[i]);
+                    break;
+            }
+        }
+
+        if (save == null && compare == null) {
+            System.err.println("Usage: BaselineComparison (--save FILE | --compare FILE [--tolerance RATIO]) [regexp...]");
+            System.exit(2);
+        }
+
+        if (includes.isEmpty())
+            includes.add(BaselineComparison.class.getPackage().getName() + ".");
+
+        ChainedOptionsBuilder options = new OptionsBuilder().addProfiler(GCProfiler.class);
+        for (String include : includes)
+            options.include(include);
+
+        Map<String, Score> results = collect(new Runner(options.build()).run());
+
+        if (save != null) {
+            write(save, results);
+            System.out.println("Baseline saved to " + save);
+        }
+
+        if (compare != null) {
+            Map<String, Score> baseline = read(compare);
+            if (!print(baseline, results, tolerance))
+                System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> collect(Collection<RunResult> runs) {
+        Map<String, Score> results = new TreeMap<>();
+
+        for (RunResult run : runs) {
+            BenchmarkParams params = run.getParams();
+
+            StringBuilder parameters = new StringBuilder();
+            for (String param : params.getParamsKeys())
+                parameters.append(param).append('=').append(params.getParam(param)).append(' ');
+
+            // the separator is kept even if the benchmark has no parameters, so that read() finds 4 columns
+            String key = params.getBenchmark() + '\t' + parameters.toString().trim();
+
+            double unit = TimeUnit.SECONDS.toNanos(1) / (double) params.getTimeUnit().toNanos(1);
+            double score = run.getPrimaryResult().getScore();
+
+            if (params.getMode() == Mode.SingleShotTime) {
+                // a single shot measures a whole batch of sentences, prepared by an iteration setup whose allocations
+                // the GC profiler cannot tell apart from the ones of the batch
+                int sentences = params.getMeasurement().getBatchSize() * params.getOpsPerInvocation();
+                results.put(key, new Score(sentences * unit / score, Double.NaN));
+            } else {
+                double throughput = params.getMode() == Mode.Throughput ? score * unit : unit / score;
+                Result allocation = run.getSecondaryResults().get(ALLOCATION_RESULT);
+                results.put(key, new Score(throughput, allocation == null ? Double.NaN : allocation.getScore()));
+            }
+        }
+
+        return results;
+    }
+
+    private static void write(File file, Map<String, Score> results) throws IOException {
+        List<String> lines = new ArrayList<>(results.size());
+        for (Map.Entry<String, Score> entry : results.entrySet()) {
+            Score score = entry.getValue();
+            lines.add(entry.getKey() + '\t' + score.throughput + '\t' + score.allocation);
+        }
+
+        FileUtils.writeLines(file, UTF8Charset.get().name(), lines);
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> results = new TreeMap<>();
+
+        for (String line : FileUtils.readLines(file, UTF8Charset.get())) {
+            String[] columns = line.split("\t", -1);
+            if (columns.length != 4)
+                continue;
+
+            results.put(columns[0] + '\t' + columns[1],
+                    new Score(Double.parseDouble(columns[2]), Double.parseDouble(columns[3])));
+        }
+
+        return results;
+    }
+
+    private static boolean print(Map<String, Score> baseline, Map<String, Score> results, double tolerance) {
+        boolean passed = true;
+
+        System.out.println();
+        System.out.printf("%-80s %14s %14s %8s %12s %12s%n",
+                "Benchmark", "Baseline (s/s)", "Current (s/s)", "Delta", "Base (B/op)", "Curr (B/op)");
+
+        for (Map.Entry<String, Score> entry : results.entrySet()) {
+            Score current = entry.getValue();
+            Score previous = baseline.get(entry.getKey());
+
+            String name = entry.getKey().replace('\t', ' ');
+            if (previous == null) {
+                System.out.printf("%-80s %14s %14.1f %8s %12s %12.1f%n",
+                        name, "-", current.throughput, "new", "-", current.allocation);
+                continue;
+            }
+
+            double delta = (current.throughput - previous.throughput) / previous.throughput;
+            boolean regression = delta < -tolerance;
+            passed &= !regression;
+
+            System.out.printf("%-80s %14.1f %14.1f %+7.1f%% %12.1f %12.1f%s%n",
+                    name, previous.throughput, current.throughput, delta * 100,
+                    previous.allocation, current.allocation, regression ? "  REGRESSION" : "");
+        }
+
+        return passed;
+    }
+
+}
@@ -0,0 +1,135 @@
+package eu.modernmt.benchmark.processing;
+
+import eu.modernmt.lang.Language;
+import eu.modernmt.lang.LanguageDirection;
+import eu.modernmt.model.Alignment;
+import eu.modernmt.model.Sentence;
+import eu.modernmt.model.Translation;
+import eu.modernmt.model.Word;
+import eu.modernmt.processing.Postprocessor;
+import eu.modernmt.processing.Preprocessor;
+import eu.modernmt.processing.ProcessingException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end throughput of the default Preprocessor and Postprocessor pipelines for a language direction,
+ * with a single pipeline instance per benchmark thread.
+ * One operation processes one sentence of the bundled sample corpora, so scores are in sentences per second.
+ * <p>
+ * The postprocessor input is the preprocessed target sample sentence, monotonically aligned to the source one:
+ * building it is not part of the measurement. Since the postprocessor modifies its input in place, postprocess
+ * is measured as a single shot over a batch of BATCH_SIZE translations built before the batch
+ * (BaselineComparison reports it in sentences per second as well).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    static final int BATCH_SIZE = 1000;
+
+    @Param({"en it", "it en", "fr en", "de en", "es en", "ru en", "ar en", "zh en", "ja en", "ko en"})
+    public String direction;
+
+    private LanguageDirection language;
+    private Postprocessor.Options options;
+    private SampleCorpus sources;
+    private SampleCorpus targets;
+    private Preprocessor preprocessor;
+    private Postprocessor postprocessor;
+
+    private Sentence[] sourceSentences;
+    private Sentence[] targetSentences;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, ProcessingException {
+        String[] languages = direction.split(" ");
+        Language source = Language.fromString(languages[0]);
+        Language target = Language.fromString(languages[1]);
+
+        language = new LanguageDirection(source, target);
+        options = new Postprocessor.Options(source, target);
+        sources = SampleCorpus.forLanguage(source);
+        targets = SampleCorpus.forLanguage(target);
+        preprocessor = new Preprocessor(1);
+        postprocessor = new Postprocessor(1);
+
+        int size = Math.min(sources.size(), targets.size());
+        LanguageDirection reversed = language.reversed();
+
+        sourceSentences = new Sentence[size];
+        targetSentences = new Sentence[size];
+        for (int i = 0; i < size; i++) {
+            sourceSentences[i] = preprocessor.process(language, sources.get(i));
+            targetSentences[i] = preprocessor.process(reversed, targets.get(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        preprocessor.close();
+        postprocessor.close();
+    }
+
+    @Benchmark
+    public Sentence preprocess() throws ProcessingException {
+        return preprocessor.process(language, sources.next());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 10, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 20, batchSize = BATCH_SIZE)
+    public Translation postprocess(NextTranslations next) throws ProcessingException {
+        Translation translation = next.next();
+        postprocessor.process(language, translation, options);
+        return translation;
+    }
+
+    /**
+     * A batch of fresh Translations for every iteration, since the postprocessor modifies them in place.
+     */
+    @State(Scope.Thread)
+    public static class NextTranslations {
+
+        private final Translation[] translations = new Translation[BATCH_SIZE];
+        private int sentence = 0;
+        private int next;
+
+        @Setup(Level.Iteration)
+        public void setup(PipelineBenchmark benchmark) {
+            for (int n = 0; n < BATCH_SIZE; n++) {
+                sentence = (sentence + 1) % benchmark.sourceSentences.length;
+
+                Sentence source = benchmark.sourceSentences[sentence];
+                Word[] target = benchmark.targetSentences[sentence].getWords();
+
+                Word[] words = new Word[target.length];
+                for (int i = 0; i < words.length; i++)
+                    words[i] = new Word(target[i].getPlaceholder(), target[i].getLeftSpace(), target[i].getRightSpace());
+
+                int length = Math.min(source.getWords().length, words.length);
+                int[] indexes = new int[length];
+                for (int i = 0; i < length; i++)
+                    indexes[i] = i;
+
+                translations[n] = new Translation(words, source, new Alignment(indexes, indexes.clone()));
+            }
+
+            next = 0;
+        }
+
+        Translation next() {
+            return translations[next++];
+        }
+
+    }
+
+}
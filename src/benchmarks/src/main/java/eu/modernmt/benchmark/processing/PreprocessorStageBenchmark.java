@@ -0,0 +1,135 @@
+package eu.modernmt.benchmark.processing;
+
+import eu.modernmt.lang.Language;
+import eu.modernmt.processing.Preprocessor;
+import eu.modernmt.processing.ProcessingPipeline;
+import eu.modernmt.processing.TextProcessor;
+import eu.modernmt.processing.builder.XMLPipelineBuilder;
+import eu.modernmt.processing.string.SentenceBuilder;
+import eu.modernmt.processing.string.SentenceConstructor;
+import org.openjdk.jmh.annotations.*;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent by a single stage of the default preprocessing pipeline, selected by its class simple name.
+ * Stages edit their input in place, so every measurement is a single shot over a batch of BATCH_SIZE sentences:
+ * before each batch the previous stages are applied to the next sample sentences (outside the measurement),
+ * so that the stage always receives the same input it has in the full pipeline.
+ * Inputs after the SentenceConstructor get a SentenceBuilder each instead of sharing the one of the pipeline.
+ * The score is the time per batch; BaselineComparison reports it in sentences per second.
+ * <p>
+ * The default pipeline is loaded with the pipeline class set to StagePipeline, that exposes its processors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, batchSize = PreprocessorStageBenchmark.BATCH_SIZE)
+@Measurement(iterations = 20, batchSize = PreprocessorStageBenchmark.BATCH_SIZE)
+@Fork(1)
+public class PreprocessorStageBenchmark {
+
+    static final int BATCH_SIZE = 1000;
+
+    public static class StagePipeline extends ProcessingPipeline<Object, Object> {
+
+        public StagePipeline(List<TextProcessor<Object, Object>> processors) {
+            super(processors);
+        }
+
+        public List<TextProcessor<Object, Object>> getProcessors() {
+            return processors;
+        }
+
+    }
+
+    @Param({"en", "it", "de", "zh", "ja"})
+    public String language;
+
+    @Param({"ControlCharsRemover", "SentenceConstructor", "XMLTagIdentifier", "XMLEntityEscaper",
+            "WhitespaceTagIdentifier", "EmojiTagIdentifier", "RareCharsNormalizer", "WhitespacesNormalizer",
+            "Tokenizer", "SentenceCompiler", "SentenceBreakProcessor"})
+    public String stage;
+
+    private final Map<String, Object> metadata = Collections.emptyMap();
+    private SampleCorpus corpus;
+    private List<TextProcessor<Object, Object>> processors;
+    private int stageIndex;
+    private Language sourceLanguage;
+    private final Object[] inputs = new Object[BATCH_SIZE];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Language source = Language.fromString(language);
+        Language target = Language.ENGLISH.equals(source) ? Language.ITALIAN : Language.ENGLISH;
+        sourceLanguage = source;
+
+        XMLPipelineBuilder<Object, Object> builder;
+        try (InputStream stream = new ByteArrayInputStream(loadPipelineXML())) {
+            builder = XMLPipelineBuilder.loadFromXML(stream);
+        }
+
+        corpus = SampleCorpus.forLanguage(source);
+        processors = ((StagePipeline) builder.newPipeline(source, target)).getProcessors();
+
+        stageIndex = -1;
+        for (int i = 0; i < processors.size(); i++) {
+            if (processors.get(i).getClass().getSimpleName().equals(stage))
+                stageIndex = i;
+        }
+
+        if (stageIndex < 0)
+            throw new IllegalArgumentException("Stage " + stage + " is not part of the pipeline for language " + language);
+    }
+
+    private static byte[] loadPipelineXML() throws IOException {
+        try (InputStream stream = Preprocessor.class.getResourceAsStream("preprocessor-default.xml")) {
+            Document xml = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(stream);
+            xml.getDocumentElement().setAttribute("class", StagePipeline.class.getName());
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            TransformerFactory.newInstance().newTransformer().transform(new DOMSource(xml), new StreamResult(output));
+            return output.toByteArray();
+        } catch (Exception e) {
+            throw new IOException("Unable to load the default preprocessor pipeline", e);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareInputs() {
+        for (int n = 0; n < BATCH_SIZE; n++) {
+            Object result = corpus.next();
+            for (int i = 0; i < stageIndex; i++) {
+                TextProcessor<Object, Object> processor = processors.get(i);
+
+                if (processor.getClass() == SentenceConstructor.class)
+                    result = new SentenceBuilder(sourceLanguage).initialize((String) result);
+                else
+                    result = processor.call(result, metadata);
+            }
+
+            inputs[n] = result;
+        }
+
+        next = 0;
+    }
+
+    @Benchmark
+    public Object process() {
+        return processors.get(stageIndex).call(inputs[next++], metadata);
+    }
+
+}
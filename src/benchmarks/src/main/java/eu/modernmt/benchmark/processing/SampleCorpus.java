@@ -0,0 +1,55 @@
+package eu.modernmt.benchmark.processing;
+
+import eu.modernmt.io.UTF8Charset;
+import eu.modernmt.lang.Language;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Sample sentences bundled with the benchmarks (one file per language in "corpora"),
+ * so that processing benchmarks run offline and always measure the same text.
+ * Every sample mixes plain sentences with XML tags, entities, numbers and URLs.
+ */
+public class SampleCorpus {
+
+    private final String[] lines;
+    private int index = 0;
+
+    public static SampleCorpus forLanguage(Language language) throws IOException {
+        String path = "corpora/" + language.getLanguage() + ".txt";
+
+        try (InputStream stream = SampleCorpus.class.getResourceAsStream(path)) {
+            if (stream == null)
+                throw new IOException("No sample corpus for language " + language + ": " + path);
+
+            List<String> lines = IOUtils.readLines(stream, UTF8Charset.get());
+            lines.removeIf(String::isEmpty);
+            return new SampleCorpus(lines.toArray(new String[0]));
+        }
+    }
+
+    private SampleCorpus(String[] lines) {
+        this.lines = lines;
+    }
+
+    public int size() {
+        return lines.length;
+    }
+
+    public String get(int i) {
+        return lines[i];
+    }
+
+    /**
+     * @return the next sentence of the corpus, starting over from the first one after the last
+     */
+    public String next() {
+        String line = lines[index];
+        index = (index + 1) % lines.length;
+        return line;
+    }
+
+}
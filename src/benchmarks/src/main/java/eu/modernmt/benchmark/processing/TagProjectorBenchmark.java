@@ -0,0 +1,170 @@
+package eu.modernmt.benchmark.processing;
+
+import eu.modernmt.model.*;
+import eu.modernmt.processing.tags.projection.TagProjector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of TagProjector over synthetic tag-dense sentences, one sentence per operation:
+ * <ul>
+ * <li>html: inline formatting (bold, italic, links) around one to three words, partially nested, and line breaks</li>
+ * <li>xliff: &lt;g&gt; pairs around words mixed with &lt;x/&gt; placeholders</li>
+ * <li>placeholders: self-closing tags only, that do not enclose any word</li>
+ * </ul>
+ * The translation has the same length of the source, with a mostly monotone alignment
+ * (local swaps, unaligned and one-to-many words).
+ * Since the projector modifies the translation in place, every measurement is a single shot over a batch
+ * of BATCH_SIZE translations built before the batch (BaselineComparison reports it in sentences per second).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, batchSize = TagProjectorBenchmark.BATCH_SIZE)
+@Measurement(iterations = 20, batchSize = TagProjectorBenchmark.BATCH_SIZE)
+@Fork(1)
+public class TagProjectorBenchmark {
+
+    static final int BATCH_SIZE = 1000;
+    private static final int SENTENCES = 64;
+
+    @Param({"html", "xliff", "placeholders"})
+    public String document;
+
+    @Param({"20", "60"})
+    public int words;
+
+    private TagProjector projector;
+    private Sentence[] sources;
+    private Alignment[] alignments;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+
+        projector = new TagProjector();
+        sources = new Sentence[SENTENCES];
+        alignments = new Alignment[SENTENCES];
+
+        for (int i = 0; i < SENTENCES; i++) {
+            sources[i] = new Sentence(words("w", words), tags(random));
+            alignments[i] = alignment(random);
+        }
+    }
+
+    private static Word[] words(String prefix, int length) {
+        Word[] words = new Word[length];
+        for (int i = 0; i < length; i++)
+            words[i] = new Word(prefix + i, i == 0 ? null : " ", i == length - 1 ? null : " ");
+        return words;
+    }
+
+    private Tag[] tags(Random random) {
+        List<Tag> tags = new ArrayList<>();
+        int id = 0;
+
+        for (int position = 0; position < words; position += 1 + random.nextInt(4)) {
+            switch (document) {
+                case "html": {
+                    if (random.nextInt(8) == 0) {
+                        tags.add(XMLTag.fromText("<br/>", null, null, position));
+                        break;
+                    }
+
+                    String name = random.nextBoolean() ? "b" : "i";
+                    int end = Math.min(words, position + 1 + random.nextInt(3));
+                    tags.add(XMLTag.fromText("<" + name + ">", " ", null, position));
+                    if (end - position > 1 && random.nextBoolean()) {
+                        tags.add(XMLTag.fromText("<a href=\"#" + (id++) + "\">", " ", null, position + 1));
+                        tags.add(XMLTag.fromText("</a>", null, null, end));
+                    }
+                    tags.add(XMLTag.fromText("</" + name + ">", null, " ", end));
+                    position = end;
+                    break;
+                }
+                case "xliff": {
+                    if (random.nextBoolean()) {
+                        tags.add(XMLTag.fromText("<x id=\"" + (id++) + "\"/>", " ", null, position));
+                    } else {
+                        int end = Math.min(words, position + 1 + random.nextInt(3));
+                        tags.add(XMLTag.fromText("<g id=\"" + (id++) + "\">", " ", null, position));
+                        tags.add(XMLTag.fromText("</g>", null, " ", end));
+                        position = end;
+                    }
+                    break;
+                }
+                case "placeholders": {
+                    tags.add(XMLTag.fromText("<x id=\"" + (id++) + "\"/>", " ", null, position));
+                    if (random.nextInt(4) == 0)
+                        tags.add(XMLTag.fromText("<ph id=\"" + (id++) + "\"/>", null, null, position));
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown document type: " + document);
+            }
+        }
+
+        return tags.toArray(new Tag[0]);
+    }
+
+    private Alignment alignment(Random random) {
+        List<int[]> points = new ArrayList<>(words + words / 4);
+
+        for (int i = 0; i < words; i++) {
+            int choice = random.nextInt(10);
+
+            if (choice == 0)
+                continue; // unaligned
+
+            if (choice == 1 && i + 1 < words) {
+                // local swap
+                points.add(new int[]{i, i + 1});
+                points.add(new int[]{i + 1, i});
+                i++;
+                continue;
+            }
+
+            points.add(new int[]{i, i});
+            if (choice == 2 && i + 1 < words)
+                points.add(new int[]{i, i + 1});
+        }
+
+        return Alignment.fromAlignmentPairs(points.toArray(new int[0][]));
+    }
+
+    @Benchmark
+    public Translation project(NextTranslations next) {
+        return projector.project(next.next());
+    }
+
+    /**
+     * A batch of fresh Translations for every iteration, since the projector modifies them in place.
+     */
+    @State(Scope.Thread)
+    public static class NextTranslations {
+
+        private final Translation[] translations = new Translation[BATCH_SIZE];
+        private int sentence = 0;
+        private int next;
+
+        @Setup(Level.Iteration)
+        public void setup(TagProjectorBenchmark benchmark) {
+            for (int n = 0; n < BATCH_SIZE; n++) {
+                sentence = (sentence + 1) % SENTENCES;
+                translations[n] = new Translation(words("t", benchmark.words), benchmark.sources[sentence], benchmark.alignments[sentence]);
+            }
+
+            next = 0;
+        }
+
+        Translation next() {
+            return translations[next++];
+        }
+
+    }
+
+}
@@ -0,0 +1,50 @@
+package eu.modernmt.benchmark.processing;
+
+import eu.modernmt.lang.Language;
+import eu.modernmt.processing.string.SentenceBuilder;
+import eu.modernmt.processing.tokenizer.Tokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the language-specific tokenizer (the BaseTokenizer selected by Tokenizer for the source language)
+ * on the bundled sample corpus. One operation tokenizes one sentence, so the score is in sentences per second.
+ * Run with "-prof gc" to get the allocation rate as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenizerBenchmark {
+
+    @Param({"en", "it", "fr", "de", "es", "pt", "nl", "ru", "ar", "zh", "ja", "ko", "da", "gl"})
+    public String language;
+
+    private final Map<String, Object> metadata = Collections.emptyMap();
+    private SampleCorpus corpus;
+    private SentenceBuilder builder;
+    private Tokenizer tokenizer;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Language source = Language.fromString(language);
+        Language target = Language.ENGLISH.equals(source) ? Language.ITALIAN : Language.ENGLISH;
+
+        corpus = SampleCorpus.forLanguage(source);
+        builder = new SentenceBuilder(source);
+        tokenizer = new Tokenizer(source, target);
+    }
+
+    @Benchmark
+    public SentenceBuilder tokenize() {
+        builder.initialize(corpus.next());
+        return tokenizer.call(builder, metadata);
+    }
+
+}
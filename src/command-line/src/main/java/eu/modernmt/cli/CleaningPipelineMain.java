@@ -37,6 +37,7 @@ public class CleaningPipelineMain {
             Option outputPath = Option.builder().longOpt("output").hasArg().required().build();
             Option outputFormat = Option.builder().longOpt("output-format").hasArgs().build();
             Option filters = Option.builder().longOpt("filters").hasArgs().build();
+            Option tmpPath = Option.builder().longOpt("tmp").hasArg().build();
 
             cliOptions = new Options();
             cliOptions.addOption(sourceLanguage);
@@ -45,6 +46,7 @@ public class CleaningPipelineMain {
             cliOptions.addOption(outputPath);
             cliOptions.addOption(outputFormat);
             cliOptions.addOption(filters);
+            cliOptions.addOption(tmpPath);
         }
 
         public final Language source;
@@ -53,6 +55,7 @@ public class CleaningPipelineMain {
         public final File outputRoot;
         public final FileFormat outputFormat;
         public final Filter[] filters;
+        public final File tmpRoot;
 
         public Args(String[] args) throws ParseException {
             CommandLineParser parser = new DefaultParser();
@@ -78,6 +81,8 @@ public class CleaningPipelineMain {
             } else {
                 filters = null;
             }
+
+            tmpRoot = cli.hasOption("tmp") ? new File(cli.getOptionValue("tmp")) : null;
         }
 
     }
@@ -138,6 +143,11 @@ public class CleaningPipelineMain {
         FileUtils.deleteDirectory(args.outputRoot);
         FileUtils.forceMkdir(args.outputRoot);
 
+        if (args.tmpRoot != null) {
+            FileUtils.forceMkdir(args.tmpRoot);
+            options.workingDirectory = args.tmpRoot;
+        }
+
         if (args.target == null) {
             List<Corpus> corpora = Corpora.list(args.source, args.inputRoots);
             if (corpora.isEmpty())
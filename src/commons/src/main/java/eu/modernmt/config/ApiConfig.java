@@ -9,6 +9,8 @@ public class ApiConfig {
     private boolean enabled = true;
     private int port = 8045;
     private String apiRoot = null;
+    private int maxInFlightRequests = 1000;
+    private int callbackThreads = Runtime.getRuntime().availableProcessors();
 
     public ApiConfig(NetworkConfig parent) {
         this.parent = parent;
@@ -42,11 +44,29 @@ public class ApiConfig {
         this.apiRoot = apiRoot;
     }
 
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    public void setMaxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = maxInFlightRequests;
+    }
+
+    public int getCallbackThreads() {
+        return callbackThreads;
+    }
+
+    public void setCallbackThreads(int callbackThreads) {
+        this.callbackThreads = callbackThreads;
+    }
+
     @Override
     public String toString() {
         return "Api: " +
                 "enabled=" + enabled +
                 ", port=" + port +
-                ", root='" + apiRoot + '\'';
+                ", root='" + apiRoot + '\'' +
+                ", maxInFlightRequests=" + maxInFlightRequests +
+                ", callbackThreads=" + callbackThreads;
     }
 }
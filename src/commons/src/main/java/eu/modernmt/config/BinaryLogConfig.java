@@ -18,6 +18,8 @@ public class BinaryLogConfig {
     private String[] hosts = new String[]{"localhost"};
     private int port = 9092;
     private String name = null;
+    private int pipelineDepth = 2;
+    private int partitions = 1;
 
     public BinaryLogConfig(NodeConfig parent) {
         this.parent = parent;
@@ -77,6 +79,32 @@ public class BinaryLogConfig {
         return this;
     }
 
+    public int getPipelineDepth() {
+        return pipelineDepth;
+    }
+
+    public BinaryLogConfig setPipelineDepth(int pipelineDepth) {
+        this.pipelineDepth = pipelineDepth;
+        return this;
+    }
+
+    /**
+     * @return the number of partitions of the topics created by the embedded Kafka (through its
+     * "num.partitions"); existing topics, and the ones of an external Kafka, are never created or altered,
+     * they keep the number of partitions they already have
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public BinaryLogConfig setPartitions(int partitions) {
+        if (partitions < 1)
+            throw new IllegalArgumentException("Invalid number of partitions: " + partitions);
+
+        this.partitions = partitions;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "Binlog: " +
@@ -84,6 +112,8 @@ public class BinaryLogConfig {
                 ", embedded=" + embedded +
                 ", hosts=" + StringUtils.join(hosts, ',') +
                 ", port=" + port +
-                ", name='" + name + '\'';
+                ", name='" + name + '\'' +
+                ", pipelineDepth=" + pipelineDepth +
+                ", partitions=" + partitions;
     }
 }
@@ -32,6 +32,12 @@ public class DatabaseConfig {
     private String user = null;
     private String password = null;
 
+    private int poolSize = 20;
+    private int cacheSize = 10000;
+
+    /*number of IDs reserved at once for new memories and import jobs (only used if this is cassandra)*/
+    private int idBlockSize = 32;
+
     public DatabaseConfig(NodeConfig parent) {
         this.parent = parent;
     }
@@ -110,6 +116,42 @@ public class DatabaseConfig {
         this.type = type;
     }
 
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public DatabaseConfig setPoolSize(int poolSize) {
+        if (poolSize < 1)
+            throw new IllegalArgumentException("Invalid pool size: " + poolSize);
+
+        this.poolSize = poolSize;
+        return this;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public DatabaseConfig setCacheSize(int cacheSize) {
+        if (cacheSize < 1)
+            throw new IllegalArgumentException("Invalid cache size: " + cacheSize);
+
+        this.cacheSize = cacheSize;
+        return this;
+    }
+
+    public int getIdBlockSize() {
+        return idBlockSize;
+    }
+
+    public DatabaseConfig setIdBlockSize(int idBlockSize) {
+        if (idBlockSize < 1)
+            throw new IllegalArgumentException("Invalid ID block size: " + idBlockSize);
+
+        this.idBlockSize = idBlockSize;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "Database: " +
@@ -120,7 +162,10 @@ public class DatabaseConfig {
                 ", host='" + host + '\'' +
                 ", name='" + name + '\'' +
                 ", user='" + user + '\'' +
-                ", password='****'";
+                ", password='****'" +
+                ", poolSize=" + poolSize +
+                ", cacheSize=" + cacheSize +
+                ", idBlockSize=" + idBlockSize;
     }
 
 }
\ No newline at end of file
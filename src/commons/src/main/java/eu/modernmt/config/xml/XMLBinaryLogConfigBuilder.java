@@ -50,6 +50,15 @@ class XMLBinaryLogConfigBuilder extends XMLAbstractBuilder {
             config.setPort(this.getIntAttribute("port"));
         if (this.hasAttribute("name"))
             config.setName(this.getStringAttribute("name"));
+        if (this.hasAttribute("pipeline-depth"))
+            config.setPipelineDepth(this.getIntAttribute("pipeline-depth"));
+        if (this.hasAttribute("partitions")) {
+            int partitions = this.getIntAttribute("partitions");
+            if (partitions < 1)
+                throw new ConfigException("Invalid 'partitions' attribute: " + partitions);
+
+            config.setPartitions(partitions);
+        }
         return config;
     }
 
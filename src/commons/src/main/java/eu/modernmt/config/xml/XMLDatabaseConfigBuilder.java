@@ -59,6 +59,16 @@ class XMLDatabaseConfigBuilder extends XMLAbstractBuilder {
             config.setUser(this.getStringAttribute("user"));
         if (this.hasAttribute("password"))
             config.setPassword(this.getStringAttribute("password"));
+        try {
+            if (this.hasAttribute("pool-size"))
+                config.setPoolSize(this.getIntAttribute("pool-size"));
+            if (this.hasAttribute("cache-size"))
+                config.setCacheSize(this.getIntAttribute("cache-size"));
+            if (this.hasAttribute("id-block-size"))
+                config.setIdBlockSize(this.getIntAttribute("id-block-size"));
+        } catch (IllegalArgumentException e) {
+            throw new ConfigException("Bad DBConfiguration: " + e.getMessage(), e);
+        }
 
         if (config.getType() != DatabaseConfig.Type.CASSANDRA && config.isEmbedded())
             throw new ConfigException("Bad DBConfiguration: only Cassandra DB can be embedded in MMT");
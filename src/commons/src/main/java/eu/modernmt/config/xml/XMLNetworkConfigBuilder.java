@@ -50,6 +50,10 @@ class XMLNetworkConfigBuilder extends XMLAbstractBuilder {
                 config.setPort(getIntAttribute("port"));
             if (hasAttribute("root"))
                 config.setApiRoot(getStringAttribute("root"));
+            if (hasAttribute("max-in-flight-requests"))
+                config.setMaxInFlightRequests(getIntAttribute("max-in-flight-requests"));
+            if (hasAttribute("callback-threads"))
+                config.setCallbackThreads(getIntAttribute("callback-threads"));
 
             return config;
         }
@@ -7,6 +7,8 @@ import eu.modernmt.model.corpus.Corpus;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -20,6 +22,28 @@ public interface ContextAnalyzer extends Closeable {
 
     ContextVector getContextVector(UUID user, LanguageDirection direction, Corpus query, int limit) throws ContextAnalyzerException;
 
+    /**
+     * Computes the context vectors of the same query for many language directions,
+     * analyzing the query only once for the directions sharing the same source language.
+     *
+     * @param user       the user requesting the context vectors, or null
+     * @param directions the language directions of the context vectors
+     * @param query      the query document, in the source language of the directions
+     * @param limit      the maximum number of entries of each context vector
+     * @return the context vector of each direction
+     * @throws ContextAnalyzerException if an error occurs while computing the context vectors
+     */
+    Map<LanguageDirection, ContextVector> getContextVectors(UUID user, Collection<LanguageDirection> directions, Corpus query, int limit) throws ContextAnalyzerException;
+
     void optimize() throws ContextAnalyzerException;
 
+    /**
+     * Saves a consistent copy of the analyzer state in the given folder,
+     * while the analyzer keeps serving requests and receiving new data.
+     *
+     * @param destination the folder where the backup will be written
+     * @throws ContextAnalyzerException if an error occurs while copying the data
+     */
+    void backup(File destination) throws ContextAnalyzerException;
+
 }
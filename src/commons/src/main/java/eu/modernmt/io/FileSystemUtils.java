@@ -39,6 +39,23 @@ public class FileSystemUtils {
         }
     }
 
+    /**
+     * Creates a hard link of source at destination, falling back to a plain copy
+     * if the file system does not support hard links (or files are on different devices).
+     * Hard links must only be used for files that will never be modified in place.
+     */
+    public static void linkOrCopy(File source, File destination) throws IOException {
+        File parent = destination.getParentFile();
+        if (parent != null && !parent.isDirectory())
+            FileUtils.forceMkdir(parent);
+
+        try {
+            Files.createLink(destination.toPath(), source.toPath());
+        } catch (UnsupportedOperationException | IOException e) {
+            FileUtils.copyFile(source, destination, true);
+        }
+    }
+
     public static void fsync(FileOutputStream stream) throws IOException {
         stream.flush();
         stream.getFD().sync();
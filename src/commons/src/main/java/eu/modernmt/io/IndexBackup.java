@@ -0,0 +1,50 @@
+package eu.modernmt.io;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.lucene.index.IndexCommit;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.SnapshotDeletionPolicy;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.IOContext;
+
+import java.io.File;
+import java.io.IOException;
+
+public class IndexBackup {
+
+    /**
+     * Saves a copy of the latest commit of a Lucene index in the given folder without blocking the writer.
+     * The commit is pinned by the snapshot deletion policy (that must be the one of the writer) while
+     * its files are copied; segment files are immutable, so they are hard-linked whenever possible.
+     *
+     * @param writer      the writer of the index
+     * @param policy      the deletion policy of the writer
+     * @param destination the folder where the index will be copied
+     * @throws IOException if an I/O error occurs
+     */
+    public static void backup(IndexWriter writer, SnapshotDeletionPolicy policy, File destination) throws IOException {
+        FileUtils.forceMkdir(destination);
+
+        Directory directory = writer.getDirectory();
+        IndexCommit commit = policy.snapshot();
+
+        try {
+            if (directory instanceof FSDirectory) {
+                File source = ((FSDirectory) directory).getDirectory();
+
+                for (String filename : commit.getFileNames())
+                    FileSystemUtils.linkOrCopy(new File(source, filename), new File(destination, filename));
+            } else {
+                try (Directory target = FSDirectory.open(destination)) {
+                    for (String filename : commit.getFileNames())
+                        directory.copy(target, filename, filename, IOContext.DEFAULT);
+                }
+            }
+        } finally {
+            policy.release(commit);
+            writer.deleteUnusedFiles();
+        }
+    }
+
+}
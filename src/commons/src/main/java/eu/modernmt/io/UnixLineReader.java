@@ -1,81 +1,315 @@
 package eu.modernmt.io;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * Created by davide on 24/02/16.
+ * <p>
+ * Line reader that splits lines on '\n' only, removing a '\r' that immediately precedes it.
+ * Any other character (including '\r' not followed by '\n' and NUL) is left untouched,
+ * and the last line is returned even if it is not terminated by a newline.
+ * <p>
+ * With an ASCII-compatible charset (UTF-8, US-ASCII, ISO-8859-1) lines are found by scanning raw bytes
+ * and each line is decoded exactly once; native uncompressed files are memory-mapped.
+ * Any other input falls back to a char-based scan over a {@link Reader}.
  */
 public class UnixLineReader implements LineReader {
 
-    private Reader reader;
-    private char[] buffer;
-    private int nextChar = 0;
-    private int bufferLen = 0;
+    private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    private static final long MAPPED_REGION_SIZE = 64L * 1024 * 1024;
 
-    private static final int defaultCharBufferSize = 8192;
-    private static final int defaultExpectedLineLength = 80;
+    private final LineReader reader;
 
     public UnixLineReader(InputStream stream, Charset charset) {
-        this(new InputStreamReader(stream, charset));
+        if (isAsciiCompatible(charset))
+            this.reader = new StreamByteLineReader(stream, charset);
+        else
+            this.reader = new CharLineReader(new InputStreamReader(stream, charset));
     }
 
     public UnixLineReader(Reader reader) {
-        this.reader = reader;
-        this.buffer = new char[defaultCharBufferSize];
+        this.reader = new CharLineReader(reader);
     }
 
-    private boolean fillFromBuffer(StringBuffer s) {
-        boolean stop = false;
-        int offset = nextChar;
-        int len = 0;
+    public UnixLineReader(FileProxy file, Charset charset) throws IOException {
+        if (file instanceof FileProxy.NativeFileProxy && !((FileProxy.NativeFileProxy) file).isGzipped()
+                && isAsciiCompatible(charset)) {
+            this.reader = new MappedByteLineReader(((FileProxy.NativeFileProxy) file).getFile(), charset);
+        } else {
+            InputStream stream = file.getInputStream();
 
-        boolean lastWasCarriageReturn = false;
+            if (isAsciiCompatible(charset))
+                this.reader = new StreamByteLineReader(stream, charset);
+            else
+                this.reader = new CharLineReader(new InputStreamReader(stream, charset));
+        }
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset) ||
+                StandardCharsets.US_ASCII.equals(charset) ||
+                StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        return reader.readLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Char based implementation
+
+    private static class CharLineReader implements LineReader {
+
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder(80);
+        private int nextChar = 0;
+        private int bufferLen = 0;
+
+        CharLineReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public String readLine() throws IOException {
+            if (bufferLen < 0)
+                return null;
+
+            line.setLength(0);
+
+            for (; ; ) {
+                int offset = nextChar;
+
+                for (; nextChar < bufferLen; nextChar++) {
+                    if (buffer[nextChar] == '\n') {
+                        line.append(buffer, offset, nextChar - offset);
+                        nextChar++;
+
+                        int length = line.length();
+                        if (length > 0 && line.charAt(length - 1) == '\r')
+                            line.setLength(length - 1);
+
+                        return line.toString();
+                    }
+                }
+
+                line.append(buffer, offset, bufferLen - offset);
+
+                bufferLen = reader.read(buffer, 0, buffer.length);
+                nextChar = 0;
+                if (bufferLen < 0)
+                    return line.length() > 0 ? line.toString() : null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    // Byte based implementations
+
+    private static abstract class ByteLineReader implements LineReader {
+
+        private final Charset charset;
+        private byte[] pending = new byte[256];
+        private int pendingLength = 0;
+        private boolean eof = false;
+
+        protected ByteBuffer buffer;
+
+        ByteLineReader(Charset charset) {
+            this.charset = charset;
+        }
+
+        /**
+         * Loads the next chunk of data in buffer.
+         *
+         * @return false if the end of the input has been reached
+         * @throws IOException if an I/O error occurs
+         */
+        protected abstract boolean fill() throws IOException;
+
+        @Override
+        public final String readLine() throws IOException {
+            if (eof)
+                return null;
+
+            for (; ; ) {
+                if (buffer != null) {
+                    int start = buffer.position();
+                    int limit = buffer.limit();
+                    int newline = indexOfNewline(buffer, start, limit);
+
+                    if (newline >= 0) {
+                        buffer.position(newline + 1);
 
-        for (; nextChar < bufferLen; nextChar++) {
-            if (buffer[nextChar] == '\n') {
-                stop = true;
-                nextChar++;
-                if (lastWasCarriageReturn) len--;
-                break;
+                        if (pendingLength == 0) {
+                            if (newline > start && buffer.get(newline - 1) == '\r')
+                                newline--;
+                            return decode(buffer, start, newline);
+                        } else {
+                            append(buffer, start, newline);
+                            if (pending[pendingLength - 1] == '\r')
+                                pendingLength--;
+                            return drainPending();
+                        }
+                    }
+
+                    append(buffer, start, limit);
+                    buffer.position(limit);
+                }
+
+                if (!fill()) {
+                    eof = true;
+                    return pendingLength > 0 ? drainPending() : null;
+                }
+            }
+        }
+
+        private static int indexOfNewline(ByteBuffer buffer, int start, int limit) {
+            if (buffer.hasArray()) {
+                byte[] array = buffer.array();
+                int offset = buffer.arrayOffset();
+
+                for (int i = start + offset; i < limit + offset; i++) {
+                    if (array[i] == '\n')
+                        return i - offset;
+                }
+
+                return -1;
             } else {
-                lastWasCarriageReturn = buffer[nextChar] == '\r';
-                len++;
+                // SWAR scan: eight bytes at a time (buffer must be in little-endian order)
+                int i = start;
+
+                for (; i + 8 <= limit; i += 8) {
+                    long word = buffer.getLong(i) ^ 0x0A0A0A0A0A0A0A0AL;
+                    long match = (word - 0x0101010101010101L) & ~word & 0x8080808080808080L;
+
+                    if (match != 0)
+                        return i + (Long.numberOfTrailingZeros(match) >>> 3);
+                }
+
+                for (; i < limit; i++) {
+                    if (buffer.get(i) == '\n')
+                        return i;
+                }
+
+                return -1;
             }
         }
 
-        if (len > 0)
-            s.append(buffer, offset, len);
+        private String decode(ByteBuffer buffer, int start, int end) {
+            int length = end - start;
+            if (length == 0)
+                return "";
+
+            if (buffer.hasArray())
+                return new String(buffer.array(), buffer.arrayOffset() + start, length, charset);
+
+            append(buffer, start, end);
+            return drainPending();
+        }
+
+        private void append(ByteBuffer buffer, int start, int end) {
+            int length = end - start;
+            if (length == 0)
+                return;
+
+            if (pendingLength + length > pending.length)
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + length));
+
+            if (buffer.hasArray()) {
+                System.arraycopy(buffer.array(), buffer.arrayOffset() + start, pending, pendingLength, length);
+            } else {
+                ByteBuffer slice = buffer.duplicate();
+                slice.limit(end).position(start);
+                slice.get(pending, pendingLength, length);
+            }
+
+            pendingLength += length;
+        }
 
-        return stop;
+        private String drainPending() {
+            String line = new String(pending, 0, pendingLength, charset);
+            pendingLength = 0;
+            return line;
+        }
     }
 
-    @Override
-    public String readLine() throws IOException {
-        if (bufferLen < 0)
-            return null;
+    private static class StreamByteLineReader extends ByteLineReader {
 
-        StringBuffer s = new StringBuffer(defaultExpectedLineLength);
+        private final InputStream stream;
+        private final byte[] data = new byte[DEFAULT_BUFFER_SIZE];
 
-        for (; ; ) {
-            boolean stop = fillFromBuffer(s);
-            if (stop) break;
+        StreamByteLineReader(InputStream stream, Charset charset) {
+            super(charset);
+            this.stream = stream;
+        }
 
-            bufferLen = reader.read(buffer, 0, buffer.length);
-            nextChar = 0;
-            if (bufferLen < 0)
-                return s.length() > 0 ? s.toString() : null;
+        @Override
+        protected boolean fill() throws IOException {
+            int read;
+
+            do {
+                read = stream.read(data, 0, data.length);
+            } while (read == 0);
+
+            if (read < 0)
+                return false;
+
+            buffer = ByteBuffer.wrap(data, 0, read);
+            return true;
         }
 
-        return s.toString();
+        @Override
+        public void close() throws IOException {
+            stream.close();
+        }
     }
 
-    @Override
-    public void close() throws IOException {
-        reader.close();
+    private static class MappedByteLineReader extends ByteLineReader {
+
+        private final FileChannel channel;
+        private final long size;
+        private long position = 0;
+
+        MappedByteLineReader(File file, Charset charset) throws IOException {
+            super(charset);
+            this.channel = new RandomAccessFile(file, "r").getChannel();
+            this.size = channel.size();
+        }
+
+        @Override
+        protected boolean fill() throws IOException {
+            if (position >= size)
+                return false;
+
+            long length = Math.min(MAPPED_REGION_SIZE, size - position);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            position += length;
+
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            buffer = null;
+            channel.close();
+        }
     }
 
 }
@@ -6,6 +6,7 @@ import eu.modernmt.model.ContextVector;
 import eu.modernmt.model.Sentence;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.util.Objects;
 import java.util.UUID;
@@ -65,6 +66,15 @@ public interface TranslationMemory extends Closeable, LogDataListener {
 
     void optimize() throws IOException;
 
+    /**
+     * Saves a consistent copy of the latest committed state of the memory in the given folder,
+     * while the memory keeps serving requests and receiving new data.
+     *
+     * @param destination the folder where the backup will be written
+     * @throws IOException if an I/O error occurs
+     */
+    void backup(File destination) throws IOException;
+
     long size();
 
     void dumpAll(Consumer<Entry> consumer) throws IOException;
@@ -67,7 +67,7 @@ public class CompactFileCorpus extends BaseMultilingualCorpus {
         private final HashMap<String, LanguageDirection> cachedLanguagePairs = new HashMap<>();
 
         private CompactReader(FileProxy file) throws IOException {
-            this.reader = new UnixLineReader(file.getInputStream(), UTF8Charset.get());
+            this.reader = new UnixLineReader(file, UTF8Charset.get());
         }
 
         @Override
@@ -73,7 +73,7 @@ public class FileCorpus extends BaseCorpus {
 
     @Override
     public LineReader getContentReader() throws IOException {
-        return new UnixLineReader(file.getInputStream(), UTF8Charset.get());
+        return new UnixLineReader(file, UTF8Charset.get());
     }
 
     @Override
@@ -116,8 +116,8 @@ public class ParallelFileCorpus extends BaseMultilingualCorpus {
             boolean success = false;
 
             try {
-                this.sourceReader = new UnixLineReader(source.getInputStream(), UTF8Charset.get());
-                this.targetReader = new UnixLineReader(target.getInputStream(), UTF8Charset.get());
+                this.sourceReader = new UnixLineReader(source, UTF8Charset.get());
+                this.targetReader = new UnixLineReader(target, UTF8Charset.get());
                 this.index = 0;
 
                 success = true;
@@ -0,0 +1,279 @@
+package eu.modernmt.model.corpus.impl.tmx;
+
+import eu.modernmt.model.corpus.TUReader;
+import eu.modernmt.model.corpus.TranslationUnit;
+import eu.modernmt.xml.XMLUtils;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * TUReader that parses a single UTF-8 TMX file with multiple threads.
+ * <p>
+ * The file is split in chunks that end right after a "&lt;/tu&gt;" tag (whitespace is allowed before the
+ * closing "&gt;"); every chunk is then wrapped
+ * with the original file prefix (XML declaration, &lt;tmx&gt;, &lt;header&gt; and &lt;body&gt; tags), so that
+ * header attributes like "srclang" are preserved, and parsed independently.
+ * Chunks are numbered and their units are returned strictly in file order.
+ * <p>
+ * Chunks are parsed by a thread pool shared by all the readers, with one thread per core; idle threads terminate
+ * after a few seconds. Every reader keeps at most "threads + 1" chunks in memory, raw or parsed, and no more
+ * than MAX_PENDING_BYTES of raw chunk data: the next chunks are read from the file as the parsed ones are consumed.
+ * <p>
+ * A literal "&lt;/tu&gt;" inside a CDATA section or a comment is not supported.
+ */
+class ParallelTMXReader implements TUReader {
+
+    private static final byte[] TU_START = "<tu".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TU_END = "</tu".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SUFFIX = "</body></tmx>".getBytes(StandardCharsets.US_ASCII);
+    private static final int SCAN_WINDOW = 64 * 1024;
+    private static final long MAX_PENDING_BYTES = 128L * 1024 * 1024;
+
+    private static ThreadPoolExecutor sharedExecutor = null;
+
+    private static synchronized ExecutorService getSharedExecutor() {
+        if (sharedExecutor == null) {
+            int threads = Runtime.getRuntime().availableProcessors();
+            sharedExecutor = new ThreadPoolExecutor(threads, threads, 10L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "TMXParserThread");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sharedExecutor.allowCoreThreadTimeOut(true);
+        }
+
+        return sharedExecutor;
+    }
+
+    private final File tmx;
+    private final RandomAccessFile file;
+    private final long length;
+    private final int chunkSize;
+    private final int maxPendingChunks;
+    private final byte[] prefix;
+
+    private final ExecutorService executor = getSharedExecutor();
+    private final ArrayDeque<Future<List<TranslationUnit>>> pendingChunks = new ArrayDeque<>();
+
+    private long nextChunkOffset;
+    private Iterator<TranslationUnit> currentChunk = Collections.emptyIterator();
+
+    /**
+     * Tries to create a parallel reader for the given file.
+     *
+     * @return the new reader or null if the file cannot be split (not UTF-8 or no &lt;tu&gt; elements found)
+     * @throws IOException if an I/O error occurs
+     */
+    static ParallelTMXReader open(File tmx, int threads, int chunkSize) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(tmx, "r");
+        boolean success = false;
+
+        try {
+            if (!isUTF8(file))
+                return null;
+
+            long firstTu = findTuStart(file);
+            if (firstTu < 0)
+                return null;
+
+            byte[] prefix = new byte[(int) firstTu];
+            file.seek(0);
+            file.readFully(prefix);
+
+            ParallelTMXReader reader = new ParallelTMXReader(tmx, file, prefix, threads, chunkSize);
+            success = true;
+
+            return reader;
+        } finally {
+            if (!success)
+                file.close();
+        }
+    }
+
+    private ParallelTMXReader(File tmx, RandomAccessFile file, byte[] prefix, int threads, int chunkSize) throws IOException {
+        this.tmx = tmx;
+        this.file = file;
+        this.length = file.length();
+        this.prefix = prefix;
+        this.chunkSize = chunkSize;
+        this.maxPendingChunks = (int) Math.max(2, Math.min(threads + 1, MAX_PENDING_BYTES / chunkSize));
+        this.nextChunkOffset = prefix.length;
+    }
+
+    private static boolean isUTF8(RandomAccessFile file) throws IOException {
+        byte[] head = new byte[4];
+        file.seek(0);
+        int read = file.read(head);
+
+        if (read >= 2) {
+            // UTF-16 BOM or the first char of an UTF-16/32 "<?xml" declaration
+            if ((head[0] == (byte) 0xFE && head[1] == (byte) 0xFF) || (head[0] == (byte) 0xFF && head[1] == (byte) 0xFE))
+                return false;
+            if (head[0] == 0 || head[1] == 0)
+                return false;
+        }
+
+        return true;
+    }
+
+    private static long findTuStart(RandomAccessFile file) throws IOException {
+        long offset = 0;
+
+        while (true) {
+            long match = indexOf(file, TU_START, offset);
+            if (match < 0)
+                return -1;
+
+            file.seek(match + TU_START.length);
+            int next = file.read();
+            if (next == '>' || next == ' ' || next == '\t' || next == '\n' || next == '\r')
+                return match;
+
+            offset = match + 1;
+        }
+    }
+
+    /**
+     * @return the offset that follows the first "&lt;/tu&gt;" tag (with optional whitespace before "&gt;")
+     * at or after the given offset, or -1 if there is none
+     */
+    static long findTuEnd(RandomAccessFile file, long from) throws IOException {
+        long offset = from;
+
+        while (true) {
+            long match = indexOf(file, TU_END, offset);
+            if (match < 0)
+                return -1;
+
+            file.seek(match + TU_END.length);
+            int next;
+            do {
+                next = file.read();
+            } while (next == ' ' || next == '\t' || next == '\n' || next == '\r');
+
+            if (next == '>')
+                return file.getFilePointer();
+
+            offset = match + 1;
+        }
+    }
+
+    private static long indexOf(RandomAccessFile file, byte[] pattern, long from) throws IOException {
+        byte[] window = new byte[SCAN_WINDOW + pattern.length - 1];
+        long offset = from;
+
+        while (true) {
+            file.seek(offset);
+            int read = file.read(window);
+            if (read < pattern.length)
+                return -1;
+
+            outer:
+            for (int i = 0; i <= read - pattern.length; i++) {
+                for (int j = 0; j < pattern.length; j++) {
+                    if (window[i + j] != pattern[j])
+                        continue outer;
+                }
+
+                return offset + i;
+            }
+
+            offset += read - pattern.length + 1;
+        }
+    }
+
+    private void scheduleChunks() throws IOException {
+        while (pendingChunks.size() < maxPendingChunks && nextChunkOffset < length) {
+            long start = nextChunkOffset;
+            long end;
+
+            long match = start + chunkSize < length ? findTuEnd(file, start + chunkSize) : -1;
+            end = match < 0 ? length : match;
+
+            byte[] chunk = new byte[(int) (end - start)];
+            file.seek(start);
+            file.readFully(chunk);
+
+            boolean last = end == length;
+            pendingChunks.add(executor.submit(new ChunkParser(chunk, start, last)));
+
+            nextChunkOffset = end;
+        }
+    }
+
+    @Override
+    public TranslationUnit read() throws IOException {
+        while (!currentChunk.hasNext()) {
+            scheduleChunks();
+
+            Future<List<TranslationUnit>> future = pendingChunks.poll();
+            if (future == null)
+                return null;
+
+            try {
+                currentChunk = future.get().iterator();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException("Interrupted while parsing TMX " + tmx);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw new IOException("Invalid TMX " + tmx, cause);
+            }
+        }
+
+        return currentChunk.next();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Future<List<TranslationUnit>> future : pendingChunks)
+            future.cancel(true);
+        pendingChunks.clear();
+        file.close();
+    }
+
+    private class ChunkParser implements Callable<List<TranslationUnit>> {
+
+        private byte[] chunk;
+        private final long offset;
+        private final boolean last;
+
+        ChunkParser(byte[] chunk, long offset, boolean last) {
+            this.chunk = chunk;
+            this.offset = offset;
+            this.last = last;
+        }
+
+        @Override
+        public List<TranslationUnit> call() throws XMLStreamException {
+            InputStream stream = new SequenceInputStream(new ByteArrayInputStream(prefix), new ByteArrayInputStream(chunk));
+            chunk = null; // the raw data is not retained once the chunk has been parsed
+
+            if (!last)
+                stream = new SequenceInputStream(stream, new ByteArrayInputStream(SUFFIX));
+
+            TMXTUReader tuReader = new TMXTUReader();
+            ArrayList<TranslationUnit> result = new ArrayList<>();
+            XMLStreamReader reader = null;
+
+            try {
+                reader = XMLUtils.createStreamReader(stream);
+
+                List<TranslationUnit> tus;
+                while ((tus = tuReader.read(reader)) != null)
+                    result.addAll(tus);
+            } catch (XMLStreamException e) {
+                throw new XMLStreamException("Error in chunk starting at byte " + offset + ": " + e.getMessage(), e);
+            } finally {
+                XMLUtils.closeQuietly(reader);
+            }
+
+            return result;
+        }
+    }
+
+}
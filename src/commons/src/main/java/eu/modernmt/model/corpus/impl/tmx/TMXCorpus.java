@@ -17,6 +17,9 @@ public class TMXCorpus extends BaseMultilingualCorpus {
     public static final String TMX_DATE_FORMAT = "yyyyMMdd'T'HHmmss'Z'";
     public static final String XML_NAMESPACE = "http://www.w3.org/XML/1998/namespace";
 
+    private static final long PARALLEL_PARSING_THRESHOLD = 64L * 1024 * 1024;
+    private static final int PARALLEL_PARSING_CHUNK_SIZE = 8 * 1024 * 1024;
+
     private final FileProxy tmx;
     private final String name;
 
@@ -48,6 +51,18 @@ public class TMXCorpus extends BaseMultilingualCorpus {
 
     @Override
     public TUReader getContentReader() throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        if (threads > 1 && tmx instanceof FileProxy.NativeFileProxy && !((FileProxy.NativeFileProxy) tmx).isGzipped()) {
+            File file = ((FileProxy.NativeFileProxy) tmx).getFile();
+
+            if (file.length() >= PARALLEL_PARSING_THRESHOLD) {
+                TUReader reader = ParallelTMXReader.open(file, threads, PARALLEL_PARSING_CHUNK_SIZE);
+                if (reader != null)
+                    return reader;
+            }
+        }
+
         return new TMXReader(tmx);
     }
 
@@ -0,0 +1,100 @@
+package eu.modernmt.model.corpus.impl.tmx;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Parser for TMX timestamps ({@link TMXCorpus#TMX_DATE_FORMAT}, ISO 8601 basic format in UTC).
+ * <p>
+ * Well-formed dates are parsed by hand, anything else is delegated to a lenient SimpleDateFormat
+ * in order to keep accepting the same inputs as before. TUs of the same file very often share
+ * the same date, so the last parsed value is cached.
+ * <p>
+ * Not thread-safe: every reader must use its own instance.
+ */
+class TMXDateParser {
+
+    private static final int LENGTH = 16;  // yyyyMMddTHHmmssZ
+
+    private final SimpleDateFormat fallbackFormat = new SimpleDateFormat(TMXCorpus.TMX_DATE_FORMAT);
+
+    private String lastText = null;
+    private long lastValue = 0L;
+
+    TMXDateParser() {
+        fallbackFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+    }
+
+    public Date parse(String text) throws ParseException {
+        if (!text.equals(lastText)) {
+            lastValue = parseMillis(text);
+            lastText = text;
+        }
+
+        return new Date(lastValue);
+    }
+
+    private long parseMillis(String text) throws ParseException {
+        if (text.length() == LENGTH && text.charAt(8) == 'T' && text.charAt(15) == 'Z') {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 4, 2);
+            int day = digits(text, 6, 2);
+            int hour = digits(text, 9, 2);
+            int minute = digits(text, 11, 2);
+            int second = digits(text, 13, 2);
+
+            // SimpleDateFormat switches to the Julian calendar before 1583
+            if (year > 1582 && month >= 1 && month <= 12 && day >= 1 && day <= daysInMonth(year, month) &&
+                    hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60) {
+                long days = daysFromCivil(year, month, day);
+                return ((days * 24 + hour) * 60 + minute) * 60_000L + second * 1000L;
+            }
+        }
+
+        return fallbackFormat.parse(text).getTime();
+    }
+
+    private static int digits(String text, int offset, int length) {
+        int value = 0;
+
+        for (int i = offset; i < offset + length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                return -1;
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // Days since 1970-01-01 in the proleptic Gregorian calendar (H. Hinnant's algorithm)
+    private static long daysFromCivil(int year, int month, int day) {
+        year -= month <= 2 ? 1 : 0;
+        long era = (year >= 0 ? year : year - 399) / 400;
+        long yoe = year - era * 400;
+        long doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+}
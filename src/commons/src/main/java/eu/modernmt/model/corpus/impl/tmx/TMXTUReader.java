@@ -2,22 +2,17 @@ package eu.modernmt.model.corpus.impl.tmx;
 
 import eu.modernmt.lang.Language;
 import eu.modernmt.lang.LanguageDirection;
-import eu.modernmt.model.corpus.MultilingualCorpus;
 import eu.modernmt.model.corpus.TranslationUnit;
 import eu.modernmt.xml.XMLUtils;
 
 import javax.xml.stream.Location;
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.StartElement;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.TimeZone;
 
 /**
  * Created by davide on 14/03/16.
@@ -27,70 +22,58 @@ class TMXTUReader {
     private final LanguageCache languageCache = new LanguageCache();
     private final ArrayList<TranslationUnit> resultCache = new ArrayList<>(8);
 
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat(TMXCorpus.TMX_DATE_FORMAT);
+    private final TMXDateParser dateParser = new TMXDateParser();
     private Language headerSourceLanguage = null;
 
-    TMXTUReader() {
-        dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
-    }
-
-    public List<TranslationUnit> read(XMLEventReader reader) throws XMLStreamException {
+    public List<TranslationUnit> read(XMLStreamReader reader) throws XMLStreamException {
         while (reader.hasNext()) {
-            XMLEvent event = reader.nextEvent();
-
-            switch (event.getEventType()) {
-                case XMLStreamConstants.START_ELEMENT:
-                    StartElement element = event.asStartElement();
-                    String name = XMLUtils.getLocalName(element);
-                    if ("header".equals(name)) {
-                        readHeader(element);
-                    } else if ("tu".equals(name)) {
-                        return readTu(reader, element);
-                    }
-
-                    break;
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+
+                if ("header".equals(name)) {
+                    readHeader(reader);
+                } else if ("tu".equals(name)) {
+                    return readTu(reader);
+                }
             }
         }
 
         return null;
     }
 
-    private void readHeader(StartElement header) {
-        this.headerSourceLanguage = languageCache.get(XMLUtils.getAttributeValue(header, null, "srclang"));
+    private void readHeader(XMLStreamReader reader) {
+        this.headerSourceLanguage = languageCache.get(XMLUtils.getAttributeValue(reader, null, "srclang"));
     }
 
-    private List<TranslationUnit> readTu(XMLEventReader reader, StartElement tu) throws XMLStreamException {
+    private List<TranslationUnit> readTu(XMLStreamReader reader) throws XMLStreamException {
         this.resultCache.clear();
 
-        Date tuTimestamp = getTimestamp(tu);
-        String tuid = getTuid(tu);
-        Language tuSourceLanguage = languageCache.get(XMLUtils.getAttributeValue(tu, null, "srclang"));
+        int tuLine = getLineNumber(reader);
+        Date tuTimestamp = getTimestamp(reader);
+        String tuid = getTuid(reader);
+        Language tuSourceLanguage = languageCache.get(XMLUtils.getAttributeValue(reader, null, "srclang"));
 
         Language sourceLanguage = tuSourceLanguage == null ? headerSourceLanguage : tuSourceLanguage;
         String sourceText = null;
 
         while (reader.hasNext()) {
-            XMLEvent event = reader.nextEvent();
-
-            switch (event.getEventType()) {
+            switch (reader.next()) {
                 case XMLStreamConstants.START_ELEMENT:
-                    StartElement element = event.asStartElement();
-
-                    if ("tuv".equals(XMLUtils.getLocalName(element))) {
-                        String _lang = XMLUtils.getAttributeValue(element, TMXCorpus.XML_NAMESPACE, "lang");
+                    if ("tuv".equals(reader.getLocalName())) {
+                        String _lang = XMLUtils.getAttributeValue(reader, TMXCorpus.XML_NAMESPACE, "lang");
                         if (_lang == null)
-                            _lang = XMLUtils.getAttributeValue(element, null, "lang");
+                            _lang = XMLUtils.getAttributeValue(reader, null, "lang");
                         if (_lang == null)
-                            throw new XMLStreamException(format("Missing language for 'tuv'", event));
+                            throw new XMLStreamException(format("Missing language for 'tuv'", reader));
 
                         Language lang = languageCache.get(_lang);
                         if (sourceLanguage == null)
                             sourceLanguage = lang; // The first <TUV> element in a <TU> is expected to be the source.
 
-                        Date tuvTimestamp = getTimestamp(element);
+                        Date tuvTimestamp = getTimestamp(reader);
 
                         Date timestamp = tuvTimestamp == null ? tuTimestamp : tuvTimestamp;
-                        String text = readTuv(reader, element);
+                        String text = readTuv(reader);
 
                         if (sourceLanguage.isEqualOrMoreGenericThan(lang)) {
                             sourceText = text;
@@ -101,11 +84,11 @@ class TMXTUReader {
                     }
                     break;
                 case XMLStreamConstants.END_ELEMENT:
-                    if ("tu".equals(XMLUtils.getLocalName(event.asEndElement()))) {
+                    if ("tu".equals(reader.getLocalName())) {
                         if (sourceText == null)
-                            throw new XMLStreamException(format("Missing source text in <tu> element", event));
+                            throw new XMLStreamException(format("Missing source text in <tu> element", reader));
                         if (resultCache.isEmpty())
-                            throw new XMLStreamException(format("Not enough <tuv> elements found in <tu> element", event));
+                            throw new XMLStreamException(format("Not enough <tuv> elements found in <tu> element", reader));
 
                         for (TranslationUnit entry : resultCache)
                             entry.source = sourceText;
@@ -116,53 +99,53 @@ class TMXTUReader {
             }
         }
 
-        throw new XMLStreamException(format("Missing closing tag for 'tuv' element", tu));
+        throw new XMLStreamException(format("Missing closing tag for 'tuv' element", tuLine));
     }
 
-    private String readTuv(XMLEventReader reader, StartElement tuv) throws XMLStreamException {
-        while (reader.hasNext()) {
-            XMLEvent event = reader.nextEvent();
-
-            switch (event.getEventType()) {
-                case XMLStreamConstants.START_ELEMENT:
-                    StartElement element = event.asStartElement();
+    private String readTuv(XMLStreamReader reader) throws XMLStreamException {
+        int tuvLine = getLineNumber(reader);
 
-                    if ("seg".equals(XMLUtils.getLocalName(element))) {
-                        return XMLUtils.getXMLContent(reader, element, false)
-                                .replace('\n', ' ');
-                    }
-                    break;
-            }
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && "seg".equals(reader.getLocalName()))
+                return XMLUtils.getTextContent(reader).replace('\n', ' ');
         }
 
-        throw new XMLStreamException(format("Missing 'seg' inside 'tuv' element", tuv));
+        throw new XMLStreamException(format("Missing 'seg' inside 'tuv' element", tuvLine));
     }
 
-    private Date getTimestamp(StartElement tu) throws XMLStreamException {
+    private Date getTimestamp(XMLStreamReader reader) throws XMLStreamException {
         Date timestamp = null;
 
-        String date = XMLUtils.getAttributeValue(tu, null, "changedate");
+        String date = XMLUtils.getAttributeValue(reader, null, "changedate");
         if (date == null)
-            date = XMLUtils.getAttributeValue(tu, null, "creationdate");
+            date = XMLUtils.getAttributeValue(reader, null, "creationdate");
 
         if (date != null) {
             try {
-                timestamp = dateFormat.parse(date);
+                timestamp = dateParser.parse(date);
             } catch (ParseException | NumberFormatException e) {
-                throw new XMLStreamException(format("Invalid date '" + date + "'", tu), e);
+                throw new XMLStreamException(format("Invalid date '" + date + "'", reader), e);
             }
         }
 
         return timestamp;
     }
 
-    private String getTuid(StartElement tu) {
-        return XMLUtils.getAttributeValue(tu, null, "tuid");
+    private String getTuid(XMLStreamReader reader) {
+        return XMLUtils.getAttributeValue(reader, null, "tuid");
+    }
+
+    private static int getLineNumber(XMLStreamReader reader) {
+        Location location = reader.getLocation();
+        return location == null ? -1 : location.getLineNumber();
+    }
+
+    private static String format(String message, XMLStreamReader reader) {
+        return format(message, getLineNumber(reader));
     }
 
-    private static String format(String message, XMLEvent event) {
-        Location location = event == null ? null : event.getLocation();
-        return location == null ? message : (message + " at line " + location.getLineNumber());
+    private static String format(String message, int line) {
+        return line < 0 ? message : (message + " at line " + line);
     }
 
 }
@@ -48,7 +48,7 @@ public class XMLUtils {
         return builder == null ? string : builder.toString();
     }
 
-    public static XMLEventReader createEventReader(InputStream stream) throws XMLStreamException {
+    private static Reader createFixReader(InputStream stream) throws XMLStreamException {
         Charset charset = UTF8Charset.get();
 
         BOMInputStream bomStream = new BOMInputStream(stream, false,
@@ -60,8 +60,17 @@ public class XMLUtils {
             throw new XMLStreamException(e);
         }
 
+        return new XMLFixInputStreamReader(bomStream, charset);
+    }
+
+    public static XMLEventReader createEventReader(InputStream stream) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        return factory.createXMLEventReader(createFixReader(stream));
+    }
+
+    public static XMLStreamReader createStreamReader(InputStream stream) throws XMLStreamException {
         XMLInputFactory factory = XMLInputFactory.newInstance();
-        return factory.createXMLEventReader(new XMLFixInputStreamReader(bomStream, charset));
+        return factory.createXMLStreamReader(createFixReader(stream));
     }
 
     public static void closeQuietly(XMLEventReader reader) {
@@ -73,6 +82,15 @@ public class XMLUtils {
             }
     }
 
+    public static void closeQuietly(XMLStreamReader reader) {
+        if (reader != null)
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // Ignore
+            }
+    }
+
     public static XMLStreamWriter createStreamWriter(OutputStream stream) throws XMLStreamException {
         Charset charset = UTF8Charset.get();
 
@@ -94,6 +112,60 @@ public class XMLUtils {
         return attribute == null ? null : attribute.getValue();
     }
 
+    /**
+     * Returns the value of the attribute of the current START_ELEMENT of the reader.
+     * Unlike {@link XMLStreamReader#getAttributeValue(String, String)}, a null namespaceURI
+     * matches only attributes with no namespace.
+     */
+    public static String getAttributeValue(XMLStreamReader reader, String namespaceURI, String localPart) {
+        if (namespaceURI == null)
+            namespaceURI = XMLConstants.NULL_NS_URI;
+
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (!localPart.equals(reader.getAttributeLocalName(i)))
+                continue;
+
+            String namespace = reader.getAttributeNamespace(i);
+            if (namespaceURI.equals(namespace == null ? XMLConstants.NULL_NS_URI : namespace))
+                return reader.getAttributeValue(i);
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads the text content of the current START_ELEMENT (including text of nested elements, without tags)
+     * and leaves the reader on its matching END_ELEMENT.
+     */
+    public static String getTextContent(XMLStreamReader reader) throws XMLStreamException {
+        String rootElementName = reader.getLocalName();
+        Location location = reader.getLocation();
+        int rootLine = location == null ? -1 : location.getLineNumber();
+
+        StringBuilder buffer = new StringBuilder(256);
+        int depth = 1;
+
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (--depth == 0)
+                        return buffer.toString();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    buffer.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+            }
+        }
+
+        String message = "Missing closing tag for '" + rootElementName + "' element";
+        throw new XMLStreamException(rootLine < 0 ? message : (message + " at line " + rootLine));
+    }
+
     public static String getXMLContent(XMLEventReader reader, StartElement element, boolean includeTags) throws XMLStreamException {
         String rootElementName = getLocalName(element);
 
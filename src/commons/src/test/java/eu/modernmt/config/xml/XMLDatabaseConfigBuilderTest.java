@@ -0,0 +1,51 @@
+package eu.modernmt.config.xml;
+
+import eu.modernmt.config.ConfigException;
+import eu.modernmt.config.DatabaseConfig;
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class XMLDatabaseConfigBuilderTest {
+
+    private static DatabaseConfig build(String attributes) throws Exception {
+        String xml = "<db embedded=\"true\" " + attributes + "/>";
+        Element element = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)))
+                .getDocumentElement();
+
+        return new XMLDatabaseConfigBuilder(element).build(new DatabaseConfig(null));
+    }
+
+    private static void assertInvalid(String attributes, String message) throws Exception {
+        try {
+            build(attributes);
+            fail("Expected ConfigException");
+        } catch (ConfigException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+
+    @Test
+    public void testSizes() throws Throwable {
+        DatabaseConfig config = build("pool-size=\"5\" cache-size=\"100\" id-block-size=\"1\"");
+
+        assertEquals(5, config.getPoolSize());
+        assertEquals(100, config.getCacheSize());
+        assertEquals(1, config.getIdBlockSize());
+    }
+
+    @Test
+    public void testInvalidSizes() throws Throwable {
+        assertInvalid("pool-size=\"0\"", "Invalid pool size: 0");
+        assertInvalid("cache-size=\"-1\"", "Invalid cache size: -1");
+        assertInvalid("id-block-size=\"0\"", "Invalid ID block size: 0");
+        assertInvalid("cache-size=\"many\"", "many");
+    }
+
+}
@@ -0,0 +1,102 @@
+package eu.modernmt.io;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class UnixLineReaderTest {
+
+    private static final String[] INPUTS = new String[]{
+            "",
+            "\n",
+            "hello",
+            "hello\n",
+            "hello\r\nworld",
+            "hello\r\nworld\r\n",
+            "a\rb\nc\r",
+            "\n\nhello\n\n",
+            "nul\u0000char\nè una città\n日本語\r\n",
+            "0123456789abcdef0123\r\n0123456789abcdef\nxyz",
+    };
+
+    private static List<String> readAll(LineReader reader) throws IOException {
+        try {
+            ArrayList<String> lines = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null)
+                lines.add(line);
+            return lines;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static List<String> expected(String input) {
+        ArrayList<String> lines = new ArrayList<>(Arrays.asList(input.split("\n", -1)));
+        if (lines.get(lines.size() - 1).isEmpty())
+            lines.remove(lines.size() - 1);
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            boolean terminated = i < lines.size() - 1 || input.endsWith("\n");
+
+            if (terminated && line.endsWith("\r"))
+                lines.set(i, line.substring(0, line.length() - 1));
+        }
+
+        return lines;
+    }
+
+    private static InputStream byteByByte(byte[] data) {
+        return new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+    }
+
+    @Test
+    public void testReader() throws IOException {
+        for (String input : INPUTS)
+            assertEquals(expected(input), readAll(new UnixLineReader(new StringReader(input))));
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        for (String input : INPUTS) {
+            byte[] data = input.getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected(input), readAll(new UnixLineReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    public void testStreamWithSplitChunks() throws IOException {
+        for (String input : INPUTS) {
+            byte[] data = input.getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected(input), readAll(new UnixLineReader(byteByByte(data), StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    public void testMappedFile() throws IOException {
+        File file = File.createTempFile("UnixLineReaderTest", ".txt");
+
+        try {
+            for (String input : INPUTS) {
+                FileUtils.write(file, input, StandardCharsets.UTF_8, false);
+                assertEquals(expected(input), readAll(new UnixLineReader(FileProxy.wrap(file), StandardCharsets.UTF_8)));
+            }
+        } finally {
+            FileUtils.deleteQuietly(file);
+        }
+    }
+
+}
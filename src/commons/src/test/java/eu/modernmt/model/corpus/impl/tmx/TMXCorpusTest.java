@@ -0,0 +1,168 @@
+package eu.modernmt.model.corpus.impl.tmx;
+
+import eu.modernmt.io.FileProxy;
+import eu.modernmt.io.UTF8Charset;
+import eu.modernmt.lang.Language;
+import eu.modernmt.lang.LanguageDirection;
+import eu.modernmt.model.corpus.TUReader;
+import eu.modernmt.model.corpus.TranslationUnit;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class TMXCorpusTest {
+
+    private static final String TMX = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<tmx version=\"1.4\">\n" +
+            "  <header srclang=\"en\" creationtool=\"test\"/>\n" +
+            "  <body>\n" +
+            "    <tu tuid=\"1\" creationdate=\"20190312T101530Z\">\n" +
+            "      <prop type=\"x-note\">ignored</prop>\n" +
+            "      <tuv xml:lang=\"en\"><seg>Hello <bpt i=\"1\">&lt;b&gt;</bpt>world<ept i=\"1\">&lt;/b&gt;</ept></seg></tuv>\n" +
+            "      <tuv xml:lang=\"it\" changedate=\"20200229T235959Z\"><seg>Ciao\nmondo &amp; <![CDATA[<tutti>]]></seg></tuv>\n" +
+            "      <tuv lang=\"fr\"><seg>Bonjour</seg></tuv>\n" +
+            "    </tu>\n" +
+            "    <tu srclang=\"it\">\n" +
+            "      <tuv xml:lang=\"en-US\"><seg>Thanks</seg></tuv>\n" +
+            "      <tuv xml:lang=\"it\"><seg>Grazie</seg></tuv>\n" +
+            "    </tu>\n" +
+            "  </body>\n" +
+            "</tmx>\n";
+
+    private File file;
+
+    @Before
+    public void setup() throws IOException {
+        file = File.createTempFile("TMXCorpusTest", ".tmx");
+        FileUtils.write(file, TMX, UTF8Charset.get(), false);
+    }
+
+    @After
+    public void teardown() {
+        FileUtils.deleteQuietly(file);
+    }
+
+    private static Date date(String text) throws ParseException {
+        SimpleDateFormat format = new SimpleDateFormat(TMXCorpus.TMX_DATE_FORMAT);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format.parse(text);
+    }
+
+    private static LanguageDirection lp(String source, String target) {
+        return new LanguageDirection(Language.fromString(source), Language.fromString(target));
+    }
+
+    @Test
+    public void testRead() throws IOException, ParseException {
+        List<TranslationUnit> units = readAll(new TMXCorpus(file).getContentReader());
+
+        assertEquals(3, units.size());
+
+        assertEquals(new TranslationUnit("1", lp("en", "it"),
+                "Hello <b>world</b>", "Ciao mondo & <tutti>", date("20200229T235959Z")), units.get(0));
+        assertEquals(new TranslationUnit("1", lp("en", "fr"),
+                "Hello <b>world</b>", "Bonjour", date("20190312T101530Z")), units.get(1));
+        assertEquals(new TranslationUnit(null, lp("it", "en-US"),
+                "Grazie", "Thanks", null), units.get(2));
+    }
+
+    private static List<TranslationUnit> readAll(TUReader reader) throws IOException {
+        List<TranslationUnit> units = new ArrayList<>();
+
+        try {
+            TranslationUnit unit;
+            while ((unit = reader.read()) != null)
+                units.add(unit);
+        } finally {
+            reader.close();
+        }
+
+        return units;
+    }
+
+    private static final String[] TU_END_TAGS = {"</tu>", "</tu >", "</tu\n  >", "</tu\t>"};
+
+    @Test
+    public void testParallelRead() throws IOException {
+        testParallelRead(new String[]{"</tu>"});
+    }
+
+    @Test
+    public void testParallelReadWithSpacedEndTags() throws IOException {
+        testParallelRead(TU_END_TAGS);
+    }
+
+    private void testParallelRead(String[] endTags) throws IOException {
+        StringBuilder tmx = new StringBuilder();
+        tmx.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<tmx version=\"1.4\">\n<header srclang=\"en\"/>\n<body>\n");
+
+        for (int i = 0; i < 1000; i++) {
+            tmx.append("<tu tuid=\"").append(i).append("\" creationdate=\"20190312T10").append(String.format("%04d", i % 6000)).append("Z\">\n");
+            tmx.append("<tuv xml:lang=\"en\"><seg>Source <bpt i=\"1\">&lt;b&gt;</bpt>sentence</seg></tuv>\n");
+            tmx.append("<tuv xml:lang=\"").append(i % 2 == 0 ? "it" : "fr").append("\"><seg>Target ").append(i).append("</seg></tuv>\n");
+            tmx.append(endTags[i % endTags.length]).append("\n");
+        }
+
+        tmx.append("</body>\n</tmx>\n");
+        FileUtils.write(file, tmx, UTF8Charset.get(), false);
+
+        List<TranslationUnit> expected = readAll(new TMXReader(FileProxy.wrap(file)));
+        List<TranslationUnit> actual = readAll(ParallelTMXReader.open(file, 4, 1000));
+
+        assertEquals(1000, expected.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testFindTuEnd() throws IOException {
+        String content = "<tu><tuv></tuv></tu ><tu></tu\n\t><tu></tuple></tu>";
+        FileUtils.write(file, content, UTF8Charset.get(), false);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long first = ParallelTMXReader.findTuEnd(raf, 0);
+            assertEquals(content.indexOf("</tu >") + "</tu >".length(), first);
+
+            long second = ParallelTMXReader.findTuEnd(raf, first);
+            assertEquals(content.indexOf("</tu\n\t>") + "</tu\n\t>".length(), second);
+
+            long third = ParallelTMXReader.findTuEnd(raf, second);
+            assertEquals(content.length(), third);
+
+            assertEquals(-1, ParallelTMXReader.findTuEnd(raf, third));
+        }
+    }
+
+    @Test
+    public void testDateParser() throws ParseException {
+        TMXDateParser parser = new TMXDateParser();
+
+        String[] dates = new String[]{
+                "19700101T000000Z", "20190312T101530Z", "20200229T235959Z", "21000301T120000Z",
+                "20191301T000000Z", "20190230T000000Z", "15000101T000000Z", "20190312T101530Zxyz"
+        };
+
+        for (String text : dates) {
+            assertEquals(text, date(text), parser.parse(text));
+            assertEquals(text, date(text), parser.parse(text));
+        }
+    }
+
+    @Test(expected = ParseException.class)
+    public void testInvalidDate() throws ParseException {
+        new TMXDateParser().parse("2019-03-12");
+    }
+
+}
@@ -80,6 +80,15 @@ public class LuceneAnalyzer implements ContextAnalyzer, DataListenerProvider {
         }
     }
 
+    @Override
+    public Map<LanguageDirection, ContextVector> getContextVectors(UUID user, Collection<LanguageDirection> directions, Corpus query, int limit) throws ContextAnalyzerException {
+        try {
+            return this.index.getContextVectors(user, directions, query, limit);
+        } catch (IOException e) {
+            throw new ContextAnalyzerException("Failed to calculate context-vectors due an internal error", e);
+        }
+    }
+
     @Override
     public synchronized void optimize() throws ContextAnalyzerException {
         logger.info("Starting memory forced merge");
@@ -94,6 +103,18 @@ public class LuceneAnalyzer implements ContextAnalyzer, DataListenerProvider {
         logger.info("Memory forced merge completed in " + (elapsed / 1000.) + "s");
     }
 
+    @Override
+    public void backup(File destination) throws ContextAnalyzerException {
+        // Storage first: analysis marks are written only after the index has been committed,
+        // so an index snapshot taken later is never behind the marks in the storage copy
+        try {
+            this.storage.backup(new File(destination, "storage"));
+            this.index.backup(new File(destination, "index"));
+        } catch (IOException e) {
+            throw new ContextAnalyzerException(e);
+        }
+    }
+
     public void analyze(Bucket bucket) throws IOException {
         long size = bucket.getSize();
 
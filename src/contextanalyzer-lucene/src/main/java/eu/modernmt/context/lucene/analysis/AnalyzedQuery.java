@@ -0,0 +1,143 @@
+package eu.modernmt.context.lucene.analysis;
+
+import eu.modernmt.model.corpus.Corpus;
+import org.apache.commons.io.IOUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.queries.mlt.MoreLikeThis;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The terms of a query document, analyzed only once and shared by the searches in all the
+ * language directions with the same source language (the content fields of these directions
+ * are analyzed with the same language analyzer).
+ * <p>
+ * It holds the term frequencies of the whole document, used by the rescorer, and the first
+ * terms of the document, replayed to the MoreLikeThis query builder in place of the original content.
+ * The document is consumed in a single pass, so it can be streamed directly from the request;
+ * in order to bound the memory used by very large documents, at most MAX_DISTINCT_TERMS terms are
+ * counted: the terms found after the limit has been reached are ignored.
+ */
+public class AnalyzedQuery {
+
+    private static final int MAX_REPLAYED_TOKENS = MoreLikeThis.DEFAULT_MAX_NUM_TOKENS_PARSED;
+    public static final int MAX_DISTINCT_TERMS = 100000;
+
+    private final String[] tokens;
+    private final Map<String, Float> termFrequencies;
+
+    public static AnalyzedQuery analyze(Analyzer analyzer, String fieldName, Corpus queryDocument) throws IOException {
+        return analyze(analyzer, fieldName, queryDocument, MAX_DISTINCT_TERMS);
+    }
+
+    public static AnalyzedQuery analyze(Analyzer analyzer, String fieldName, Corpus queryDocument, int maxDistinctTerms) throws IOException {
+        ArrayList<String> tokens = new ArrayList<>();
+        HashMap<String, Float> frequencies = new HashMap<>();
+
+        Reader reader = queryDocument.getRawContentReader();
+        TokenStream stream = null;
+
+        try {
+            stream = analyzer.tokenStream(fieldName, reader);
+            CharTermAttribute termAttribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+
+            while (stream.incrementToken()) {
+                String term = termAttribute.toString();
+
+                if (tokens.size() < MAX_REPLAYED_TOKENS)
+                    tokens.add(term);
+
+                Float frequency = frequencies.get(term);
+                if (frequency != null)
+                    frequencies.put(term, frequency + 1.f);
+                else if (frequencies.size() < maxDistinctTerms)
+                    frequencies.put(term, 1.f);
+            }
+
+            stream.end();
+        } finally {
+            IOUtils.closeQuietly(stream);
+            IOUtils.closeQuietly(reader);
+        }
+
+        return new AnalyzedQuery(tokens.toArray(new String[0]), frequencies);
+    }
+
+    private AnalyzedQuery(String[] tokens, Map<String, Float> termFrequencies) {
+        this.tokens = tokens;
+        this.termFrequencies = Collections.unmodifiableMap(termFrequencies);
+    }
+
+    /**
+     * @return the frequency of every term of the query document,
+     * the same as its term vector once indexed
+     */
+    public Map<String, Float> getTermFrequencies() {
+        return termFrequencies;
+    }
+
+    /**
+     * This method returns an analyzer that ignores its input and produces the terms of the query document,
+     * so that a MoreLikeThis instance can build its query without analyzing the content again.
+     * The returned analyzer is meant to be used by a single search and then closed.
+     *
+     * @return a new analyzer replaying the terms of this query
+     */
+    public Analyzer newReplayAnalyzer() {
+        return new Analyzer() {
+
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName, Reader reader) {
+                return new TokenStreamComponents(new ReplayTokenizer(reader, tokens));
+            }
+
+        };
+    }
+
+    /**
+     * @return an empty reader to be passed to MoreLikeThis together with the replay analyzer
+     */
+    public Reader newReplayReader() {
+        return new StringReader("");
+    }
+
+    private static final class ReplayTokenizer extends Tokenizer {
+
+        private final CharTermAttribute termAttribute = addAttribute(CharTermAttribute.class);
+        private final String[] tokens;
+        private int index = 0;
+
+        ReplayTokenizer(Reader input, String[] tokens) {
+            super(input);
+            this.tokens = tokens;
+        }
+
+        @Override
+        public boolean incrementToken() {
+            if (index >= tokens.length)
+                return false;
+
+            clearAttributes();
+            termAttribute.setEmpty().append(tokens[index++]);
+            return true;
+        }
+
+        @Override
+        public void reset() throws IOException {
+            super.reset();
+            index = 0;
+        }
+
+    }
+
+}
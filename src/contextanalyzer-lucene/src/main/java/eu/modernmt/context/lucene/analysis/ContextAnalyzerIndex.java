@@ -2,6 +2,7 @@ package eu.modernmt.context.lucene.analysis;
 
 import eu.modernmt.context.lucene.analysis.rescoring.CosineSimilarityRescorer;
 import eu.modernmt.context.lucene.analysis.rescoring.Rescorer;
+import eu.modernmt.io.IndexBackup;
 import eu.modernmt.lang.LanguageDirection;
 import eu.modernmt.model.ContextVector;
 import eu.modernmt.model.corpus.Corpus;
@@ -21,7 +22,8 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Created by davide on 10/07/15.
@@ -33,7 +35,9 @@ public class ContextAnalyzerIndex implements Closeable {
     private final Directory indexDirectory;
     private final Analyzer analyzer;
     private final IndexWriter indexWriter;
+    private final SnapshotDeletionPolicy deletionPolicy;
     private final Rescorer rescorer;
+    private final ExecutorService searchExecutor;
 
     private DirectoryReader _indexReader;
     private IndexSearcher _indexSearcher;
@@ -60,10 +64,17 @@ public class ContextAnalyzerIndex implements Closeable {
         this.indexDirectory = directory;
         this.analyzer = new CorpusAnalyzer();
         this.rescorer = rescorer;
+        this.searchExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "ContextAnalyzerSearch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.deletionPolicy = new SnapshotDeletionPolicy(new KeepOnlyLastCommitDeletionPolicy());
 
         // Index writer setup
         IndexWriterConfig indexConfig = new IndexWriterConfig(Version.LUCENE_4_10_4, this.analyzer);
         indexConfig.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        indexConfig.setIndexDeletionPolicy(this.deletionPolicy);
         indexConfig.setSimilarity(new DefaultSimilarity() {
 
             @Override
@@ -129,12 +140,110 @@ public class ContextAnalyzerIndex implements Closeable {
         this.indexWriter.commit();
     }
 
+    /**
+     * Saves a copy of the latest commit of the index in the given folder without blocking writers.
+     * Segment files are immutable, so they are hard-linked whenever possible.
+     *
+     * @param destination the folder where the index will be copied
+     * @throws IOException if an I/O error occurs
+     */
+    public void backup(File destination) throws IOException {
+        IndexBackup.backup(this.indexWriter, this.deletionPolicy, destination);
+    }
+
     public ContextVector getContextVector(UUID user, LanguageDirection direction, Corpus queryDocument, int limit) throws IOException {
         return this.getContextVector(user, direction, queryDocument, limit, this.rescorer);
     }
 
     public ContextVector getContextVector(UUID user, LanguageDirection direction, Corpus queryDocument, int limit, Rescorer rescorer) throws IOException {
         String contentFieldName = DocumentBuilder.makeContentFieldName(direction);
+        AnalyzedQuery query = AnalyzedQuery.analyze(this.analyzer, contentFieldName, queryDocument);
+
+        return this.getContextVector(user, direction, query, limit, rescorer);
+    }
+
+    public Map<LanguageDirection, ContextVector> getContextVectors(UUID user, Collection<LanguageDirection> directions, Corpus queryDocument, int limit) throws IOException {
+        return this.getContextVectors(user, directions, queryDocument, limit, directions.size() > 1 ? this.searchExecutor : null);
+    }
+
+    /**
+     * This method computes the context vectors of the same query document for many language directions.
+     * The query document is analyzed only once for each distinct source language, then the search and the
+     * rescoring of every direction are performed on the shared terms, in parallel if an executor is given.
+     *
+     * @param user          the user requesting the context vectors, or null for public memories only
+     * @param directions    the language directions of the context vectors
+     * @param queryDocument the query document, in the source language of the directions
+     * @param limit         the maximum number of entries of each context vector
+     * @param executor      the executor running the searches, or null to run them sequentially in the calling thread
+     * @return the context vector of each direction
+     * @throws IOException if an I/O error occurs
+     */
+    public Map<LanguageDirection, ContextVector> getContextVectors(UUID user, Collection<LanguageDirection> directions, Corpus queryDocument,
+                                                                   int limit, ExecutorService executor) throws IOException {
+        HashMap<String, AnalyzedQuery> queries = new HashMap<>();
+        LinkedHashMap<LanguageDirection, Callable<ContextVector>> tasks = new LinkedHashMap<>(directions.size());
+
+        for (LanguageDirection direction : directions) {
+            if (tasks.containsKey(direction))
+                continue;
+
+            // content fields with the same source language share the same analyzer
+            String language = direction.source.getLanguage();
+            AnalyzedQuery query = queries.get(language);
+            if (query == null) {
+                query = AnalyzedQuery.analyze(this.analyzer, DocumentBuilder.makeContentFieldName(direction), queryDocument);
+                queries.put(language, query);
+            }
+
+            AnalyzedQuery analyzedQuery = query;
+            tasks.put(direction, () -> this.getContextVector(user, direction, analyzedQuery, limit, this.rescorer));
+        }
+
+        HashMap<LanguageDirection, ContextVector> result = new HashMap<>(tasks.size());
+
+        if (executor == null) {
+            for (Map.Entry<LanguageDirection, Callable<ContextVector>> entry : tasks.entrySet()) {
+                try {
+                    result.put(entry.getKey(), entry.getValue().call());
+                } catch (IOException | RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new Error("Unexpected exception", e);
+                }
+            }
+        } else {
+            LinkedHashMap<LanguageDirection, Future<ContextVector>> futures = new LinkedHashMap<>(tasks.size());
+            for (Map.Entry<LanguageDirection, Callable<ContextVector>> entry : tasks.entrySet())
+                futures.put(entry.getKey(), executor.submit(entry.getValue()));
+
+            try {
+                for (Map.Entry<LanguageDirection, Future<ContextVector>> entry : futures.entrySet()) {
+                    try {
+                        result.put(entry.getKey(), entry.getValue().get());
+                    } catch (InterruptedException e) {
+                        throw new IOException("Execution interrupted", e);
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof IOException)
+                            throw (IOException) cause;
+                        else if (cause instanceof RuntimeException)
+                            throw (RuntimeException) cause;
+                        else
+                            throw new Error("Unexpected exception", cause);
+                    }
+                }
+            } finally {
+                for (Future<ContextVector> future : futures.values())
+                    future.cancel(true);
+            }
+        }
+
+        return result;
+    }
+
+    private ContextVector getContextVector(UUID user, LanguageDirection direction, AnalyzedQuery queryDocument, int limit, Rescorer rescorer) throws IOException {
+        String contentFieldName = DocumentBuilder.makeContentFieldName(direction);
 
         IndexSearcher searcher = this.getIndexSearcher();
         IndexReader reader = searcher.getIndexReader();
@@ -149,11 +258,13 @@ public class ContextAnalyzerIndex implements Closeable {
         mlt.setMinTermFreq(1);
         mlt.setMinWordLen(2);
         mlt.setBoost(true);
-        mlt.setAnalyzer(analyzer);
 
         TopScoreDocCollector collector = TopScoreDocCollector.create(rawLimit, true);
 
-        Reader queryDocumentReader = queryDocument.getRawContentReader();
+        // the query document has already been analyzed: its terms are replayed to MoreLikeThis
+        Analyzer queryAnalyzer = queryDocument.newReplayAnalyzer();
+        Reader queryDocumentReader = queryDocument.newReplayReader();
+        mlt.setAnalyzer(queryAnalyzer);
 
         try {
             Query mltQuery = mlt.like(contentFieldName, queryDocumentReader);
@@ -171,16 +282,15 @@ public class ContextAnalyzerIndex implements Closeable {
             searcher.search(query, collector);
         } finally {
             IOUtils.closeQuietly(queryDocumentReader);
+            IOUtils.closeQuietly(queryAnalyzer);
         }
 
         ScoreDoc[] topDocs = collector.topDocs().scoreDocs;
 
         // Rescore result
 
-        if (rescorer != null) {
-            Document referenceDocument = DocumentBuilder.newInstance(direction, queryDocument);
-            rescorer.rescore(reader, this.analyzer, topDocs, referenceDocument, contentFieldName);
-        }
+        if (rescorer != null)
+            rescorer.rescore(reader, topDocs, queryDocument.getTermFrequencies(), contentFieldName);
 
         // Build result
 
@@ -199,6 +309,7 @@ public class ContextAnalyzerIndex implements Closeable {
 
     @Override
     public void close() {
+        this.searchExecutor.shutdownNow();
         IOUtils.closeQuietly(this._indexReader);
         IOUtils.closeQuietly(this.indexWriter);
         IOUtils.closeQuietly(this.indexDirectory);
@@ -1,8 +1,6 @@
 package eu.modernmt.context.lucene.analysis.rescoring;
 
 import eu.modernmt.context.lucene.analysis.LuceneUtils;
-import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.document.Document;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.ScoreDoc;
 
@@ -16,9 +14,7 @@ import java.util.concurrent.*;
 public class CosineSimilarityRescorer implements Rescorer {
 
     @Override
-    public void rescore(IndexReader reader, Analyzer analyzer, ScoreDoc[] topDocs, Document reference, String fieldName) throws IOException {
-        // Compute reference document stats
-        Map<String, Float> referenceTerms = LuceneUtils.getTermFrequencies(analyzer, reference, fieldName);
+    public void rescore(IndexReader reader, ScoreDoc[] topDocs, Map<String, Float> referenceTerms, String fieldName) throws IOException {
         double referenceL2Norm = getL2Norm(referenceTerms);
 
         // Calculate similarity with reference
@@ -364,6 +364,30 @@ public class BucketRegistry implements Closeable {
         return uuid;
     }
 
+    /**
+     * Writes a consistent copy of the registry database to the given file
+     * by means of the SQLite online backup API.
+     *
+     * @param destination the destination file of the database copy
+     * @throws IOException if an error occurs while writing the copy
+     */
+    public synchronized void backup(File destination) throws IOException {
+        // the command is parsed by the driver: the path must be quoted if it contains spaces
+        String path = destination.getAbsolutePath();
+        char quote = path.indexOf('"') < 0 ? '"' : '\'';
+
+        Statement statement = null;
+
+        try {
+            statement = connection.createStatement();
+            statement.executeUpdate("backup to " + quote + path + quote);
+        } catch (SQLException e) {
+            throw new IOException(e);
+        } finally {
+            close(statement);
+        }
+    }
+
     public synchronized void clearCache() {
         this.cache.clear();
     }
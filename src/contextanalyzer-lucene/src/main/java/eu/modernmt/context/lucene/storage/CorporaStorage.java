@@ -4,6 +4,7 @@ import eu.modernmt.data.DataBatch;
 import eu.modernmt.data.DeletionMessage;
 import eu.modernmt.data.LogDataListener;
 import eu.modernmt.data.TranslationUnitMessage;
+import eu.modernmt.io.FileSystemUtils;
 import org.apache.commons.io.FileUtils;
 
 import java.io.Closeable;
@@ -98,6 +99,37 @@ public class CorporaStorage implements LogDataListener, Closeable {
         return false;
     }
 
+    /**
+     * Saves a consistent copy of the storage in the given folder. Compressed bucket files
+     * are append-only and always read up to the size stored in the registry, so they are hard-linked
+     * whenever possible; plain-text files are rewritten during compression and are therefore copied.
+     * <p>
+     * Because of the hard links, a backup must be restored by copying its files,
+     * never by moving or linking them back into a live storage.
+     *
+     * @param destination the folder where the storage will be copied
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void backup(File destination) throws IOException {
+        FileUtils.forceMkdir(destination);
+
+        buckets.backup(new File(destination, "index"));
+
+        for (Bucket bucket : buckets.getAll()) {
+            if (bucket.compressedFileSize > 0 && bucket.gzPath.isFile())
+                FileSystemUtils.linkOrCopy(bucket.gzPath, relocate(bucket.gzPath, destination));
+            if (bucket.plainTextFileSize > 0 && bucket.path.isFile())
+                FileUtils.copyFile(bucket.path, relocate(bucket.path, destination), true);
+        }
+
+        buckets.clearCache();
+    }
+
+    private File relocate(File file, File destination) {
+        Path relative = this.path.toPath().relativize(file.toPath());
+        return destination.toPath().resolve(relative).toFile();
+    }
+
     @Override
     public synchronized void onDataReceived(DataBatch batch) throws IOException {
         if (closed)
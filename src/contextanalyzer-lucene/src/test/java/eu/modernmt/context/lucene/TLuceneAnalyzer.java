@@ -60,6 +60,10 @@ public class TLuceneAnalyzer extends LuceneAnalyzer {
         this(getTempDirectory(), config);
     }
 
+    public TLuceneAnalyzer(File path) throws IOException {
+        this(path, new AnalyzerConfig(null));
+    }
+
     private TLuceneAnalyzer(File path, AnalyzerConfig config) throws IOException {
         super(new ContextAnalyzerIndex(new File(path, "index")), new TCorporaStorage(new File(path, "storage")), config);
         this.path = path;
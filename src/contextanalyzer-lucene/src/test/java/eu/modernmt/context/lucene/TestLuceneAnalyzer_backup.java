@@ -0,0 +1,80 @@
+package eu.modernmt.context.lucene;
+
+import eu.modernmt.data.TranslationUnitMessage;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static eu.modernmt.context.lucene.TestData.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TestLuceneAnalyzer_backup {
+
+    private TLuceneAnalyzer analyzer;
+    private File backups;
+
+    @Before
+    public void setup() throws Throwable {
+        this.analyzer = new TLuceneAnalyzer();
+        // the SQLite registry backup must support paths with spaces
+        this.backups = Files.createTempDirectory("TestLuceneAnalyzer backup").toFile();
+    }
+
+    @After
+    public void teardown() throws Throwable {
+        if (this.analyzer != null)
+            this.analyzer.close();
+        this.analyzer = null;
+
+        FileUtils.deleteDirectory(this.backups);
+    }
+
+    @Test
+    public void backupAndRestore() throws Throwable {
+        List<TranslationUnitMessage> units1 = TestData.tuList(0, 0L, 1L, EN__IT, 4);
+        List<TranslationUnitMessage> units2 = TestData.tuList(0, 4L, 2L, EN__FR, 3);
+
+        List<TranslationUnitMessage> units = new ArrayList<>(units1);
+        units.addAll(units2);
+        analyzer.onDataReceived(units);
+
+        File backup = new File(backups, "context");
+        analyzer.backup(backup);
+
+        // changes after the backup are not part of it
+        analyzer.onDataReceived(TestData.tuList(0, 7L, 3L, EN__IT, 2));
+        analyzer.onDelete(TestData.deletion(0L, 1L, null));
+        assertNull(analyzer.getEntry(1, EN__IT));
+
+        // backups are restored by copying them
+        File restoredPath = new File(backups, "restored");
+        FileUtils.copyDirectory(backup, restoredPath);
+
+        try (TLuceneAnalyzer restored = new TLuceneAnalyzer(restoredPath)) {
+            assertEquals(4, restored.getIndexSize());
+            assertEquals(4, restored.getStorageSize());
+            assertEquals(TestData.channels(0, 6L), restored.getLatestChannelPositions());
+
+            TLuceneAnalyzer.Entry entry1 = restored.getEntry(1, EN__IT);
+            assertEquals(TestData.tuGetTerms(units1, true), entry1.terms);
+            assertEquals(TestData.tuGetContent(units1, true), entry1.content);
+
+            TLuceneAnalyzer.Entry entry2 = restored.getEntry(2, EN__FR);
+            assertEquals(TestData.tuGetTerms(units2, true), entry2.terms);
+            assertEquals(TestData.tuGetContent(units2, true), entry2.content);
+
+            assertNull(restored.getEntry(3, EN__IT));
+        }
+
+        // the original analyzer is not affected by the backup
+        assertEquals(TestData.channels(8L, 0L), analyzer.getLatestChannelPositions());
+    }
+
+}
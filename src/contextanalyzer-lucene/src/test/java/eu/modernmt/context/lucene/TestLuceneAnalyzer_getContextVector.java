@@ -1,14 +1,25 @@
 package eu.modernmt.context.lucene;
 
 import eu.modernmt.context.ContextAnalyzerException;
+import eu.modernmt.io.FileProxy;
 import eu.modernmt.lang.LanguageDirection;
 import eu.modernmt.model.ContextVector;
 import eu.modernmt.model.Memory;
 import eu.modernmt.model.corpus.MultilingualCorpus;
+import eu.modernmt.model.corpus.impl.StringCorpus;
+import eu.modernmt.model.corpus.impl.parallel.FileCorpus;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
 import static eu.modernmt.context.lucene.TestData.*;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -114,4 +125,71 @@ public class TestLuceneAnalyzer_getContextVector {
         test(FR__EN, "bonjour monde", 2, 12);
     }
 
+    @Test
+    public void multiDirectionSearchMatchesSingleSearches() throws Throwable {
+        List<LanguageDirection> directions = Arrays.asList(EN__IT, EN__FR, EN_US__IT_CH, IT__EN);
+        StringCorpus query = new StringCorpus(null, EN, "hello world\nthe test");
+
+        Map<LanguageDirection, ContextVector> results = analyzer.getContextVectors(null, directions, query, 100);
+
+        assertEquals(directions.size(), results.size());
+        for (LanguageDirection direction : directions) {
+            ContextVector expected = analyzer.getContextVector(null, direction, query, 100);
+            assertEquals(expected.toString(), results.get(direction).toString());
+        }
+    }
+
+    /*
+     * A gzipped request content, that can be read only once as the request part of GetContextVector
+     */
+    private static class GzippedContent implements FileProxy {
+
+        private final byte[] content;
+        private int reads = 0;
+
+        GzippedContent(String text) throws IOException {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try (OutputStream stream = new GZIPOutputStream(output)) {
+                stream.write(text.getBytes(StandardCharsets.UTF_8));
+            }
+
+            this.content = output.toByteArray();
+        }
+
+        @Override
+        public String getFilename() {
+            return "content";
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            if (reads++ > 0)
+                throw new IOException("Content already consumed");
+            return new GZIPInputStream(new ByteArrayInputStream(content));
+        }
+
+        @Override
+        public OutputStream getOutputStream(boolean append) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+    @Test
+    public void streamedSearchMatchesStringSearch() throws Throwable {
+        List<LanguageDirection> directions = Arrays.asList(EN__IT, EN__FR, EN_US__IT_CH);
+        String text = "hello world\nthe test";
+
+        GzippedContent content = new GzippedContent(text);
+        Map<LanguageDirection, ContextVector> results =
+                analyzer.getContextVectors(null, directions, new FileCorpus(content, "context", EN), 100);
+
+        assertEquals(1, content.reads);
+        assertEquals(directions.size(), results.size());
+        for (LanguageDirection direction : directions) {
+            ContextVector expected = analyzer.getContextVector(null, direction, text, 100);
+            assertEquals(expected.toString(), results.get(direction).toString());
+        }
+    }
+
 }
@@ -0,0 +1,82 @@
+package eu.modernmt.context.lucene.analysis;
+
+import eu.modernmt.model.corpus.impl.StringCorpus;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static eu.modernmt.context.lucene.TestData.EN;
+import static org.junit.Assert.assertEquals;
+
+public class TestAnalyzedQuery {
+
+    private static final String FIELD = "content";
+
+    private static AnalyzedQuery analyze(String text, int maxDistinctTerms) throws IOException {
+        return AnalyzedQuery.analyze(new WhitespaceAnalyzer(), FIELD, new StringCorpus(null, EN, text), maxDistinctTerms);
+    }
+
+    private static List<String> replay(AnalyzedQuery query) throws IOException {
+        ArrayList<String> terms = new ArrayList<>();
+
+        try (Analyzer analyzer = query.newReplayAnalyzer();
+             TokenStream stream = analyzer.tokenStream(FIELD, query.newReplayReader())) {
+            CharTermAttribute termAttribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken())
+                terms.add(termAttribute.toString());
+            stream.end();
+        }
+
+        return terms;
+    }
+
+    @Test
+    public void termFrequencies() throws Throwable {
+        AnalyzedQuery query = analyze("hello world\nhello test", 10);
+
+        Map<String, Float> expected = new HashMap<>();
+        expected.put("hello", 2.f);
+        expected.put("world", 1.f);
+        expected.put("test", 1.f);
+
+        assertEquals(expected, query.getTermFrequencies());
+        assertEquals(Arrays.asList("hello", "world", "hello", "test"), replay(query));
+    }
+
+    @Test
+    public void termsAfterTheLimitAreIgnored() throws Throwable {
+        AnalyzedQuery query = analyze("t0 t1 t2 t3 t4 t5 t6 t7\nt8 t0 t9 t4 t0", 5);
+
+        // terms already counted keep being counted after the limit
+        Map<String, Float> expected = new HashMap<>();
+        expected.put("t0", 3.f);
+        expected.put("t1", 1.f);
+        expected.put("t2", 1.f);
+        expected.put("t3", 1.f);
+        expected.put("t4", 2.f);
+
+        assertEquals(expected, query.getTermFrequencies());
+        assertEquals(13, replay(query).size());
+    }
+
+    @Test
+    public void defaultLimit() throws Throwable {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < AnalyzedQuery.MAX_DISTINCT_TERMS + 100; i++)
+            text.append('t').append(i).append(i % 20 == 19 ? '\n' : ' ');
+
+        AnalyzedQuery query = AnalyzedQuery.analyze(new WhitespaceAnalyzer(), FIELD, new StringCorpus(null, EN, text.toString()));
+        Map<String, Float> frequencies = query.getTermFrequencies();
+
+        assertEquals(AnalyzedQuery.MAX_DISTINCT_TERMS, frequencies.size());
+        assertEquals(1.f, frequencies.get("t" + (AnalyzedQuery.MAX_DISTINCT_TERMS - 1)), 0.f);
+        assertEquals(null, frequencies.get("t" + AnalyzedQuery.MAX_DISTINCT_TERMS));
+    }
+
+}
@@ -18,6 +18,7 @@ import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
 import org.eclipse.jetty.util.thread.ExecutorThreadPool;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.util.thread.ThreadPool;
@@ -63,6 +64,9 @@ public class ApiServer {
         // the size threshold after which files will be written to disk
         public int fileSizeThreshold = 2 * 1024; // 2kb
 
+        // the maximum number of requests in progress, including the ones completed asynchronously
+        public int maxInFlightRequests = 1000;
+
         public ServerOptions(int port) {
             this.port = port;
         }
@@ -80,18 +84,22 @@ public class ApiServer {
         jettyServer.setConnectors(new Connector[]{connector});
 
         Handler rootHandler;
+        ServletHolder routerHolder;
         String contextPath = normalizeContextPath(options.contextPath);
         if (contextPath == null) {
             ServletHandler router = new ServletHandler();
-            router.addServletWithMapping(Router.class, "/*");
+            routerHolder = router.addServletWithMapping(Router.class, "/*");
             rootHandler = router;
         } else {
             ServletContextHandler contextHandler = new ServletContextHandler();
             contextHandler.setContextPath(contextPath);
-            contextHandler.addServlet(Router.class, "/*");
+            routerHolder = contextHandler.addServlet(Router.class, "/*");
             rootHandler = contextHandler;
         }
 
+        routerHolder.setAsyncSupported(true);
+        routerHolder.setInitParameter(RouterServlet.MAX_IN_FLIGHT_REQUESTS_PARAM, Integer.toString(options.maxInFlightRequests));
+
         MultipartConfigInjectionHandler multipartWrapper = new MultipartConfigInjectionHandler(
                 options.temporaryDirectory, options.maxFileSize, options.maxRequestSize, options.fileSizeThreshold);
         multipartWrapper.setHandler(rootHandler);
@@ -4,7 +4,7 @@ import eu.modernmt.api.actions.util.ContextUtils;
 import eu.modernmt.api.framework.HttpMethod;
 import eu.modernmt.api.framework.Parameters;
 import eu.modernmt.api.framework.RESTRequest;
-import eu.modernmt.api.framework.actions.ObjectAction;
+import eu.modernmt.api.framework.actions.AsyncObjectAction;
 import eu.modernmt.api.framework.routing.Route;
 import eu.modernmt.api.model.TranslationResponse;
 import eu.modernmt.context.ContextAnalyzerException;
@@ -13,22 +13,25 @@ import eu.modernmt.facade.ModernMT;
 import eu.modernmt.lang.LanguageDirection;
 import eu.modernmt.model.ContextVector;
 import eu.modernmt.model.Priority;
+import eu.modernmt.model.Translation;
 import eu.modernmt.processing.Preprocessor;
 import eu.modernmt.processing.ProcessingException;
 import eu.modernmt.processing.tags.format.InputFormat;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Created by davide on 17/12/15.
  */
 @Route(aliases = "translate", method = HttpMethod.GET)
-public class Translate extends ObjectAction<TranslationResponse> {
+public class Translate extends AsyncObjectAction<TranslationResponse> {
 
     public static final int MAX_QUERY_LENGTH = 5000;
 
     @Override
-    protected TranslationResponse execute(RESTRequest req, Parameters _params) throws ContextAnalyzerException, DecoderException, ProcessingException {
+    protected CompletionStage<TranslationResponse> execute(RESTRequest req, Parameters _params) throws ContextAnalyzerException, DecoderException, ProcessingException {
         Params params = (Params) _params;
 
         TranslationResponse result = new TranslationResponse(params.priority);
@@ -38,16 +41,21 @@ public class Translate extends ObjectAction<TranslationResponse> {
         processing.format = params.format;
         processing.splitByNewline = params.splitByNewline;
 
+        CompletableFuture<Translation> translation;
+
         if (params.context != null) {
-            result.translation = ModernMT.translation.get(params.user, params.direction, processing, params.query, params.context, params.nbest, params.priority, params.timeout);
+            translation = ModernMT.translation.getAsync(params.user, params.direction, processing, params.query, params.context, params.nbest, params.priority, params.timeout);
         } else if (params.contextString != null) {
             result.context = ModernMT.translation.getContextVector(params.user, params.direction, params.contextString, params.contextLimit);
-            result.translation = ModernMT.translation.get(params.user, params.direction, processing, params.query, result.context, params.nbest, params.priority, params.timeout);
+            translation = ModernMT.translation.getAsync(params.user, params.direction, processing, params.query, result.context, params.nbest, params.priority, params.timeout);
         } else {
-            result.translation = ModernMT.translation.get(params.user, params.direction, processing, params.query, params.nbest, params.priority, params.timeout);
+            translation = ModernMT.translation.getAsync(params.user, params.direction, processing, params.query, null, params.nbest, params.priority, params.timeout);
         }
 
-        return result;
+        return translation.thenApply(value -> {
+            result.translation = value;
+            return result;
+        });
     }
 
     @Override
@@ -55,6 +63,12 @@ public class Translate extends ObjectAction<TranslationResponse> {
         return new Params(req);
     }
 
+    @Override
+    protected long getAsyncTimeout(Parameters _params) {
+        long timeout = ((Params) _params).timeout;
+        return timeout > 0 ? timeout + ASYNC_TIMEOUT_MARGIN : super.getAsyncTimeout(_params);
+    }
+
     public static class Params extends Parameters {
 
         public final InputFormat.Type format;
@@ -4,7 +4,13 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 
 /**
@@ -20,6 +26,58 @@ public class JSONSerializer {
         builder.registerTypeAdapter(clazz, serializer);
     }
 
+    public static <T> void registerCustomSerializer(Class<T> clazz, StreamingSerializer<T> serializer) {
+        builder.registerTypeAdapterFactory(factory(clazz, serializer));
+    }
+
+    /**
+     * A write-only serializer that, unlike JsonSerializer, writes the object directly on the JsonWriter
+     * instead of building a JSON tree first.
+     */
+    public interface StreamingSerializer<T> {
+
+        void write(JsonWriter writer, T src) throws IOException;
+
+    }
+
+    /**
+     * Same semantics of a JsonSerializer registration: the serializer is used for objects of exactly the given class,
+     * while deserialization is left to the adapter that Gson would use without it.
+     */
+    static <T> TypeAdapterFactory factory(Class<T> clazz, StreamingSerializer<T> serializer) {
+        return new TypeAdapterFactory() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <R> TypeAdapter<R> create(Gson gson, TypeToken<R> type) {
+                if (type.getRawType() != clazz)
+                    return null;
+
+                TypeAdapterFactory factory = this;
+
+                return (TypeAdapter<R>) new TypeAdapter<T>() {
+
+                    private TypeAdapter<T> delegate = null;
+
+                    @Override
+                    public void write(JsonWriter writer, T value) throws IOException {
+                        if (value == null)
+                            writer.nullValue();
+                        else
+                            serializer.write(writer, value);
+                    }
+
+                    @Override
+                    public T read(JsonReader reader) throws IOException {
+                        if (delegate == null)
+                            delegate = gson.getDelegateAdapter(factory, (TypeToken<T>) type);
+                        return delegate.read(reader);
+                    }
+
+                };
+            }
+        };
+    }
+
     private static Gson getCustom() {
         if (customInstance == null) {
             synchronized (JSONSerializer.class) {
@@ -40,4 +98,32 @@ public class JSONSerializer {
         return gson.toJsonTree(object, type);
     }
 
+    public static void write(Object object, Type type, JsonWriter writer) throws IOException {
+        write(object, type, writer, true);
+    }
+
+    /**
+     * Writes the object directly on the writer, as toJSON(object, type, custom) would encode it,
+     * without building the JSON tree first (unless a JsonSerializer, instead of a StreamingSerializer,
+     * is registered for its type).
+     */
+    @SuppressWarnings("unchecked")
+    public static void write(Object object, Type type, JsonWriter writer, boolean custom) throws IOException {
+        Gson gson = custom ? getCustom() : staticInstance;
+        TypeAdapter<Object> adapter = (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(type));
+        adapter.write(writer, object);
+    }
+
+    public static void write(JsonElement json, JsonWriter writer) throws IOException {
+        // explicit nulls of a JSON tree are always written, as in JsonElement.toString()
+        boolean serializeNulls = writer.getSerializeNulls();
+        writer.setSerializeNulls(true);
+
+        try {
+            staticInstance.getAdapter(JsonElement.class).write(writer, json);
+        } finally {
+            writer.setSerializeNulls(serializeNulls);
+        }
+    }
+
 }
@@ -10,6 +10,8 @@ import eu.modernmt.api.framework.routing.RouteTree;
 import eu.modernmt.api.framework.routing.TemplateException;
 import org.apache.commons.io.IOUtils;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.Part;
@@ -41,12 +43,46 @@ public class RESTRequest {
     private JsonArray jsonArray = null;
     private String json = null;
     private String toString = null;
+    private AsyncListener asyncListener = null;
+    private boolean asyncStarted = false;
 
     public RESTRequest(HttpServletRequest request, RouteTree routes) {
         this.request = request;
         this.template = routes.get(getHttpMethod(), getPath());
     }
 
+    /**
+     * @param listener the listener notified when a request started with startAsync(long) is completed, times out or fails
+     */
+    public void setAsyncListener(AsyncListener listener) {
+        this.asyncListener = listener;
+    }
+
+    /**
+     * This method puts the request in asynchronous mode: when the calling thread returns,
+     * the response is not committed until complete() is called on the returned context, from any thread.
+     *
+     * @param timeout the time in milliseconds after which the listeners of the context are notified
+     *                with onTimeout(), if complete() has not been called yet
+     * @return the asynchronous context of the request
+     */
+    public AsyncContext startAsync(long timeout) {
+        if (timeout <= 0)
+            throw new IllegalArgumentException("Invalid async timeout: " + timeout);
+
+        AsyncContext context = request.startAsync();
+        context.setTimeout(timeout);
+        if (asyncListener != null)
+            context.addListener(asyncListener);
+
+        asyncStarted = true;
+        return context;
+    }
+
+    public boolean isAsyncStarted() {
+        return asyncStarted;
+    }
+
     public String getRemoteAddr() {
         return request.getRemoteAddr();
     }
@@ -106,6 +142,55 @@ public class RESTRequest {
         return request.getContentLength();
     }
 
+    /**
+     * @param encoding a content coding, such as "gzip"
+     * @return true if the Accept-Encoding header of the request lists the given encoding
+     * (or "*") with a non-zero quality value
+     */
+    public boolean acceptsEncoding(String encoding) {
+        return acceptsEncoding(request.getHeader("Accept-Encoding"), encoding);
+    }
+
+    /**
+     * @return true if the given Accept-Encoding header value accepts the encoding: an explicit entry
+     * for the encoding takes precedence over "*", whatever their order
+     */
+    public static boolean acceptsEncoding(String header, String encoding) {
+        if (header == null)
+            return false;
+
+        Boolean wildcard = null;
+
+        for (String item : header.split(",")) {
+            String[] parts = item.split(";");
+            String coding = parts[0].trim();
+
+            boolean explicit = coding.equalsIgnoreCase(encoding);
+            if (!explicit && !coding.equals("*"))
+                continue;
+
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+
+                if (param.startsWith("q=")) {
+                    try {
+                        accepted = Float.parseFloat(param.substring(2).trim()) > 0.f;
+                    } catch (NumberFormatException e) {
+                        accepted = false;
+                    }
+                }
+            }
+
+            if (explicit)
+                return accepted;
+            else
+                wildcard = accepted;
+        }
+
+        return wildcard != null && wildcard;
+    }
+
     public Reader getPlainTextContent() throws IOException {
         if (isContentType("text/plain")) {
             return request.getReader();
@@ -2,11 +2,14 @@ package eu.modernmt.api.framework;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -26,13 +29,46 @@ public class RESTResponse {
         }
     }
 
+    public static final class TooManyRequestsException extends Exception {
+        public TooManyRequestsException() {
+            super("Too many requests in progress, retry later");
+        }
+    }
+
+    public static final class RequestTimeoutException extends Exception {
+        public RequestTimeoutException() {
+            super("Request timed out");
+        }
+    }
+
+    /**
+     * The data of a successful response, written directly on the response stream.
+     */
+    public interface Content {
+
+        void write(JsonWriter writer) throws IOException;
+
+    }
+
+    private static final int SC_TOO_MANY_REQUESTS = 429; // not defined by the Servlet API
+
     protected final Logger logger = LogManager.getLogger(getClass());
 
-    private HttpServletResponse response;
-    private JsonObject content = null;
+    private final HttpServletResponse response;
+    private final boolean gzip;
+    private ResponseOutputStream output = null;
 
     public RESTResponse(HttpServletResponse response) {
+        this(response, false);
+    }
+
+    /**
+     * @param response the servlet response
+     * @param gzip     true if the client accepts a gzip-compressed response
+     */
+    public RESTResponse(HttpServletResponse response, boolean gzip) {
         this.response = response;
+        this.gzip = gzip;
     }
 
     public void apiNotFound() {
@@ -56,7 +92,31 @@ public class RESTResponse {
     }
 
     public void ok(JsonElement json) {
-        output(HttpServletResponse.SC_OK, json, null);
+        output(HttpServletResponse.SC_OK, json == null ? null : writer -> JSONSerializer.write(json, writer), null);
+    }
+
+    /**
+     * Writes the response data directly on the response stream, without building the whole JSON document in memory.
+     * If the content cannot be written and nothing has been sent to the client yet, the output is discarded
+     * and the exception is rethrown, so that a different response can be sent.
+     *
+     * @param content the response data
+     * @throws IOException if the content cannot be written
+     */
+    public void ok(Content content) throws IOException {
+        if (output != null)
+            throw new IllegalStateException("Output has been already set");
+
+        try {
+            write(HttpServletResponse.SC_OK, content, null);
+        } catch (IOException | RuntimeException e) {
+            if (output.discard()) {
+                output = null;
+                throw e;
+            }
+
+            logger.error("unable to write response", e);
+        }
     }
 
     public void forbidden() {
@@ -75,6 +135,14 @@ public class RESTResponse {
         output(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, null, e);
     }
 
+    public void tooManyRequests() {
+        tooManyRequests(new TooManyRequestsException());
+    }
+
+    public void tooManyRequests(Throwable e) {
+        output(SC_TOO_MANY_REQUESTS, null, e);
+    }
+
     public void unavailable() {
         unavailable(null);
     }
@@ -83,30 +151,47 @@ public class RESTResponse {
         output(HttpServletResponse.SC_SERVICE_UNAVAILABLE, null, e);
     }
 
-    private void output(int httpStatus, JsonElement json, Throwable throwable) {
-        if (content != null)
-            throw new IllegalStateException("Output has been already set");
-
-        content = new JsonObject();
-        content.addProperty("status", httpStatus);
+    private void output(int httpStatus, Content content, Throwable throwable) {
+        try {
+            write(httpStatus, content, throwable);
+        } catch (IOException e) {
+            logger.error("unable to write response", e);
+        }
+    }
 
-        if (throwable != null)
-            content.add("error", encode(throwable));
-        else if (json != null)
-            content.add("data", json);
+    private void write(int httpStatus, Content content, Throwable throwable) throws IOException {
+        if (output != null)
+            throw new IllegalStateException("Output has been already set");
 
         response.setStatus(httpStatus);
         response.setContentType("application/json; charset=utf-8");
         response.addHeader("Access-Control-Allow-Origin", "*");
+        response.setHeader("Vary", "Accept-Encoding");
 
-        try {
-            if (content != null) {
-                String rawContent = content.toString() + '\n';
-                response.getOutputStream().write(rawContent.getBytes(StandardCharsets.UTF_8));
-            }
-        } catch (IOException e) {
-            logger.error("unable to write response", e);
+        output = new ResponseOutputStream(response, gzip);
+
+        Writer stream = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        JsonWriter writer = new JsonWriter(stream);
+        writer.setLenient(true);
+        writer.setSerializeNulls(false);
+
+        writer.beginObject();
+        writer.name("status").value(httpStatus);
+
+        if (throwable != null) {
+            writer.name("error");
+            JSONSerializer.write(encode(throwable), writer);
+        } else if (content != null) {
+            writer.name("data");
+            content.write(writer);
         }
+
+        writer.endObject();
+        writer.flush();
+
+        stream.write('\n');
+        stream.flush();
+        output.close();
     }
 
     private static JsonObject encode(Throwable e) {
@@ -137,8 +222,11 @@ public class RESTResponse {
         return response.getStatus();
     }
 
-    public JsonElement getContent() {
-        return content;
+    /**
+     * @return the beginning of the response content, as text
+     */
+    public String getContent() {
+        return output == null ? null : output.getHead();
     }
 
 }
@@ -0,0 +1,108 @@
+package eu.modernmt.api.framework;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The output stream of a response body.
+ * The first HEAD_SIZE bytes are kept in memory: if the whole body fits in it, it is sent
+ * uncompressed with its Content-Length; otherwise the body is streamed to the client,
+ * gzip-compressed if the client accepts it.
+ * Until the head is flushed the output can be discarded and written again, for instance to send an error instead.
+ */
+class ResponseOutputStream extends OutputStream {
+
+    private static final int HEAD_SIZE = 8 * 1024;
+
+    private final HttpServletResponse response;
+    private final boolean gzip;
+
+    private final byte[] head = new byte[HEAD_SIZE];
+    private int headLength = 0;
+    private OutputStream output = null;
+
+    ResponseOutputStream(HttpServletResponse response, boolean gzip) {
+        this.response = response;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Discards the content written so far, if it has not been sent yet.
+     *
+     * @return true if the content has been discarded
+     */
+    boolean discard() {
+        if (output != null)
+            return false;
+
+        headLength = 0;
+        return true;
+    }
+
+    /**
+     * @return the first bytes of the content, decoded as UTF-8 text
+     */
+    String getHead() {
+        return new String(head, 0, headLength, StandardCharsets.UTF_8);
+    }
+
+    private void commit() throws IOException {
+        OutputStream stream = response.getOutputStream();
+
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+            stream = new GZIPOutputStream(stream, HEAD_SIZE);
+        }
+
+        stream.write(head, 0, headLength);
+        output = stream;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (output == null) {
+            if (headLength < head.length) {
+                head[headLength++] = (byte) b;
+                return;
+            }
+
+            commit();
+        }
+
+        output.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (output == null) {
+            if (headLength + len <= head.length) {
+                System.arraycopy(b, off, head, headLength, len);
+                headLength += len;
+                return;
+            }
+
+            commit();
+        }
+
+        output.write(b, off, len);
+    }
+
+    @Override
+    public void flush() {
+        // the head is sent only when full or when the stream is closed
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (output == null) {
+            response.setContentLength(headLength);
+            response.getOutputStream().write(head, 0, headLength);
+        } else if (output instanceof GZIPOutputStream) {
+            ((GZIPOutputStream) output).finish();
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package eu.modernmt.api.framework.actions;
+
+import eu.modernmt.api.framework.Parameters;
+import eu.modernmt.api.framework.RESTRequest;
+
+import java.lang.reflect.ParameterizedType;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * An ObjectAction whose result is computed asynchronously:
+ * the request thread is released as soon as execute() returns,
+ * and the response is written by the thread completing the returned stage.
+ */
+public abstract class AsyncObjectAction<M> extends JSONAction {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected final CompletionStage<ObjectActionResult> getAsyncResult(RESTRequest req, Parameters params) throws Throwable {
+        Class<M> objectClass = (Class<M>) ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[0];
+        return execute(req, params).thenApply(object -> object == null ? null : new ObjectActionResult<>(object, objectClass));
+    }
+
+    @Override
+    protected final ObjectActionResult getResult(RESTRequest req, Parameters params) throws Throwable {
+        try {
+            return getAsyncResult(req, params).toCompletableFuture().get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    protected abstract CompletionStage<M> execute(RESTRequest req, Parameters params) throws Throwable;
+
+}
@@ -14,14 +14,115 @@ import eu.modernmt.api.framework.routing.TemplateException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public abstract class JSONAction implements Action {
 
+    public static final long DEFAULT_ASYNC_TIMEOUT = 5 * 60 * 1000L;
+    public static final long ASYNC_TIMEOUT_MARGIN = 5 * 1000L;
+
     protected final Logger logger = LogManager.getLogger(getClass());
 
     @Override
     public final void execute(RESTRequest req, RESTResponse resp) {
+        Parameters params;
+        CompletableFuture<? extends JSONActionResult> result;
+
         try {
-            unsecureExecute(req, resp);
+            params = getParameters(req);
+            result = getAsyncResult(req, params).toCompletableFuture();
+        } catch (Throwable e) {
+            onError(resp, e);
+            return;
+        }
+
+        if (result.isDone()) {
+            complete(req, resp, params, result);
+        } else {
+            // the response is written by the thread completing the result, while this thread is released;
+            // if the async context times out or fails first, an error response is written instead
+            AsyncContext context = req.startAsync(getAsyncTimeout(params));
+            AtomicBoolean responded = new AtomicBoolean(false);
+
+            context.addListener(new AsyncListener() {
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                    if (responded.compareAndSet(false, true)) {
+                        logger.warn("Action " + JSONAction.this + " timed out");
+                        JSONAction.this.onError(resp, new RESTResponse.RequestTimeoutException());
+                        completeAsync(context);
+                    }
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                    if (responded.compareAndSet(false, true)) {
+                        Throwable error = event.getThrowable();
+                        JSONAction.this.onError(resp, error == null ? new IOException("Async request failed") : error);
+                        completeAsync(context);
+                    }
+                }
+
+                @Override
+                public void onComplete(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+
+            result.whenComplete((value, error) -> {
+                if (responded.compareAndSet(false, true)) {
+                    try {
+                        complete(req, resp, params, result);
+                    } finally {
+                        completeAsync(context);
+                    }
+                }
+            });
+        }
+    }
+
+    private static void completeAsync(AsyncContext context) {
+        try {
+            context.complete();
+        } catch (IllegalStateException e) {
+            // the request has already been completed, i.e. the client has gone away
+        }
+    }
+
+    private void complete(RESTRequest req, RESTResponse resp, Parameters params, CompletableFuture<? extends JSONActionResult> future) {
+        try {
+            JSONActionResult result;
+
+            try {
+                result = future.get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+
+            if (result == null) {
+                resp.resourceNotFound();
+            } else {
+                result.beforeDump(req, params);
+                resp.ok(writer -> result.write(this, req, params, writer));
+            }
+        } catch (Throwable e) {
+            onError(resp, e);
+        }
+    }
+
+    private void onError(RESTResponse resp, Throwable error) {
+        try {
+            throw error;
         } catch (TemplateException e) {
             if (logger.isDebugEnabled())
                 logger.debug("Template exception while executing action " + this, e);
@@ -40,7 +141,7 @@ public abstract class JSONAction implements Action {
             if (logger.isDebugEnabled())
                 logger.debug("Unable to complete action " + this + ": system is shutting down", e);
             resp.unavailable(e);
-        } catch (DecoderUnavailableException | TestFailedException e) {
+        } catch (DecoderUnavailableException | TestFailedException | RESTResponse.RequestTimeoutException e) {
             resp.unavailable(e);
         } catch (EmptyCorpusException e) {
             if (logger.isDebugEnabled())
@@ -52,30 +153,61 @@ public abstract class JSONAction implements Action {
         }
     }
 
-    private void unsecureExecute(RESTRequest req, RESTResponse resp) throws Throwable {
-        Parameters params = getParameters(req);
-        JSONActionResult result = getResult(req, params);
-
-        if (result == null) {
-            resp.resourceNotFound();
-        } else {
-            result.beforeDump(req, params);
-            JsonElement json = result.dump(this, req, params);
-
-            resp.ok(json);
-        }
-    }
-
     protected Parameters getParameters(RESTRequest req) throws Parameters.ParameterParsingException, TemplateException {
         return new Parameters(req);
     }
 
     protected abstract JSONActionResult getResult(RESTRequest req, Parameters params) throws Throwable;
 
+    /**
+     * Returns the result of the action, possibly before it has been computed:
+     * if the returned stage is not complete yet, the request is put in asynchronous mode
+     * and the response is written when the stage completes, without holding the request thread.
+     * The default implementation returns the result of getResult(), already completed.
+     */
+    protected CompletionStage<? extends JSONActionResult> getAsyncResult(RESTRequest req, Parameters params) throws Throwable {
+        return CompletableFuture.completedFuture(getResult(req, params));
+    }
+
+    /**
+     * @return the time in milliseconds after which an asynchronous request is answered with a
+     * RequestTimeoutException if its result is not ready yet; actions with their own timeout
+     * should return it plus ASYNC_TIMEOUT_MARGIN
+     */
+    protected long getAsyncTimeout(Parameters params) {
+        return DEFAULT_ASYNC_TIMEOUT;
+    }
+
     protected void decorate(JsonElement element) {
         // Default implementation does nothing
     }
 
+    /**
+     * @return true if this action overrides decorate(), so its results must be built as JSON trees
+     * before being written; otherwise they are written directly on the response stream
+     */
+    final boolean isDecorating() {
+        return DECORATING.get(getClass());
+    }
+
+    private static final ClassValue<Boolean> DECORATING = new ClassValue<Boolean>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> c = type; c != JSONAction.class; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("decorate", JsonElement.class);
+                    return true;
+                } catch (NoSuchMethodException e) {
+                    // look in the superclass
+                }
+            }
+
+            return false;
+        }
+
+    };
+
     @Override
     public final String toString() {
         return getClass().getSimpleName();
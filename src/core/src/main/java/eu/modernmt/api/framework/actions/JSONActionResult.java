@@ -2,9 +2,13 @@ package eu.modernmt.api.framework.actions;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
+import eu.modernmt.api.framework.JSONSerializer;
 import eu.modernmt.api.framework.Parameters;
 import eu.modernmt.api.framework.RESTRequest;
 
+import java.io.IOException;
+
 public abstract class JSONActionResult {
 
     public void beforeDump(RESTRequest req, Parameters params) throws Throwable {
@@ -13,4 +17,17 @@ public abstract class JSONActionResult {
 
     public abstract JsonElement dump(JSONAction action, RESTRequest req, Parameters params) throws JsonParseException;
 
+    /**
+     * Writes the result on the response stream.
+     * The default implementation writes the JSON tree returned by dump(); a null tree is omitted from the response.
+     */
+    public void write(JSONAction action, RESTRequest req, Parameters params, JsonWriter writer) throws IOException {
+        JsonElement json = dump(action, req, params);
+
+        if (json == null)
+            writer.nullValue();
+        else
+            JSONSerializer.write(json, writer);
+    }
+
 }
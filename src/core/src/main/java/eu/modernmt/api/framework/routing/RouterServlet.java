@@ -1,6 +1,5 @@
 package eu.modernmt.api.framework.routing;
 
-import com.google.gson.JsonElement;
 import eu.modernmt.api.framework.HttpMethod;
 import eu.modernmt.api.framework.RESTRequest;
 import eu.modernmt.api.framework.RESTResponse;
@@ -8,6 +7,8 @@ import eu.modernmt.api.framework.actions.Action;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -15,18 +16,26 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.UnsupportedEncodingException;
 import java.util.Collection;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public abstract class RouterServlet extends HttpServlet {
 
     private static final String DEFAULT_ENCODING = "UTF-8";
+    public static final String MAX_IN_FLIGHT_REQUESTS_PARAM = "max-in-flight-requests";
 
     protected final Logger logger = LogManager.getLogger(getClass());
     private RouteTree routes;
+    private Semaphore inFlightRequests;
 
     @Override
     public void init(ServletConfig config) throws ServletException {
         super.init(config);
 
+        String maxInFlightRequests = config.getInitParameter(MAX_IN_FLIGHT_REQUESTS_PARAM);
+        if (maxInFlightRequests != null)
+            inFlightRequests = new Semaphore(Integer.parseInt(maxInFlightRequests));
+
         routes = new RouteTree();
 
         for (Class<?> clazz : getDeclaredActions()) {
@@ -70,7 +79,15 @@ public abstract class RouterServlet extends HttpServlet {
         long start = System.currentTimeMillis();
 
         RESTRequest restRequest = wrapRequest(req);
-        RESTResponse restResponse = new RESTResponse(resp);
+        RESTResponse restResponse = new RESTResponse(resp, restRequest.acceptsEncoding("gzip"));
+
+        // requests completed asynchronously do not hold a thread, so their number is bounded here
+        if (inFlightRequests != null && !inFlightRequests.tryAcquire()) {
+            restResponse.tooManyRequests();
+            return;
+        }
+
+        AtomicBoolean permit = new AtomicBoolean(inFlightRequests != null);
 
         Route route = null;
 
@@ -81,6 +98,29 @@ public abstract class RouterServlet extends HttpServlet {
             } else {
                 route = actionClass.getAnnotation(Route.class);
 
+                final Route asyncRoute = route;
+                restRequest.setAsyncListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        onRequestCompleted(restRequest, restResponse, asyncRoute, start, permit);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        // the action writes the error response; the permit is released even if it is not completed
+                        releasePermit(permit);
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        releasePermit(permit);
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+
                 Action action = actionClass.newInstance();
                 action.execute(restRequest, restResponse);
             }
@@ -88,32 +128,44 @@ public abstract class RouterServlet extends HttpServlet {
             logger.error("Unexpected exceptions", e);
             restResponse.unexpectedError(e);
         } finally {
-            long elapsedTime = System.currentTimeMillis() - start;
-
-            if (logger.isInfoEnabled() && route != null && route.log()) {
-                StringBuilder log = new StringBuilder();
-                log.append('"');
-                log.append(restRequest);
-                log.append("\" ");
-                log.append(restResponse.getHttpStatus());
-                log.append(' ');
-                log.append(elapsedTime);
-
-                if (logger.isDebugEnabled()) {
-                    JsonElement json = restResponse.getContent();
-
-                    if (json != null) {
-                        String content = json.toString();
-                        if (content.length() > 500)
-                            content = content.substring(0, 499) + "[...]";
-
-                        log.append(' ');
-                        log.append(content);
-                    }
-                }
+            if (!restRequest.isAsyncStarted())
+                onRequestCompleted(restRequest, restResponse, route, start, permit);
+        }
+    }
+
+    private void releasePermit(AtomicBoolean permit) {
+        if (permit.compareAndSet(true, false))
+            inFlightRequests.release();
+    }
+
+    private void onRequestCompleted(RESTRequest restRequest, RESTResponse restResponse, Route route, long start, AtomicBoolean permit) {
+        releasePermit(permit);
 
-                logger.info(log);
+        long elapsedTime = System.currentTimeMillis() - start;
+
+        if (logger.isInfoEnabled() && route != null && route.log()) {
+            StringBuilder log = new StringBuilder();
+            log.append('"');
+            log.append(restRequest);
+            log.append("\" ");
+            log.append(restResponse.getHttpStatus());
+            log.append(' ');
+            log.append(elapsedTime);
+
+            if (logger.isDebugEnabled()) {
+                String content = restResponse.getContent();
+
+                if (content != null) {
+                    content = content.trim();
+                    if (content.length() > 500)
+                        content = content.substring(0, 499) + "[...]";
+
+                    log.append(' ');
+                    log.append(content);
+                }
             }
+
+            logger.info(log);
         }
     }
 
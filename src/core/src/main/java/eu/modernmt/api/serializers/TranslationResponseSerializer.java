@@ -1,68 +1,78 @@
 package eu.modernmt.api.serializers;
 
-import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
+import eu.modernmt.api.framework.JSONSerializer;
 import eu.modernmt.api.model.TranslationResponse;
 import eu.modernmt.model.*;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
  * Created by davide on 30/12/15.
  */
-public class TranslationResponseSerializer implements JsonSerializer<TranslationResponse> {
+public class TranslationResponseSerializer implements JSONSerializer.StreamingSerializer<TranslationResponse> {
 
     @Override
-    public JsonElement serialize(TranslationResponse src, Type typeOfSrc, JsonSerializationContext context) {
+    public void write(JsonWriter writer, TranslationResponse src) throws IOException {
         Sentence source = src.translation.getSource();
 
-        JsonObject json = new JsonObject();
-        json.addProperty("translation", src.translation.toString());
-        json.addProperty("sourceWordCount", source.getWords().length);
-        json.addProperty("targetWordCount", src.translation.getWords().length);
+        writer.beginObject();
+        writer.name("translation").value(src.translation.toString());
+        writer.name("sourceWordCount").value(source.getWords().length);
+        writer.name("targetWordCount").value(src.translation.getWords().length);
 
         if (src.verbose) {
-            json.add("translationTokens", serializeTokens(src.translation));
-            json.add("sentenceTokens", serializeTokens(source));
-            json.add("alignment", context.serialize(src.translation.getSentenceAlignment(), Alignment.class));
+            writer.name("translationTokens");
+            writeTokens(writer, src.translation);
+            writer.name("sentenceTokens");
+            writeTokens(writer, source);
+            writeAlignment(writer, src.translation.getSentenceAlignment());
         }
 
         if (src.translation.hasNbest()) {
-            JsonArray array = new JsonArray();
+            writer.name("nbest").beginArray();
             for (Translation hypothesis : src.translation.getNbest())
-                array.add(serializeHypothesis(context, hypothesis, src.verbose));
-            json.add("nbest", array);
+                writeHypothesis(writer, hypothesis, src.verbose);
+            writer.endArray();
         }
 
-        if (src.context != null)
-            json.add("contextVector", context.serialize(src.context, ContextVector.class));
-
-        json.addProperty("priority", src.priority.toString().toLowerCase());
-        json.addProperty("totalTime", src.getTotalTime());
-        json.addProperty("memoryLookupTime", src.translation.getMemoryLookupTime());
-        json.addProperty("decodingTime", src.translation.getDecodeTime());
-        json.addProperty("queueTime", src.translation.getQueueTime());
-        json.addProperty("queueLength", src.translation.getQueueLength());
+        if (src.context != null) {
+            writer.name("contextVector");
+            JSONSerializer.write(src.context, ContextVector.class, writer);
+        }
 
-        return json;
+        writer.name("priority").value(src.priority.toString().toLowerCase());
+        writer.name("totalTime").value(src.getTotalTime());
+        writer.name("memoryLookupTime").value(src.translation.getMemoryLookupTime());
+        writer.name("decodingTime").value(src.translation.getDecodeTime());
+        writer.name("queueTime").value(src.translation.getQueueTime());
+        writer.name("queueLength").value(src.translation.getQueueLength());
+        writer.endObject();
     }
 
-    private static JsonElement serializeHypothesis(JsonSerializationContext context, Translation translation, boolean verbose) {
-        JsonObject json = new JsonObject();
-        json.addProperty("translation", translation.toString());
+    private static void writeHypothesis(JsonWriter writer, Translation translation, boolean verbose) throws IOException {
+        writer.beginObject();
+        writer.name("translation").value(translation.toString());
 
         if (verbose) {
-            json.add("translationTokens", serializeTokens(translation));
-            json.add("alignment", context.serialize(translation.getSentenceAlignment(), Alignment.class));
+            writer.name("translationTokens");
+            writeTokens(writer, translation);
+            writeAlignment(writer, translation.getSentenceAlignment());
         }
 
-        return json;
+        writer.endObject();
     }
 
-    private static JsonArray serializeTokens(Sentence sentence) {
-        JsonArray array = new JsonArray();
+    private static void writeTokens(JsonWriter writer, Sentence sentence) throws IOException {
+        writer.beginArray();
         for (Token token : sentence)
-            array.add(token.toString());
-        return array;
+            writer.value(token.toString());
+        writer.endArray();
+    }
+
+    private static void writeAlignment(JsonWriter writer, Alignment alignment) throws IOException {
+        writer.name("alignment");
+        JSONSerializer.write(alignment, Alignment.class, writer);
     }
 
 }
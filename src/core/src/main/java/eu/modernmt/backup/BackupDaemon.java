@@ -3,7 +3,6 @@ package eu.modernmt.backup;
 import eu.modernmt.config.NodeConfig;
 import eu.modernmt.engine.BootstrapException;
 import eu.modernmt.io.FileConst;
-import eu.modernmt.io.Paths;
 import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -35,23 +34,23 @@ public class BackupDaemon implements Closeable {
         this.engine.start();
     }
 
-    public synchronized void backup() throws IOException, BootstrapException {
+    public synchronized void backup() throws IOException {
         BackupFile currentBackup = BackupFile.create(this.backups);
 
-        // Stop the engine
-        this.engine.stop(true);
-
-        // Starting actual backup operation
+        // Snapshots are taken while the engine keeps consuming the binary log:
+        // every model copy is self-consistent with the channel positions it contains
         logger.info("Creating backup: " + currentBackup);
         long begin = System.currentTimeMillis();
 
-        // Copy models
-        File models = this.engine.getModelsPath();
-        File context = Paths.join(models, "context");
-        File memory = Paths.join(models, "decoder", "memory");
+        boolean success = false;
 
-        FileUtils.copyDirectory(context, Paths.join(currentBackup.getPath(), "context"), true);
-        FileUtils.copyDirectory(memory, Paths.join(currentBackup.getPath(), "memory"), true);
+        try {
+            this.engine.backup(currentBackup.getPath());
+            success = true;
+        } finally {
+            if (!success)
+                FileUtils.deleteQuietly(currentBackup.getPath());
+        }
 
         // Delete old backups
         List<BackupFile> allBackups = BackupFile.list(backups);
@@ -66,9 +65,6 @@ public class BackupDaemon implements Closeable {
 
         long elapsed = System.currentTimeMillis() - begin;
         logger.info("BackupFile created in " + (elapsed / 1000.) + "s");
-
-        // Restart the engine
-        this.engine.start();
     }
 
     public Map<Short, Long> getChannelsPositions() {
@@ -132,6 +132,33 @@ public class BackupEngine {
         logger.info("BackupFile engine stopped");
     }
 
+    public void backup(File destination) throws IOException {
+        ContextAnalyzer contextAnalyzer = this.engine.getContextAnalyzer();
+        TranslationMemory memory = this.engine.getDecoder().getTranslationMemory();
+
+        long begin, elapsed;
+
+        logger.info("Running snapshot of Context Analyzer...");
+        begin = System.currentTimeMillis();
+        try {
+            contextAnalyzer.backup(new File(destination, "context"));
+        } catch (ContextAnalyzerException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            else
+                throw new IOException(e);
+        }
+        elapsed = System.currentTimeMillis() - begin;
+        logger.info("Snapshot of Context Analyzer completed in " + (elapsed / 1000.) + "s");
+
+        logger.info("Running snapshot of Memory...");
+        begin = System.currentTimeMillis();
+        memory.backup(new File(destination, "memory"));
+        elapsed = System.currentTimeMillis() - begin;
+        logger.info("Snapshot of Memory completed in " + (elapsed / 1000.) + "s");
+    }
+
     public Map<Short, Long> getChannelsPositions() {
         return binlog == null ? null : binlog.getChannelsPositions();
     }
@@ -6,6 +6,7 @@ import com.hazelcast.config.TcpIpConfig;
 import com.hazelcast.config.XmlConfigBuilder;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ICompletableFuture;
 import com.hazelcast.core.Member;
 import eu.modernmt.api.ApiServer;
 import eu.modernmt.cluster.cassandra.EmbeddedCassandra;
@@ -36,7 +37,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -78,6 +78,7 @@ public class ClusterNode {
     HazelcastInstance hazelcast;
     BinaryLog binaryLog;
     Database database;
+    MemoryCache memoryCache;
     ApiServer api;
     TranslationServiceProxy translationService;
     ArrayList<EmbeddedService> services = new ArrayList<>(2);
@@ -109,6 +110,12 @@ public class ClusterNode {
         return database;
     }
 
+    public MemoryCache getMemoryCache() {
+        if (memoryCache == null)
+            throw new IllegalStateException("Database unavailable.");
+        return memoryCache;
+    }
+
     public void addStatusListener(StatusListener listener) {
         this.statusListeners.add(listener);
     }
@@ -263,6 +270,7 @@ public class ClusterNode {
         if (apiConfig.isEnabled()) {
             ApiServer.ServerOptions options = new ApiServer.ServerOptions(apiConfig.getPort());
             options.contextPath = apiConfig.getApiRoot();
+            options.maxInFlightRequests = apiConfig.getMaxInFlightRequests();
 
             this.api = new ApiServer(options);
             try {
@@ -317,7 +325,7 @@ public class ClusterNode {
                 String host = hazelcast.getCluster().getLocalMember().getAddress().getHost();
                 binaryLogConfig.setHost(host);
 
-                EmbeddedKafka kafka = EmbeddedKafka.start(this.engine, host, binaryLogConfig.getPort());
+                EmbeddedKafka kafka = EmbeddedKafka.start(this.engine, host, binaryLogConfig.getPort(), binaryLogConfig.getPartitions());
                 logger.info("Embedded Kafka started in " + (timer.time() / 1000.) + "s");
 
                 this.services.add(kafka);
@@ -400,6 +408,8 @@ public class ClusterNode {
             } catch (PersistenceException e) {
                 throw new BootstrapException("Failed to create database: " + this.database.getClass().getSimpleName(), e);
             }
+
+            this.memoryCache = new MemoryCache(hazelcast, this.database, databaseConfig.getCacheSize());
         }
 
 
@@ -461,7 +471,7 @@ public class ClusterNode {
         return NodeInfo.fromMember(member);
     }
 
-    public Future<Translation> submit(TranslationTask task) throws DecoderUnavailableException {
+    public ICompletableFuture<Translation> submit(TranslationTask task) throws DecoderUnavailableException {
         LanguageDirection language = task.getLanguageDirection();
         LanguageBridge bridge = engine.getLanguageIndex().getLanguageBridge(language);
 
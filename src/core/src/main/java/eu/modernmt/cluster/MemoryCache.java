@@ -0,0 +1,106 @@
+package eu.modernmt.cluster;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import eu.modernmt.model.Memory;
+import eu.modernmt.persistence.Connection;
+import eu.modernmt.persistence.Database;
+import eu.modernmt.persistence.MemoryDAO;
+import eu.modernmt.persistence.PersistenceException;
+import org.apache.commons.io.IOUtils;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of the Memory metadata stored in the Database.
+ * <p>
+ * Newly created memories are written to the cache directly, while updates and deletions
+ * invalidate the entry on every node of the cluster through a Hazelcast topic.
+ * Entries also expire after a while, in order to recover from an invalidation
+ * that races with a concurrent load on another node.
+ */
+public class MemoryCache {
+
+    private static final String INVALIDATION_TOPIC = "mmt:cluster:MemoryCache";
+    private static final long EXPIRE_AFTER_WRITE_MINUTES = 10;
+
+    private final Database database;
+    private final Cache<Long, Memory> cache;
+    private final ITopic<Long> invalidations;
+
+    public MemoryCache(HazelcastInstance hazelcast, Database database, int size) {
+        this.database = database;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(EXPIRE_AFTER_WRITE_MINUTES, TimeUnit.MINUTES)
+                .build();
+
+        this.invalidations = hazelcast.getTopic(INVALIDATION_TOPIC);
+        this.invalidations.addMessageListener(message -> cache.invalidate(message.getMessageObject()));
+    }
+
+    public Memory get(long id) throws PersistenceException {
+        Memory memory = cache.getIfPresent(id);
+
+        if (memory == null) {
+            Connection connection = null;
+
+            try {
+                connection = database.getConnection();
+                memory = database.getMemoryDAO(connection).retrieve(id);
+            } finally {
+                IOUtils.closeQuietly(connection);
+            }
+
+            if (memory != null)
+                cache.put(id, memory);
+        }
+
+        return memory;
+    }
+
+    public Map<Long, Memory> get(Collection<Long> ids) throws PersistenceException {
+        HashMap<Long, Memory> result = new HashMap<>(ids.size());
+        ArrayList<Long> missing = new ArrayList<>();
+
+        for (Long id : ids) {
+            Memory memory = cache.getIfPresent(id);
+
+            if (memory == null)
+                missing.add(id);
+            else
+                result.put(id, memory);
+        }
+
+        if (!missing.isEmpty()) {
+            Connection connection = null;
+            Map<Long, Memory> memories;
+
+            try {
+                connection = database.getConnection();
+                MemoryDAO memoryDAO = database.getMemoryDAO(connection);
+                memories = memoryDAO.retrieve(missing);
+            } finally {
+                IOUtils.closeQuietly(connection);
+            }
+
+            cache.putAll(memories);
+            result.putAll(memories);
+        }
+
+        return result;
+    }
+
+    public void put(Memory memory) {
+        cache.put(memory.getId(), memory);
+    }
+
+    public void invalidate(long id) {
+        cache.invalidate(id);
+        invalidations.publish(id);
+    }
+
+}
@@ -1,6 +1,7 @@
 package eu.modernmt.cluster;
 
 import java.util.Collection;
+import java.util.Map;
 
 /**
  * Created by davide on 15/12/16.
@@ -31,11 +32,17 @@ public class ServerInfo {
     private final ClusterInfo cluster;
     private final BuildInfo build;
     private final long memorySize;
+    private final Map<String, Long> tokenizerModelsSize;
 
-    public ServerInfo(ClusterInfo cluster, BuildInfo build, long memorySize) {
+    /**
+     * @param tokenizerModelsSize the estimated memory footprint in bytes of the tokenizer models
+     *                            loaded by the local node, by language tag
+     */
+    public ServerInfo(ClusterInfo cluster, BuildInfo build, long memorySize, Map<String, Long> tokenizerModelsSize) {
         this.cluster = cluster;
         this.build = build;
         this.memorySize = memorySize;
+        this.tokenizerModelsSize = tokenizerModelsSize;
     }
 
 }
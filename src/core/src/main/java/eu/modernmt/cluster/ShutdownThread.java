@@ -4,6 +4,8 @@ package eu.modernmt.cluster;
 import eu.modernmt.api.ApiServer;
 import eu.modernmt.cluster.services.TranslationServiceProxy;
 import eu.modernmt.engine.Engine;
+import eu.modernmt.facade.ModernMT;
+import eu.modernmt.facade.TranslationFacade;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -29,6 +31,7 @@ class ShutdownThread extends Thread {
 
         // Close internal services
         halt(this.node.translationService); // wait for all translations to be fulfilled
+        halt(ModernMT.translation); // wait for their responses to be post-processed and written
         halt(this.node.database);
         halt(this.node.binaryLog);
 
@@ -61,6 +64,17 @@ class ShutdownThread extends Thread {
         }
     }
 
+    private void halt(TranslationFacade facade) {
+        try {
+            logger.info("Halting translation callbacks...");
+            facade.shutdown();
+            facade.awaitTermination(1, TimeUnit.DAYS);
+            logger.info("Translation callbacks halted");
+        } catch (Throwable e) {
+            logger.error("Failed to halt translation callbacks", e);
+        }
+    }
+
     private void halt(ApiServer api) {
         if (api == null)
             return;
@@ -24,9 +24,9 @@ public class EmbeddedKafka extends EmbeddedService {
 
     public static final String VERSION = Pom.getProperty("kafka.version");
 
-    public static EmbeddedKafka start(Engine engine, String netInterface, int port) throws BootstrapException {
+    public static EmbeddedKafka start(Engine engine, String netInterface, int port, int partitions) throws BootstrapException {
         try {
-            EmbeddedKafka instance = new EmbeddedKafka(engine);
+            EmbeddedKafka instance = new EmbeddedKafka(engine, partitions);
             instance.start(netInterface, port);
 
             return instance;
@@ -41,8 +41,9 @@ public class EmbeddedKafka extends EmbeddedService {
     private final File logFile;
     private final File kafkaBin;
     private final File zookeeperBin;
+    private final int partitions;
 
-    private EmbeddedKafka(Engine engine) throws IOException {
+    private EmbeddedKafka(Engine engine, int partitions) throws IOException {
         this.data = new File(engine.getModelsPath(), "kafka");
         this.meta = new File(this.data, "meta.properties");
         this.runtime = engine.createRuntimeFolder("kafka", true);
@@ -52,6 +53,7 @@ public class EmbeddedKafka extends EmbeddedService {
 
         this.kafkaBin = Paths.join(kafkaHome, "bin", "kafka-server-start.sh");
         this.zookeeperBin = Paths.join(kafkaHome, "bin", "zookeeper-server-start.sh");
+        this.partitions = partitions;
     }
 
     private void start(String netInterface, int port) throws IOException {
@@ -176,7 +178,7 @@ public class EmbeddedKafka extends EmbeddedService {
         properties.setProperty("broker.id", "0");
         properties.setProperty("listeners", "PLAINTEXT://" + netInterface + ":" + port);
         properties.setProperty("log.dirs", this.data.getAbsolutePath());
-        properties.setProperty("num.partitions", "1");
+        properties.setProperty("num.partitions", Integer.toString(partitions));
         properties.setProperty("log.retention.hours", "8760000");
         properties.setProperty("zookeeper.connect", "localhost:" + zookeperPort);
 
@@ -49,6 +49,7 @@ public class KafkaBinaryLog implements BinaryLog {
     private final String[] hosts;
     private final int port;
     private final String name;  // the base name of the kafka topics
+    private final int partitions;
 
     private final String uuid;
     private final LogDataPollingThread pollingThread;
@@ -56,7 +57,6 @@ public class KafkaBinaryLog implements BinaryLog {
     private KafkaProducer<Integer, KafkaPacket> producer;
 
     private KafkaChannel[] channels;
-    private ArrayList<TopicPartition> partitions;
     private HashMap<String, KafkaChannel> name2channel;
 
     private static Aligner getAligner(Engine engine) {
@@ -77,8 +77,9 @@ public class KafkaBinaryLog implements BinaryLog {
         this.hosts = config.getHosts();
         this.port = config.getPort();
         this.name = config.getName();
+        this.partitions = config.getPartitions();
 
-        this.pollingThread = new LogDataPollingThread(languages, preprocessor, aligner, this);
+        this.pollingThread = new LogDataPollingThread(languages, preprocessor, aligner, this, config.getPipelineDepth());
 
         // initialize the two required kafkaChannels with proper names
         // and put them in an array "channels"
@@ -91,13 +92,10 @@ public class KafkaBinaryLog implements BinaryLog {
         this.channels[1] = new KafkaChannel(BinaryLog.CONTRIBUTIONS_CHANNEL_ID,
                 topicNames[BinaryLog.CONTRIBUTIONS_CHANNEL_ID]);
 
-        /*initialize and populate the partitions list and the name-to-channel map*/
-        this.partitions = new ArrayList<>(channels.length);
+        /*initialize and populate the name-to-channel map*/
         this.name2channel = new HashMap<>(channels.length);
-        for (KafkaChannel channel : this.channels) {
-            this.partitions.add(channel.getTopicPartition());
+        for (KafkaChannel channel : this.channels)
             this.name2channel.put(channel.getName(), channel);
-        }
     }
 
     /**
@@ -231,29 +229,40 @@ public class KafkaBinaryLog implements BinaryLog {
         }
 
         // Create Kafka consumer and connect to the Kafka remote server to get the latest positions for each channel
+        KafkaConsumer<Integer, KafkaPacket> consumer = null;
         if (enableConsumer) {
             // load consumer properties and build kafka consumer for reading messages from the server from the given partitions
             Properties consumerProperties = loadProperties("kafka-consumer.properties", hosts, port);
             consumerProperties.put("group.id", uuid);
-            KafkaConsumer<Integer, KafkaPacket> consumer = new KafkaConsumer<>(consumerProperties);
-            consumer.assign(partitions);
+            consumer = new KafkaConsumer<>(consumerProperties);
+        }
 
-            //use a separate thread to connect to the Kafka server
-            ConnectionThread connectThread = new ConnectionThread(consumer);
-            connectThread.start();
-            try {
-                unit.timedJoin(connectThread, timeout);
-            } catch (InterruptedException e) {
-                // ignore it
-            }
+        if (consumer == null && producer == null)
+            return null;
 
-            if (connectThread.isAlive())    // if the thread is still alive could not connect to the Kafka server
-                throw new HostUnreachableException(hosts, port);
+        //use a separate thread to connect to the Kafka server
+        ConnectionThread connectThread = new ConnectionThread(consumer, producer);
+        connectThread.start();
+        try {
+            unit.timedJoin(connectThread, timeout);
+        } catch (InterruptedException e) {
+            // ignore it
+        }
 
-            this.pollingThread.start(consumer);
+        if (connectThread.isAlive())    // if the thread is still alive could not connect to the Kafka server
+            throw new HostUnreachableException(hosts, port);
+
+        RuntimeException error = connectThread.getError();
+        if (error != null) {
+            IOUtils.closeQuietly(consumer);
+            throw error;
+        }
 
+        if (consumer != null) {
+            this.pollingThread.start(consumer);
             return connectThread.getLatestPositions();
         }
+
         return null;
     }
 
@@ -274,6 +283,10 @@ public class KafkaBinaryLog implements BinaryLog {
 
     @Override
     public ImportJob upload(Memory memory, MultilingualCorpus corpus, LogChannel channel) throws BinaryLogException {
+        return upload(memory, corpus, getLogChannel(channel.getId()));
+    }
+
+    private ImportJob upload(Memory memory, MultilingualCorpus corpus, KafkaChannel channel) throws BinaryLogException {
         if (this.producer == null)
             throw new IllegalStateException("connect() not called");
 
@@ -320,7 +333,7 @@ public class KafkaBinaryLog implements BinaryLog {
         ImportJob job = new ImportJob();
         job.setMemory(memory.getId());
         job.setSize(size);
-        job.setDataChannel(channel.getId());
+        job.setDataChannel(channel.getPositionKey(memory.getId()));
         job.setBegin(importBegin);
         job.setEnd(importEnd);
 
@@ -337,7 +350,7 @@ public class KafkaBinaryLog implements BinaryLog {
         if (this.producer == null)
             throw new IllegalStateException("connect() not called");
         long offset = sendElement(KafkaPacket.createAddition(memory.getOwner(), memory.getId(), tu), true, channel);
-        return ImportJob.createEphemeralJob(memory.getId(), offset, channel.getId());
+        return ImportJob.createEphemeralJob(memory.getId(), offset, getLogChannel(channel.getId()).getPositionKey(memory.getId()));
     }
 
     @Override
@@ -351,7 +364,7 @@ public class KafkaBinaryLog implements BinaryLog {
             throw new IllegalStateException("connect() not called");
 
         long offset = sendElement(KafkaPacket.createOverwrite(memory.getOwner(), memory.getId(), tu), true, channel);
-        return ImportJob.createEphemeralJob(memory.getId(), offset, channel.getId());
+        return ImportJob.createEphemeralJob(memory.getId(), offset, getLogChannel(channel.getId()).getPositionKey(memory.getId()));
     }
 
     @Override
@@ -365,7 +378,7 @@ public class KafkaBinaryLog implements BinaryLog {
             throw new IllegalStateException("connect() not called");
 
         long offset = sendElement(KafkaPacket.createOverwrite(memory.getOwner(), memory.getId(), tu, previousSentence, previousTranslation), true, channel);
-        return ImportJob.createEphemeralJob(memory.getId(), offset, channel.getId());
+        return ImportJob.createEphemeralJob(memory.getId(), offset, getLogChannel(channel.getId()).getPositionKey(memory.getId()));
     }
 
     @Override
@@ -380,7 +393,9 @@ public class KafkaBinaryLog implements BinaryLog {
     private long sendElement(KafkaPacket packet, boolean sync, LogChannel channel) throws BinaryLogException {
         pollingThread.ensureRunning();
 
-        Future<RecordMetadata> future = producer.send(new ProducerRecord<>(channel.getName(), 0, packet));
+        // all packets of a memory go to the same partition in order to preserve their ordering
+        int partition = getLogChannel(channel.getId()).getPartition(packet.getMemory());
+        Future<RecordMetadata> future = producer.send(new ProducerRecord<>(channel.getName(), partition, 0, packet));
 
         long offset = -1L;
 
@@ -473,37 +488,72 @@ public class KafkaBinaryLog implements BinaryLog {
     private class ConnectionThread extends Thread {
 
         private final KafkaConsumer<Integer, KafkaPacket> consumer;
+        private final KafkaProducer<Integer, KafkaPacket> producer;
         private HashMap<Short, Long> positions = new HashMap<>(channels.length);
+        private RuntimeException error = null;
 
-        private ConnectionThread(KafkaConsumer<Integer, KafkaPacket> consumer) {
+        private ConnectionThread(KafkaConsumer<Integer, KafkaPacket> consumer, KafkaProducer<Integer, KafkaPacket> producer) {
             this.consumer = consumer;
+            this.producer = producer;
         }
 
         private HashMap<Short, Long> getLatestPositions() {
             return positions;
         }
 
+        private RuntimeException getError() {
+            return error;
+        }
+
         @Override
         public void run() {
             try {
+                // load topics metadata
+                for (KafkaChannel channel : channels) {
+                    if (consumer != null)
+                        channel.setPartitions(consumer.partitionsFor(channel.getName()));
+                    else
+                        channel.setPartitions(producer.partitionsFor(channel.getName()));
+
+                    logger.info("Channel '" + channel.getName() + "' has " + channel.getPartitionCount() + " partitions");
+
+                    // existing topics are never altered: changing their partitions would move memories across them
+                    if (channel.getPartitionCount() != partitions)
+                        logger.warn("Channel '" + channel.getName() + "' has " + channel.getPartitionCount() +
+                                " partitions instead of the configured " + partitions + ": the binlog 'partitions' " +
+                                "setting only applies to the topics created by the embedded Kafka");
+                }
+
+                if (consumer == null)
+                    return;
+
+                ArrayList<TopicPartition> partitions = new ArrayList<>();
+                for (KafkaChannel channel : channels)
+                    partitions.addAll(channel.getTopicPartitions());
+
+                consumer.assign(partitions);
                 consumer.seekToEnd(partitions);
 
                 for (KafkaChannel channel : channels) {
-                    positions.put(channel.getId(), consumer.position(channel.getTopicPartition()));
+                    for (int i = 0; i < channel.getPartitionCount(); i++)
+                        positions.put(channel.getPositionKey(i), consumer.position(channel.getTopicPartition(i)));
                 }
 
                 for (Map.Entry<Short, Long> entry : pollingThread.getCurrentPositions().entrySet()) {
-
-                    KafkaChannel channel = getLogChannel(entry.getKey());
+                    short key = entry.getKey();
+                    KafkaChannel channel = getLogChannel(KafkaChannel.channelOf(key));
+                    int partition = KafkaChannel.partitionOf(key);
                     long position = entry.getValue();
 
-                    logger.info("Channel '" + channel.getName() + "' seek to position " + position);
-                    consumer.seek(channel.getTopicPartition(), position);
+                    logger.info("Channel '" + channel.getName() + "', partition " + partition + " seek to position " + position);
+                    consumer.seek(channel.getTopicPartition(partition), position);
                 }
             } catch (WakeupException e) {
                 // Timeout occurred
+            } catch (RuntimeException e) {
+                error = e;
             }
         }
     }
 
-}
\ No newline at end of file
+}
@@ -1,30 +1,60 @@
 package eu.modernmt.cluster.kafka;
 
 import eu.modernmt.data.LogChannel;
+import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.TopicPartition;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Created by davide on 25/12/16.
  * Updated by andrearossi on 29/03/17
- * Wrapper for TopicPartition: it is used to assign an id to a TopicPartition
+ * Wrapper for a Kafka topic: it is used to assign an id to a topic and to its partitions
+ * <p>
+ * Messages are distributed over the topic partitions by memory id, so that all the
+ * updates of a single memory are always read in the same order they have been written.
+ * <p>
+ * Channel positions are tracked per partition: every partition is identified by a
+ * "position key" that combines the channel id (lower 8 bits) and the partition number (upper bits).
+ * The key of partition 0 is the channel id itself, so positions stored before the introduction
+ * of multiple partitions are still valid and refer to partition 0.
  */
 public class KafkaChannel implements LogChannel {
 
+    // position keys reserve 8 bits for the channel id and the partition must fit the remaining bits of a short
+    public static final int MAX_PARTITIONS = 128;
+
     private final short id;
-    private final TopicPartition partition;
+    private final String name;
+    private volatile TopicPartition[] partitions;
 
     /**
-     * It initializes a new TopicPartition
-     * with the given topic name and partition number 0
-     * <p>
-     * NOTE: In a TopicPartition, we ALWAYS use partition 0 only
+     * It initializes a new channel with the given topic name and a single partition;
+     * the actual number of partitions is set when the topic metadata are loaded.
      *
-     * @param id   the id for the new TopicPartition
-     * @param name the topic name for the new TopicPartition
+     * @param id   the id for the new channel
+     * @param name the topic name for the new channel
      */
     public KafkaChannel(int id, String name) {
+        if (id < 0 || id > 0xFF)
+            throw new IllegalArgumentException("Invalid channel id: " + id);
+
         this.id = (short) id;
-        this.partition = new TopicPartition(name, 0);
+        this.name = name;
+        this.partitions = new TopicPartition[]{new TopicPartition(name, 0)};
+    }
+
+    public static short positionKey(short channel, int partition) {
+        return (short) ((partition << 8) | channel);
+    }
+
+    public static short channelOf(short positionKey) {
+        return (short) (positionKey & 0xFF);
+    }
+
+    public static int partitionOf(short positionKey) {
+        return (positionKey >> 8) & 0xFF;
     }
 
     @Override
@@ -34,7 +64,7 @@ public class KafkaChannel implements LogChannel {
 
     @Override
     public String getName() {
-        return partition.topic();
+        return name;
     }
 
     @Override
@@ -42,7 +72,50 @@ public class KafkaChannel implements LogChannel {
         return "KafkaChannel(" + getName() + ')';
     }
 
-    public TopicPartition getTopicPartition() {
-        return partition;
+    /**
+     * Sets the partitions of the channel from the topic metadata.
+     *
+     * @throws IllegalStateException if the topic has more than MAX_PARTITIONS partitions:
+     *                               the ones in excess could not be tracked, so their messages would be lost
+     */
+    void setPartitions(List<PartitionInfo> infos) {
+        if (infos == null || infos.isEmpty())
+            return;  // topic not created yet, it will be auto-created with the broker's defaults
+
+        int size = infos.size();
+        if (size > MAX_PARTITIONS)
+            throw new IllegalStateException("Topic '" + name + "' has " + size + " partitions, " +
+                    "but at most " + MAX_PARTITIONS + " are supported");
+
+        TopicPartition[] partitions = new TopicPartition[size];
+        for (int i = 0; i < size; i++)
+            partitions[i] = new TopicPartition(name, i);
+
+        this.partitions = partitions;
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    public List<TopicPartition> getTopicPartitions() {
+        return Arrays.asList(partitions);
+    }
+
+    public TopicPartition getTopicPartition(int partition) {
+        return partitions[partition];
     }
+
+    public int getPartition(long memory) {
+        return (int) Math.floorMod(memory, (long) partitions.length);
+    }
+
+    public short getPositionKey(int partition) {
+        return positionKey(id, partition);
+    }
+
+    public short getPositionKey(long memory) {
+        return positionKey(id, getPartition(memory));
+    }
+
 }
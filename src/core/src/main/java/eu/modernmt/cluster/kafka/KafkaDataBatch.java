@@ -67,7 +67,7 @@ class KafkaDataBatch implements DataBatch {
         for (ConsumerRecord<Integer, KafkaPacket> record : records) {
             KafkaChannel channel = this.manager.getChannel(record.topic());
             long offset = record.offset();
-            short channelId = channel.getId();
+            short channelId = channel.getPositionKey(record.partition());
 
             Long previousOffset = this.currentPositions.get(channelId);
             if (previousOffset == null || previousOffset < offset)
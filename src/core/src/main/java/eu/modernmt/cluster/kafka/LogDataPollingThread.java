@@ -9,8 +9,11 @@ import eu.modernmt.lang.LanguageIndex;
 import eu.modernmt.processing.Preprocessor;
 import eu.modernmt.processing.ProcessingException;
 import org.apache.commons.io.IOUtils;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
 import org.apache.kafka.common.errors.WakeupException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -18,31 +21,61 @@ import org.apache.logging.log4j.Logger;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
 
 /**
  * Created by davide on 06/09/16.
+ * <p>
+ * Ingestion is organized as a three stages pipeline: this thread polls records from Kafka,
+ * a preparation thread preprocesses and aligns them into a KafkaDataBatch and a delivery thread
+ * hands the batches to the listeners. Stages are connected by bounded queues, so that the next
+ * batch is fetched and prepared while the current one is being applied.
+ * <p>
+ * Polled records are split by partition over independent lanes, each one with its own preparation
+ * and delivery threads, so that the partitions of the channels are prepared and delivered concurrently.
+ * A partition is always served by the same lane and every lane is served by single threads, so the
+ * records of a partition (and so the updates of a memory) are always delivered in order.
  */
 class LogDataPollingThread extends Thread {
 
     private final Logger logger = LogManager.getLogger(KafkaBinaryLog.class);
 
-    private final KafkaDataBatch batch;
+    private final LanguageIndex languages;
+    private final Preprocessor preprocessor;
+    private final Aligner aligner;
+    private final int pipelineDepth;
+    private final int maxLanes;
+    private Lane[] lanes;
 
-    private BinaryLogException exception;
-    private KafkaConsumer<Integer, KafkaPacket> consumer;
-    private boolean interrupted;
+    private volatile BinaryLogException exception;
+    private Consumer<Integer, KafkaPacket> consumer;
+    private volatile boolean interrupted;
     private final ArrayList<LogDataListener> listeners = new ArrayList<>(10);
     private BinaryLog.Listener binaryLogListener = null;
     private KafkaBinaryLog manager;
 
     private final ExecutorService executor = Executors.newCachedThreadPool();
 
-    public LogDataPollingThread(LanguageIndex languages, Preprocessor preprocessor, Aligner aligner, KafkaBinaryLog manager) {
+    public LogDataPollingThread(LanguageIndex languages, Preprocessor preprocessor, Aligner aligner, KafkaBinaryLog manager, int pipelineDepth) {
+        this(languages, preprocessor, aligner, manager, pipelineDepth, Runtime.getRuntime().availableProcessors());
+    }
+
+    LogDataPollingThread(LanguageIndex languages, Preprocessor preprocessor, Aligner aligner, KafkaBinaryLog manager, int pipelineDepth, int maxLanes) {
         super("DataPollingThread");
+
+        if (pipelineDepth < 1)
+            throw new IllegalArgumentException("Invalid pipeline depth: " + pipelineDepth);
+        if (maxLanes < 1)
+            throw new IllegalArgumentException("Invalid number of lanes: " + maxLanes);
+
         this.manager = manager;
-        this.batch = new KafkaDataBatch(languages, preprocessor, aligner, manager);
+        this.languages = languages;
+        this.preprocessor = preprocessor;
+        this.aligner = aligner;
+        this.pipelineDepth = pipelineDepth;
+        this.maxLanes = maxLanes;
     }
 
     public void ensureRunning() throws BinaryLogException {
@@ -60,10 +93,27 @@ class LogDataPollingThread extends Thread {
         this.listeners.add(listener);
     }
 
-    public void start(KafkaConsumer<Integer, KafkaPacket> consumer) {
+    /**
+     * Starts polling the consumer; the channels partitions must be already known,
+     * since the number of lanes depends on them.
+     */
+    public void start(Consumer<Integer, KafkaPacket> consumer) {
         this.consumer = consumer;
         this.interrupted = false;
 
+        int partitions = 1;
+        for (KafkaChannel channel : manager.getChannels())
+            partitions = Math.max(partitions, channel.getPartitionCount());
+
+        this.lanes = new Lane[Math.min(partitions, maxLanes)];
+        for (int i = 0; i < lanes.length; i++)
+            lanes[i] = new Lane(i);
+
+        if (lanes.length > 1)
+            logger.info("Delivering " + partitions + " partitions over " + lanes.length + " lanes");
+
+        for (Lane lane : lanes)
+            lane.start();
         super.start();
     }
 
@@ -75,6 +125,11 @@ class LogDataPollingThread extends Thread {
     public void shutdownNow() {
         this.shutdown();
         this.interrupt();
+
+        if (lanes != null) {
+            for (Lane lane : lanes)
+                lane.interrupt();
+        }
     }
 
     public boolean awaitTermination(TimeUnit unit, long timeout) throws InterruptedException {
@@ -82,6 +137,16 @@ class LogDataPollingThread extends Thread {
         return !this.isAlive();
     }
 
+    private void fail(BinaryLogException e) {
+        if (exception == null)
+            exception = e;
+
+        logger.error(e.getMessage(), e.getCause());
+
+        this.shutdown();
+        this.interrupt();
+    }
+
     public Map<Short, Long> getCurrentPositions() {
         KafkaChannel[] channels = this.manager.getChannels();
 
@@ -101,14 +166,16 @@ class LogDataPollingThread extends Thread {
                 result = new HashMap<>(latestPositions);
             } else {
                 for (KafkaChannel channel : channels) {
-                    short channelId = channel.getId();
+                    for (int partition = 0; partition < channel.getPartitionCount(); partition++) {
+                        short key = channel.getPositionKey(partition);
 
-                    Long v0 = result.get(channelId);
-                    Long v1 = latestPositions.get(channelId);
+                        Long v0 = result.get(key);
+                        Long v1 = latestPositions.get(key);
 
-                    long value = (v1 == null || v0 == null) ? -1L : Math.min(v0, v1);
+                        long value = (v1 == null || v0 == null) ? -1L : Math.min(v0, v1);
 
-                    result.put(channelId, value);
+                        result.put(key, value);
+                    }
                 }
             }
         }
@@ -117,8 +184,10 @@ class LogDataPollingThread extends Thread {
             result = new HashMap<>();
 
         // Normalize result
-        for (KafkaChannel channel : channels)
-            result.putIfAbsent(channel.getId(), -1L);
+        for (KafkaChannel channel : channels) {
+            for (int partition = 0; partition < channel.getPartitionCount(); partition++)
+                result.putIfAbsent(channel.getPositionKey(partition), -1L);
+        }
 
         for (Map.Entry<Short, Long> entry : result.entrySet()) {
             long value = entry.getValue();
@@ -136,50 +205,193 @@ class LogDataPollingThread extends Thread {
                 if (records.isEmpty())
                     continue;
 
-                boolean process = false;
-                boolean align = false;
-                for (LogDataListener listener : listeners) {
-                    if (process && align)
-                        break;
-
-                    process |= listener.needsProcessing();
-                    align |= listener.needsAlignment();
+                if (lanes.length == 1) {
+                    lanes[0].records.put(records);
+                } else {
+                    for (Map.Entry<Integer, ConsumerRecords<Integer, KafkaPacket>> entry : splitByLane(records).entrySet())
+                        lanes[entry.getKey()].records.put(entry.getValue());
                 }
+            } catch (WakeupException | InterruptException | InterruptedException e) {
+                // Shutdown request
+                break;
+            } catch (RuntimeException e) {
+                fail(new BinaryLogException("Unexpected exception while data-stream polling", e));
+                break;
+            }
+        }
+
+        // Pending batches are simply dropped: they will be polled again on restart
+        // and listeners will skip the ones they have already applied.
+        for (Lane lane : lanes)
+            lane.preparationThread.interrupt();
+
+        try {
+            for (Lane lane : lanes)
+                lane.join();
+        } catch (InterruptedException e) {
+            for (Lane lane : lanes)
+                lane.interrupt();
+        }
+
+        IOUtils.closeQuietly(consumer);
+        executor.shutdownNow();
+    }
+
+    private Map<Integer, ConsumerRecords<Integer, KafkaPacket>> splitByLane(ConsumerRecords<Integer, KafkaPacket> records) {
+        HashMap<Integer, Map<TopicPartition, List<ConsumerRecord<Integer, KafkaPacket>>>> split = new HashMap<>(lanes.length);
+
+        for (TopicPartition partition : records.partitions()) {
+            int lane = partition.partition() % lanes.length;
+            split.computeIfAbsent(lane, key -> new HashMap<>()).put(partition, records.records(partition));
+        }
+
+        HashMap<Integer, ConsumerRecords<Integer, KafkaPacket>> result = new HashMap<>(split.size());
+        for (Map.Entry<Integer, Map<TopicPartition, List<ConsumerRecord<Integer, KafkaPacket>>>> entry : split.entrySet())
+            result.put(entry.getKey(), new ConsumerRecords<>(entry.getValue()));
+
+        return result;
+    }
 
-                if (logger.isDebugEnabled())
-                    logger.debug("Loading batch of " + records.count() + " records: " +
-                            "process=" + process + ", align=" + align);
-                batch.load(records, process, align);
+    private class Lane {
 
-                if (logger.isDebugEnabled())
-                    logger.debug("Delivering batch of " + batch.size() + " updates");
+        private final BlockingQueue<ConsumerRecords<Integer, KafkaPacket>> records;
+        private final BlockingQueue<KafkaDataBatch> batches;
+        private final BlockingQueue<KafkaDataBatch> freeBatches;
+        private final PreparationThread preparationThread;
+        private final DeliveryThread deliveryThread;
 
+        Lane(int index) {
+            this.records = new ArrayBlockingQueue<>(pipelineDepth);
+            this.batches = new ArrayBlockingQueue<>(pipelineDepth);
+
+            // one batch in preparation, one in delivery and the ones waiting in between
+            int poolSize = pipelineDepth + 2;
+            this.freeBatches = new ArrayBlockingQueue<>(poolSize);
+            for (int i = 0; i < poolSize; i++)
+                this.freeBatches.add(new KafkaDataBatch(languages, preprocessor, aligner, manager));
+
+            String suffix = index == 0 ? "" : ("-" + index);
+            this.preparationThread = new PreparationThread(this, "DataPreparationThread" + suffix);
+            this.deliveryThread = new DeliveryThread(this, "DataDeliveryThread" + suffix);
+        }
+
+        void start() {
+            deliveryThread.start();
+            preparationThread.start();
+        }
+
+        void interrupt() {
+            preparationThread.interrupt();
+            deliveryThread.interrupt();
+        }
+
+        void join() throws InterruptedException {
+            preparationThread.join();
+            deliveryThread.join();
+        }
+
+    }
+
+    private class PreparationThread extends Thread {
+
+        private final Lane lane;
+
+        public PreparationThread(Lane lane, String name) {
+            super(name);
+            this.lane = lane;
+        }
+
+        @Override
+        public void run() {
+            while (!interrupted) {
                 try {
-                    deliverBatch(batch);
-                } catch (Throwable e) {
-                    logger.error("Failed to delivery updates", e);
+                    ConsumerRecords<Integer, KafkaPacket> records = lane.records.take();
+                    KafkaDataBatch batch = lane.freeBatches.take();
+
+                    boolean process = false;
+                    boolean align = false;
+                    for (LogDataListener listener : listeners) {
+                        if (process && align)
+                            break;
+
+                        process |= listener.needsProcessing();
+                        align |= listener.needsAlignment();
+                    }
+
+                    if (logger.isDebugEnabled())
+                        logger.debug("Loading batch of " + records.count() + " records: " +
+                                "process=" + process + ", align=" + align);
+
+                    try {
+                        batch.load(records, process, align);
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (AlignerException | ProcessingException e) {
+                        fail(new BinaryLogException("Failed to parse update batch", e));
+                        break;
+                    } catch (RuntimeException e) {
+                        fail(new BinaryLogException("Unexpected exception while preparing data batch", e));
+                        break;
+                    }
+
+                    lane.batches.put(batch);
+                } catch (InterruptedException e) {
+                    // Shutdown request
+                    break;
                 }
+            }
+        }
 
-                if (binaryLogListener != null)
-                    binaryLogListener.onLogDataBatchProcessed(batch.getChannelPositions());
+    }
 
-                batch.clear();
-            } catch (WakeupException | InterruptedException e) {
-                // Shutdown request
-                break;
-            } catch (RuntimeException e) {
-                exception = new BinaryLogException("Unexpected exception while data-stream polling", e);
-                logger.error(exception.getMessage(), e);
-                break;
-            } catch (AlignerException | ProcessingException e) {
-                exception = new BinaryLogException("Failed to parse update batch", e);
-                logger.error(exception.getMessage(), e);
-                break;
+    private class DeliveryThread extends Thread {
+
+        private final Lane lane;
+
+        public DeliveryThread(Lane lane, String name) {
+            super(name);
+            this.lane = lane;
+        }
+
+        @Override
+        public void run() {
+            // Not interrupted on graceful shutdown in order to not break listeners in the middle of a write
+            while (!interrupted) {
+                try {
+                    KafkaDataBatch batch = lane.batches.poll(500, TimeUnit.MILLISECONDS);
+                    if (batch == null)
+                        continue;
+
+                    if (logger.isDebugEnabled())
+                        logger.debug("Delivering batch of " + batch.size() + " updates");
+
+                    try {
+                        deliverBatch(batch);
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        logger.error("Failed to delivery updates", e);
+                    }
+
+                    if (binaryLogListener != null) {
+                        // lanes report disjoint positions, but the listener is not required to be thread-safe
+                        synchronized (LogDataPollingThread.this) {
+                            binaryLogListener.onLogDataBatchProcessed(batch.getChannelPositions());
+                        }
+                    }
+
+                    batch.clear();
+                    lane.freeBatches.put(batch);
+                } catch (InterruptedException e) {
+                    // Shutdown request
+                    break;
+                } catch (RuntimeException e) {
+                    fail(new BinaryLogException("Unexpected exception while delivering data batch", e));
+                    break;
+                }
             }
         }
 
-        IOUtils.closeQuietly(consumer);
-        executor.shutdownNow();
     }
 
     private void deliverBatch(KafkaDataBatch batch) throws Exception {
@@ -41,17 +41,7 @@ public class MemoryFacade {
     }
 
     public Memory get(long id) throws PersistenceException {
-        Connection connection = null;
-        Database db = ModernMT.getNode().getDatabase();
-
-        try {
-            connection = db.getConnection();
-
-            MemoryDAO memoryDAO = db.getMemoryDAO(connection);
-            return memoryDAO.retrieve(id);
-        } finally {
-            IOUtils.closeQuietly(connection);
-        }
+        return ModernMT.getNode().getMemoryCache().get(id);
     }
 
     public Map<Long, Memory> get(long[] ids) throws PersistenceException {
@@ -63,35 +53,26 @@ public class MemoryFacade {
     }
 
     public Map<Long, Memory> get(Collection<Long> ids) throws PersistenceException {
-        Connection connection = null;
-        Database db = ModernMT.getNode().getDatabase();
-
-        try {
-            connection = db.getConnection();
-
-            MemoryDAO memoryDAO = db.getMemoryDAO(connection);
-            return memoryDAO.retrieve(ids);
-        } finally {
-            IOUtils.closeQuietly(connection);
-        }
+        return ModernMT.getNode().getMemoryCache().get(ids);
     }
 
     public Memory create(UUID owner, String name) throws PersistenceException {
         Connection connection = null;
         Database db = ModernMT.getNode().getDatabase();
 
+        Memory memory = new Memory(0L, owner, name);
+
         try {
             connection = db.getConnection();
 
-            Memory memory = new Memory(0L, owner, name);
-
             MemoryDAO memoryDAO = db.getMemoryDAO(connection);
             memory = memoryDAO.store(memory);
-
-            return memory;
         } finally {
             IOUtils.closeQuietly(connection);
         }
+
+        ModernMT.getNode().getMemoryCache().put(memory);
+        return memory;
     }
 
     public boolean delete(long id) throws PersistenceException, BinaryLogException {
@@ -116,6 +97,8 @@ public class MemoryFacade {
             IOUtils.closeQuietly(connection);
         }
 
+        ModernMT.getNode().getMemoryCache().invalidate(id);
+
         BinaryLog binlog = ModernMT.getNode().getBinaryLog();
         binlog.delete(memory);
 
@@ -134,30 +117,15 @@ public class MemoryFacade {
             return ImportJob.createEphemeralJob(memoryId, 0, BinaryLog.CONTRIBUTIONS_CHANNEL_ID);
 
         // Adding
-        Connection connection = null;
-        Database db = ModernMT.getNode().getDatabase();
+        Memory memory = get(memoryId);
 
-        try {
-            connection = db.getConnection();
-
-            MemoryDAO memoryDAO = db.getMemoryDAO(connection);
-            Memory memory = memoryDAO.retrieve(memoryId);
-
-            if (memory == null)
-                return null;
-
-            BinaryLog binlog = ModernMT.getNode().getBinaryLog();
-            ImportJob job = binlog.upload(memory, tu, BinaryLog.CONTRIBUTIONS_CHANNEL_ID);
-
-            if (job == null)
-                return null;
+        if (memory == null)
+            return null;
 
-            // Don't store ephemeral ImportJob!
+        BinaryLog binlog = ModernMT.getNode().getBinaryLog();
 
-            return job;
-        } finally {
-            IOUtils.closeQuietly(connection);
-        }
+        // Don't store ephemeral ImportJob!
+        return binlog.upload(memory, tu, BinaryLog.CONTRIBUTIONS_CHANNEL_ID);
     }
 
     public ImportJob replace(long memoryId, TranslationUnit tu)
@@ -183,51 +151,23 @@ public class MemoryFacade {
             return ImportJob.createEphemeralJob(memoryId, 0, BinaryLog.CONTRIBUTIONS_CHANNEL_ID);
 
         // Replacing
-        Connection connection = null;
-        Database db = ModernMT.getNode().getDatabase();
-
-        try {
-            connection = db.getConnection();
-
-            MemoryDAO memoryDAO = db.getMemoryDAO(connection);
-            Memory memory = memoryDAO.retrieve(memoryId);
+        Memory memory = get(memoryId);
 
-            if (memory == null)
-                return null;
-
-            BinaryLog binlog = ModernMT.getNode().getBinaryLog();
-            ImportJob job;
-            if (previous == null)
-                job = binlog.replace(memory, current, BinaryLog.CONTRIBUTIONS_CHANNEL_ID);
-            else
-                job = binlog.replace(memory, current, previous.source, previous.target, BinaryLog.CONTRIBUTIONS_CHANNEL_ID);
-
-            if (job == null)
-                return null;
+        if (memory == null)
+            return null;
 
-            // Don't store ephemeral ImportJob!
+        BinaryLog binlog = ModernMT.getNode().getBinaryLog();
 
-            return job;
-        } finally {
-            IOUtils.closeQuietly(connection);
-        }
+        // Don't store ephemeral ImportJob!
+        if (previous == null)
+            return binlog.replace(memory, current, BinaryLog.CONTRIBUTIONS_CHANNEL_ID);
+        else
+            return binlog.replace(memory, current, previous.source, previous.target, BinaryLog.CONTRIBUTIONS_CHANNEL_ID);
     }
 
     public ImportJob add(long memoryId, MultilingualCorpus corpus) throws PersistenceException, BinaryLogException {
-        Connection connection = null;
-        Database db = ModernMT.getNode().getDatabase();
-
-        Memory memory;
-        try {
-            connection = db.getConnection();
-
-            MemoryDAO memoryDAO = db.getMemoryDAO(connection);
-            memory = memoryDAO.retrieve(memoryId);
-
-            if (memory == null) return null;
-        } finally {
-            IOUtils.closeQuietly(connection);
-        }
+        Memory memory = get(memoryId);
+        if (memory == null) return null;
 
         corpus = CorporaCleaning.wrap(corpus, CorporaCleaning.Options.defaultOptionsForMemoryImport());
 
@@ -237,6 +177,9 @@ public class MemoryFacade {
         if (job == null)
             throw new EmptyCorpusException();
 
+        Connection connection = null;
+        Database db = ModernMT.getNode().getDatabase();
+
         try {
             connection = db.getConnection();
             ImportJobDAO jobDAO = db.getImportJobDAO(connection);
@@ -256,10 +199,16 @@ public class MemoryFacade {
             connection = db.getConnection();
             MemoryDAO memoryDAO = db.getMemoryDAO(connection);
 
-            return memoryDAO.update(memory);
+            memory = memoryDAO.update(memory);
         } finally {
             IOUtils.closeQuietly(connection);
         }
+
+        // The updated memory may not carry all the fields (i.e. the owner), so it is not cached
+        if (memory != null)
+            ModernMT.getNode().getMemoryCache().invalidate(memory.getId());
+
+        return memory;
     }
 
     public ImportJob getImportJob(UUID id) throws PersistenceException {
@@ -11,16 +11,20 @@ import eu.modernmt.decoder.DecoderException;
 import eu.modernmt.engine.BootstrapException;
 import eu.modernmt.engine.Engine;
 import eu.modernmt.facade.exceptions.TestFailedException;
+import eu.modernmt.lang.Language;
 import eu.modernmt.lang.LanguageDirection;
 import eu.modernmt.memory.TranslationMemory;
 import eu.modernmt.persistence.Database;
 import eu.modernmt.persistence.PersistenceException;
+import eu.modernmt.processing.tokenizer.TokenizerModels;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -51,6 +55,8 @@ public class ModernMT {
                 (t, e) -> logger.fatal("Unexpected exception thrown by thread [" + t.getName() + "]", e)
         );
 
+        translation.setCallbackThreads(config.getNetworkConfig().getApiConfig().getCallbackThreads());
+
         node = new ClusterNode("mmt-" + BUILD_VERSION + "-" + BUILD_NUMBER);
         if (listener != null)
             node.addStatusListener(listener);
@@ -80,7 +86,12 @@ public class ModernMT {
             }
         }
 
-        return new ServerInfo(new ServerInfo.ClusterInfo(nodes), new ServerInfo.BuildInfo(BUILD_VERSION, BUILD_NUMBER), memorySize);
+        Map<String, Long> tokenizerModelsSize = new TreeMap<>();
+        for (Map.Entry<Language, Long> entry : TokenizerModels.getMemoryUsage().entrySet())
+            tokenizerModelsSize.put(entry.getKey().toLanguageTag(), entry.getValue());
+
+        return new ServerInfo(new ServerInfo.ClusterInfo(nodes), new ServerInfo.BuildInfo(BUILD_VERSION, BUILD_NUMBER),
+                memorySize, tokenizerModelsSize);
     }
 
     public static void test(boolean strict) throws TestFailedException {
@@ -154,15 +154,11 @@ public class TrainingFacade {
     // - Deduplicate ---------------------------------------------------------------------------------------------------
 
     public void deduplicate(List<MultilingualCorpus> corpora, File outputDirectory, int lengthThreshold, boolean sorted) throws IOException {
-        long lines = 0;
-        for (long count : Corpora.countLines(corpora).values())
-            lines += count;
+        CorporaBloomFilter bloomFilter = CorporaBloomFilter.fromLineCounts(Corpora.countLines(corpora).values());
 
         FileUtils.deleteDirectory(outputDirectory);
         FileUtils.forceMkdir(outputDirectory);
 
-        CorporaBloomFilter bloomFilter = new CorporaBloomFilter(lines);
-
         BatchCopyProcess copyProcess = new BatchCopyProcess(new LazyWriterFactory(new RenameCorpusFactory(outputDirectory)));
         for (MultilingualCorpus corpus : corpora)
             copyProcess.add(bloomFilter.wrap(corpus, lengthThreshold));
@@ -174,15 +170,11 @@ public class TrainingFacade {
     }
 
     public void deduplicateMonolingual(List<Corpus> corpora, File outputDirectory, int lengthThreshold, boolean sorted) throws IOException {
-        long lines = 0;
-        for (long count : Corpora.countMonolingualLines(corpora).values())
-            lines += count;
+        CorporaBloomFilter bloomFilter = CorporaBloomFilter.fromLineCounts(Corpora.countMonolingualLines(corpora).values());
 
         FileUtils.deleteDirectory(outputDirectory);
         FileUtils.forceMkdir(outputDirectory);
 
-        CorporaBloomFilter bloomFilter = new CorporaBloomFilter(lines);
-
         BatchCopyProcess copyProcess = new BatchCopyProcess(new LazyWriterFactory(new RenameCorpusFactory(outputDirectory)));
         for (Corpus corpus : corpora)
             copyProcess.add(bloomFilter.wrap(corpus, lengthThreshold));
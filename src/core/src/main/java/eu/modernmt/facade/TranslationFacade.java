@@ -1,6 +1,8 @@
 package eu.modernmt.facade;
 
+import com.hazelcast.core.ExecutionCallback;
 import com.hazelcast.core.HazelcastException;
+import com.hazelcast.core.ICompletableFuture;
 import eu.modernmt.cluster.ClusterNode;
 import eu.modernmt.cluster.TranslationTask;
 import eu.modernmt.cluster.error.SystemShutdownException;
@@ -11,6 +13,7 @@ import eu.modernmt.decoder.DecoderException;
 import eu.modernmt.decoder.DecoderWithNBest;
 import eu.modernmt.decoder.TranslationTimeoutException;
 import eu.modernmt.engine.Engine;
+import eu.modernmt.io.FileProxy;
 import eu.modernmt.lang.Language;
 import eu.modernmt.lang.LanguageDirection;
 import eu.modernmt.lang.LanguageIndex;
@@ -32,9 +35,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.File;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.*;
 
 /**
  * Created by davide on 31/01/17.
@@ -42,6 +43,64 @@ import java.util.concurrent.RejectedExecutionException;
 public class TranslationFacade {
 
     private static final Logger logger = LogManager.getLogger(TranslationFacade.class);
+    private static final long RETRY_DELAY_MILLIS = 50L;
+
+    private volatile ScheduledExecutorService executor = null;
+    private volatile boolean shutdown = false;
+
+    /**
+     * Sets the number of threads that complete the futures returned by getAsync(), post-processing the translations
+     * and writing the asynchronous responses. It must be called before the first translation is requested,
+     * otherwise one thread per core is used.
+     */
+    public synchronized void setCallbackThreads(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("Invalid number of callback threads: " + threads);
+        if (executor != null)
+            throw new IllegalStateException("Callback executor already started");
+
+        executor = Executors.newScheduledThreadPool(threads);
+    }
+
+    private ScheduledExecutorService getExecutor() {
+        if (shutdown)
+            throw new RejectedExecutionException("Translation facade has been shut down");
+
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null)
+                    executor = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
+            }
+        }
+
+        return executor;
+    }
+
+    /**
+     * Runs the callback of a translation task in the callback threads; if they have been stopped meanwhile,
+     * the callback is run in the calling thread, so that the translations already in progress are still completed.
+     */
+    private void executeCallback(Runnable callback) {
+        try {
+            getExecutor().execute(callback);
+        } catch (RejectedExecutionException e) {
+            callback.run();
+        }
+    }
+
+    /**
+     * Stops the callback threads: translations still in progress are completed, the new ones are refused.
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        if (executor != null)
+            executor.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        ExecutorService executor = this.executor;
+        return executor == null || executor.awaitTermination(timeout, unit);
+    }
 
     public Set<LanguageDirection> getLanguages() {
         Engine engine = ModernMT.getNode().getEngine();
@@ -75,6 +134,33 @@ public class TranslationFacade {
     }
 
     public Translation get(UUID user, LanguageDirection direction, Preprocessor.Options preprocessingOptions, String text, ContextVector translationContext, int nbest, Priority priority, long timeout) throws ProcessingException, DecoderException {
+        CompletableFuture<Translation> future = getAsync(user, direction, preprocessingOptions, text, translationContext, nbest, priority, timeout);
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            throw new SystemShutdownException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof ProcessingException)
+                throw (ProcessingException) cause;
+            else if (cause instanceof DecoderException)
+                throw (DecoderException) cause;
+            else if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            else
+                throw new Error("Unexpected exception thrown: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Translates the text without waiting for the decoder: the text is pre-processed in the calling thread,
+     * then the returned future is completed (with the post-processed translation) by the completion
+     * callback of the translation task, so that no thread is blocked while the task is queued or running.
+     * The future fails with the same exceptions thrown by get().
+     */
+    public CompletableFuture<Translation> getAsync(UUID user, LanguageDirection direction, Preprocessor.Options preprocessingOptions, String text, ContextVector translationContext, int nbest, Priority priority, long timeout) throws ProcessingException, DecoderException {
         LanguageDirection normalizedDirection = mapLanguage(direction);
         if (nbest > 0)
             ensureDecoderSupportsNBest();
@@ -87,65 +173,101 @@ public class TranslationFacade {
         Sentence sentence = preprocessor.process(normalizedDirection, text, preprocessingOptions);
 
         // Translating
-        Translation translation;
         long expirationTimestamp = timeout > 0 ? (System.currentTimeMillis() + timeout) : 0L;
+        TranslationTask task = new TranslationTaskImpl(priority, user, normalizedDirection, sentence, translationContext, nbest, expirationTimestamp);
 
-        try {
-            translation = insecureGet(user, normalizedDirection, sentence, translationContext, nbest, priority, expirationTimestamp);
-        } catch (DecoderException | HazelcastException e) {
-            if (e instanceof TranslationTimeoutException)
-                throw e;
+        CompletableFuture<Translation> result = new CompletableFuture<>();
 
-            logger.warn("Translation failed, retry after delay", e);
+        insecureGet(sentence, task, expirationTimestamp).whenComplete((translation, error) -> {
+            if (error == null) {
+                postprocess(postprocessor, direction, normalizedDirection, translation, result);
+            } else if (error instanceof TranslationTimeoutException ||
+                    !(error instanceof DecoderException || error instanceof HazelcastException)) {
+                result.completeExceptionally(error);
+            } else {
+                logger.warn("Translation failed, retry after delay", error);
+
+                try {
+                    getExecutor().schedule(() -> insecureGet(sentence, task, expirationTimestamp).whenComplete((retry, retryError) -> {
+                        if (retryError == null)
+                            postprocess(postprocessor, direction, normalizedDirection, retry, result);
+                        else
+                            result.completeExceptionally(retryError);
+                    }), RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    result.completeExceptionally(new SystemShutdownException(e));
+                }
+            }
+        });
 
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e1) {
-                // Ignore it
+        return result;
+    }
+
+    private static void postprocess(Postprocessor postprocessor, LanguageDirection direction, LanguageDirection normalizedDirection,
+                                    Translation translation, CompletableFuture<Translation> result) {
+        try {
+            Postprocessor.Options postprocessingOptions = new Postprocessor.Options(direction.source, direction.target);
+            postprocessor.process(normalizedDirection, translation, postprocessingOptions);
+
+            if (translation.hasNbest()) {
+                for (Translation hypothesis : translation.getNbest())
+                    postprocessor.process(normalizedDirection, hypothesis, postprocessingOptions);
             }
 
-            translation = insecureGet(user, normalizedDirection, sentence, translationContext, nbest, priority, expirationTimestamp);
+            result.complete(translation);
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
         }
+    }
 
-        // Post-processing translation
-        Postprocessor.Options postprocessingOptions = new Postprocessor.Options(direction.source, direction.target);
-        postprocessor.process(normalizedDirection, translation, postprocessingOptions);
+    /**
+     * This method submits the translation task to the cluster; the returned future is completed
+     * by the task completion callback, and fails with the unwrapped cause of the task failure.
+     */
+    private CompletableFuture<Translation> insecureGet(Sentence sentence, TranslationTask task, long expirationTimestamp) {
+        CompletableFuture<Translation> future = new CompletableFuture<>();
 
-        if (translation.hasNbest()) {
-            for (Translation hypothesis : translation.getNbest())
-                postprocessor.process(normalizedDirection, hypothesis, postprocessingOptions);
+        if (expirationTimestamp > 0 && expirationTimestamp < System.currentTimeMillis()) {
+            future.completeExceptionally(new TranslationTimeoutException());
+            return future;
         }
 
-        return translation;
-    }
-
-    private Translation insecureGet(UUID user, LanguageDirection direction, Sentence sentence, ContextVector context, int nbest, Priority priority, long expirationTimestamp) throws DecoderException {
-        if (expirationTimestamp > 0 && expirationTimestamp < System.currentTimeMillis())
-            throw new TranslationTimeoutException();
+        if (!sentence.hasWords()) {
+            future.complete(Translation.emptyTranslation(sentence));
+            return future;
+        }
 
-        if (!sentence.hasWords())
-            return Translation.emptyTranslation(sentence);
+        ICompletableFuture<Translation> translation;
 
         try {
-            ClusterNode node = ModernMT.getNode();
+            translation = ModernMT.getNode().submit(task);
+        } catch (DecoderException | RuntimeException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
 
-            TranslationTask task = new TranslationTaskImpl(priority, user, direction, sentence, context, nbest, expirationTimestamp);
-            Future<Translation> future = node.submit(task);
-            return future.get();
-        } catch (InterruptedException e) {
-            throw new SystemShutdownException(e);
-        } catch (ExecutionException e) {
-            Throwable cause = e.getCause();
+        translation.andThen(new ExecutionCallback<Translation>() {
 
-            if (cause instanceof DecoderException)
-                throw (DecoderException) cause;
-            else if (cause instanceof RejectedExecutionException)
-                throw new SystemShutdownException(cause);
-            else if (cause instanceof RuntimeException)
-                throw (RuntimeException) cause;
-            else
-                throw new Error("Unexpected exception thrown: " + cause.getMessage(), cause);
-        }
+            @Override
+            public void onResponse(Translation response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                Throwable cause = t instanceof ExecutionException && t.getCause() != null ? t.getCause() : t;
+
+                if (cause instanceof RejectedExecutionException)
+                    cause = new SystemShutdownException(cause);
+                else if (!(cause instanceof DecoderException || cause instanceof RuntimeException))
+                    cause = new Error("Unexpected exception thrown: " + cause.getMessage(), cause);
+
+                future.completeExceptionally(cause);
+            }
+
+        }, this::executeCallback);
+
+        return future;
     }
 
     // =============================
@@ -173,6 +295,11 @@ public class TranslationFacade {
         return getContextVectors(user, new FileCorpus(context, null, source), limit, source, targets);
     }
 
+    public Map<Language, ContextVector> getContextVectors(UUID user, FileProxy context, int limit, Language source, Language... targets) throws ContextAnalyzerException {
+        // the content is analyzed in a single pass, so it can be streamed directly from the proxy
+        return getContextVectors(user, new FileCorpus(context, "context", source), limit, source, targets);
+    }
+
     public Map<Language, ContextVector> getContextVectors(UUID user, String context, int limit, Language source, Language... targets) throws ContextAnalyzerException {
         return getContextVectors(user, new StringCorpus(null, source, context), limit, source, targets);
     }
@@ -181,17 +308,22 @@ public class TranslationFacade {
         Engine engine = ModernMT.getNode().getEngine();
         ContextAnalyzer analyzer = engine.getContextAnalyzer();
 
-        HashMap<Language, ContextVector> result = new HashMap<>(targets.length);
+        HashMap<Language, LanguageDirection> directions = new HashMap<>(targets.length);
         for (Language target : targets) {
             try {
-                LanguageDirection direction = mapLanguage(new LanguageDirection(source, target));
-                ContextVector contextVector = analyzer.getContextVector(user, direction, context, limit);
-                result.put(target, contextVector);
+                directions.put(target, mapLanguage(new LanguageDirection(source, target)));
             } catch (UnsupportedLanguageException e) {
                 // ignore it
             }
         }
 
+        Map<LanguageDirection, ContextVector> contextVectors = directions.isEmpty() ? Collections.emptyMap() :
+                analyzer.getContextVectors(user, new HashSet<>(directions.values()), context, limit);
+
+        HashMap<Language, ContextVector> result = new HashMap<>(directions.size());
+        for (Map.Entry<Language, LanguageDirection> entry : directions.entrySet())
+            result.put(entry.getKey(), contextVectors.get(entry.getValue()));
+
         return result;
     }
 
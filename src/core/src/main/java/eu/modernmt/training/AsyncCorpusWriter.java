@@ -3,25 +3,51 @@ package eu.modernmt.training;
 import eu.modernmt.io.LineWriter;
 import eu.modernmt.io.TokensOutputStream;
 import eu.modernmt.model.Sentence;
+import eu.modernmt.model.Word;
 import eu.modernmt.model.corpus.Corpus;
+import eu.modernmt.model.corpus.impl.parallel.FileCorpus;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.concurrent.SynchronousQueue;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
  * Created by davide on 22/08/16.
+ * <p>
+ * Writes the tokenized sentences of a corpus from a background thread. Up to maxPendingBatches batches
+ * can be queued, so that the producer does not wait for the disk while the previous batches are written.
+ * If the corpus is a FileCorpus, the sentences are serialized directly as UTF-8 into a reusable write-behind
+ * buffer of bufferSize bytes, that is written to the file (compressed if its FileProxy is gzipped)
+ * only when full; other corpora are written line by line through their LineWriter.
  */
 public class AsyncCorpusWriter implements Closeable {
 
+    public static final int DEFAULT_MAX_PENDING_BATCHES = 4;
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
     private static final Sentence[] POISON_PILL = new Sentence[0];
 
-    private final SynchronousQueue<Sentence[]> queue = new SynchronousQueue<>();
-    private final WriterThread writerThread = new WriterThread();
-    private final LineWriter writer;
+    private final BlockingQueue<Sentence[]> queue;
+    private final WriterThread writerThread;
 
     public AsyncCorpusWriter(Corpus corpus) throws IOException {
-        this.writer = corpus.getContentWriter(false);
+        this(corpus, DEFAULT_MAX_PENDING_BATCHES, DEFAULT_BUFFER_SIZE);
+    }
+
+    public AsyncCorpusWriter(Corpus corpus, int maxPendingBatches, int bufferSize) throws IOException {
+        if (maxPendingBatches < 1 || bufferSize < 1)
+            throw new IllegalArgumentException();
+
+        this.queue = new ArrayBlockingQueue<>(maxPendingBatches);
+
+        if (corpus instanceof FileCorpus)
+            this.writerThread = new WriterThread(((FileCorpus) corpus).getFile().getOutputStream(false), bufferSize);
+        else
+            this.writerThread = new WriterThread(corpus.getContentWriter(false));
+
         this.writerThread.start();
     }
 
@@ -35,15 +61,37 @@ public class AsyncCorpusWriter implements Closeable {
         }
     }
 
+    /**
+     * Writes the pending batches and closes the output. If the calling thread is interrupted,
+     * the pending batches are discarded, but the output is closed only after the write thread has terminated.
+     */
     @Override
     public void close() throws IOException {
+        InterruptedException interruption = null;
+
         try {
             queue.put(POISON_PILL);
-            writerThread.join();
         } catch (InterruptedException e) {
-            throw new IOException("Write thread interrupted", e);
+            interruption = e;
+            writerThread.interrupt();
+        }
+
+        try {
+            while (writerThread.isAlive()) {
+                try {
+                    writerThread.join();
+                } catch (InterruptedException e) {
+                    interruption = e;
+                    writerThread.interrupt();
+                }
+            }
         } finally {
-            writer.close();
+            writerThread.closeOutput();
+        }
+
+        if (interruption != null) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Write thread interrupted", interruption);
         }
 
         writerThread.checkForError();
@@ -51,8 +99,29 @@ public class AsyncCorpusWriter implements Closeable {
 
     private class WriterThread extends Thread {
 
+        private final OutputStream stream;
+        private final LineWriter writer;
+        private final int bufferSize;
+
+        private byte[] buffer;
+        private int length = 0;
+
         private IOException error = null;
 
+        WriterThread(OutputStream stream, int bufferSize) {
+            this.stream = stream;
+            this.writer = null;
+            this.bufferSize = bufferSize;
+            this.buffer = new byte[Math.min(bufferSize, 64 * 1024)];
+        }
+
+        WriterThread(LineWriter writer) {
+            this.stream = null;
+            this.writer = writer;
+            this.bufferSize = 0;
+            this.buffer = null;
+        }
+
         public void checkForError() throws IOException {
             if (error != null)
                 throw error;
@@ -78,13 +147,108 @@ public class AsyncCorpusWriter implements Closeable {
                     continue;
 
                 try {
-                    for (Sentence sentence : batch)
-                        writer.writeLine(TokensOutputStream.serialize(sentence, false, true));
+                    if (stream == null) {
+                        for (Sentence sentence : batch)
+                            writer.writeLine(TokensOutputStream.serialize(sentence, false, true));
+                    } else {
+                        for (Sentence sentence : batch) {
+                            append(sentence);
+
+                            if (length >= bufferSize)
+                                flushBuffer();
+                        }
+                    }
                 } catch (IOException e) {
                     error = e;
                 }
             }
         }
 
+        void closeOutput() throws IOException {
+            if (stream == null) {
+                writer.close();
+            } else {
+                try {
+                    if (error == null)
+                        flushBuffer();
+                } finally {
+                    stream.close();
+                }
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            stream.write(buffer, 0, length);
+            length = 0;
+        }
+
+        /*
+         * Same output of UnixLineWriter.writeLine(TokensOutputStream.serialize(sentence, false, true))
+         * with an UTF-8 writer: placeholders separated by spaces, spaces within a token replaced by
+         * non-breaking spaces, new lines by spaces, unpaired surrogates by '?'.
+         */
+        private void append(Sentence sentence) {
+            Word[] words = sentence.getWords();
+
+            for (int w = 0; w < words.length; w++) {
+                if (w > 0)
+                    appendByte(' ');
+
+                String text = words[w].getPlaceholder();
+                int textLength = text.length();
+
+                for (int i = 0; i < textLength; i++) {
+                    char c = text.charAt(i);
+
+                    if (c < 0x80) {
+                        if (c == ' ')
+                            appendChar('\u00A0');
+                        else if (c == '\n')
+                            appendByte(' ');
+                        else
+                            appendByte(c);
+                    } else if (Character.isHighSurrogate(c) && i + 1 < textLength && Character.isLowSurrogate(text.charAt(i + 1))) {
+                        int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                        ensureCapacity(4);
+                        buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                        buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                        buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                        buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+                    } else if (Character.isSurrogate(c)) {
+                        appendByte('?');
+                    } else {
+                        appendChar(c);
+                    }
+                }
+            }
+
+            appendByte('\n');
+        }
+
+        private void appendChar(char c) {
+            ensureCapacity(3);
+
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                buffer[length++] = (byte) (0xE0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        private void appendByte(int b) {
+            ensureCapacity(1);
+            buffer[length++] = (byte) b;
+        }
+
+        private void ensureCapacity(int bytes) {
+            if (length + bytes > buffer.length)
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + bytes));
+        }
+
     }
-}
\ No newline at end of file
+}
@@ -11,20 +11,22 @@ import eu.modernmt.training.partitioning.PartitioningUtils;
 import org.apache.commons.io.IOUtils;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Created by davide on 22/08/16.
  */
 public class PreprocessingPipeline {
 
+    private static final int MAX_CONCURRENT_TASKS = 8;
+
     private final int threads;
     private final CorporaPartition mainPartition;
     private final LanguageDirection language;
 
     private ArrayList<CorporaPartition> extraPartitions = new ArrayList<>();
+    private int concurrentTasks = Math.min(MAX_CONCURRENT_TASKS, Runtime.getRuntime().availableProcessors());
 
     public PreprocessingPipeline(LanguageDirection language, CorporaPartition mainPartition) {
         this(language, mainPartition, Runtime.getRuntime().availableProcessors() * 2);
@@ -40,6 +42,24 @@ public class PreprocessingPipeline {
         this.extraPartitions.add(partition);
     }
 
+    public int getConcurrentTasks() {
+        return concurrentTasks;
+    }
+
+    /**
+     * Sets the number of corpora processed at the same time. All the tasks share the same
+     * Preprocessor, whose threads are the overall processing budget: running more tasks at once
+     * keeps it busy with small corpora and overlaps the I/O of a task with the processing of the others.
+     *
+     * @param concurrentTasks the maximum number of tasks running concurrently
+     */
+    public void setConcurrentTasks(int concurrentTasks) {
+        if (concurrentTasks < 1)
+            throw new IllegalArgumentException();
+
+        this.concurrentTasks = concurrentTasks;
+    }
+
     public void process(Collection<MultilingualCorpus> corpora) throws ProcessingException, IOException, InterruptedException {
         // Masking input corpora
         ArrayList<MultilingualCorpus> maskedMultilingualCorpora = new ArrayList<>(corpora.size());
@@ -53,6 +73,9 @@ public class PreprocessingPipeline {
             Map<LanguageDirection, Long> bilingualCorporaLinesMap = Corpora.countLines(maskedMultilingualCorpora, threads);
             long extraPartitionsLines = PartitioningUtils.countTotalPartitionsLines(extraPartitions);
 
+            ArrayList<PreprocessingTask> tasks = new ArrayList<>();
+            ArrayList<Integer> taskLines = new ArrayList<>();
+
             for (MultilingualCorpus corpus : maskedMultilingualCorpora) {
                 for (LanguageDirection language : corpus.getLanguages()) {
                     long bilingualCorporaLines = bilingualCorporaLinesMap.get(language);
@@ -70,13 +93,79 @@ public class PreprocessingPipeline {
                         }
                     }
 
-                    sourceTask.execute();
-                    targetTask.execute();
+                    tasks.add(sourceTask);
+                    taskLines.add(lineCount);
+                    tasks.add(targetTask);
+                    taskLines.add(lineCount);
                 }
             }
+
+            execute(tasks, taskLines);
         } finally {
             IOUtils.closeQuietly(preprocessor);
         }
     }
 
+    private void execute(List<PreprocessingTask> tasks, List<Integer> taskLines) throws ProcessingException, IOException, InterruptedException {
+        if (tasks.isEmpty())
+            return;
+
+        // largest corpora first, so that the small ones fill the gaps at the end
+        Integer[] order = new Integer[tasks.size()];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> Integer.compare(taskLines.get(b), taskLines.get(a)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrentTasks, tasks.size()));
+        CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+
+        for (int i : order) {
+            PreprocessingTask task = tasks.get(i);
+            completionService.submit(() -> {
+                task.execute();
+                return null;
+            });
+        }
+
+        try {
+            // tasks are collected in completion order, so that the first failure stops the others
+            for (int i = 0; i < order.length; i++)
+                completionService.take().get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof ProcessingException)
+                throw (ProcessingException) cause;
+            else if (cause instanceof IOException)
+                throw (IOException) cause;
+            else if (cause instanceof InterruptedException)
+                throw (InterruptedException) cause;
+            else if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            else
+                throw new Error("Unexpected exception", cause);
+        } finally {
+            // on failure, the running tasks are interrupted: they all share the preprocessor,
+            // that is closed by the caller, so none of them must be running when this method returns
+            executor.shutdownNow();
+            awaitTermination(executor);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES))
+                    break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
 }
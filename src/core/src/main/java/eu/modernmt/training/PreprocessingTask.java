@@ -52,9 +52,10 @@ class PreprocessingTask {
 
         try {
             // Input
-            reader = corpus.getContentReader();
             if (extraPartitions.size() > 0)
                 reader = new PartitionedLineReader(corpus, corpusLines, extraPartitions);
+            else
+                reader = corpus.getContentReader();
 
             BufferedLineReader bufferedReader = new BufferedLineReader(reader);
             reader = bufferedReader;
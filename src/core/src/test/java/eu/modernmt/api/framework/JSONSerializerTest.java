@@ -0,0 +1,43 @@
+package eu.modernmt.api.framework;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class JSONSerializerTest {
+
+    public static class Point {
+
+        public int x;
+        public int y;
+
+    }
+
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(JSONSerializer.factory(Point.class,
+                    (writer, src) -> writer.beginArray().value(src.x).value(src.y).endArray()))
+            .create();
+
+    @Test
+    public void testWrite() {
+        Point point = new Point();
+        point.x = 1;
+        point.y = 2;
+
+        assertEquals("[1,2]", gson.toJson(point));
+        assertEquals("null", gson.toJson(null, Point.class));
+    }
+
+    @Test
+    public void testReadDelegatesToDefaultAdapter() {
+        Point point = gson.fromJson("{\"x\":3,\"y\":4}", Point.class);
+        assertEquals(3, point.x);
+        assertEquals(4, point.y);
+
+        assertNull(gson.fromJson("null", Point.class));
+    }
+
+}
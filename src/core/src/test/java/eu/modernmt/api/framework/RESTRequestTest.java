@@ -0,0 +1,38 @@
+package eu.modernmt.api.framework;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RESTRequestTest {
+
+    @Test
+    public void testAcceptsEncoding() {
+        assertTrue(RESTRequest.acceptsEncoding("gzip", "gzip"));
+        assertTrue(RESTRequest.acceptsEncoding("deflate, gzip;q=1.0, *;q=0.5", "gzip"));
+        assertTrue(RESTRequest.acceptsEncoding(" GZIP ; q=0.3", "gzip"));
+        assertTrue(RESTRequest.acceptsEncoding("*", "gzip"));
+        assertTrue(RESTRequest.acceptsEncoding("br, *;q=0.1", "gzip"));
+    }
+
+    @Test
+    public void testNotAcceptedEncoding() {
+        assertFalse(RESTRequest.acceptsEncoding(null, "gzip"));
+        assertFalse(RESTRequest.acceptsEncoding("", "gzip"));
+        assertFalse(RESTRequest.acceptsEncoding("identity", "gzip"));
+        assertFalse(RESTRequest.acceptsEncoding("x-gzip", "gzip"));
+        assertFalse(RESTRequest.acceptsEncoding("gzip;q=0", "gzip"));
+        assertFalse(RESTRequest.acceptsEncoding("gzip;q=0.000", "gzip"));
+        assertFalse(RESTRequest.acceptsEncoding("gzip;q=invalid", "gzip"));
+        assertFalse(RESTRequest.acceptsEncoding("*;q=0", "gzip"));
+    }
+
+    @Test
+    public void testExplicitEncodingOverridesWildcard() {
+        assertTrue(RESTRequest.acceptsEncoding("*;q=0, gzip", "gzip"));
+        assertFalse(RESTRequest.acceptsEncoding("gzip;q=0, *", "gzip"));
+        assertFalse(RESTRequest.acceptsEncoding("*, gzip;q=0", "gzip"));
+    }
+
+}
@@ -0,0 +1,119 @@
+package eu.modernmt.api.framework;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import eu.modernmt.api.framework.actions.JSONAction;
+import eu.modernmt.api.framework.actions.JSONActionResult;
+import eu.modernmt.api.framework.actions.ObjectActionResult;
+import org.junit.Test;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class RESTResponseTest {
+
+    private static class Data {
+
+        public String text = "hello";
+        public String missing = null;
+
+    }
+
+    private static final JSONAction ACTION = new JSONAction() {
+
+        @Override
+        protected JSONActionResult getResult(RESTRequest req, Parameters params) {
+            return null;
+        }
+
+    };
+
+    private static class Output {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final RESTResponse response;
+
+        Output() {
+            ServletOutputStream stream = new ServletOutputStream() {
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+
+            };
+
+            HttpServletResponse servletResponse = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class[]{HttpServletResponse.class},
+                    (proxy, method, args) -> method.getName().equals("getOutputStream") ? stream : null);
+
+            response = new RESTResponse(servletResponse);
+        }
+
+        @Override
+        public String toString() {
+            return new String(body.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+    }
+
+    private static String ok(JsonElement json) {
+        Output output = new Output();
+        output.response.ok(json);
+        return output.toString();
+    }
+
+    private static <M> String ok(M object, Class<M> type) throws Throwable {
+        Output output = new Output();
+        ObjectActionResult<M> result = new ObjectActionResult<>(object, type);
+        output.response.ok(writer -> result.write(ACTION, null, null, writer));
+        return output.toString();
+    }
+
+    @Test
+    public void testNullDataIsOmitted() {
+        assertEquals("{\"status\":200}\n", ok(null));
+    }
+
+    @Test
+    public void testJsonNullDataIsWritten() {
+        assertEquals("{\"status\":200,\"data\":null}\n", ok(JsonNull.INSTANCE));
+    }
+
+    @Test
+    public void testJsonTreeNullsAreWritten() {
+        JsonObject json = new JsonObject();
+        json.addProperty("text", "hello");
+        json.add("missing", JsonNull.INSTANCE);
+
+        assertEquals("{\"status\":200,\"data\":{\"text\":\"hello\",\"missing\":null}}\n", ok(json));
+    }
+
+    @Test
+    public void testNullObjectIsWrittenAsNull() throws Throwable {
+        assertEquals("{\"status\":200,\"data\":null}\n", ok(null, Data.class));
+    }
+
+    @Test
+    public void testNullFieldsAreOmitted() throws Throwable {
+        assertEquals("{\"status\":200,\"data\":{\"text\":\"hello\"}}\n", ok(new Data(), Data.class));
+    }
+
+}
@@ -0,0 +1,166 @@
+package eu.modernmt.api.framework.routing;
+
+import eu.modernmt.api.framework.HttpMethod;
+import eu.modernmt.api.framework.Parameters;
+import eu.modernmt.api.framework.RESTRequest;
+import eu.modernmt.api.framework.actions.AsyncObjectAction;
+import org.apache.commons.io.IOUtils;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RouterServletTest {
+
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private static volatile CompletableFuture<Message> pending = new CompletableFuture<>();
+
+    public static class Message {
+
+        public final String text;
+
+        public Message(String text) {
+            this.text = text;
+        }
+
+    }
+
+    @Route(aliases = "delayed", method = HttpMethod.GET)
+    public static class Delayed extends AsyncObjectAction<Message> {
+
+        @Override
+        protected CompletionStage<Message> execute(RESTRequest req, Parameters params) {
+            CompletableFuture<Message> future = new CompletableFuture<>();
+            timer.schedule(() -> future.complete(new Message("hello")), 100, TimeUnit.MILLISECONDS);
+            return future;
+        }
+
+    }
+
+    @Route(aliases = "pending", method = HttpMethod.GET)
+    public static class Pending extends AsyncObjectAction<Message> {
+
+        @Override
+        protected CompletionStage<Message> execute(RESTRequest req, Parameters params) {
+            return pending;
+        }
+
+    }
+
+    @Route(aliases = "never", method = HttpMethod.GET)
+    public static class Never extends AsyncObjectAction<Message> {
+
+        @Override
+        protected CompletionStage<Message> execute(RESTRequest req, Parameters params) {
+            return new CompletableFuture<>();
+        }
+
+        @Override
+        protected long getAsyncTimeout(Parameters params) {
+            return 200L;
+        }
+
+    }
+
+    public static class Router extends RouterServlet {
+
+        @Override
+        protected Collection<Class<?>> getDeclaredActions() {
+            return Arrays.asList(Delayed.class, Pending.class, Never.class);
+        }
+
+    }
+
+    private Server server;
+    private String url;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new Server();
+        ServerConnector connector = new ServerConnector(server);
+        connector.setPort(0);
+        server.addConnector(connector);
+
+        ServletHandler handler = new ServletHandler();
+        ServletHolder holder = handler.addServletWithMapping(Router.class, "/*");
+        holder.setAsyncSupported(true);
+        holder.setInitParameter(RouterServlet.MAX_IN_FLIGHT_REQUESTS_PARAM, "1");
+
+        server.setHandler(handler);
+        server.start();
+
+        url = "http://localhost:" + connector.getLocalPort() + "/";
+        pending = new CompletableFuture<>();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pending.complete(null);
+        server.stop();
+    }
+
+    private String get(String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url + path).openConnection();
+        connection.setReadTimeout(10000);
+
+        int status = connection.getResponseCode();
+        try (InputStream stream = status >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
+            return status + " " + IOUtils.toString(stream, StandardCharsets.UTF_8).trim();
+        }
+    }
+
+    @Test
+    public void testAsyncResponse() throws IOException {
+        assertEquals("200 {\"status\":200,\"data\":{\"text\":\"hello\"}}", get("delayed"));
+    }
+
+    @Test
+    public void testTimeoutReleasesPermit() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            String response = get("never");
+            assertTrue(response, response.startsWith("503 ") && response.contains("RequestTimeoutException"));
+
+            assertEquals("200 {\"status\":200,\"data\":{\"text\":\"hello\"}}", get("delayed"));
+        }
+    }
+
+    @Test
+    public void testInFlightRequestsLimit() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<String> first = executor.submit(() -> get("pending"));
+
+            String response;
+            long deadline = System.currentTimeMillis() + 10000;
+            do {
+                Thread.sleep(20);
+                response = get("delayed");
+            } while (response.startsWith("200 ") && System.currentTimeMillis() < deadline);
+
+            assertTrue(response, response.startsWith("429 ") && response.contains("TooManyRequestsException"));
+
+            pending.complete(new Message("done"));
+            assertEquals("200 {\"status\":200,\"data\":{\"text\":\"done\"}}", first.get(10, TimeUnit.SECONDS));
+            assertEquals("200 {\"status\":200,\"data\":{\"text\":\"hello\"}}", get("delayed"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,206 @@
+package eu.modernmt.api.serializers;
+
+import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
+import eu.modernmt.api.framework.JSONSerializer;
+import eu.modernmt.api.model.TranslationResponse;
+import eu.modernmt.model.*;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class TranslationResponseSerializerTest {
+
+    private static final String[] TOKENS = {"hello", "città", "\"quoted\"", "back\\slash", "<b>", "北京", "😀", " ", ""};
+
+    @BeforeClass
+    public static void setUp() {
+        JSONSerializer.registerCustomSerializer(TranslationResponse.class, new TranslationResponseSerializer());
+        JSONSerializer.registerCustomSerializer(Alignment.class, new AlignmentSerializer());
+    }
+
+    private static Word[] words(Random random) {
+        Word[] words = new Word[random.nextInt(8)];
+        for (int i = 0; i < words.length; i++)
+            words[i] = new Word(TOKENS[random.nextInt(TOKENS.length)], " ", " ");
+        return words;
+    }
+
+    private static Alignment alignment(Random random, int size) {
+        if (size == 0 || random.nextInt(4) == 0)
+            return null;
+
+        int[] source = new int[size];
+        int[] target = new int[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = random.nextInt(size);
+            target[i] = i;
+        }
+
+        return new Alignment(source, target);
+    }
+
+    private static TranslationResponse response(Random random) {
+        Sentence source = new Sentence(words(random));
+
+        Word[] words = words(random);
+        Translation translation = new Translation(words, source, alignment(random, words.length));
+        translation.setMemoryLookupTime(random.nextInt(100));
+        translation.setDecodeTime(random.nextInt(1000));
+        translation.setQueueTime(random.nextInt(10));
+        translation.setQueueLength(random.nextInt(5));
+
+        if (random.nextBoolean()) {
+            List<Translation> nbest = new ArrayList<>();
+            for (int i = random.nextInt(3); i >= 0; i--) {
+                Word[] hypothesis = words(random);
+                nbest.add(new Translation(hypothesis, source, alignment(random, hypothesis.length)));
+            }
+            translation.setNbest(nbest);
+        }
+
+        long totalTime = random.nextInt(2000);
+        TranslationResponse response = new TranslationResponse(Priority.values()[random.nextInt(Priority.values().length)]) {
+            @Override
+            public long getTotalTime() {
+                return totalTime;
+            }
+        };
+        response.translation = translation;
+        response.verbose = random.nextBoolean();
+
+        if (random.nextBoolean())
+            response.context = new ContextVector.Builder().add(1L, 0.5f).add(random.nextInt(100) + 2, 0.25f).build();
+
+        return response;
+    }
+
+    private static String stream(TranslationResponse response) throws IOException {
+        StringWriter string = new StringWriter();
+
+        // same configuration of the RESTResponse writer
+        JsonWriter writer = new JsonWriter(string);
+        writer.setLenient(true);
+        writer.setSerializeNulls(false);
+
+        JSONSerializer.write(response, TranslationResponse.class, writer);
+        writer.flush();
+
+        return string.toString();
+    }
+
+    @Test
+    public void testSameOutputOfTreeSerializer() throws IOException {
+        Gson legacy = new GsonBuilder()
+                .registerTypeAdapter(TranslationResponse.class, new LegacyTranslationResponseSerializer())
+                .registerTypeAdapter(Alignment.class, new LegacyAlignmentSerializer())
+                .create();
+
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            TranslationResponse response = response(random);
+            String expected = legacy.toJsonTree(response, TranslationResponse.class).toString();
+
+            assertEquals(expected, stream(response));
+        }
+    }
+
+    @Test
+    public void testNullResponse() throws IOException {
+        StringWriter string = new StringWriter();
+        JsonWriter writer = new JsonWriter(string);
+        writer.setLenient(true);
+
+        JSONSerializer.write(null, TranslationResponse.class, writer);
+        writer.flush();
+
+        assertEquals("null", string.toString());
+    }
+
+    // The tree serializers used before TranslationResponseSerializer and AlignmentSerializer wrote on the JsonWriter
+
+    private static class LegacyTranslationResponseSerializer implements JsonSerializer<TranslationResponse> {
+
+        @Override
+        public JsonElement serialize(TranslationResponse src, Type typeOfSrc, JsonSerializationContext context) {
+            Sentence source = src.translation.getSource();
+
+            JsonObject json = new JsonObject();
+            json.addProperty("translation", src.translation.toString());
+            json.addProperty("sourceWordCount", source.getWords().length);
+            json.addProperty("targetWordCount", src.translation.getWords().length);
+
+            if (src.verbose) {
+                json.add("translationTokens", serializeTokens(src.translation));
+                json.add("sentenceTokens", serializeTokens(source));
+                json.add("alignment", context.serialize(src.translation.getSentenceAlignment(), Alignment.class));
+            }
+
+            if (src.translation.hasNbest()) {
+                JsonArray array = new JsonArray();
+                for (Translation hypothesis : src.translation.getNbest())
+                    array.add(serializeHypothesis(context, hypothesis, src.verbose));
+                json.add("nbest", array);
+            }
+
+            if (src.context != null)
+                json.add("contextVector", context.serialize(src.context, ContextVector.class));
+
+            json.addProperty("priority", src.priority.toString().toLowerCase());
+            json.addProperty("totalTime", src.getTotalTime());
+            json.addProperty("memoryLookupTime", src.translation.getMemoryLookupTime());
+            json.addProperty("decodingTime", src.translation.getDecodeTime());
+            json.addProperty("queueTime", src.translation.getQueueTime());
+            json.addProperty("queueLength", src.translation.getQueueLength());
+
+            return json;
+        }
+
+        private static JsonElement serializeHypothesis(JsonSerializationContext context, Translation translation, boolean verbose) {
+            JsonObject json = new JsonObject();
+            json.addProperty("translation", translation.toString());
+
+            if (verbose) {
+                json.add("translationTokens", serializeTokens(translation));
+                json.add("alignment", context.serialize(translation.getSentenceAlignment(), Alignment.class));
+            }
+
+            return json;
+        }
+
+        private static JsonArray serializeTokens(Sentence sentence) {
+            JsonArray array = new JsonArray();
+            for (Token token : sentence)
+                array.add(token.toString());
+            return array;
+        }
+
+    }
+
+    private static class LegacyAlignmentSerializer implements JsonSerializer<Alignment> {
+
+        @Override
+        public JsonElement serialize(Alignment src, Type typeOfSrc, JsonSerializationContext context) {
+            JsonArray array = new JsonArray();
+
+            for (int[] a : src) {
+                JsonArray ja = new JsonArray();
+                ja.add(a[0]);
+                ja.add(a[1]);
+                array.add(ja);
+            }
+
+            return array;
+        }
+
+    }
+
+}
@@ -0,0 +1,252 @@
+package eu.modernmt.cluster;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+import com.hazelcast.core.MessageListener;
+import eu.modernmt.config.DatabaseConfig;
+import eu.modernmt.model.Memory;
+import eu.modernmt.persistence.Connection;
+import eu.modernmt.persistence.Database;
+import eu.modernmt.persistence.ImportJobDAO;
+import eu.modernmt.persistence.MemoryDAO;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MemoryCacheTest {
+
+    /*
+     * The topics of a cluster: messages are delivered synchronously to the listeners of every node
+     */
+    private static class TestCluster {
+
+        private final Map<String, List<MessageListener<Object>>> listeners = new ConcurrentHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        HazelcastInstance newNode() {
+            return (HazelcastInstance) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{HazelcastInstance.class},
+                    (proxy, method, args) -> {
+                        if (!method.getName().equals("getTopic"))
+                            throw new UnsupportedOperationException(method.getName());
+
+                        return topic((String) args[0]);
+                    });
+        }
+
+        @SuppressWarnings("unchecked")
+        private ITopic<Object> topic(String name) {
+            List<MessageListener<Object>> topicListeners = listeners.computeIfAbsent(name, key -> new CopyOnWriteArrayList<>());
+
+            return (ITopic<Object>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ITopic.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "addMessageListener":
+                                topicListeners.add((MessageListener<Object>) args[0]);
+                                return UUID.randomUUID().toString();
+                            case "publish":
+                                for (MessageListener<Object> listener : topicListeners)
+                                    listener.onMessage(new Message<>(name, args[0], System.currentTimeMillis(), null));
+                                return null;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+    }
+
+    /*
+     * A database shared by all the nodes, counting the memories read from the DAO
+     */
+    private static class TestDatabase extends Database {
+
+        private final Map<Long, Memory> memories = new ConcurrentHashMap<>();
+        private final AtomicInteger reads = new AtomicInteger();
+
+        TestDatabase() {
+            super(new DatabaseConfig(null));
+        }
+
+        void store(Memory memory) {
+            memories.put(memory.getId(), new Memory(memory.getId(), memory.getOwner(), memory.getName()));
+        }
+
+        @Override
+        public Connection getConnection(boolean cached) {
+            return () -> {
+            };
+        }
+
+        @Override
+        public MemoryDAO getMemoryDAO(Connection connection) {
+            return new MemoryDAO() {
+
+                @Override
+                public Memory retrieve(long id) {
+                    reads.incrementAndGet();
+                    return memories.get(id);
+                }
+
+                @Override
+                public Map<Long, Memory> retrieve(Collection<Long> ids) {
+                    Map<Long, Memory> result = new HashMap<>();
+                    for (long id : ids) {
+                        reads.incrementAndGet();
+
+                        Memory memory = memories.get(id);
+                        if (memory != null)
+                            result.put(id, memory);
+                    }
+                    return result;
+                }
+
+                @Override
+                public Collection<Memory> retrieveAll() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public Memory store(Memory memory, boolean forceId) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public Memory store(Memory memory) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public Memory update(Memory memory) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public boolean delete(long id) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public ImportJobDAO getImportJobDAO(Connection connection) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void create() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public void testConnection() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private TestDatabase database;
+    private MemoryCache node1;
+    private MemoryCache node2;
+
+    @Before
+    public void setup() {
+        TestCluster cluster = new TestCluster();
+
+        database = new TestDatabase();
+        node1 = new MemoryCache(cluster.newNode(), database, 100);
+        node2 = new MemoryCache(cluster.newNode(), database, 100);
+    }
+
+    @Test
+    public void testGetLoadsOnce() throws Throwable {
+        database.store(new Memory(1L, "one"));
+
+        assertEquals("one", node1.get(1L).getName());
+        assertEquals("one", node1.get(1L).getName());
+        assertEquals(1, database.reads.get());
+
+        // missing memories are not cached
+        assertNull(node1.get(2L));
+        assertNull(node1.get(2L));
+        assertEquals(3, database.reads.get());
+    }
+
+    @Test
+    public void testPutCreatedMemory() throws Throwable {
+        Memory memory = new Memory(1L, "created");
+        database.store(memory);
+        node1.put(memory);
+
+        assertSame(memory, node1.get(1L));
+        assertEquals(0, database.reads.get());
+    }
+
+    @Test
+    public void testBatchGetMergesHitsAndMisses() throws Throwable {
+        for (long id = 1L; id <= 4L; id++)
+            database.store(new Memory(id, "memory" + id));
+
+        node1.get(1L);
+        node1.get(3L);
+        database.reads.set(0);
+
+        Map<Long, Memory> memories = node1.get(Arrays.asList(1L, 2L, 3L, 4L, 5L));
+
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L, 3L, 4L)), memories.keySet());
+        for (Map.Entry<Long, Memory> entry : memories.entrySet())
+            assertEquals("memory" + entry.getKey(), entry.getValue().getName());
+
+        // only the misses are read, then they are cached
+        assertEquals(3, database.reads.get());
+        assertEquals(4, node1.get(Arrays.asList(1L, 2L, 3L, 4L)).size());
+        assertEquals(3, database.reads.get());
+    }
+
+    @Test
+    public void testUpdateInvalidatesEveryNode() throws Throwable {
+        database.store(new Memory(1L, "before"));
+        assertEquals("before", node1.get(1L).getName());
+        assertEquals("before", node2.get(1L).getName());
+
+        database.store(new Memory(1L, "after"));
+        node1.invalidate(1L);
+
+        assertEquals("after", node1.get(1L).getName());
+        assertEquals("after", node2.get(1L).getName());
+    }
+
+    @Test
+    public void testDeleteInvalidatesEveryNode() throws Throwable {
+        database.store(new Memory(1L, "deleted"));
+        database.store(new Memory(2L, "kept"));
+        node1.get(Arrays.asList(1L, 2L));
+        node2.get(Arrays.asList(1L, 2L));
+
+        database.memories.remove(1L);
+        node2.invalidate(1L);
+
+        assertNull(node1.get(1L));
+        assertNull(node2.get(1L));
+        assertEquals(Collections.singleton(2L), node1.get(Arrays.asList(1L, 2L)).keySet());
+    }
+
+}
@@ -0,0 +1,60 @@
+package eu.modernmt.cluster.kafka;
+
+import org.apache.kafka.common.PartitionInfo;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class KafkaChannelTest {
+
+    private static List<PartitionInfo> partitions(String topic, int size) {
+        ArrayList<PartitionInfo> infos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            infos.add(new PartitionInfo(topic, i, null, null, null));
+        return infos;
+    }
+
+    @Test
+    public void testPositionKeys() {
+        KafkaChannel channel = new KafkaChannel(1, "topic");
+        channel.setPartitions(partitions("topic", KafkaChannel.MAX_PARTITIONS));
+
+        // the key of partition 0 is the channel id, as before partitions were introduced
+        assertEquals(1, channel.getPositionKey(0));
+
+        for (int partition = 0; partition < channel.getPartitionCount(); partition++) {
+            short key = channel.getPositionKey(partition);
+            assertEquals(1, KafkaChannel.channelOf(key));
+            assertEquals(partition, KafkaChannel.partitionOf(key));
+        }
+    }
+
+    @Test
+    public void testMemoryPartition() {
+        KafkaChannel channel = new KafkaChannel(0, "topic");
+        channel.setPartitions(partitions("topic", 4));
+
+        assertEquals(4, channel.getPartitionCount());
+        assertEquals(1, channel.getPartition(5L));
+        assertEquals(3, channel.getPartition(-1L));
+        assertEquals(channel.getPositionKey(1), channel.getPositionKey(5L));
+    }
+
+    @Test
+    public void testMissingTopicKeepsSinglePartition() {
+        KafkaChannel channel = new KafkaChannel(0, "topic");
+        channel.setPartitions(new ArrayList<>());
+
+        assertEquals(1, channel.getPartitionCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTooManyPartitions() {
+        KafkaChannel channel = new KafkaChannel(0, "topic");
+        channel.setPartitions(partitions("topic", KafkaChannel.MAX_PARTITIONS + 1));
+    }
+
+}
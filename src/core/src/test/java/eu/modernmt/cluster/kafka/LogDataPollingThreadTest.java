@@ -0,0 +1,143 @@
+package eu.modernmt.cluster.kafka;
+
+import eu.modernmt.config.BinaryLogConfig;
+import eu.modernmt.data.DataBatch;
+import eu.modernmt.data.LogDataListener;
+import eu.modernmt.data.TranslationUnitMessage;
+import eu.modernmt.lang.Language;
+import eu.modernmt.lang.LanguageDirection;
+import eu.modernmt.lang.LanguageIndex;
+import eu.modernmt.model.corpus.TranslationUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LogDataPollingThreadTest {
+
+    private static final int PARTITIONS = 4;
+    private static final int MEMORIES = 10;
+    private static final int UPDATES_PER_MEMORY = 200;
+
+    private static final LanguageDirection DIRECTION = new LanguageDirection(Language.fromString("en"), Language.fromString("it"));
+
+    private static class RecordingListener implements LogDataListener {
+
+        private final Map<Long, List<String>> received = new HashMap<>();
+        private final AtomicInteger running = new AtomicInteger(0);
+        private final AtomicInteger maxRunning = new AtomicInteger(0);
+        private int count = 0;
+
+        @Override
+        public void onDataReceived(DataBatch batch) throws InterruptedException {
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+
+            try {
+                Thread.sleep(5);
+
+                synchronized (this) {
+                    for (TranslationUnitMessage unit : batch.getTranslationUnits()) {
+                        received.computeIfAbsent(unit.memory, key -> new ArrayList<>()).add(unit.value.tuid);
+                        count++;
+                    }
+
+                    notifyAll();
+                }
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        synchronized void await(int expected, long timeout) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeout;
+            while (count < expected && System.currentTimeMillis() < deadline)
+                wait(100);
+        }
+
+        @Override
+        public Map<Short, Long> getLatestChannelPositions() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public boolean needsProcessing() {
+            return false;
+        }
+
+        @Override
+        public boolean needsAlignment() {
+            return false;
+        }
+
+    }
+
+    @Test
+    public void testPartitionsDeliveredConcurrentlyInMemoryOrder() throws Throwable {
+        LanguageIndex languages = new LanguageIndex.Builder().add(DIRECTION).build();
+        KafkaBinaryLog manager = new KafkaBinaryLog(languages, null, null, "test", new BinaryLogConfig(null));
+
+        MockConsumer<Integer, KafkaPacket> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        ArrayList<TopicPartition> partitions = new ArrayList<>();
+        HashMap<TopicPartition, Long> beginningOffsets = new HashMap<>();
+
+        for (KafkaChannel channel : manager.getChannels()) {
+            ArrayList<PartitionInfo> infos = new ArrayList<>();
+            for (int i = 0; i < PARTITIONS; i++)
+                infos.add(new PartitionInfo(channel.getName(), i, null, null, null));
+            channel.setPartitions(infos);
+
+            partitions.addAll(channel.getTopicPartitions());
+        }
+
+        for (TopicPartition partition : partitions)
+            beginningOffsets.put(partition, 0L);
+
+        consumer.assign(partitions);
+        consumer.updateBeginningOffsets(beginningOffsets);
+
+        RecordingListener listener = new RecordingListener();
+        LogDataPollingThread thread = new LogDataPollingThread(languages, null, null, manager, 2, PARTITIONS);
+        thread.addListener(listener);
+        thread.start(consumer);
+
+        KafkaChannel channel = manager.getChannels()[0];
+        long[] offsets = new long[PARTITIONS];
+        UUID owner = new UUID(0L, 0L);
+
+        for (int i = 0; i < UPDATES_PER_MEMORY; i++) {
+            for (long memory = 1; memory <= MEMORIES; memory++) {
+                int partition = channel.getPartition(memory);
+                TranslationUnit tu = new TranslationUnit(Integer.toString(i), DIRECTION, "source " + i, "target " + i);
+
+                consumer.addRecord(new ConsumerRecord<>(channel.getName(), partition, offsets[partition]++, 0,
+                        KafkaPacket.createAddition(owner, memory, tu)));
+            }
+        }
+
+        listener.await(MEMORIES * UPDATES_PER_MEMORY, 30000);
+
+        thread.shutdown();
+        assertTrue(thread.awaitTermination(TimeUnit.SECONDS, 10));
+        thread.ensureRunning();
+
+        assertEquals(MEMORIES, listener.received.size());
+        for (List<String> tuids : listener.received.values()) {
+            assertEquals(UPDATES_PER_MEMORY, tuids.size());
+            for (int i = 0; i < UPDATES_PER_MEMORY; i++)
+                assertEquals(Integer.toString(i), tuids.get(i));
+        }
+
+        assertTrue("partitions have not been delivered concurrently", listener.maxRunning.get() > 1);
+    }
+
+}
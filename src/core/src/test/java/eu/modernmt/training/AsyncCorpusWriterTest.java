@@ -0,0 +1,102 @@
+package eu.modernmt.training;
+
+import eu.modernmt.io.FileProxy;
+import eu.modernmt.io.TokensOutputStream;
+import eu.modernmt.lang.Language;
+import eu.modernmt.model.Sentence;
+import eu.modernmt.model.Word;
+import eu.modernmt.model.corpus.impl.parallel.FileCorpus;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class AsyncCorpusWriterTest {
+
+    private static final String[] TOKENS = {
+            "hello", "città", "北京", "😀", "a b", "x\ny", "lone\uD800", "\uDC00", "&lt;", ""
+    };
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("AsyncCorpusWriterTest", ".en");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    private static Sentence[][] batches() {
+        Sentence[][] batches = new Sentence[20][];
+
+        int t = 0;
+        for (int b = 0; b < batches.length; b++) {
+            batches[b] = new Sentence[b % 3 == 0 ? 0 : 50];
+
+            for (int s = 0; s < batches[b].length; s++) {
+                Word[] words = new Word[s % 7];
+                for (int w = 0; w < words.length; w++) {
+                    String token = TOKENS[t++ % TOKENS.length];
+                    words[w] = new Word(token, token, " ", " ");
+                }
+
+                batches[b][s] = new Sentence(words);
+            }
+        }
+
+        return batches;
+    }
+
+    private static byte[] expected(Sentence[][] batches) {
+        StringBuilder builder = new StringBuilder();
+        for (Sentence[] batch : batches) {
+            for (Sentence sentence : batch)
+                builder.append(TokensOutputStream.serialize(sentence, false, true).replace('\n', ' ')).append('\n');
+        }
+
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void write(FileCorpus corpus, Sentence[][] batches, int maxPendingBatches, int bufferSize) throws IOException {
+        try (AsyncCorpusWriter writer = new AsyncCorpusWriter(corpus, maxPendingBatches, bufferSize)) {
+            for (Sentence[] batch : batches)
+                writer.write(batch);
+        }
+    }
+
+    @Test
+    public void testSameOutputOfTokensOutputStream() throws IOException {
+        Sentence[][] batches = batches();
+
+        write(new FileCorpus(file, "test", Language.fromString("en")), batches, 1, 7);
+        assertArrayEquals(expected(batches), Files.readAllBytes(file.toPath()));
+
+        write(new FileCorpus(file, "test", Language.fromString("en")), batches,
+                AsyncCorpusWriter.DEFAULT_MAX_PENDING_BATCHES, AsyncCorpusWriter.DEFAULT_BUFFER_SIZE);
+        assertArrayEquals(expected(batches), Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void testGzippedOutput() throws IOException {
+        Sentence[][] batches = batches();
+        FileProxy proxy = FileProxy.wrap(file, true);
+
+        write(new FileCorpus(proxy, "test", Language.fromString("en")), batches, 2, 1024);
+
+        try (InputStream input = proxy.getInputStream()) {
+            assertArrayEquals(expected(batches), IOUtils.toByteArray(input));
+        }
+    }
+
+}
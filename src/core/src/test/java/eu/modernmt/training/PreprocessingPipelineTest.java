@@ -0,0 +1,157 @@
+package eu.modernmt.training;
+
+import eu.modernmt.lang.Language;
+import eu.modernmt.lang.LanguageDirection;
+import eu.modernmt.model.corpus.BaseMultilingualCorpus;
+import eu.modernmt.model.corpus.MultilingualCorpus;
+import eu.modernmt.model.corpus.TUReader;
+import eu.modernmt.model.corpus.TUWriter;
+import eu.modernmt.model.corpus.TranslationUnit;
+import eu.modernmt.processing.ProcessingException;
+import eu.modernmt.training.partitioning.CorporaPartition;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PreprocessingPipelineTest {
+
+    private static final LanguageDirection LANGUAGE = new LanguageDirection(Language.ENGLISH, Language.ITALIAN);
+
+    private static class TestCorpus extends BaseMultilingualCorpus {
+
+        private final String name;
+        private final int lines;
+        private final int failAt;
+        private final AtomicInteger openReaders;
+        private final AtomicInteger passes = new AtomicInteger();
+
+        TestCorpus(String name, int lines, int failAt, AtomicInteger openReaders) {
+            this.name = name;
+            this.lines = lines;
+            this.failAt = failAt;
+            this.openReaders = openReaders;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public TUReader getContentReader() {
+            // the first pass counts the lines, the failure is triggered while preprocessing
+            boolean failing = failAt >= 0 && passes.incrementAndGet() > 1;
+            openReaders.incrementAndGet();
+
+            return new TUReader() {
+
+                private int i = 0;
+
+                @Override
+                public TranslationUnit read() throws IOException {
+                    if (i >= lines)
+                        return null;
+                    if (failing && i == failAt)
+                        throw new IOException("Test failure");
+
+                    int n = i++;
+                    return new TranslationUnit(null, LANGUAGE,
+                            "The sentence number " + n + " of the corpus \"" + name + "\", isn't it?",
+                            "La frase numero " + n + " del corpus \"" + name + "\", vero?");
+                }
+
+                @Override
+                public void close() {
+                    openReaders.decrementAndGet();
+                }
+            };
+        }
+
+        @Override
+        public TUWriter getContentWriter(boolean append) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("PreprocessingPipelineTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    private static List<MultilingualCorpus> corpora(AtomicInteger openReaders, int failing) {
+        int[] sizes = {3000, 50, 1200, 7, 800, 2500};
+
+        List<MultilingualCorpus> corpora = new ArrayList<>(sizes.length);
+        for (int i = 0; i < sizes.length; i++)
+            corpora.add(new TestCorpus("corpus" + i, sizes[i], i == failing ? sizes[i] / 2 : -1, openReaders));
+
+        return corpora;
+    }
+
+    private void process(String name, int concurrentTasks, List<MultilingualCorpus> corpora) throws ProcessingException, IOException, InterruptedException {
+        PreprocessingPipeline pipeline = new PreprocessingPipeline(LANGUAGE, new CorporaPartition(new File(directory, name + "/main")), 4);
+        pipeline.addExtraPartition(new CorporaPartition(new File(directory, name + "/dev"), 300));
+        pipeline.setConcurrentTasks(concurrentTasks);
+        pipeline.process(corpora);
+    }
+
+    private static void assertSameFiles(File expected, File actual) throws IOException {
+        String[] names = expected.list();
+        assertNotNull(names);
+        assertArrayEquals(names, actual.list());
+
+        for (String name : names) {
+            File file = new File(expected, name);
+
+            if (file.isDirectory())
+                assertSameFiles(file, new File(actual, name));
+            else
+                assertArrayEquals(name, Files.readAllBytes(file.toPath()), Files.readAllBytes(new File(actual, name).toPath()));
+        }
+    }
+
+    @Test
+    public void testConcurrentOutputEqualsSequentialOutput() throws Throwable {
+        AtomicInteger openReaders = new AtomicInteger();
+
+        process("sequential", 1, corpora(openReaders, -1));
+        process("concurrent", 4, corpora(openReaders, -1));
+
+        assertEquals(0, openReaders.get());
+        assertEquals(12, new File(directory, "sequential/main").list().length);
+        assertSameFiles(new File(directory, "sequential"), new File(directory, "concurrent"));
+    }
+
+    @Test
+    public void testFailureWaitsForRunningTasks() throws Throwable {
+        AtomicInteger openReaders = new AtomicInteger();
+
+        try {
+            process("failing", 4, corpora(openReaders, 5));
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("Test failure", e.getMessage());
+        }
+
+        // every task has closed its input (and its output) before process() returned
+        assertEquals(0, openReaders.get());
+    }
+
+}
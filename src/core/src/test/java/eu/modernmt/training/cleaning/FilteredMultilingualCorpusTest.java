@@ -0,0 +1,194 @@
+package eu.modernmt.training.cleaning;
+
+import eu.modernmt.cleaning.ChainedMultilingualCorpusFilter;
+import eu.modernmt.cleaning.FilteredMultilingualCorpus;
+import eu.modernmt.cleaning.MultilingualCorpusFilter;
+import eu.modernmt.lang.Language;
+import eu.modernmt.lang.LanguageDirection;
+import eu.modernmt.model.corpus.MultilingualCorpus;
+import eu.modernmt.model.corpus.TUReader;
+import eu.modernmt.model.corpus.TUWriter;
+import eu.modernmt.model.corpus.TranslationUnit;
+import eu.modernmt.model.corpus.impl.parallel.ParallelFileCorpus;
+import eu.modernmt.training.MockMultilingualCorpus;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FilteredMultilingualCorpusTest {
+
+    private File workingDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        workingDirectory = Files.createTempDirectory("FilteredMultilingualCorpusTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workingDirectory);
+    }
+
+    private class RecordingFilter implements MultilingualCorpusFilter {
+
+        private final List<Integer> indexes = new ArrayList<>();
+        private final int modulo;
+        private int spillFiles = -1;
+
+        RecordingFilter(int modulo) {
+            this.modulo = modulo;
+        }
+
+        @Override
+        public Initializer getInitializer() {
+            return new Initializer() {
+                @Override
+                public void onBegin() {
+                    indexes.clear();
+                }
+
+                @Override
+                public void onTranslationUnit(TranslationUnit tu, int index) {
+                    indexes.add(index);
+                }
+
+                @Override
+                public void onEnd() {
+                    spillFiles = workingDirectory.list().length;
+                }
+            };
+        }
+
+        @Override
+        public boolean accept(TranslationUnit tu, int index) {
+            return index % modulo != 0;
+        }
+
+        @Override
+        public void clear() {
+            // Nothing to do
+        }
+    }
+
+    private static TranslationUnit[] units(int size) {
+        TranslationUnit[] tus = new TranslationUnit[size];
+        for (int i = 0; i < size; i++) {
+            tus[i] = MockMultilingualCorpus.tu("Source è " + i, "Target\n" + i, i);
+            if (i % 3 == 0)
+                tus[i].timestamp = null;
+            if (i % 2 == 0)
+                tus[i].tuid = "tu-" + i;
+        }
+
+        return tus;
+    }
+
+    private RecordingFilter[] filters() {
+        return new RecordingFilter[]{new RecordingFilter(2), new RecordingFilter(3)};
+    }
+
+    private static MultilingualCorpus filter(MultilingualCorpus corpus, File workingDirectory, RecordingFilter... filters) {
+        ChainedMultilingualCorpusFilter.Builder builder = new ChainedMultilingualCorpusFilter.Builder();
+        for (RecordingFilter filter : filters)
+            builder.add(filter);
+        ChainedMultilingualCorpusFilter filter = builder.build();
+
+        return new FilteredMultilingualCorpus(corpus, filter, filter, workingDirectory);
+    }
+
+    private static void assertFiltered(int size, RecordingFilter[] filters, MockMultilingualCorpus output) {
+        List<Integer> expectedIndexes = new ArrayList<>();
+        for (int i = 0; i < size; i++)
+            expectedIndexes.add(i);
+
+        for (RecordingFilter filter : filters)
+            assertEquals(expectedIndexes, filter.indexes);
+
+        TranslationUnit[] units = units(size);
+        List<TranslationUnit> expected = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (i % 2 != 0 && i % 3 != 0)
+                expected.add(units[i]);
+        }
+
+        assertEquals(new MockMultilingualCorpus(expected.toArray(new TranslationUnit[0])), output);
+    }
+
+    @Test
+    public void testInitializersSeeEveryUnitInOrder() throws IOException {
+        int size = 4321;
+        RecordingFilter[] filters = filters();
+
+        MockMultilingualCorpus corpus = new MockMultilingualCorpus(units(size));
+        MockMultilingualCorpus output;
+        try (TUReader reader = filter(corpus, workingDirectory, filters).getContentReader()) {
+            output = MockMultilingualCorpus.drain(reader);
+        }
+
+        // units are read back from the spill file, that is deleted when the reader is closed
+        assertFiltered(size, filters, output);
+        assertEquals(1, filters[0].spillFiles);
+        assertEquals(0, workingDirectory.list().length);
+    }
+
+    @Test
+    public void testNoSpillWithoutWorkingDirectory() throws IOException {
+        int size = 1234;
+        RecordingFilter[] filters = filters();
+
+        MockMultilingualCorpus corpus = new MockMultilingualCorpus(units(size));
+        MockMultilingualCorpus output = MockMultilingualCorpus.drain(filter(corpus, null, filters).getContentReader());
+
+        assertFiltered(size, filters, output);
+        assertEquals(0, filters[0].spillFiles);
+    }
+
+    @Test
+    public void testNoSpillForPlainTextCorpora() throws IOException {
+        int size = 1234;
+        RecordingFilter[] filters = filters();
+
+        File corpusDirectory = Files.createTempDirectory("FilteredMultilingualCorpusTest").toFile();
+        try {
+            LanguageDirection language = new LanguageDirection(Language.fromString("en"), Language.fromString("it"));
+            ParallelFileCorpus corpus = new ParallelFileCorpus(corpusDirectory, "test", language);
+
+            try (TUWriter writer = corpus.getContentWriter(false)) {
+                for (int i = 0; i < size; i++)
+                    writer.write(new TranslationUnit(null, language, "Source " + i, "Target " + i));
+            }
+
+            int count = 0;
+            try (TUReader reader = filter(corpus, workingDirectory, filters).getContentReader()) {
+                TranslationUnit tu;
+                while ((tu = reader.read()) != null) {
+                    int index = Integer.parseInt(tu.source.substring("Source ".length()));
+                    assertTrue(index % 2 != 0 && index % 3 != 0);
+                    assertEquals("Target " + index, tu.target);
+                    count++;
+                }
+            }
+
+            List<Integer> expectedIndexes = new ArrayList<>();
+            for (int i = 0; i < size; i++)
+                expectedIndexes.add(i);
+
+            assertEquals(expectedIndexes, filters[0].indexes);
+            assertEquals(0, filters[0].spillFiles);
+            assertEquals(size / 3, count);
+        } finally {
+            FileUtils.deleteDirectory(corpusDirectory);
+        }
+    }
+
+}
@@ -12,6 +12,7 @@ import eu.modernmt.decoder.neural.memory.lucene.query.DefaultQueryBuilder;
 import eu.modernmt.decoder.neural.memory.lucene.query.QueryBuilder;
 import eu.modernmt.decoder.neural.memory.lucene.query.rescoring.F1BleuRescorer;
 import eu.modernmt.decoder.neural.memory.lucene.query.rescoring.Rescorer;
+import eu.modernmt.io.IndexBackup;
 import eu.modernmt.lang.LanguageDirection;
 import eu.modernmt.model.ContextVector;
 import eu.modernmt.model.Sentence;
@@ -21,10 +22,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.DelegatingAnalyzerWrapper;
 import org.apache.lucene.document.Document;
-import org.apache.lucene.index.DirectoryReader;
-import org.apache.lucene.index.IndexReader;
-import org.apache.lucene.index.IndexWriter;
-import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.*;
 import org.apache.lucene.search.*;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
@@ -56,6 +54,7 @@ public class LuceneTranslationMemory implements TranslationMemory {
     protected final Analyzer shortQueryAnalyzer;
     protected final Analyzer longQueryAnalyzer;
     protected final IndexWriter indexWriter;
+    protected final SnapshotDeletionPolicy deletionPolicy;
 
     private DirectoryReader _indexReader;
     private IndexSearcher _indexSearcher;
@@ -98,6 +97,7 @@ public class LuceneTranslationMemory implements TranslationMemory {
         this.shortQueryAnalyzer = analyzerFactory.createShortQueryAnalyzer();
         this.longQueryAnalyzer = analyzerFactory.createLongQueryAnalyzer();
         this.minQuerySize = minQuerySize;
+        this.deletionPolicy = new SnapshotDeletionPolicy(new KeepOnlyLastCommitDeletionPolicy());
 
         // Index writer setup
         IndexWriterConfig indexConfig = new IndexWriterConfig(Version.LUCENE_4_10_4, new DelegatingAnalyzerWrapper(PER_FIELD_REUSE_STRATEGY) {
@@ -111,6 +111,7 @@ public class LuceneTranslationMemory implements TranslationMemory {
         });
 
         indexConfig.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        indexConfig.setIndexDeletionPolicy(this.deletionPolicy);
         indexConfig.setSimilarity(analyzerFactory.createSimilarity());
 
         this.indexWriter = new IndexWriter(this.indexDirectory, indexConfig);
@@ -269,6 +270,13 @@ public class LuceneTranslationMemory implements TranslationMemory {
                 "(deleted-docs = " + reader.numDeletedDocs() + ", size = " + reader.numDocs() + ", max-doc = " + reader.maxDoc());
     }
 
+    @Override
+    public void backup(File destination) throws IOException {
+        // The channels document is part of every commit, so the snapshot
+        // always carries the channel positions it is consistent with
+        IndexBackup.backup(this.indexWriter, this.deletionPolicy, destination);
+    }
+
     // DataListener
 
     @Override
@@ -8,6 +8,7 @@ import eu.modernmt.decoder.neural.memory.lucene.LuceneTranslationMemory;
 import eu.modernmt.decoder.neural.memory.lucene.query.QueryBuilder;
 import eu.modernmt.io.RuntimeIOException;
 import eu.modernmt.memory.TranslationMemory;
+import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.RAMDirectory;
 
 import java.io.IOException;
@@ -19,7 +20,11 @@ import java.util.*;
 public class TLuceneTranslationMemory extends LuceneTranslationMemory {
 
     public TLuceneTranslationMemory() throws IOException {
-        super(new RAMDirectory(), 10);
+        this(new RAMDirectory());
+    }
+
+    public TLuceneTranslationMemory(Directory directory) throws IOException {
+        super(directory, 10);
     }
 
     public DocumentBuilder getDocumentBuilder() {
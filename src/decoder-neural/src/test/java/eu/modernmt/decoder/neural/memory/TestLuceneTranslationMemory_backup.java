@@ -0,0 +1,76 @@
+package eu.modernmt.decoder.neural.memory;
+
+import eu.modernmt.data.TranslationUnitMessage;
+import eu.modernmt.memory.TranslationMemory;
+import org.apache.commons.io.FileUtils;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static eu.modernmt.decoder.neural.memory.TestData.*;
+import static org.junit.Assert.assertEquals;
+
+public class TestLuceneTranslationMemory_backup {
+
+    private File folder;
+
+    @Before
+    public void setup() throws Throwable {
+        this.folder = Files.createTempDirectory("TestLuceneTranslationMemory backup").toFile();
+    }
+
+    @After
+    public void teardown() throws Throwable {
+        FileUtils.deleteDirectory(this.folder);
+    }
+
+    private void testBackupAndRestore(Directory directory) throws Throwable {
+        List<TranslationUnitMessage> units = new ArrayList<>(additions(0, 0, 1, EN__IT, 10));
+        units.addAll(additions(1, 0, 2, FR__ES, 5));
+
+        Set<TranslationMemory.Entry> expectedEntries = TLuceneTranslationMemory.asEntrySet(units);
+        File backup = new File(folder, "backup");
+
+        try (TLuceneTranslationMemory memory = new TLuceneTranslationMemory(directory)) {
+            memory.onDataReceived(units);
+            memory.backup(backup);
+
+            // changes after the backup are not part of it
+            memory.onDataReceived(additions(0, 10, 3, EN__IT, 5));
+            memory.onDelete(TestData.deletion(1, 5, 1, null));
+            assertEquals(10 + 1, memory.size());
+        }
+
+        // backups are restored by copying them
+        File restoredPath = new File(folder, "restored");
+        FileUtils.copyDirectory(backup, restoredPath);
+
+        try (TLuceneTranslationMemory restored = new TLuceneTranslationMemory(FSDirectory.open(restoredPath))) {
+            assertEquals(15 + 1, restored.size());
+            assertEquals(TestData.channels(9L, 4L), restored.getLatestChannelPositions());
+            assertEquals(expectedEntries, restored.entrySet());
+        }
+    }
+
+    @Test
+    public void fileSystemIndex() throws Throwable {
+        // segment files are hard-linked
+        testBackupAndRestore(FSDirectory.open(new File(folder, "index")));
+    }
+
+    @Test
+    public void inMemoryIndex() throws Throwable {
+        // segment files are copied through the Directory API
+        testBackupAndRestore(new RAMDirectory());
+    }
+
+}
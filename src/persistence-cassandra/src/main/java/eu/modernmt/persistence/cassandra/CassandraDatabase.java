@@ -30,6 +30,7 @@ public class CassandraDatabase extends Database {
     private final String keyspace;
     private final String host;
     private final int port;
+    private final CassandraIdGenerator idGenerator;
 
     private Cluster cluster;
 
@@ -43,7 +44,7 @@ public class CassandraDatabase extends Database {
     }
 
     public CassandraDatabase(DatabaseConfig config) {
-        this(config.getHost(), config.getPort(), config.getName());
+        this(config.getHost(), config.getPort(), config.getName(), config.getIdBlockSize());
     }
 
     /**
@@ -55,11 +56,25 @@ public class CassandraDatabase extends Database {
      * @param keyspace the keyspace in which the target entities are stored in the Cassandra DB
      */
     public CassandraDatabase(String host, int port, String keyspace) {
+        this(host, port, keyspace, CassandraIdGenerator.DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * This constructor builds an access point to a Cassandra DB
+     * and, in particular, to one of its keyspaces
+     *
+     * @param host        the hostname of the machine that is running Cassandra
+     * @param port        the port on which the Cassandra machine is listening to
+     * @param keyspace    the keyspace in which the target entities are stored in the Cassandra DB
+     * @param idBlockSize the number of IDs reserved at once for new memories and import jobs
+     */
+    public CassandraDatabase(String host, int port, String keyspace, int idBlockSize) {
         super(null);
 
         this.keyspace = keyspace == null ? getDefaultKeyspace() : keyspace;
         this.host = host;
         this.port = port;
+        this.idGenerator = new CassandraIdGenerator(idBlockSize);
 
         initCluster();
     }
@@ -96,7 +111,7 @@ public class CassandraDatabase extends Database {
      */
     @Override
     public MemoryDAO getMemoryDAO(Connection connection) {
-        return new CassandraMemoryDAO((CassandraConnection) connection);
+        return new CassandraMemoryDAO((CassandraConnection) connection, idGenerator);
     }
 
     /**
@@ -107,7 +122,7 @@ public class CassandraDatabase extends Database {
      */
     @Override
     public ImportJobDAO getImportJobDAO(Connection connection) {
-        return new CassandraImportJobDAO((CassandraConnection) connection);
+        return new CassandraImportJobDAO((CassandraConnection) connection, idGenerator);
     }
 
     /**
@@ -125,6 +140,9 @@ public class CassandraDatabase extends Database {
             DropKeyspace dropKeyspace = SchemaBuilder.dropKeyspace('"' + this.keyspace + '"').ifExists();
             CassandraUtils.checkedExecute(connection, dropKeyspace);
 
+            /*the reserved IDs are not valid anymore*/
+            this.idGenerator.reset();
+
         } catch (KeyspaceNotFoundException e) {
             /*ignore*/
         } finally {
@@ -185,6 +203,7 @@ public class CassandraDatabase extends Database {
             CassandraUtils.checkedExecute(connection, createImportJobsTable);
 
             CassandraIdGenerator.initializeTableCounter(connection, TABLE_IDS);
+            this.idGenerator.reset();
         } finally {
             IOUtils.closeQuietly(connection);
         }
@@ -211,8 +230,25 @@ public class CassandraDatabase extends Database {
         return this.keyspace;
     }
 
+    /**
+     * This method gives back the IDs reserved by this database instance
+     * and not used yet, then closes the access point to the DB.
+     */
     @Override
     public void close() {
+        if (this.idGenerator.hasUnusedIds()) {
+            CassandraConnection connection = null;
+
+            try {
+                connection = new CassandraConnection(this.cluster, this.keyspace);
+                this.idGenerator.release(connection);
+            } catch (PersistenceException e) {
+                /*ignore: the unused IDs are skipped*/
+            } finally {
+                IOUtils.closeQuietly(connection);
+            }
+        }
+
         this.cluster.close();
     }
 
@@ -1,16 +1,88 @@
 package eu.modernmt.persistence.cassandra;
 
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
 import com.datastax.driver.core.querybuilder.BuiltStatement;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import eu.modernmt.persistence.PersistenceException;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
- * This class provides static methods
- * that generate sequential integer IDs
+ * This class generates sequential integer IDs
  * for objects to store in our Cassandra DB.
+ * <p>
+ * IDs are allocated with a hi/lo strategy: the counter of a table
+ * is advanced by a whole block of IDs with a single conditional update,
+ * then the IDs of the block are handed out locally.
+ * IDs are unique among all the nodes sharing the same keyspace and increasing for every node,
+ * but they are not contiguous: the unused IDs of a block are given back when the generator is released,
+ * if no other node has reserved a block in the meantime; otherwise (or after a crash) they are skipped.
+ * A block size of 1 restores contiguous IDs, at the cost of a conditional update per ID.
+ * <p>
+ * Objects stored with a forced ID advance the counter past that ID, but the ID can still
+ * fall in a block reserved before by another node: objects with generated IDs must therefore
+ * be stored with generate(connection, tableId, insert), that skips the IDs already taken.
  */
 public class CassandraIdGenerator {
 
+    public static final int DEFAULT_BLOCK_SIZE = 32;
+
+    /**
+     * Stores a new object with a generated ID, only if no object with that ID exists yet.
+     */
+    public interface Insert {
+
+        /**
+         * @param id the generated ID
+         * @return true if the object has been stored, false if the ID is already taken
+         * @throws PersistenceException
+         */
+        boolean apply(long id) throws PersistenceException;
+
+    }
+
+    /**
+     * The IDs reserved by this generator for a table:
+     * next is the next ID to hand out, last is the last ID of the block (the value of the counter
+     * right after the reservation). The block is exhausted if next > last.
+     */
+    private static class IdBlock {
+
+        private final int tableId;
+        private long next = 1L;
+        private long last = 0L;
+
+        private IdBlock(int tableId) {
+            this.tableId = tableId;
+        }
+
+    }
+
+    private final int blockSize;
+    private final ConcurrentHashMap<Integer, IdBlock> blocks = new ConcurrentHashMap<>();
+
+    public CassandraIdGenerator() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param blockSize the number of IDs reserved with each update of the table counters
+     */
+    public CassandraIdGenerator(int blockSize) {
+        if (blockSize < 1)
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        this.blockSize = blockSize;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    private IdBlock getBlock(int tableId) {
+        return blocks.computeIfAbsent(tableId, IdBlock::new);
+    }
+
     /**
      * This method generates a new ID for a new object
      * that must be stored in a certain table.
@@ -23,63 +95,130 @@ public class CassandraIdGenerator {
      * @return the newly generated ID,
      * @throws PersistenceException
      */
-    public static long generate(CassandraConnection connection, int tableId) throws PersistenceException {
-        /*the table COUNTERS_TABLE has a row for each other table in our cassandra;
-        each row holds the table id and a counter marking the last ID
-        that has been employed when storing an object in that table.*/
+    public long generate(CassandraConnection connection, int tableId) throws PersistenceException {
+        IdBlock block = getBlock(tableId);
 
-        /*statement for getting the last ID used in the table under analysis
-         * from the Counters_table*/
-        BuiltStatement get = QueryBuilder.select("table_counter").
-                from(CassandraDatabase.COUNTERS_TABLE).
-                where(QueryBuilder.eq("table_id", tableId));
+        synchronized (block) {
+            if (block.next > block.last) {
+                // the counter is likely still at the end of the previous block, if any
+                long expected = block.last > 0L ? block.last : -1L;
+                block.last = reserve(connection, tableId, expected, blockSize);
+                block.next = block.last - blockSize + 1L;
+            }
 
+            return block.next++;
+        }
+    }
 
-        /*Read the last ID used in the table under analysis.
-         If it is still the same, increment it and
-         return the new incremented ID.
-         Otherwise, read again.
-         This technique lets us read and update the ID atomically,
-          so it is thread-safe (even it may be if a bit slow).*/
+    /**
+     * This method generates new IDs for an object until it is stored with one of them:
+     * the IDs already taken by objects stored with a forced ID are skipped.
+     * <p>
+     * This method is thread-safe.
+     *
+     * @param connection the current connection with the database
+     * @param tableId    the ID of the table in which we want to store a new object
+     * @param insert     the conditional insert of the object with a given ID
+     * @return the ID of the stored object
+     * @throws PersistenceException
+     */
+    public long generate(CassandraConnection connection, int tableId, Insert insert) throws PersistenceException {
         while (true) {
+            long id = generate(connection, tableId);
+            if (insert.apply(id))
+                return id;
+        }
+    }
 
-            /* Get the the last ID used in the table under analysis*/
-            long oldCount = CassandraUtils.checkedExecute(connection, get).one().getLong("table_counter");
+    /**
+     * This method reserves a block of IDs for a table,
+     * advancing its counter with a conditional update.
+     * If the update is not applied because another node has advanced the counter in the meantime,
+     * the failed update returns the current value of the counter,
+     * so the reservation is retried without reading it again.
+     *
+     * @param connection the current connection with the database
+     * @param tableId    the ID of the table
+     * @param expected   the expected current value of the counter, or -1 if unknown
+     * @param size       the number of IDs to reserve
+     * @return the last ID of the reserved block; the block starts at (last - size + 1)
+     * @throws PersistenceException
+     */
+    protected long reserve(CassandraConnection connection, int tableId, long expected, int size) throws PersistenceException {
+        /*the table COUNTERS_TABLE has a row for each other table in our cassandra;
+        each row holds the table id and a counter marking the last ID
+        that has been reserved when storing an object in that table.*/
+        long counter = expected < 0L ? readCounter(connection, tableId) : expected;
 
-            /* Statement for updating the last ID only if it is still the same*/
-            BuiltStatement set = QueryBuilder.update(CassandraDatabase.COUNTERS_TABLE).
-                    with(QueryBuilder.set("table_counter", (oldCount + 1L))).
-                    where(QueryBuilder.eq("table_id", tableId)).
-                    onlyIf(QueryBuilder.eq("table_counter", oldCount));
+        while (true) {
+            /* Statement for advancing the counter only if it is still the same*/
+            BuiltStatement set = QueryBuilder.update(CassandraDatabase.COUNTERS_TABLE)
+                    .with(QueryBuilder.set("table_counter", counter + size))
+                    .where(QueryBuilder.eq("table_id", tableId))
+                    .onlyIf(QueryBuilder.eq("table_counter", counter));
+
+            ResultSet result = CassandraUtils.checkedExecute(connection, set);
+            if (result.wasApplied())
+                return counter + size;
 
-            /* Try to execute the statement; if it succeeded,
-             * then it means that no-one has updated the last ID
-             * after this thread has read it, so it can use it*/
-            if (CassandraUtils.checkedExecute(connection, set).wasApplied())
-                return oldCount + 1L;
+            /* Someone else has reserved a block: the result holds the current counter*/
+            Row row = result.one();
+            if (row != null && row.getColumnDefinitions().contains("table_counter") && !row.isNull("table_counter"))
+                counter = row.getLong("table_counter");
+            else
+                counter = readCounter(connection, tableId);
         }
     }
 
+    private static long readCounter(CassandraConnection connection, int tableId) throws PersistenceException {
+        BuiltStatement get = QueryBuilder.select("table_counter")
+                .from(CassandraDatabase.COUNTERS_TABLE)
+                .where(QueryBuilder.eq("table_id", tableId));
+
+        Row row = CassandraUtils.checkedExecute(connection, get).one();
+        if (row == null)
+            throw new PersistenceException("Missing ID counter for table " + tableId);
+
+        return row.getLong("table_counter");
+    }
+
     /**
      * This method updates the current counter for a table to a given value
-     * if it is greater than the current counter for that table
+     * if it is greater than the current counter for that table.
+     * If the value falls in the block of IDs reserved by this generator,
+     * the IDs up to the given value are not handed out anymore; if it falls in the block
+     * reserved by another node, that node skips it when storing (see generate(connection, tableId, insert)).
      *
      * @param connection the current connection with the database
      * @param newCounter the new memories counter (if it is greater than the current one)
      * @throws PersistenceException
      */
-    public static boolean advanceCounter(CassandraConnection connection, int tableID, long newCounter) throws PersistenceException {
+    public boolean advanceCounter(CassandraConnection connection, int tableID, long newCounter) throws PersistenceException {
+        IdBlock block = getBlock(tableID);
+        synchronized (block) {
+            if (block.next <= newCounter && newCounter <= block.last)
+                block.next = newCounter + 1L;
+        }
+
+        return advance(connection, tableID, newCounter);
+    }
+
+    /**
+     * This method advances the counter of a table to a given value, if it is smaller.
+     *
+     * @param connection the current connection with the database
+     * @param tableID    the ID of the table
+     * @param newCounter the new counter
+     * @return true if the counter has been advanced by this call
+     * @throws PersistenceException
+     */
+    protected boolean advance(CassandraConnection connection, int tableID, long newCounter) throws PersistenceException {
         /* Statement for updating the last ID only if it smaller than the new counter*/
         BuiltStatement update = QueryBuilder.update(CassandraDatabase.COUNTERS_TABLE)
                 .with(QueryBuilder.set("table_counter", newCounter))
                 .where(QueryBuilder.eq("table_id", tableID))
                 .onlyIf(QueryBuilder.lt("table_counter", newCounter));
 
-        /* Statement for retrieving the last ID*/
-        BuiltStatement get = QueryBuilder.select("table_counter")
-                .from(CassandraDatabase.COUNTERS_TABLE)
-                .where(QueryBuilder.eq("table_id", tableID));
-
         /*Try to update the last ID and check if you have succeeded.
          * If you have not succeeded, try again.
          * If succeeded OR if the new value you are trying to write is too small
@@ -88,12 +227,65 @@ public class CassandraIdGenerator {
          * return whether you have the advance or not*/
         while (true) {
             boolean wasApplied = CassandraUtils.checkedExecute(connection, update).wasApplied();
-            long counter = CassandraUtils.checkedExecute(connection, get).one().getLong("table_counter");
+            long counter = readCounter(connection, tableID);
             if (counter >= newCounter)
                 return wasApplied;
         }
     }
 
+    /**
+     * @return true if this generator holds reserved IDs that have not been handed out yet
+     */
+    public boolean hasUnusedIds() {
+        for (IdBlock block : blocks.values()) {
+            synchronized (block) {
+                if (block.next <= block.last)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method gives back the unused IDs of the reserved blocks,
+     * moving each table counter back to the last ID handed out
+     * only if no other node has advanced it after the reservation.
+     * The generator can still be used afterwards: it will reserve new blocks.
+     *
+     * @param connection the current connection with the database
+     * @throws PersistenceException
+     */
+    public void release(CassandraConnection connection) throws PersistenceException {
+        for (IdBlock block : blocks.values()) {
+            synchronized (block) {
+                if (block.next <= block.last) {
+                    BuiltStatement rollback = QueryBuilder.update(CassandraDatabase.COUNTERS_TABLE)
+                            .with(QueryBuilder.set("table_counter", block.next - 1L))
+                            .where(QueryBuilder.eq("table_id", block.tableId))
+                            .onlyIf(QueryBuilder.eq("table_counter", block.last));
+
+                    CassandraUtils.checkedExecute(connection, rollback);
+                }
+
+                block.next = 1L;
+                block.last = 0L;
+            }
+        }
+    }
+
+    /**
+     * This method discards the reserved blocks without giving them back,
+     * for instance because the table counters have been dropped.
+     */
+    public void reset() {
+        for (IdBlock block : blocks.values()) {
+            synchronized (block) {
+                block.next = 1L;
+                block.last = 0L;
+            }
+        }
+    }
+
     /**
      * This method creates the necessary statements to store
      * in the counters_table a new entry for each table
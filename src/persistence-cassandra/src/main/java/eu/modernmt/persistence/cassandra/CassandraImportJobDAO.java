@@ -20,6 +20,7 @@ import java.util.UUID;
 public class CassandraImportJobDAO implements ImportJobDAO {
 
     private CassandraConnection connection;
+    private CassandraIdGenerator idGenerator;
 
     /**
      * This method creates a CassandraImportJobDao
@@ -28,9 +29,11 @@ public class CassandraImportJobDAO implements ImportJobDAO {
      *
      * @param connection the Cassandra Connection that the DAO will employ
      *                   to deal with the ImportJob CRUD operations.
+     * @param idGenerator the generator of the IDs of new objects, shared by all the DAOs of the database
      */
-    public CassandraImportJobDAO(CassandraConnection connection) {
+    public CassandraImportJobDAO(CassandraConnection connection, CassandraIdGenerator idGenerator) {
         this.connection = connection;
+        this.idGenerator = idGenerator;
     }
 
     /**
@@ -43,7 +46,7 @@ public class CassandraImportJobDAO implements ImportJobDAO {
      */
     @Override
     public ImportJob store(ImportJob job) throws PersistenceException {
-        long id = CassandraIdGenerator.generate(connection, CassandraDatabase.IMPORT_JOBS_TABLE_ID);
+        long id = idGenerator.generate(connection, CassandraDatabase.IMPORT_JOBS_TABLE_ID);
 
         String[] columns = {"id", "memory", "\"begin\"", "end", "data_channel", "size"};
         Object[] values = {id, job.getMemory(), job.getBegin(), job.getEnd(), job.getDataChannel(), job.getSize()};
@@ -20,7 +20,10 @@ import java.util.*;
  */
 public class CassandraMemoryDAO implements MemoryDAO {
 
+    private static final int RETRIEVE_BATCH_SIZE = 100;
+
     private CassandraConnection connection;
+    private CassandraIdGenerator idGenerator;
 
     /**
      * This method creates a CassandraMemoryDAO
@@ -29,9 +32,11 @@ public class CassandraMemoryDAO implements MemoryDAO {
      *
      * @param connection the Cassandra Connection that the DAO will employ
      *                   to deal with the Memory CRUD operations.
+     * @param idGenerator the generator of the IDs of new objects, shared by all the DAOs of the database
      */
-    public CassandraMemoryDAO(CassandraConnection connection) {
+    public CassandraMemoryDAO(CassandraConnection connection, CassandraIdGenerator idGenerator) {
         this.connection = connection;
+        this.idGenerator = idGenerator;
     }
 
     /**
@@ -87,7 +92,7 @@ public class CassandraMemoryDAO implements MemoryDAO {
      * all the Memory objects the ids of which
      * are contained in a given collection
      *
-     * @param ids the collection of ids of the Memories to retrieve
+     * @param ids the collection of ids of the Memories to retrieve (looked up in batches)
      * @return the Memory objects the ids of which are contained in the passed id collection
      * @throws PersistenceException
      */
@@ -101,18 +106,24 @@ public class CassandraMemoryDAO implements MemoryDAO {
 
         ArrayList<Long> list = new ArrayList<>(ids.size());
         list.addAll(ids);
-        BuiltStatement statement = QueryBuilder.
-                select().
-                from(CassandraDatabase.MEMORIES_TABLE).
-                where(QueryBuilder.in("id", list));
 
-        /*execute the query*/
-        ResultSet result = CassandraUtils.checkedExecute(connection, statement);
+        /*query the ids in batches, large IN clauses overload the coordinator*/
+        for (int i = 0; i < list.size(); i += RETRIEVE_BATCH_SIZE) {
+            List<Long> batch = list.subList(i, Math.min(list.size(), i + RETRIEVE_BATCH_SIZE));
 
-        /*create the Memory objects from the rows*/
-        while (!result.isExhausted()) {
-            Memory memory = read(result.one());
-            map.put(memory.getId(), memory);
+            BuiltStatement statement = QueryBuilder.
+                    select().
+                    from(CassandraDatabase.MEMORIES_TABLE).
+                    where(QueryBuilder.in("id", batch));
+
+            /*execute the query*/
+            ResultSet result = CassandraUtils.checkedExecute(connection, statement);
+
+            /*create the Memory objects from the rows*/
+            while (!result.isExhausted()) {
+                Memory memory = read(result.one());
+                map.put(memory.getId(), memory);
+            }
         }
 
         return map;
@@ -169,12 +180,30 @@ public class CassandraMemoryDAO implements MemoryDAO {
         long id;
 
         if (!forceId) {
-            id = CassandraIdGenerator.generate(connection, CassandraDatabase.MEMORIES_TABLE_ID);
+            id = idGenerator.generate(connection, CassandraDatabase.MEMORIES_TABLE_ID, candidate -> insert(candidate, memory));
         } else {
             id = memory.getId();
-            CassandraIdGenerator.advanceCounter(connection, CassandraDatabase.MEMORIES_TABLE_ID, id);
+            idGenerator.advanceCounter(connection, CassandraDatabase.MEMORIES_TABLE_ID, id);
+
+            if (!insert(id, memory))
+                throw new PersistenceException("Unable to insert memory into Cassandra Database: " + memory);
         }
 
+        memory.setId(id);
+
+        return memory;
+    }
+
+    /**
+     * This method stores a Memory object in the DB with the given ID,
+     * only if no memory with that ID exists yet.
+     *
+     * @param id     the ID of the new memory
+     * @param memory the Memory object to store in the DB
+     * @return true if the memory was stored, false if the ID is already taken
+     * @throws PersistenceException
+     */
+    private boolean insert(long id, Memory memory) throws PersistenceException {
         UUID owner = memory.getOwner();
 
         String[] columns = {"id", "owner_msb", "owner_lsb", "name"};
@@ -189,14 +218,7 @@ public class CassandraMemoryDAO implements MemoryDAO {
                 .values(columns, values)
                 .ifNotExists();
 
-        boolean success = CassandraUtils.checkedExecute(connection, statement).wasApplied();
-
-        if (!success)
-            throw new PersistenceException("Unable to insert memory into Cassandra Database: " + memory);
-
-        memory.setId(id);
-
-        return memory;
+        return CassandraUtils.checkedExecute(connection, statement).wasApplied();
     }
 
     /**
@@ -0,0 +1,207 @@
+package eu.modernmt.persistence.cassandra;
+
+import eu.modernmt.persistence.PersistenceException;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class CassandraIdGeneratorTest {
+
+    private static final int NODES = 4;
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 250;
+
+    /*a table counter in memory, with the same compare-and-set semantic of the conditional update*/
+    private static class InMemoryIdGenerator extends CassandraIdGenerator {
+
+        private final AtomicLong counter;
+        private final AtomicInteger updates;
+
+        InMemoryIdGenerator(int blockSize, AtomicLong counter, AtomicInteger updates) {
+            super(blockSize);
+            this.counter = counter;
+            this.updates = updates;
+        }
+
+        @Override
+        protected long reserve(CassandraConnection connection, int tableId, long expected, int size) {
+            long current = expected < 0 ? counter.get() : expected;
+
+            while (true) {
+                updates.incrementAndGet();
+                if (counter.compareAndSet(current, current + size))
+                    return current + size;
+                current = counter.get();
+            }
+        }
+
+        @Override
+        protected boolean advance(CassandraConnection connection, int tableID, long newCounter) {
+            while (true) {
+                long current = counter.get();
+                if (current >= newCounter)
+                    return false;
+
+                updates.incrementAndGet();
+                if (counter.compareAndSet(current, newCounter))
+                    return true;
+            }
+        }
+    }
+
+    private interface IdSource {
+
+        long next() throws PersistenceException;
+
+    }
+
+    private static Set<Long> generateConcurrently(List<IdSource> sources) throws Exception {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(sources.size() * THREADS);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (IdSource source : sources) {
+                for (int t = 0; t < THREADS; t++) {
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < IDS_PER_THREAD; i++)
+                            assertTrue(ids.add(source.next()));
+                        return null;
+                    }));
+                }
+            }
+
+            for (Future<?> future : futures)
+                future.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return ids;
+    }
+
+    @Test
+    public void uniqueIdsUnderContention() throws Exception {
+        AtomicLong counter = new AtomicLong();
+        AtomicInteger updates = new AtomicInteger();
+
+        List<IdSource> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            CassandraIdGenerator generator = new InMemoryIdGenerator(16, counter, updates);
+            nodes.add(() -> generator.generate(null, CassandraDatabase.MEMORIES_TABLE_ID));
+        }
+
+        Set<Long> ids = generateConcurrently(nodes);
+
+        int expected = NODES * THREADS * IDS_PER_THREAD;
+        assertEquals(expected, ids.size());
+        for (long id : ids)
+            assertTrue(id > 0 && id <= counter.get());
+
+        // at most one block per node is left partially unused
+        assertTrue(counter.get() <= expected + NODES * 16);
+        // one update per block, plus the failed ones
+        assertTrue(updates.get() < expected / 4);
+    }
+
+    /*
+     * Node B stores an object with a forced ID that falls in the block reserved by node A:
+     * the counter is not advanced, and A must skip that ID when storing its own objects.
+     */
+    @Test
+    public void forcedIdInBlockOfAnotherNodeIsSkipped() throws Exception {
+        AtomicLong counter = new AtomicLong();
+        AtomicInteger updates = new AtomicInteger();
+        Map<Long, String> table = new ConcurrentHashMap<>();
+
+        CassandraIdGenerator nodeA = new InMemoryIdGenerator(16, counter, updates);
+        CassandraIdGenerator nodeB = new InMemoryIdGenerator(16, counter, updates);
+
+        List<Long> idsOfA = new ArrayList<>();
+        idsOfA.add(nodeA.generate(null, CassandraDatabase.MEMORIES_TABLE_ID, id -> table.putIfAbsent(id, "A") == null));
+        assertEquals(16L, counter.get());
+
+        // forced store on B, inside the block of A
+        assertFalse(nodeB.advanceCounter(null, CassandraDatabase.MEMORIES_TABLE_ID, 5L));
+        assertNull(table.putIfAbsent(5L, "B"));
+        assertEquals(16L, counter.get());
+
+        for (int i = 0; i < 15; i++)
+            idsOfA.add(nodeA.generate(null, CassandraDatabase.MEMORIES_TABLE_ID, id -> table.putIfAbsent(id, "A") == null));
+
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L, 14L, 15L, 16L, 17L), idsOfA);
+        assertEquals("B", table.get(5L));
+        assertEquals(17, table.size());
+
+        // forced store on B, after all the reserved blocks: the counter is advanced
+        assertTrue(nodeB.advanceCounter(null, CassandraDatabase.MEMORIES_TABLE_ID, 40L));
+        assertEquals(40L, counter.get());
+        assertNull(table.putIfAbsent(40L, "B"));
+
+        // forced store on A, inside its own block: the IDs up to it are not handed out anymore
+        assertFalse(nodeA.advanceCounter(null, CassandraDatabase.MEMORIES_TABLE_ID, 20L));
+        assertNull(table.putIfAbsent(20L, "A"));
+        assertEquals(21L, nodeA.generate(null, CassandraDatabase.MEMORIES_TABLE_ID, id -> table.putIfAbsent(id, "A") == null));
+
+        // a new block starts after the forced ID
+        assertEquals(41L, nodeB.generate(null, CassandraDatabase.MEMORIES_TABLE_ID, id -> table.putIfAbsent(id, "B") == null));
+    }
+
+    /*
+     * Runs against a live Cassandra instance, such as the EmbeddedCassandra started by an MMT node
+     * (host and port can be set with the "cassandra.host" and "cassandra.port" system properties);
+     * skipped if Cassandra is not reachable.
+     */
+    @Test
+    public void uniqueIdsUnderContentionOnCassandra() throws Exception {
+        String host = System.getProperty("cassandra.host", "localhost");
+        int port = Integer.parseInt(System.getProperty("cassandra.port", "9042"));
+        String keyspace = "mmt_id_test_" + System.currentTimeMillis();
+
+        List<CassandraDatabase> databases = new ArrayList<>();
+        List<CassandraConnection> connections = new ArrayList<>();
+        boolean created = false;
+
+        try {
+            for (int i = 0; i < NODES; i++)
+                databases.add(new CassandraDatabase(host, port, keyspace));
+
+            try {
+                databases.get(0).create();
+                created = true;
+            } catch (PersistenceException e) {
+                Assume.assumeNoException("Cassandra is not reachable at " + host + ":" + port, e);
+            }
+
+            List<IdSource> nodes = new ArrayList<>();
+            for (CassandraDatabase database : databases) {
+                CassandraConnection connection = database.getConnection(false);
+                connections.add(connection);
+
+                CassandraIdGenerator generator = new CassandraIdGenerator(16);
+                nodes.add(() -> generator.generate(connection, CassandraDatabase.IMPORT_JOBS_TABLE_ID));
+            }
+
+            Set<Long> ids = generateConcurrently(nodes);
+            assertEquals(NODES * THREADS * IDS_PER_THREAD, ids.size());
+        } finally {
+            for (CassandraConnection connection : connections)
+                connection.close();
+            if (created)
+                databases.get(0).drop();
+            for (CassandraDatabase database : databases)
+                database.close();
+        }
+    }
+
+}
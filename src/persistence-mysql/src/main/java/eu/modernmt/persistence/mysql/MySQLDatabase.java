@@ -1,12 +1,13 @@
 package eu.modernmt.persistence.mysql;
 
 import com.mysql.cj.jdbc.MysqlDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import eu.modernmt.config.DatabaseConfig;
 import eu.modernmt.persistence.*;
 import eu.modernmt.persistence.mysql.utils.SQLUtils;
 import org.apache.commons.io.IOUtils;
 
-import javax.sql.DataSource;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -17,13 +18,17 @@ import java.sql.Statement;
 public class MySQLDatabase extends Database {
 
     private String name;
-    private DataSource dataSource;
+    private HikariDataSource dataSource;
 
     public MySQLDatabase(DatabaseConfig config) {
-        this(config.getHost(), config.getPort(), config.getName(), config.getUser(), config.getPassword());
+        this(config.getHost(), config.getPort(), config.getName(), config.getUser(), config.getPassword(), config.getPoolSize());
     }
 
     public MySQLDatabase(String host, int port, String name, String user, String password) {
+        this(host, port, name, user, password, 20);
+    }
+
+    public MySQLDatabase(String host, int port, String name, String user, String password, int poolSize) {
         super(null);
         this.name = name;
 
@@ -37,7 +42,15 @@ public class MySQLDatabase extends Database {
         mysqlDS.setDatabaseName(name);
         mysqlDS.setUser(user);
         mysqlDS.setPassword(password);
-        this.dataSource = mysqlDS;
+
+        // connections are pooled, closing a MySQLConnection gives it back to the pool
+        HikariConfig poolConfig = new HikariConfig();
+        poolConfig.setDataSource(mysqlDS);
+        poolConfig.setPoolName("mmt-mysql");
+        poolConfig.setMaximumPoolSize(poolSize);
+        poolConfig.setMinimumIdle(Math.min(2, poolSize));
+        poolConfig.setInitializationFailTimeout(-1);  // do not connect in constructor
+        this.dataSource = new HikariDataSource(poolConfig);
     }
 
     /**
@@ -78,7 +91,7 @@ public class MySQLDatabase extends Database {
 
     @Override
     public void close() {
-        //do nothing
+        dataSource.close();
     }
 
     @Override
@@ -16,6 +16,8 @@ import java.util.*;
  */
 public class MySQLMemoryDAO implements MemoryDAO {
 
+    private static final int RETRIEVE_BATCH_SIZE = 1000;
+
     private Connection connection;
 
     /**
@@ -57,7 +59,8 @@ public class MySQLMemoryDAO implements MemoryDAO {
     }
 
     /**
-     * This method retrieves from the MySQL DB all the Memories the ids of which are contained in a given collection
+     * This method retrieves from the MySQL DB all the Memories the ids of which are contained in a given collection.
+     * Ids are looked up in batches of at most RETRIEVE_BATCH_SIZE elements per query.
      *
      * @param ids the collection of ids of the Memories to retrieve
      * @return a map containing for each passed id the corresponding retrieved Memory
@@ -71,8 +74,18 @@ public class MySQLMemoryDAO implements MemoryDAO {
         if (ids.isEmpty())
             return memories;
 
+        Long[] array = ids.toArray(new Long[0]);
+        for (int i = 0; i < array.length; i += RETRIEVE_BATCH_SIZE) {
+            int end = Math.min(array.length, i + RETRIEVE_BATCH_SIZE);
+            retrieve(array, i, end, memories);
+        }
+
+        return memories;
+    }
+
+    private void retrieve(Long[] ids, int begin, int end, Map<Long, Memory> output) throws PersistenceException {
         String query = "SELECT * FROM mmt_memories "
-                + "WHERE id IN (" + StringUtils.join(ids.toArray(new Long[ids.size()]), ',') + ") ";
+                + "WHERE id IN (" + StringUtils.join(ids, ',', begin, end) + ") ";
 
         /*execute query and read resources from its result*/
         Statement statement = null;
@@ -83,10 +96,8 @@ public class MySQLMemoryDAO implements MemoryDAO {
 
             while (result.next()) {
                 Memory memory = read(result);
-                memories.put(memory.getId(), memory);
+                output.put(memory.getId(), memory);
             }
-
-            return memories;
         } catch (SQLException e) {
             throw new PersistenceException(e);
         } finally {
@@ -3,6 +3,8 @@ package eu.modernmt.cleaning;
 import eu.modernmt.model.corpus.TranslationUnit;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
 
 public class ChainedMultilingualCorpusFilter implements MultilingualCorpusFilter, CorpusNormalizer {
 
@@ -59,29 +61,7 @@ public class ChainedMultilingualCorpusFilter implements MultilingualCorpusFilter
                 initializers.add(initializer);
         }
 
-        if (initializers.isEmpty()) {
-            return null;
-        } else {
-            return new Initializer() {
-                @Override
-                public void onBegin() {
-                    for (Initializer initializer : initializers)
-                        initializer.onBegin();
-                }
-
-                @Override
-                public void onTranslationUnit(TranslationUnit tu, int index) {
-                    for (Initializer initializer : initializers)
-                        initializer.onTranslationUnit(tu, index);
-                }
-
-                @Override
-                public void onEnd() {
-                    for (Initializer initializer : initializers)
-                        initializer.onEnd();
-                }
-            };
-        }
+        return initializers.isEmpty() ? null : new ParallelInitializer(initializers);
     }
 
     @Override
@@ -100,4 +80,125 @@ public class ChainedMultilingualCorpusFilter implements MultilingualCorpusFilter
             filter.clear();
     }
 
+    /**
+     * Runs the initializers of the chained filters concurrently, each one from its own thread:
+     * translation units are collected in batches and every batch is handed to all the initializers,
+     * that consume the batches in order. Translation units must not be modified once passed to the initializer.
+     */
+    private static class ParallelInitializer implements Initializer {
+
+        private static final int BATCH_SIZE = 1000;
+        private static final int MAX_PENDING_BATCHES = 16;
+
+        private final Initializer[] initializers;
+        private final ExecutorService[] executors;
+        private final Semaphore permits;
+        private final int maxPermits;
+        private volatile Throwable error = null;
+
+        private TranslationUnit[] units = new TranslationUnit[BATCH_SIZE];
+        private int[] indexes = new int[BATCH_SIZE];
+        private int size = 0;
+
+        private ParallelInitializer(List<Initializer> initializers) {
+            this.initializers = initializers.toArray(new Initializer[0]);
+            this.executors = new ExecutorService[this.initializers.length];
+            this.maxPermits = MAX_PENDING_BATCHES * this.initializers.length;
+            this.permits = new Semaphore(maxPermits);
+
+            for (int i = 0; i < executors.length; i++) {
+                // idle threads terminate by themselves, even if the initialization is never completed
+                ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "CorpusFilterInitializer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                executor.allowCoreThreadTimeOut(true);
+                executors[i] = executor;
+            }
+        }
+
+        @Override
+        public void onBegin() {
+            for (Initializer initializer : initializers)
+                initializer.onBegin();
+        }
+
+        @Override
+        public void onTranslationUnit(TranslationUnit tu, int index) {
+            units[size] = tu;
+            indexes[size] = index;
+            size++;
+
+            if (size == BATCH_SIZE) {
+                checkError();
+                dispatch(units, indexes, size);
+
+                units = new TranslationUnit[BATCH_SIZE];
+                indexes = new int[BATCH_SIZE];
+                size = 0;
+            }
+        }
+
+        @Override
+        public void onEnd() {
+            if (size > 0)
+                dispatch(units, indexes, size);
+
+            units = null;
+            indexes = null;
+            size = 0;
+
+            permits.acquireUninterruptibly(initializers.length);
+            for (int i = 0; i < initializers.length; i++) {
+                Initializer initializer = initializers[i];
+                executors[i].execute(() -> run(initializer::onEnd));
+            }
+
+            // all the permits are released once every task has completed
+            permits.acquireUninterruptibly(maxPermits);
+            permits.release(maxPermits);
+
+            for (ExecutorService executor : executors)
+                executor.shutdown();
+
+            checkError();
+        }
+
+        private void dispatch(TranslationUnit[] units, int[] indexes, int size) {
+            permits.acquireUninterruptibly(initializers.length);
+
+            for (int i = 0; i < initializers.length; i++) {
+                Initializer initializer = initializers[i];
+                executors[i].execute(() -> run(() -> {
+                    for (int j = 0; j < size; j++)
+                        initializer.onTranslationUnit(units[j], indexes[j]);
+                }));
+            }
+        }
+
+        private void run(Runnable task) {
+            try {
+                if (error == null)
+                    task.run();
+            } catch (Throwable e) {
+                error = e;
+            } finally {
+                permits.release();
+            }
+        }
+
+        private void checkError() {
+            Throwable error = this.error;
+
+            if (error instanceof RuntimeException)
+                throw (RuntimeException) error;
+            else if (error instanceof Error)
+                throw (Error) error;
+            else if (error != null)
+                throw new RuntimeException(error);
+        }
+
+    }
+
 }
@@ -11,6 +11,8 @@ import eu.modernmt.cleaning.normalizers.XMLStripper;
 import eu.modernmt.model.corpus.Corpus;
 import eu.modernmt.model.corpus.MultilingualCorpus;
 
+import java.io.File;
+
 /**
  * Created by davide on 02/11/17.
  */
@@ -74,11 +76,17 @@ public class CorporaCleaning {
         public boolean filterByLanguageBatch = false;
         public boolean filterByLanguageInline = false;
 
+        /**
+         * Directory for the temporary files of the cleaning process: if null, corpora whose
+         * filters need an initialization pass are read twice instead of being spilled to disk.
+         */
+        public File workingDirectory = null;
+
     }
 
     public static FilteredMultilingualCorpus wrap(MultilingualCorpus corpus, Options options) {
         ChainedMultilingualCorpusFilter filter = makeMultilingualFilter(options);
-        return new FilteredMultilingualCorpus(corpus, filter, filter);
+        return new FilteredMultilingualCorpus(corpus, filter, filter, options.workingDirectory);
     }
 
     public static FilteredCorpus wrap(Corpus corpus, Options options) {
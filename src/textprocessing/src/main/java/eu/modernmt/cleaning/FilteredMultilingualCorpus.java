@@ -1,8 +1,11 @@
 package eu.modernmt.cleaning;
 
 import eu.modernmt.model.corpus.*;
+import eu.modernmt.model.corpus.impl.parallel.CompactFileCorpus;
+import eu.modernmt.model.corpus.impl.parallel.ParallelFileCorpus;
 import org.apache.commons.io.IOUtils;
 
+import java.io.File;
 import java.io.IOException;
 
 public class FilteredMultilingualCorpus extends BaseMultilingualCorpus implements MultilingualCorpusWrapper {
@@ -10,11 +13,21 @@ public class FilteredMultilingualCorpus extends BaseMultilingualCorpus implement
     private final MultilingualCorpus corpus;
     private final MultilingualCorpusFilter filter;
     private final CorpusNormalizer normalizer;
+    private final File workingDirectory;
 
     public FilteredMultilingualCorpus(MultilingualCorpus corpus, CorpusNormalizer normalizer, MultilingualCorpusFilter filter) {
+        this(corpus, normalizer, filter, null);
+    }
+
+    /**
+     * @param workingDirectory the directory where the translation units read by the initialization pass are spilled,
+     *                         or null to read the corpus twice
+     */
+    public FilteredMultilingualCorpus(MultilingualCorpus corpus, CorpusNormalizer normalizer, MultilingualCorpusFilter filter, File workingDirectory) {
         this.corpus = corpus;
         this.normalizer = normalizer;
         this.filter = filter;
+        this.workingDirectory = workingDirectory;
     }
 
     @Override
@@ -34,11 +47,14 @@ public class FilteredMultilingualCorpus extends BaseMultilingualCorpus implement
 
     @Override
     public TUReader getContentReader() throws IOException {
-        this.initialize();
+        // if the corpus has been read by the initialization pass,
+        // the normalized translation units are read back from the spill file
+        TranslationUnitSpill spill = this.initialize();
 
         return new TUReader() {
 
-            private final TUReader reader = corpus.getContentReader();
+            private final TUReader reader = spill == null ? corpus.getContentReader() : spill.getReader();
+            private final CorpusNormalizer normalizer = spill == null ? FilteredMultilingualCorpus.this.normalizer : null;
             private int index = 0;
 
             @Override
@@ -70,34 +86,61 @@ public class FilteredMultilingualCorpus extends BaseMultilingualCorpus implement
         };
     }
 
-    private void initialize() throws IOException {
+    private boolean isSpillNeeded() {
+        if (workingDirectory == null)
+            return false;
+
+        // plain text corpora are as fast to read again as the spill file
+        MultilingualCorpus unwrapped = MultilingualCorpusWrapper.unwrap(corpus);
+        return !(unwrapped instanceof ParallelFileCorpus || unwrapped instanceof CompactFileCorpus);
+    }
+
+    private TranslationUnitSpill initialize() throws IOException {
         MultilingualCorpusFilter.Initializer initializer = filter.getInitializer();
 
-        if (initializer != null) {
-            initializer.onBegin();
+        if (initializer == null)
+            return null;
 
-            TUReader reader = null;
-            try {
-                reader = corpus.getContentReader();
+        TranslationUnitSpill spill = isSpillNeeded() ? new TranslationUnitSpill(workingDirectory) : null;
+        boolean success = false;
 
-                int index = 0;
-                TranslationUnit tu;
+        initializer.onBegin();
 
-                while ((tu = reader.read()) != null) {
-                    if (normalizer != null) {
-                        tu.source = normalizer.normalize(tu.source);
-                        tu.target = normalizer.normalize(tu.target);
-                    }
+        TUReader reader = null;
+        TUWriter writer = null;
+        try {
+            reader = corpus.getContentReader();
+            writer = spill == null ? null : spill.getWriter();
 
-                    initializer.onTranslationUnit(tu, index);
-                    index++;
+            int index = 0;
+            TranslationUnit tu;
+
+            while ((tu = reader.read()) != null) {
+                if (normalizer != null) {
+                    tu.source = normalizer.normalize(tu.source);
+                    tu.target = normalizer.normalize(tu.target);
                 }
-            } finally {
-                IOUtils.closeQuietly(reader);
+
+                initializer.onTranslationUnit(tu, index);
+                if (writer != null)
+                    writer.write(tu);
+                index++;
             }
 
+            if (writer != null)
+                writer.close();
             initializer.onEnd();
+
+            success = true;
+        } finally {
+            IOUtils.closeQuietly(reader);
+            IOUtils.closeQuietly(writer);
+
+            if (!success && spill != null)
+                IOUtils.closeQuietly(spill);
         }
+
+        return spill;
     }
 
 }
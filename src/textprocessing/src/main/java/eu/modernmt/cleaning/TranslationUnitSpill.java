@@ -0,0 +1,129 @@
+package eu.modernmt.cleaning;
+
+import eu.modernmt.lang.LanguageDirection;
+import eu.modernmt.model.corpus.TUReader;
+import eu.modernmt.model.corpus.TUWriter;
+import eu.modernmt.model.corpus.TranslationUnit;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+
+/**
+ * A temporary binary file holding the translation units read (and normalized) by the initialization
+ * pass of a FilteredMultilingualCorpus, so that the filtering pass can read them back without
+ * parsing the original corpus again.
+ * Language directions are not serialized: the writer and the reader share the same instances.
+ * The file is created in the given working directory and it is deleted by close().
+ */
+class TranslationUnitSpill implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File file;
+    private final ArrayList<LanguageDirection> languages = new ArrayList<>();
+    private final HashMap<LanguageDirection, Integer> languageIds = new HashMap<>();
+
+    TranslationUnitSpill(File directory) throws IOException {
+        this.file = File.createTempFile("mmt_cleaning", ".spill", directory);
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    TUWriter getWriter() throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+
+        return new TUWriter() {
+
+            @Override
+            public void write(TranslationUnit tu) throws IOException {
+                Integer language = languageIds.get(tu.language);
+                if (language == null) {
+                    language = languages.size();
+                    languages.add(tu.language);
+                    languageIds.put(tu.language, language);
+                }
+
+                output.writeInt(language);
+                writeString(output, tu.tuid);
+                writeString(output, tu.source);
+                writeString(output, tu.target);
+                output.writeLong(tu.timestamp == null ? Long.MIN_VALUE : tu.timestamp.getTime());
+            }
+
+            @Override
+            public void flush() throws IOException {
+                output.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                output.close();
+            }
+        };
+    }
+
+    /**
+     * @return a reader of the spilled translation units, deleting the file when closed
+     */
+    TUReader getReader() throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+
+        return new TUReader() {
+
+            @Override
+            public TranslationUnit read() throws IOException {
+                int language;
+                try {
+                    language = input.readInt();
+                } catch (EOFException e) {
+                    return null;
+                }
+
+                String tuid = readString(input);
+                String source = readString(input);
+                String target = readString(input);
+                long timestamp = input.readLong();
+
+                return new TranslationUnit(tuid, languages.get(language), source, target,
+                        timestamp == Long.MIN_VALUE ? null : new Date(timestamp));
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    input.close();
+                } finally {
+                    TranslationUnitSpill.this.close();
+                }
+            }
+        };
+    }
+
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+        if (string == null) {
+            output.writeInt(-1);
+        } else {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0)
+            return null;
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,109 @@
+package eu.modernmt.cleaning.dedup;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free bloom filter over an AtomicLongArray: bits are set with CAS operations,
+ * so concurrent put() and mightContain() calls never block each other.
+ * <p>
+ * Elements are identified by a 64 bit hash computed by the caller; the k bit positions
+ * are derived with the Kirsch-Mitzenmacher double hashing scheme, as in Guava's BloomFilter.
+ * <p>
+ * put() is not atomic as a whole: if two threads add the very same element concurrently,
+ * both may report it as new.
+ */
+public class ConcurrentBloomFilter {
+
+    private static final long MAX_BITS = (long) Integer.MAX_VALUE * Long.SIZE;
+
+    private final AtomicLongArray data;
+    private final long bitSize;
+    private final int numHashFunctions;
+
+    public ConcurrentBloomFilter(long expectedInsertions, double fpp) {
+        if (fpp <= 0. || fpp >= 1.)
+            throw new IllegalArgumentException("Invalid false positive probability: " + fpp);
+
+        long n = Math.max(1L, expectedInsertions);
+        long bits = (long) (-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        bits = Math.min(Math.max(Long.SIZE, bits), MAX_BITS);
+
+        int words = (int) ((bits + Long.SIZE - 1) / Long.SIZE);
+
+        this.data = new AtomicLongArray(words);
+        this.bitSize = (long) words * Long.SIZE;
+        this.numHashFunctions = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int numHashFunctions() {
+        return numHashFunctions;
+    }
+
+    /**
+     * Adds the element with the given hash to the filter.
+     *
+     * @param hash the 64 bit hash of the element
+     * @return true if at least one bit has been changed, that is the element was not in the filter
+     */
+    public boolean put(long hash) {
+        long hash1 = hash;
+        long hash2 = mix(hash);
+
+        boolean changed = false;
+        long combined = hash1;
+
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitSize;
+            changed |= set(index);
+            combined += hash2;
+        }
+
+        return changed;
+    }
+
+    public boolean mightContain(long hash) {
+        long hash1 = hash;
+        long hash2 = mix(hash);
+
+        long combined = hash1;
+
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitSize;
+            if ((data.get((int) (index >>> 6)) & (1L << index)) == 0)
+                return false;
+            combined += hash2;
+        }
+
+        return true;
+    }
+
+    private boolean set(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+
+        while (true) {
+            long current = data.get(word);
+            if ((current & mask) != 0)
+                return false;
+            if (data.compareAndSet(word, current, current | mask))
+                return true;
+        }
+    }
+
+    /**
+     * MurmurHash3 64 bit finalizer
+     */
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
@@ -1,51 +1,50 @@
 package eu.modernmt.cleaning.dedup;
 
-import com.google.common.hash.BloomFilter;
-import com.google.common.hash.Funnel;
-import com.google.common.hash.PrimitiveSink;
-import eu.modernmt.io.UTF8Charset;
 import eu.modernmt.model.corpus.Corpus;
 import eu.modernmt.model.corpus.MultilingualCorpus;
 import eu.modernmt.model.corpus.TranslationUnit;
 
+import java.util.Collection;
+
 public class CorporaBloomFilter {
 
-    private final BloomFilter<String> bloomFilter;
+    private static final double DEFAULT_FPP = 1. / 1000000.;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final ConcurrentBloomFilter bloomFilter;
+
+    public static CorporaBloomFilter fromLineCounts(Collection<Long> counts) {
+        long lines = 0;
+        for (long count : counts)
+            lines += count;
+
+        return new CorporaBloomFilter(lines);
+    }
 
     public CorporaBloomFilter(long expectedEntries) {
-        this(expectedEntries, 1. / 1000000.);
+        this(expectedEntries, DEFAULT_FPP);
     }
 
     public CorporaBloomFilter(long expectedEntries, double fpp) {
-        this.bloomFilter = BloomFilter.create(new StringFunnel(), expectedEntries, fpp);
+        this.bloomFilter = new ConcurrentBloomFilter(expectedEntries, fpp);
     }
 
     public boolean put(TranslationUnit tu) {
-        synchronized (bloomFilter) {
-            // This is not thread safe, even in v24
-            return bloomFilter.put(CorporaBloomFilter.StringFunnel.toString(tu));
-        }
+        return bloomFilter.put(hash(tu));
     }
 
     public boolean put(String line) {
-        synchronized (bloomFilter) {
-            // This is not thread safe, even in v24
-            return bloomFilter.put(line);
-        }
+        return bloomFilter.put(hash(line));
     }
 
     public boolean contains(TranslationUnit tu) {
-        synchronized (bloomFilter) {
-            // This is not thread safe, even in v24
-            return bloomFilter.mightContain(CorporaBloomFilter.StringFunnel.toString(tu));
-        }
+        return bloomFilter.mightContain(hash(tu));
     }
 
     public boolean contains(String line) {
-        synchronized (bloomFilter) {
-            // This is not thread safe, even in v24
-            return bloomFilter.mightContain(line);
-        }
+        return bloomFilter.mightContain(hash(line));
     }
 
     boolean accept(TranslationUnit tu, int lengthThreshold) {
@@ -73,18 +72,38 @@ public class CorporaBloomFilter {
         return new BloomFilterCorpus(this, corpus, lengthThreshold);
     }
 
-    static final class StringFunnel implements Funnel<String> {
+    // Hashing - the key of a translation unit is "source-lang target-lang\nsource\ntarget"
+    // (with new lines in source and target replaced by spaces), streamed char by char
+
+    private static long hash(TranslationUnit tu) {
+        long h = FNV_OFFSET_BASIS;
+        h = update(h, tu.language.source.toLanguageTag(), false);
+        h = update(h, ' ');
+        h = update(h, tu.language.target.toLanguageTag(), false);
+        h = update(h, '\n');
+        h = update(h, tu.source, true);
+        h = update(h, '\n');
+        h = update(h, tu.target, true);
+        return ConcurrentBloomFilter.mix(h);
+    }
 
-        public static String toString(TranslationUnit tu) {
-            return tu.language.toString() + '\n' +
-                    tu.source.replace('\n', ' ') + '\n' +
-                    tu.target.replace('\n', ' ');
-        }
+    private static long hash(String line) {
+        return ConcurrentBloomFilter.mix(update(FNV_OFFSET_BASIS, line, false));
+    }
 
-        @Override
-        public void funnel(String from, PrimitiveSink into) {
-            into.putString(from, UTF8Charset.get());
+    private static long update(long h, String string, boolean replaceNewLines) {
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (replaceNewLines && c == '\n')
+                c = ' ';
+            h = update(h, c);
         }
 
+        return h;
+    }
+
+    private static long update(long h, char c) {
+        return (h ^ c) * FNV_PRIME;
     }
+
 }
@@ -1,10 +1,11 @@
 package eu.modernmt.cleaning.filters;
 
 import eu.modernmt.cleaning.CorpusFilter;
+import eu.modernmt.cleaning.filters.util.LongCountMap;
 import eu.modernmt.lang.Language;
-import org.jetbrains.annotations.NotNull;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.regex.Pattern;
 
 /**
@@ -15,18 +16,19 @@ public class RareNgramFilter implements CorpusFilter {
     private static final int MIN_CORPUS_LINES = 500;
     private static final int MIN_SENTENCE_LENGTH = 30;
 
-    private HashSet<String> words = null;
+    // the character trigrams that make up the 90% of the corpus, packed in longs (see trigram())
+    private LongCountMap vocabulary = null;
 
     @Override
     public Initializer getInitializer() {
         return new Initializer() {
 
-            private final HashMap<String, Counter> map = new HashMap<>();
+            private final LongCountMap counts = new LongCountMap();
             private int lines = 0;
 
             @Override
             public void onBegin() {
-                words = null;
+                vocabulary = null;
             }
 
             @Override
@@ -38,42 +40,127 @@ public class RareNgramFilter implements CorpusFilter {
                 if (line.length() < MIN_SENTENCE_LENGTH)
                     return;
 
-                for (String token : tokenize(line))
-                    map.computeIfAbsent(token, key -> new Counter()).count++;
+                int size = countTrigrams(line);
+                for (int i = 0; i < size; i++)
+                    counts.increment(trigram(line, i));
             }
 
             @Override
             public void onEnd() {
-                words = lines < MIN_CORPUS_LINES ? null : filterCounts(map, .9);
+                vocabulary = lines < MIN_CORPUS_LINES ? null : filterCounts(counts, .9);
             }
 
-            private HashSet<String> filterCounts(HashMap<String, Counter> vocabulary, double threshold) {
-                ArrayList<Entry> entries = new ArrayList<>(vocabulary.size());
-                for (Map.Entry<String, Counter> e : vocabulary.entrySet())
-                    entries.add(new Entry(e.getKey(), e.getValue().count));
+        };
+    }
+
+    /**
+     * Selects the most frequent trigrams that, together, cover at least the given fraction of all the occurrences.
+     * Instead of sorting the whole vocabulary, the count of the least frequent selected trigram is found
+     * with a weighted quickselect over the counts. If only some of the trigrams with that count are needed,
+     * the first ones in lexicographic order are selected.
+     */
+    private static LongCountMap filterCounts(LongCountMap vocabulary, double threshold) {
+        int[] values = new int[vocabulary.size()];
+        long[] total = new long[1];
+        int[] n = new int[1];
+
+        vocabulary.forEach((key, count) -> {
+            values[n[0]++] = count;
+            total[0] += count;
+        });
+
+        double size = total[0];
+
+        // (count of the last selected trigram, number of selected trigrams with that count)
+        long[] cutoff = select(values, size, threshold);
+
+        LongCountMap result = new LongCountMap();
+        if (cutoff == null)
+            return result;
+
+        int minCount = (int) cutoff[0];
+        int ties = (int) cutoff[1];
+
+        int tiesCount = 0;
+        for (int value : values) {
+            if (value == minCount)
+                tiesCount++;
+        }
+
+        long[] tiedKeys = new long[tiesCount];
+        n[0] = 0;
+
+        vocabulary.forEach((key, count) -> {
+            if (count > minCount)
+                result.increment(key);
+            else if (count == minCount)
+                tiedKeys[n[0]++] = key;
+        });
+
+        // trigrams are packed from the first char, so the order of the keys is the lexicographic one
+        if (ties < tiedKeys.length)
+            Arrays.sort(tiedKeys);
+
+        for (int i = 0; i < ties; i++)
+            result.increment(tiedKeys[i]);
+
+        return result;
+    }
+
+    private static long[] select(int[] values, double size, double threshold) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
 
-                Collections.sort(entries);
-                Collections.reverse(entries);
+        int lo = 0;
+        int hi = values.length;
+        long accumulator = 0;  // occurrences of the trigrams already known to be selected
 
-                double size = 0;
-                for (Entry e : entries)
-                    size += e.count;
+        while (lo < hi) {
+            int pivot = values[lo + random.nextInt(hi - lo)];
 
-                HashSet<String> result = new HashSet<>();
+            // three-way partition: [lo, gt) greater than pivot, [gt, lt) equal, [lt, hi) less
+            int gt = lo;
+            int lt = hi;
+            int i = lo;
+            long greater = 0;
 
-                double accumulator = 0;
-                for (Entry e : entries) {
-                    accumulator += e.count;
-                    result.add(e.term);
+            while (i < lt) {
+                int value = values[i];
 
-                    if ((accumulator / size) >= threshold)
-                        break;
+                if (value > pivot) {
+                    greater += value;
+                    swap(values, gt++, i++);
+                } else if (value < pivot) {
+                    swap(values, i, --lt);
+                } else {
+                    i++;
                 }
+            }
 
-                return result;
+            if ((accumulator + greater) / size >= threshold) {
+                hi = gt;
+            } else if ((accumulator + greater + (long) pivot * (lt - gt)) / size >= threshold) {
+                long selected = accumulator + greater;
+                long ties = 0;
+
+                do {
+                    selected += pivot;
+                    ties++;
+                } while (selected / size < threshold);
+
+                return new long[]{pivot, ties};
+            } else {
+                accumulator += greater + (long) pivot * (lt - gt);
+                lo = lt;
             }
+        }
 
-        };
+        return null;
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
     }
 
     private static final Pattern SKIP_CHARS_REGEX = Pattern.compile("[\\p{Punct}\\s]+");
@@ -86,26 +173,24 @@ public class RareNgramFilter implements CorpusFilter {
         return line;
     }
 
-    private static String[] tokenize(String string) {
+    private static int countTrigrams(String string) {
         int length = string.length();
         if (length < 3)
-            return new String[0];
-
-        int size = length - length % 3 - 2;
+            return 0;
 
-        String[] result = new String[size];
-
-        if (size > 0) {
-            for (int i = 0; i < size; i++)
-                result[i] = string.substring(i, i + 3);
-        }
+        return Math.max(0, length - length % 3 - 2);
+    }
 
-        return result;
+    /**
+     * @return the three chars starting at the given index, packed in the lower 48 bits of a long
+     */
+    private static long trigram(String string, int index) {
+        return ((long) string.charAt(index) << 32) | ((long) string.charAt(index + 1) << 16) | string.charAt(index + 2);
     }
 
     @Override
     public boolean accept(Language language, String line, int index) {
-        if (words == null)
+        if (vocabulary == null)
             return true;
 
         line = normalize(line);
@@ -118,11 +203,10 @@ public class RareNgramFilter implements CorpusFilter {
 
     private double match(String line) {
         int matches = 0;
-        int length = 0;
+        int length = countTrigrams(line);
 
-        for (String token : tokenize(line)) {
-            length++;
-            if (words.contains(token))
+        for (int i = 0; i < length; i++) {
+            if (vocabulary.contains(trigram(line, i)))
                 matches++;
         }
 
@@ -131,34 +215,7 @@ public class RareNgramFilter implements CorpusFilter {
 
     @Override
     public void clear() {
-        words = null;
-    }
-
-    private static final class Counter {
-
-        public long count = 0;
-
-    }
-
-    private static final class Entry implements Comparable<Entry> {
-
-        public final String term;
-        public final long count;
-
-        public Entry(String term, long count) {
-            this.term = term;
-            this.count = count;
-        }
-
-        @Override
-        public int compareTo(@NotNull Entry o) {
-            return Long.compare(count, o.count);
-        }
-
-        @Override
-        public String toString() {
-            return term + '(' + count + ')';
-        }
+        vocabulary = null;
     }
 
 }
@@ -38,7 +38,7 @@ public class DraftFilter implements MultilingualCorpusFilter {
                 lastTimestamp = timestamp;
 
                 filters.computeIfAbsent(tu.language, k -> new DraftFilterData())
-                        .add(tu.source, new TranslationCandidate(index, timestamp));
+                        .add(tu.source, index, timestamp.getTime());
             }
 
             @Override
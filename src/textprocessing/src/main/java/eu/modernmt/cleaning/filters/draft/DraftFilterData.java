@@ -1,76 +1,151 @@
 package eu.modernmt.cleaning.filters.draft;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.BitSet;
 
 /**
  * Created by davide on 31/07/17.
+ * <p>
+ * The translation candidates are stored as (source hash, timestamp, index) triples in parallel
+ * primitive arrays; compile() sorts them by hash and timestamp, and keeps the indexes of the
+ * accepted candidates in a bitset.
  */
 class DraftFilterData {
 
     private static final long MAX_TIME_BETWEEN_WORK_SESSIONS = 48L * 60L * 60L * 1000L; // 48 hours
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private long[] hashes = new long[INITIAL_CAPACITY];
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private int[] indexes = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private BitSet filter = null;
+
+    public void add(String source, int index, long timestamp) {
+        if (size == hashes.length) {
+            int capacity = hashes.length + (hashes.length >> 1);
+            hashes = Arrays.copyOf(hashes, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            indexes = Arrays.copyOf(indexes, capacity);
+        }
 
-    private HashMap<Long, ArrayList<TranslationCandidate>> candidatesMap = new HashMap<>();
-    private HashMap<Long, HashSet<Integer>> filter = null;
-
-    public void add(String source, TranslationCandidate candidate) {
-        candidatesMap.computeIfAbsent(hash(source), k -> new ArrayList<>())
-                .add(candidate);
+        hashes[size] = hash(source);
+        timestamps[size] = timestamp;
+        indexes[size] = index;
+        size++;
     }
 
     private static long hash(String string) {
         int length = string.length();
+        int hlen = length > 1 ? length / 2 : length;
 
-        String sx, dx;
-
-        if (length > 1) {
-            int hlen = length / 2;
+        // same as the hashCode() of the two halves of the string
+        int sx = 0;
+        for (int i = 0; i < hlen; i++)
+            sx = 31 * sx + string.charAt(i);
 
-            sx = string.substring(0, hlen);
-            dx = string.substring(hlen, length);
-        } else {
-            sx = string;
-            dx = "";
-        }
+        int dx = 0;
+        for (int i = hlen; i < length; i++)
+            dx = 31 * dx + string.charAt(i);
 
-        return (long) (sx.hashCode()) << 32 | (dx.hashCode()) & 0xFFFFFFFFL;
+        return (long) sx << 32 | dx & 0xFFFFFFFFL;
     }
 
     void compile() {
-        filter = new HashMap<>(candidatesMap.size());
-
-        for (Map.Entry<Long, ArrayList<TranslationCandidate>> entry : candidatesMap.entrySet()) {
-            ArrayList<TranslationCandidate> candidates = entry.getValue();
-            Collections.sort(candidates);
-
-            HashSet<Integer> filtered = new HashSet<>();
-            TranslationCandidate lastCandidate = null;
-
-            for (TranslationCandidate candidate : candidates) {
-                if (lastCandidate == null) {
-                    lastCandidate = candidate;
-                } else {
-                    if (candidate.timeDiff(lastCandidate) > MAX_TIME_BETWEEN_WORK_SESSIONS)
-                        filtered.add(lastCandidate.getIndex());
-                    lastCandidate = candidate;
-                }
-            }
+        sort(0, size);
+
+        filter = new BitSet();
 
-            if (lastCandidate != null)
-                filtered.add(lastCandidate.getIndex());
+        for (int i = 0; i < size; i++) {
+            // the last candidate of a work session (or of all the candidates) is accepted
+            boolean last = i + 1 == size || hashes[i + 1] != hashes[i] ||
+                    timestamps[i + 1] - timestamps[i] > MAX_TIME_BETWEEN_WORK_SESSIONS;
 
-            filter.put(entry.getKey(), filtered);
+            if (last)
+                filter.set(indexes[i]);
         }
 
-        candidatesMap.clear();
+        hashes = new long[0];
+        timestamps = new long[0];
+        indexes = new int[0];
+        size = 0;
     }
 
     boolean accept(String source, int index) {
-        HashSet<Integer> targets = filter.get(hash(source));
-        return targets != null && targets.contains(index);
+        return filter.get(index);
     }
 
     void clear() {
-        candidatesMap.clear();
+        hashes = new long[INITIAL_CAPACITY];
+        timestamps = new long[INITIAL_CAPACITY];
+        indexes = new int[INITIAL_CAPACITY];
+        size = 0;
         filter = null;
     }
+
+    // - Sorting by (hash, timestamp, index) ---------------------------------------------------------------------------
+
+    private int compare(int i, int j) {
+        int c = Long.compare(hashes[i], hashes[j]);
+        if (c == 0)
+            c = Long.compare(timestamps[i], timestamps[j]);
+        if (c == 0)
+            c = Integer.compare(indexes[i], indexes[j]);
+        return c;
+    }
+
+    private void swap(int i, int j) {
+        long hash = hashes[i];
+        hashes[i] = hashes[j];
+        hashes[j] = hash;
+
+        long timestamp = timestamps[i];
+        timestamps[i] = timestamps[j];
+        timestamps[j] = timestamp;
+
+        int index = indexes[i];
+        indexes[i] = indexes[j];
+        indexes[j] = index;
+    }
+
+    private void sort(int from, int to) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            // median of three, moved to "from"
+            int mid = (from + to) >>> 1;
+            int last = to - 1;
+            if (compare(mid, from) < 0) swap(mid, from);
+            if (compare(last, from) < 0) swap(last, from);
+            if (compare(last, mid) < 0) swap(last, mid);
+            swap(from, mid);
+
+            // keys are unique (indexes are), so a two-way partition is enough
+            int i = from + 1;
+            int j = last;
+            while (true) {
+                while (i <= j && compare(i, from) < 0) i++;
+                while (compare(j, from) > 0) j--;
+                if (i >= j)
+                    break;
+                swap(i++, j--);
+            }
+            swap(from, j);
+
+            // recurse on the smaller part to bound the stack depth
+            if (j - from < to - j - 1) {
+                sort(from, j);
+                from = j + 1;
+            } else {
+                sort(j + 1, to);
+                to = j;
+            }
+        }
+
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && compare(j, j - 1) < 0; j--)
+                swap(j, j - 1);
+        }
+    }
+
 }
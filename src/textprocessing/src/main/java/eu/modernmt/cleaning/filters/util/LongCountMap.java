@@ -0,0 +1,119 @@
+package eu.modernmt.cleaning.filters.util;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from non-negative long keys to int counts,
+ * storing its entries in two primitive arrays (12 bytes per slot, no object per entry).
+ * Counts saturate at Integer.MAX_VALUE.
+ */
+public class LongCountMap {
+
+    private static final long EMPTY = -1L;
+    private static final float LOAD_FACTOR = .6f;
+
+    private long[] keys;
+    private int[] counts;
+    private int mask;
+    private int size = 0;
+    private int resizeThreshold;
+
+    public LongCountMap() {
+        this(1024);
+    }
+
+    public LongCountMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        counts = new int[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private static int hash(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+
+    private int slot(long key) {
+        int slot = hash(key) & mask;
+
+        while (keys[slot] != EMPTY && keys[slot] != key)
+            slot = (slot + 1) & mask;
+
+        return slot;
+    }
+
+    public void increment(long key) {
+        add(key, 1);
+    }
+
+    public void add(long key, int delta) {
+        if (key < 0)
+            throw new IllegalArgumentException("Negative key: " + key);
+
+        int slot = slot(key);
+
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            counts[slot] = delta;
+
+            if (++size > resizeThreshold)
+                rehash();
+        } else {
+            long count = (long) counts[slot] + delta;
+            counts[slot] = count > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) count;
+        }
+    }
+
+    public int get(long key) {
+        if (key < 0)
+            return 0;
+
+        int slot = slot(key);
+        return keys[slot] == EMPTY ? 0 : counts[slot];
+    }
+
+    public boolean contains(long key) {
+        return key >= 0 && keys[slot(key)] != EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+
+        allocate(keys.length << 1);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    public interface EntryConsumer {
+
+        void accept(long key, int count);
+
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY)
+                consumer.accept(keys[i], counts[i]);
+        }
+    }
+
+}
@@ -21,6 +21,8 @@ public class IndexMap {
      * (positions is managed as a buffer, so as a data structure it has constant length.
      * Nonetheless, its constant length (positions.length) may not be the same as the length of its relevant portion)*/
     private int arrayLength;
+    /* spare array used by the single pass update; it is swapped with positions after each update*/
+    private int[] buffer;
 
     /**
      * This constructor generates an empty IndexMap object.
@@ -95,6 +97,8 @@ public class IndexMap {
 
         /*the length of the text to replace*/
         int oldLength = end - start;
+        /*the last relevant position before the update*/
+        int last = this.arrayLength - 1;
         /*the new length that the positions array must assume*/
         this.arrayLength = this.arrayLength - oldLength + newLength;
 
@@ -103,18 +107,24 @@ public class IndexMap {
             /*if necessary, replace the whole array with a new bigger one*/
             if (this.arrayLength > this.positions.length) {
                 int[] newArray = new int[arrayLength];
-                System.arraycopy(this.positions, 0, newArray, 0, start);
+                System.arraycopy(this.positions, 0, newArray, 0, last + 1);
                 this.positions = newArray;
             }
 
+            /*the position that follows the last character, before the loop below overwrites it*/
+            int lastValue = this.positions[last];
+
             /*shift rightwards the array portion that follows the end of the text to replace*/
-            shiftPortion(end, this.arrayLength, newLength - oldLength);
+            shiftPortion(end, last + 1, newLength - oldLength);
             /*update the positions between start and the new end
              * with values that distribute proportionally in relation to
-             * the values at start and at the end of the new portion*/
+             * the values at start and at the end of the new portion
+             * (the cells between end and the new end have not been overwritten by the shift,
+             * the ones that were past the end of the string are read as the last position)*/
             double ratio = ((double) newLength) / oldLength;
             for (int i = 1; i < newLength; i++) {
-                this.positions[start + i] = (int) Math.round(this.positions[start] + ((this.positions[start + i] - positions[start]) * ratio));
+                int value = start + i < last ? this.positions[start + i] : lastValue;
+                this.positions[start + i] = (int) Math.round(this.positions[start] + ((value - positions[start]) * ratio));
             }
         }
 
@@ -149,6 +159,74 @@ public class IndexMap {
         }
     }
 
+    /**
+     * This method applies a sequence of replacements in a single pass,
+     * building the new positions array in a spare buffer instead of shifting the array once per replacement.
+     * <p>
+     * Replacements must be sorted by start position and must not overlap:
+     * the result is the same of calling update(start, end, newLength) for every replacement,
+     * with positions adjusted by the offset of the previous ones.
+     *
+     * @param starts     the starting positions of the portions to transform, referred to the current string
+     * @param ends       the positions that follow the end of the portions to transform
+     * @param newLengths the lengths that the portions must assume
+     * @param count      the number of replacements
+     */
+    public void update(int[] starts, int[] ends, int[] newLengths, int count) {
+        int newArrayLength = this.arrayLength;
+        for (int k = 0; k < count; k++)
+            newArrayLength += newLengths[k] - (ends[k] - starts[k]);
+
+        if (this.buffer == null || this.buffer.length < newArrayLength)
+            this.buffer = new int[Math.max(newArrayLength, this.positions.length)];
+
+        int last = this.arrayLength - 1;
+        int src = 0;
+        int dst = 0;
+        int endValue = -1;
+
+        for (int k = 0; k < count; k++) {
+            int start = starts[k];
+            int end = ends[k];
+            int newLength = newLengths[k];
+            int oldLength = end - start;
+
+            /*copy the untouched portion that precedes the replacement*/
+            System.arraycopy(this.positions, src, this.buffer, dst, start - src);
+            dst += start - src;
+
+            if (newLength > 0) {
+                /*the replaced portion keeps its first value,
+                 * the others are distributed proportionally as in update(start, end, newLength)*/
+                this.buffer[dst] = this.positions[start];
+
+                double ratio = oldLength == 0 ? 0 : ((double) newLength) / oldLength;
+                for (int i = 1; i < newLength; i++) {
+                    int value = this.positions[Math.min(start + i, last)];
+                    this.buffer[dst + i] = (int) Math.round(this.positions[start] + ((value - this.positions[start]) * ratio));
+                }
+
+                dst += newLength;
+            } else if (start > 0 && end == last) {
+                /*a deletion at the end of the string leaves the value of its start as the last position*/
+                endValue = this.positions[start];
+            }
+
+            src = end;
+        }
+
+        /*copy the remaining portion, including the position that follows the last character*/
+        System.arraycopy(this.positions, src, this.buffer, dst, this.arrayLength - src);
+
+        if (endValue >= 0)
+            this.buffer[newArrayLength - 1] = endValue;
+
+        int[] swap = this.positions;
+        this.positions = this.buffer;
+        this.buffer = swap;
+        this.arrayLength = newArrayLength;
+    }
+
     /**
      * This method selects a portion of the array and
      * and shifts it backwards or forwards for a certain amount of positions.
@@ -21,7 +21,7 @@ import java.util.regex.Pattern;
  * <p>
  * The SentenceBuilder stores both
  * - the original version of the String, which is never altered
- * - the current version of the String, that can undergo changes (and is therefore implemented as a StringBuilder)
+ * - the current version of the String, that can undergo changes (and is therefore implemented as a reusable char buffer)
  * <p>
  * In order to perform String processing the SentenceBuilder employs one Editor,
  * that can update the current string by creating and committing Transformations.
@@ -36,7 +36,9 @@ import java.util.regex.Pattern;
  * <p>
  * In order to save memory and time, during all preprocessing activities for all strings
  * one and only one SentenceBuilder object is used.
- * After the generation of the Sentence for the current string it is just cleared and re-initialized.
+ * After the generation of the Sentence for the current string it is just cleared and re-initialized:
+ * buffers and Transformation objects are reused as well, so that in steady state
+ * editing a string does not allocate anything but the text of the generated tokens.
  */
 public class SentenceBuilder {
 
@@ -47,9 +49,19 @@ public class SentenceBuilder {
     private String originalString = null; // the original string to tokenize
     private final HashSet<Annotation> annotations = new HashSet<>();
     private final List<Transformation> transformations = new ArrayList<>(); // ordered list of committed transformations
-    private final StringBuilder currentString = new StringBuilder(); // latest string modified by transformations
+    private final List<Transformation> transformationsPool = new ArrayList<>(); // reusable Transformation objects
+    private char[] currentChars = new char[256]; // latest string modified by transformations
+    private char[] spareChars = new char[256]; // buffer used by commit to rebuild currentChars in a single pass
+    private int currentLength = 0; // length of the relevant portion of currentChars
+    private String currentString = ""; // cached String version of currentChars, null if outdated
     private final IndexMap indexMap = new IndexMap(); // map between indexes from currentString to originalString
 
+    /*reusable objects for the build() method*/
+    private static final Comparator<Transformation> START_COMPARATOR = Comparator.comparingInt(o -> o.start);
+    private final BitSet bitset = new BitSet();
+    private final StringBuilder originalText = new StringBuilder();
+    private final List<Transformation> tokenizableTransformations = new ArrayList<>();
+
     private final Editor editor = new Editor();
 
     /**
@@ -88,8 +100,11 @@ public class SentenceBuilder {
         this.originalString = string;
 
         /*at the beginning no transformations have been performed*/
-        this.currentString.setLength(0);
-        this.currentString.append(string);
+        this.currentLength = string.length();
+        if (this.currentChars.length < this.currentLength)
+            this.currentChars = new char[Math.max(this.currentLength, this.currentChars.length * 2)];
+        string.getChars(0, this.currentLength, this.currentChars, 0);
+        this.currentString = string;
 
         /*list of transformation lists generated by editors*/
         this.transformations.clear();
@@ -113,7 +128,8 @@ public class SentenceBuilder {
         this.originalString = null;
 
         /*at the beginning no transformations have been performed*/
-        this.currentString.setLength(0);
+        this.currentLength = 0;
+        this.currentString = "";
 
         /*list of transformation lists generated by editors*/
         this.transformations.clear();
@@ -136,6 +152,24 @@ public class SentenceBuilder {
         return this.editor.init();
     }
 
+    /**
+     * Adds a committed Transformation to the transformations list,
+     * reusing a Transformation object from the pool if available.
+     */
+    private void addTransformation(int start, int end, String text, String replacement, TokenFactory factory) {
+        int index = this.transformations.size();
+
+        Transformation transformation;
+        if (index < this.transformationsPool.size()) {
+            transformation = this.transformationsPool.get(index).set(start, end, text, replacement, factory);
+        } else {
+            transformation = new Transformation(start, end, text, replacement, factory);
+            this.transformationsPool.add(transformation);
+        }
+
+        this.transformations.add(transformation);
+    }
+
     /**
      * Method that scans all transformations committed by the editor;
      * it selects the non-in-conflict transformations with highest priority,
@@ -192,10 +226,9 @@ public class SentenceBuilder {
         /*Create a bitset with as many bits as the positions in originalString
          * the bitset is employed to remember, for each position in the original string,
          * whether the corresponding character has been altered by a transformation or not*/
-        BitSet bitset = new BitSet(this.originalString.length());
-
-        StringBuilder originalText = new StringBuilder();
-        List<Transformation> result = new ArrayList<>();
+        bitset.clear();
+        List<Transformation> result = this.tokenizableTransformations;
+        result.clear();
 
         for (Transformation transformation : transformations) {
             if (transformation.tokenFactory == null)  // skip simple replacements
@@ -204,6 +237,7 @@ public class SentenceBuilder {
             originalText.setLength(0);
             int start = -1;
             int end = transformation.end;
+            boolean overlapping = false;
 
             // Iterate over positions covered by the transformation and adjust its start and end position
             // in order to avoid overlapping with higher-priority tokens
@@ -211,8 +245,15 @@ public class SentenceBuilder {
                 if (!bitset.get(i)) { // position is available
                     if (start < 0) start = i;
                     bitset.set(i, true);
-                    originalText.append(this.originalString.charAt(i));
+                    if (overlapping)
+                        originalText.append(this.originalString.charAt(i));
                 } else {
+                    if (!overlapping) {
+                        // available chars collected so far are contiguous
+                        overlapping = true;
+                        if (start >= 0)
+                            originalText.append(this.originalString, start, i);
+                    }
                     if (start >= 0 && end > i) end = i;
                 }
             }
@@ -220,13 +261,15 @@ public class SentenceBuilder {
             if (start < 0) // not even one char is available
                 continue;
 
+            // without overlaps the original text is a plain substring of the original string
+            transformation.originalText = overlapping ?
+                    originalText.toString() : this.originalString.substring(start, transformation.end);
             transformation.start = start;
             transformation.end = end;
-            transformation.originalText = originalText.toString();
             result.add(transformation);
         }
 
-        result.sort(Comparator.comparingInt(o -> o.start));  // sort by increasing start position
+        result.sort(START_COMPARATOR);  // sort by increasing start position
         return result;
     }
 
@@ -241,8 +284,6 @@ public class SentenceBuilder {
      * for each Token type generated (e.g. words, tags, etc).
      */
     private static Sentence tokenize(String string, List<Transformation> transformations) {
-        char[] chars = string.toCharArray();
-
         List<Word> words = new ArrayList<>(transformations.size());
         List<Tag> tags = new ArrayList<>(transformations.size());
 
@@ -310,13 +351,13 @@ public class SentenceBuilder {
             }
 
             if (length > 0)
-                leftSpace = extractWhitespace(new String(chars, fromPosition, length));
+                leftSpace = extractWhitespace(string, fromPosition, fromPosition + length);
 
             /*compute hasRightSpace and rightSpace*/
             if (i == transformations.size() - 1) {
                 /*if the current transformation is the last one in the list*/
                 fromPosition = transformation.end;
-                length = chars.length - fromPosition;
+                length = string.length() - fromPosition;
             } else {
                 /*if the current transformation is not the last one in the list*/
                 Transformation nextTransformation = transformations.get(i + 1);
@@ -332,7 +373,7 @@ public class SentenceBuilder {
             }
 
             if (length > 0)
-                rightSpace = extractWhitespace(new String(chars, fromPosition, length));
+                rightSpace = extractWhitespace(string, fromPosition, fromPosition + length);
 
             /*compute tagPosition*/
             /*the current tag position is the amount of words in the words list*/
@@ -368,6 +409,24 @@ public class SentenceBuilder {
         return new Sentence(words.toArray(new Word[0]), tags.toArray(new Tag[0]));
     }
 
+    private static String extractWhitespace(String string, int start, int end) {
+        /*fast path for the common case of a plain whitespace sequence, with no XML entities to unescape*/
+        boolean whitespaceOnly = true;
+        for (int i = start; i < end; i++) {
+            char c = string.charAt(i);
+
+            if (c == '&')
+                return extractWhitespace(string.substring(start, end));
+            if (!Character.isWhitespace(c))
+                whitespaceOnly = false;
+        }
+
+        if (whitespaceOnly)
+            return (end - start == 1 && string.charAt(start) == ' ') ? " " : string.substring(start, end);
+        else
+            return extractWhitespace(string.substring(start, end));
+    }
+
     private static String extractWhitespace(String string) {
         string = XMLCharacterEntity.unescapeAll(string);
         string = NOT_WHITESPACE.matcher(string).replaceAll("");
@@ -383,15 +442,13 @@ public class SentenceBuilder {
 
     @Override
     public String toString() {
-        return this.currentString.toString();
+        if (this.currentString == null)
+            this.currentString = new String(this.currentChars, 0, this.currentLength);
+        return this.currentString;
     }
 
     public char[] toCharArray() {
-        int l = currentString.length();
-        char[] buffer = new char[l];
-        currentString.getChars(0, l, buffer, 0);
-
-        return buffer;
+        return Arrays.copyOf(this.currentChars, this.currentLength);
     }
 
 
@@ -425,9 +482,23 @@ public class SentenceBuilder {
      * to make them match the right position in the original string, not the current one
      * - adds all the transformations to the SenteceBuilder transformations list
      * - gets ready for serving a new client.
+     * <p>
+     * Edits are stored in parallel primitive arrays that are reused across commits;
+     * Transformation objects are only created (or taken from the pool) for the edits that generate tokens.
      */
     public class Editor {
-        private final List<Transformation> localTransformations = new ArrayList<>();
+        /*edits requested by the current client, with indexes referring to the current string*/
+        private int size = 0;
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private String[] replacements = new String[16];
+        private TokenFactory[] factories = new TokenFactory[16];
+
+        /*replacements in the format expected by IndexMap.update(int[], int[], int[], int)*/
+        private int[] replaceStarts = new int[16];
+        private int[] replaceEnds = new int[16];
+        private int[] replaceLengths = new int[16];
+
         private boolean inUse = false;
 
         /**
@@ -453,7 +524,7 @@ public class SentenceBuilder {
                 throw new IllegalStateException("this Editor is already in use");
             }
 
-            this.localTransformations.clear();
+            this.size = 0;
             this.inUse = true;
 
             return this;
@@ -465,9 +536,8 @@ public class SentenceBuilder {
          * a replacement string (null is no replacement is involved in the Transformation),
          * and a reference to the token factory to use during build (null for simple replacements).
          * <p>
-         * The Editor now proceeds to create a Transformation object
+         * The Editor now proceeds to store the edit
          * with indexes referring to the currentString in the SentenceBuilder.
-         * and stores it in the Transformation in a local list.
          * <p>
          * Potential replacements are not executed contextually to the SetTransformation method;
          * they are handled during the commit method instead.
@@ -490,22 +560,28 @@ public class SentenceBuilder {
 
             /*check if the transformation involves an empty replacement in the middle of the string*/
             if (replacement != null && replacement.length() == 0) {
-                if (!(currentStart == 0 || currentEnd == currentString.length()))
+                if (!(currentStart == 0 || currentEnd == currentLength))
                     throw new UnsupportedOperationException("Empty replacements not yet supported in the middle of the sencence");
             }
 
-            /*the text that is target to this transformation*/
-            String text = currentString.substring(currentStart, currentEnd);
+            if (this.size == this.starts.length)
+                this.grow(this.size * 2);
 
-            /*create the transformation using the positions in the original string*/
-            Transformation transformation = new Transformation(
-                    currentStart,
-                    currentEnd,
-                    text,
-                    replacement,
-                    factory);
+            this.starts[size] = currentStart;
+            this.ends[size] = currentEnd;
+            this.replacements[size] = replacement;
+            this.factories[size] = factory;
+            this.size++;
+        }
 
-            this.localTransformations.add(transformation);
+        private void grow(int capacity) {
+            this.starts = Arrays.copyOf(this.starts, capacity);
+            this.ends = Arrays.copyOf(this.ends, capacity);
+            this.replacements = Arrays.copyOf(this.replacements, capacity);
+            this.factories = Arrays.copyOf(this.factories, capacity);
+            this.replaceStarts = Arrays.copyOf(this.replaceStarts, capacity);
+            this.replaceEnds = Arrays.copyOf(this.replaceEnds, capacity);
+            this.replaceLengths = Arrays.copyOf(this.replaceLengths, capacity);
         }
 
         /**
@@ -613,43 +689,145 @@ public class SentenceBuilder {
          * and prepares for new scan.
          */
         public SentenceBuilder commit() {
+            if (this.isSorted())
+                this.commitInSinglePass();
+            else
+                this.commitInOrder();
+
+            /*make the editor ready to start over with a new client*/
+            this.reset();
+
+            return SentenceBuilder.this;
+        }
+
+        /**
+         * Checks whether each edit starts after the end of all the replacements that precede it in the list:
+         * this is always the case for edits requested while scanning the string from left to right.
+         * In this case all the edits can be applied in a single pass,
+         * since no edit depends on the result of the previous replacements.
+         */
+        private boolean isSorted() {
+            int limit = 0;
+            for (int k = 0; k < this.size; k++) {
+                if (this.starts[k] < limit)
+                    return false;
+                if (this.replacements[k] != null)
+                    limit = this.ends[k];
+            }
+
+            return true;
+        }
+
+        /**
+         * Applies all the edits with a single copy of the current string and a single update of the IndexMap.
+         */
+        private void commitInSinglePass() {
+            int newLength = currentLength;
+            for (int k = 0; k < this.size; k++) {
+                if (this.replacements[k] != null)
+                    newLength += this.replacements[k].length() - (this.ends[k] - this.starts[k]);
+            }
+
+            if (spareChars.length < newLength)
+                spareChars = new char[Math.max(newLength, spareChars.length * 2)];
+
+            int count = 0;
+            int src = 0;
+            int dst = 0;
+
+            for (int k = 0; k < this.size; k++) {
+                int start = this.starts[k];
+                int end = this.ends[k];
+                String replacement = this.replacements[k];
+
+                /*positions are translated with the IndexMap as it was before this commit*/
+                if (this.factories[k] != null) {
+                    addTransformation(indexMap.get(start), indexMap.get(end),
+                            new String(currentChars, start, end - start), replacement, this.factories[k]);
+                }
+
+                if (replacement != null) {
+                    System.arraycopy(currentChars, src, spareChars, dst, start - src);
+                    dst += start - src;
+                    replacement.getChars(0, replacement.length(), spareChars, dst);
+                    dst += replacement.length();
+                    src = end;
+
+                    this.replaceStarts[count] = start;
+                    this.replaceEnds[count] = end;
+                    this.replaceLengths[count] = replacement.length();
+                    count++;
+                }
+            }
+
+            if (count == 0)
+                return;
+
+            System.arraycopy(currentChars, src, spareChars, dst, currentLength - src);
+
+            char[] swap = currentChars;
+            currentChars = spareChars;
+            spareChars = swap;
+            currentLength = newLength;
+            currentString = null;
+
+            indexMap.update(this.replaceStarts, this.replaceEnds, this.replaceLengths, count);
+        }
+
+        /**
+         * Applies the edits one at a time, in the order they have been requested.
+         * For each edit, an offset computed from the previous replacements
+         * leads from the positions on the string seen by the client to the positions on the current string.
+         */
+        private void commitInOrder() {
+            /*the text of each transformation, as seen by the client*/
+            String[] texts = new String[this.size];
+            for (int k = 0; k < this.size; k++)
+                texts[k] = new String(currentChars, this.starts[k], this.ends[k] - this.starts[k]);
 
             /*distance between the current String and the original String transformation*/
             int offset = 0;
 
-            /*executes replacements*/
-            for (Transformation t : this.localTransformations) {
+            for (int k = 0; k < this.size; k++) {
+                String replacement = this.replacements[k];
 
-                /*computes the transformation start on the currentString*/
-                int currentStart = t.start + offset;
-                /*computes the transformation end on the currentString*/
-                int currentEnd = t.end + offset;
-                /*computes the transformation start on the originalString*/
-                t.start = indexMap.get(currentStart);
-                /*computes the transformation end on the originalString*/
-                t.end = indexMap.get(currentEnd);
+                /*computes the transformation start and end on the currentString*/
+                int currentStart = this.starts[k] + offset;
+                int currentEnd = this.ends[k] + offset;
+
+                /*computes the transformation start and end on the originalString*/
+                if (this.factories[k] != null) {
+                    addTransformation(indexMap.get(currentStart), indexMap.get(currentEnd),
+                            texts[k], replacement, this.factories[k]);
+                }
 
                 /*process replacement, if necessary*/
-                if (t.replacement != null) {
-                    /*replace the symbols on the currentString*/
-                    currentString.replace(currentStart, currentEnd, t.replacement);
-                    /*update the mapping information in the indexMap:
-                     * the portion from currentStart to currentEnd
-                     * has become t.replacement.length() long*/
-                    indexMap.update(currentStart, currentEnd, t.replacement.length());
-                    /*since the replacement was now completed,
-                     * the following transformation must now use a different offset*/
-                    offset = offset - t.text.length() + t.replacement.length();
+                if (replacement != null) {
+                    applyReplacement(currentStart, currentEnd, replacement);
+                    indexMap.update(currentStart, currentEnd, replacement.length());
+                    offset = offset - texts[k].length() + replacement.length();
                 }
             }
-            /*add this Editor's transformation list to the SentenceBuilder Transformation lists*/
-            transformations.addAll(this.localTransformations);
+        }
 
-            /*make the editor ready to start over with a new client*/
-            localTransformations.clear();
-            this.inUse = false;
+        private void applyReplacement(int start, int end, String replacement) {
+            int newLength = currentLength - (end - start) + replacement.length();
+            if (currentChars.length < newLength)
+                currentChars = Arrays.copyOf(currentChars, Math.max(newLength, currentChars.length * 2));
 
-            return SentenceBuilder.this;
+            System.arraycopy(currentChars, end, currentChars, start + replacement.length(), currentLength - end);
+            replacement.getChars(0, replacement.length(), currentChars, start);
+
+            currentLength = newLength;
+            currentString = null;
+        }
+
+        private void reset() {
+            /*release references to replacement strings and factories*/
+            Arrays.fill(this.replacements, 0, this.size, null);
+            Arrays.fill(this.factories, 0, this.size, null);
+            this.size = 0;
+            this.inUse = false;
         }
 
         /**
@@ -662,8 +840,7 @@ public class SentenceBuilder {
          */
         public void abort() {
             /*make the editor ready to start over*/
-            localTransformations.clear();
-            this.inUse = false;
+            this.reset();
         }
     }
 }
\ No newline at end of file
@@ -31,9 +31,9 @@ import java.util.BitSet;
 public class Transformation {
     public int start;      // start index on the original string
     public int end;        //end index on the original string
-    public final String text;        //string to edit
-    public final String replacement; //string to use to replace text
-    public final TokenFactory tokenFactory;
+    public String text;        //string to edit
+    public String replacement; //string to use to replace text
+    public TokenFactory tokenFactory;
     public String originalText = null;
 
     /**
@@ -51,11 +51,27 @@ public class Transformation {
                           String text,
                           String replacement,
                           TokenFactory tokenFactory) {
+        this.set(start, end, text, replacement, tokenFactory);
+    }
+
+    /**
+     * Overwrites all the fields of this Transformation,
+     * so that the SentenceBuilder can reuse the same object for a new string.
+     *
+     * @return this Transformation
+     */
+    Transformation set(int start,
+                       int end,
+                       String text,
+                       String replacement,
+                       TokenFactory tokenFactory) {
         this.start = start;
         this.end = end;
         this.text = text;
         this.replacement = replacement;
         this.tokenFactory = tokenFactory;
+        this.originalText = null;
+        return this;
     }
 
     /**
@@ -303,6 +303,9 @@ public class XMLCharacterEntity {
     }
 
     public static String unescapeAll(String line) throws IllegalArgumentException {
+        if (line.indexOf('&') < 0)
+            return line;
+
         char[] chars = null;
         StringBuilder builder = null;
 
@@ -1,39 +1,80 @@
 package eu.modernmt.processing.tags.projection;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class Alignment {
 
-    private List<Coverage> alignment;
+    // target positions of source word i are targets[offsets[i]] ... targets[offsets[i + 1] - 1],
+    // without duplicates and in the order they appear in the model alignment
+    private final int[] offsets;
+    private final int[] targets;
 
     Alignment(eu.modernmt.model.Alignment a, int sourceWords, int targetWords) {
-        this.alignment = new ArrayList<>(sourceWords + 1);
-        //create an empty Coverage for each source word; they may remain empty
+        int[] sourceIndexes = a.getSourceIndexes();
+        int[] targetIndexes = a.getTargetIndexes();
+
         //an additional position is reserved for (sourceWords+1) which is used for tags anchored to the end of the sentence
-        for (int i = 0; i < sourceWords + 1; i++) {
-            this.alignment.add(new Coverage());
-        }
+        this.offsets = new int[sourceWords + 2];
+        this.targets = new int[sourceIndexes.length + 1];
+
+        //count the alignment points of each source word; they may remain empty
+        for (int source : sourceIndexes)
+            this.offsets[source + 1]++;
+        this.offsets[sourceWords + 1]++;
+        for (int i = 1; i < offsets.length; i++)
+            this.offsets[i] += this.offsets[i - 1];
+
         //populate the coverage for each source word
-        for (int i = 0; i < a.getSourceIndexes().length; i++) {
-            this.alignment.get(a.getSourceIndexes()[i]).add(a.getTargetIndexes()[i]);
-        }
+        int[] sizes = new int[sourceWords + 1];
+        for (int i = 0; i < sourceIndexes.length; i++)
+            add(sizes, sourceIndexes[i], targetIndexes[i]);
+
         //create an artificial alignment point between positions (sourceWords) and (targetWords) (first words after the sentence
-        this.alignment.get(sourceWords).add(targetWords);
+        add(sizes, sourceWords, targetWords);
+
+        //compact the rows left with empty slots by duplicated points
+        int length = 0;
+        for (int i = 0; i <= sourceWords; i++) {
+            int begin = this.offsets[i];
+            this.offsets[i] = length;
+            System.arraycopy(this.targets, begin, this.targets, length, sizes[i]);
+            length += sizes[i];
+        }
+        this.offsets[sourceWords + 1] = length;
+    }
+
+    private void add(int[] sizes, int source, int target) {
+        int begin = offsets[source];
+        int end = begin + sizes[source];
+
+        for (int i = begin; i < end; i++) {
+            if (targets[i] == target)
+                return;
+        }
+
+        targets[end] = target;
+        sizes[source]++;
+    }
+
+    protected int size(int pos) {
+        return this.offsets[pos + 1] - this.offsets[pos];
+    }
+
+    protected int first(int pos) {
+        return this.targets[this.offsets[pos]];
     }
 
-    protected Coverage get(int pos) {
-        return this.alignment.get(pos);
+    protected void addTo(Coverage coverage, int pos) {
+        coverage.addAll(this.targets, this.offsets[pos], this.offsets[pos + 1]);
     }
 
     public int size() {
-        return this.alignment.size();
+        return this.offsets.length - 1;
     }
 
     public void print() {
-        for (int i = 0; i < alignment.size(); i++) {
-            Coverage coverage = alignment.get(i);
-            if (!coverage.isEmpty()) {
+        for (int i = 0; i < size(); i++) {
+            if (size(i) > 0) {
+                Coverage coverage = new Coverage(size(i));
+                addTo(coverage, i);
                 System.out.print(i + ":" + coverage.toString() + ", ");
             }
         }
@@ -2,57 +2,123 @@ package eu.modernmt.processing.tags.projection;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 public class Coverage implements Iterable<Integer> {
 
-    private ArrayList<Integer> positions;
+    // positions are kept in insertion order in a primitive array;
+    // "sorted" tracks whether they are also in non-decreasing order,
+    // which is the common case and allows binary search and O(1) min/max
+    private int[] positions;
+    private int size;
+    private boolean sorted;
 
     Coverage() {
-        this.positions = new ArrayList<>();
+        this(8);
     }
 
     Coverage(int size) {
-        this.positions = new ArrayList<>(size);
+        this.positions = new int[Math.max(size, 1)];
+        this.size = 0;
+        this.sorted = true;
     }
 
     Coverage(Coverage c) {
-        this.positions = new ArrayList<>(c.size());
-        this.positions.addAll(c.getPositions());
+        this.positions = Arrays.copyOf(c.positions, Math.max(c.size, 1));
+        this.size = c.size;
+        this.sorted = c.sorted;
+    }
+
+    static Coverage range(int begin, int end) {
+        Coverage range = new Coverage(end - begin);
+        for (int i = begin; i < end; i++)
+            range.positions[range.size++] = i;
+        return range;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > positions.length)
+            positions = Arrays.copyOf(positions, Math.max(capacity, positions.length * 2));
+    }
+
+    private void append(int pos) {
+        if (sorted && size > 0 && pos < positions[size - 1])
+            sorted = false;
+
+        ensureCapacity(size + 1);
+        positions[size++] = pos;
+    }
+
+    private int indexOf(int pos) {
+        if (sorted) {
+            int index = Arrays.binarySearch(positions, 0, size, pos);
+            if (index < 0)
+                return -1;
+
+            // duplicates may be present before uniq(): return the first occurrence
+            while (index > 0 && positions[index - 1] == pos)
+                index--;
+            return index;
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (positions[i] == pos)
+                    return i;
+            }
+            return -1;
+        }
     }
 
     protected boolean isEmpty() {
-        return this.positions.isEmpty();
+        return this.size == 0;
     }
 
     protected int get(int i) {
-        return this.positions.get(i);
+        if (i >= size)
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        return this.positions[i];
     }
 
     protected boolean add(int pos) {
-        if (!this.positions.contains(pos)) {
-            return this.positions.add(pos);
+        if (indexOf(pos) < 0) {
+            append(pos);
+            return true;
         } else {
             return false;
         }
     }
 
-    boolean remove(Integer chosenP) {
-        return this.positions.remove(chosenP);
+    boolean remove(int chosenP) {
+        int index = indexOf(chosenP);
+        if (index < 0)
+            return false;
+
+        System.arraycopy(positions, index + 1, positions, index, size - index - 1);
+        size--;
+        return true;
     }
 
     void clear() {
-        this.positions.clear();
+        this.size = 0;
+        this.sorted = true;
     }
 
     void addAll(Coverage c) {
-        this.positions.addAll(c.getPositions());
+        addAll(c.positions, 0, c.size);
+    }
+
+    void addAll(int[] values, int from, int to) {
+        ensureCapacity(size + to - from);
+        for (int i = from; i < to; i++)
+            append(values[i]);
     }
 
     static Coverage intersection(Coverage c1, Coverage c2) {
         // create the intersection between c1 and c2
-        Coverage intersection = new Coverage();
-        for (int pos : c1) {
+        Coverage intersection = new Coverage(Math.min(c1.size, c2.size));
+        for (int i = 0; i < c1.size; i++) {
+            int pos = c1.positions[i];
             if (c2.contains(pos)) {
                 intersection.add(pos);
             }
@@ -63,8 +129,9 @@ public class Coverage implements Iterable<Integer> {
 
     static Coverage difference(Coverage c1, Coverage c2) {
         // create the difference c1 / c2
-        Coverage difference = new Coverage();
-        for (int pos : c1) {
+        Coverage difference = new Coverage(c1.size);
+        for (int i = 0; i < c1.size; i++) {
+            int pos = c1.positions[i];
             if (!c2.contains(pos)) {
                 difference.add(pos);
             }
@@ -73,39 +140,59 @@ public class Coverage implements Iterable<Integer> {
         return difference;
     }
 
-    boolean contains(Integer pos) {
+    static boolean intersects(Coverage c1, Coverage c2) {
+        // true if the contiguous closures of c1 and c2 share at least one position
+        return c1.size > 0 && c2.size > 0 && c1.getMin() <= c2.getMax() && c2.getMin() <= c1.getMax();
+    }
+
+    boolean contains(int pos) {
         if (pos < 0) return false;
-        return this.positions.contains(pos);
+        return indexOf(pos) >= 0;
     }
 
     static Coverage contiguous(Coverage c) {
-        Coverage contiguous = new Coverage(c.size());
-        if (c.size() > 0) {
-            for (int i = c.getMin(); i <= c.getMax(); i++) {
-                contiguous.add(i);
-            }
+        if (c.size > 0) {
+            return range(c.getMin(), c.getMax() + 1);
+        } else {
+            return new Coverage(0);
         }
-        return contiguous;
     }
 
     void sort() {
-        Collections.sort(this.positions);
-    }
-
-    ArrayList<Integer> getPositions() {
-        return this.positions;
+        if (!sorted) {
+            Arrays.sort(this.positions, 0, size);
+            sorted = true;
+        }
     }
 
     int size() {
-        return positions.size();
+        return size;
     }
 
     int getMin() {
-        return Collections.min(this.positions);
+        if (size == 0)
+            throw new NoSuchElementException();
+
+        if (sorted)
+            return positions[0];
+
+        int min = positions[0];
+        for (int i = 1; i < size; i++)
+            min = Math.min(min, positions[i]);
+        return min;
     }
 
     int getMax() {
-        return Collections.max(this.positions);
+        if (size == 0)
+            throw new NoSuchElementException();
+
+        if (sorted)
+            return positions[size - 1];
+
+        int max = positions[0];
+        for (int i = 1; i < size; i++)
+            max = Math.max(max, positions[i]);
+        return max;
     }
 
     public static int choosePosition(Coverage c1, Coverage c2) {
@@ -140,12 +227,12 @@ public class Coverage implements Iterable<Integer> {
 
             @Override
             public boolean hasNext() {
-                return index < positions.size();
+                return index < size;
             }
 
             @Override
             public Integer next() {
-                int pos = positions.get(index);
+                int pos = positions[index];
                 index++;
                 return pos;
             }
@@ -153,29 +240,53 @@ public class Coverage implements Iterable<Integer> {
     }
 
     public String toString() {
-        return this.positions.toString();
+        StringBuilder str = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) str.append(", ");
+            str.append(positions[i]);
+        }
+        return str.append(']').toString();
     }
 
     public int first() {
-        return this.positions.get(0);
+        return get(0);
     }
 
     public int last() {
-        return this.positions.get(size() - 1);
+        return get(size - 1);
     }
 
     void uniq() {
-        Set<Integer> set = new LinkedHashSet<>(this.positions);
-
-        // Clear the list
-        this.positions.clear();
+        // keeps the first occurrence of every position
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            int pos = positions[i];
+
+            boolean duplicate;
+            if (sorted) {
+                duplicate = length > 0 && positions[length - 1] == pos;
+            } else {
+                duplicate = false;
+                for (int j = 0; j < length; j++) {
+                    if (positions[j] == pos) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+            }
 
-        // add the elements of set
-        // with no duplicates to the list
-        this.positions.addAll(set);
+            if (!duplicate)
+                positions[length++] = pos;
+        }
+        size = length;
     }
 
     void retainAll(Coverage c) {
-        this.positions.retainAll(c.getPositions());
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            if (c.indexOf(positions[i]) >= 0)
+                positions[length++] = positions[i];
+        }
+        size = length;
     }
 }
@@ -20,9 +20,7 @@ class Span implements Comparable<Span> {
         int begin = Math.min(Math.max(0, getBegin()), words);
         int end = Math.min(words, getEnd());
 
-        this.positions = new Coverage(end - begin);
-        for (int i = begin; i < end; i++)
-            this.positions.add(i);
+        this.positions = Coverage.range(begin, end);
 
         this.anchor = beginTag == null ? getEnd() : getBegin();
     }
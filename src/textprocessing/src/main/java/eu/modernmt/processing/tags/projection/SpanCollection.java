@@ -228,9 +228,10 @@ class SpanCollection implements Iterable<Span> {
                 targetSpan.setAnchor(0);
             } else {
                 //compute and set new positions
-                Coverage newPositions = new Coverage();
-                for (int pos : sourceSpan.getPositions()) {
-                    newPositions.addAll(alignment.get(pos));
+                Coverage sourcePositions = sourceSpan.getPositions();
+                Coverage newPositions = new Coverage(sourcePositions.size() * 2);
+                for (int i = 0; i < sourcePositions.size(); i++) {
+                    alignment.addTo(newPositions, sourcePositions.get(i));
                 }
                 newPositions.uniq();
                 newPositions.sort();
@@ -262,8 +263,8 @@ class SpanCollection implements Iterable<Span> {
                     targetSpan.setAnchor(targetSpan.getPositions().get(0));
                 } else {
                     int sourceAnchor = sourceSpan.getAnchor();
-                    if (alignment.get(sourceAnchor).size() > 0) {
-                        targetSpan.setAnchor(alignment.get(sourceAnchor).first());
+                    if (alignment.size(sourceAnchor) > 0) {
+                        targetSpan.setAnchor(alignment.first(sourceAnchor));
                     } else {
                         targetSpan.setAnchor(-1);
                     }
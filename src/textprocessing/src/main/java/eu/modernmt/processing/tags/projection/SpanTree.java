@@ -8,6 +8,7 @@ class SpanTree {
         private List<Node> children = new ArrayList<>();
         private Node parent = null;
         private Span data;
+        private boolean fixed = false;
 
         Node(Span data) {
             this.data = new Span(data);
@@ -54,6 +55,14 @@ class SpanTree {
             return (this.parent == null);
         }
 
+        boolean isFixed() {
+            return fixed;
+        }
+
+        void setFixed() {
+            this.fixed = true;
+        }
+
         boolean isLeaf() {
             return this.children.size() == 0;
         }
@@ -115,17 +124,17 @@ class SpanTree {
     }
 
     protected void create() {
-        List<Integer> spanVisit = new ArrayList<>();
+        boolean[] spanVisit = new boolean[spans.size()];
         this.root = create(ROOT_INDEX, spanVisit);
         fixChildrenPositions(this.root);
         this.sort();
     }
 
-    protected Node create(int spanIdx, List<Integer> spanVisit) {
+    protected Node create(int spanIdx, boolean[] spanVisit) {
         Node root = new Node(spans.get(spanIdx));
         int rootLevel = root.getData().getLevel();
 
-        spanVisit.add(spanIdx);
+        spanVisit[spanIdx] = true;
 
         int firstChildIdx = spanIdx + 1;
         //search for the first span on the right which has level = root.getLevel()+1, but is not child of a sibling
@@ -139,7 +148,7 @@ class SpanTree {
         // consider all spans from firstChildIdx to the last span
         int idx = firstChildIdx;
         while (idx < spans.size()) {
-            if (!spanVisit.contains(idx)) {
+            if (!spanVisit[idx]) {
                 Span span = spans.get(idx);
                 assert (span.getLevel() >= root.getData().getLevel());
                 if (span.getLevel() <= root.getData().getLevel()) {
@@ -167,7 +176,7 @@ class SpanTree {
         idx = 0;
         while (idx <= firstChildIdx) {
 
-            if (!spanVisit.contains(idx)) {
+            if (!spanVisit[idx]) {
                 Span span = spans.get(idx);
                 assert (span.getLevel() >= root.getData().getLevel());
                 if (span.getLevel() <= root.getData().getLevel()) {
@@ -187,8 +196,7 @@ class SpanTree {
     protected void project(SpanTree sourceTree, SpanCollection sourceSpans) {
         this.root = sourceTree.getRoot().clone(this.spans);
 
-        Set<Node> nodeVisit = new HashSet<>();
-        fixNode(this.root, nodeVisit, sourceSpans);
+        fixNode(this.root, sourceSpans);
         fixAnchors(this.root, sourceSpans);
     }
 
@@ -280,11 +288,8 @@ class SpanTree {
     }
 
     static private void fixChildrenPositions(Node parent, Node child) {
-        Coverage positions = Coverage.difference(child.getData().getPositions(), parent.getData().getPositions());
-        for (Integer pos : positions) {
-            // remove the positions from child not included in the parent (because already removed)
-            child.getData().getPositions().remove(pos);
-        }
+        // remove the positions from child not included in the parent (because already removed)
+        child.getData().getPositions().retainAll(parent.getData().getPositions());
     }
 
     static private boolean isArtificial(Node node) {
@@ -354,8 +359,7 @@ class SpanTree {
             modified = false;
             Coverage posI = childI.getData().getPositions();
             Coverage posJ = childJ.getData().getPositions();
-            Coverage positions = Coverage.intersection(Coverage.contiguous(posI), Coverage.contiguous(posJ));
-            if (!positions.isEmpty()) {
+            if (Coverage.intersects(posI, posJ)) {
                 // the two children overlap
                 // choose one point to exclude from either childI or childJ
                 // so that their intersection is minimal
@@ -382,14 +386,14 @@ class SpanTree {
         }
     }
 
-    static private void fixNode(Node node, Set<Node> nodeVisit, SpanCollection sourceSpans) {
-        if (nodeVisit.contains(node)) {
+    static private void fixNode(Node node, SpanCollection sourceSpans) {
+        if (node.isFixed()) {
             //do nothing
             return;
         }
         if (node.getChildren().size() == 0) { // there are no children
             //do nothing; just label as visited
-            nodeVisit.add(node);
+            node.setFixed();
         } else {
             //remove (recursively) positions of node's children not included in node
             fixChildrenPositions(node);
@@ -401,14 +405,14 @@ class SpanTree {
                 while (iteratorI.hasNext()) {
                     childI = iteratorI.next();
 
-                    if (nodeVisit.contains(childI))
+                    if (childI.isFixed())
                         //childI is already fixed
                         continue;
 
                     for (Node value : node.getChildren()) {
                         childJ = value;
 
-                        if (childI.getId() >= childJ.getId() || nodeVisit.contains(childJ))
+                        if (childI.getId() >= childJ.getId() || childJ.isFixed())
                             //childI and childJ are already considered or childJ is already fixed
                             continue;
 
@@ -421,14 +425,14 @@ class SpanTree {
                 while (iteratorI.hasNext()) {
                     childI = iteratorI.next();
 
-                    if (nodeVisit.contains(childI) || childrenToRemove.contains(childI))
+                    if (childI.isFixed() || childrenToRemove.contains(childI))
                         //childI is already fixed
                         continue;
 
                     for (Node value : node.getChildren()) {
                         childJ = value;
 
-                        if (childI.getId() >= childJ.getId() || nodeVisit.contains(childJ) || childrenToRemove.contains(childJ))
+                        if (childI.getId() >= childJ.getId() || childJ.isFixed() || childrenToRemove.contains(childJ))
                             //childI and childJ are already considered or childJ is already fixed ir childJ has to be removed from the chilren
                             continue;
 
@@ -447,14 +451,14 @@ class SpanTree {
                 while (iteratorI.hasNext()) {
                     childI = iteratorI.next();
 
-                    if (nodeVisit.contains(childI))
+                    if (childI.isFixed())
                         //childI is already fixed
                         continue;
 
                     for (Node value : node.getChildren()) {
                         childJ = value;
 
-                        if (childI.getId() >= childJ.getId() || nodeVisit.contains(childJ))
+                        if (childI.getId() >= childJ.getId() || childJ.isFixed())
                             //childI and childJ are already considered or childJ is already fixed
                             continue;
 
@@ -467,10 +471,10 @@ class SpanTree {
             fixAnchors(node, sourceSpans);
 
             // all children are fixed; label as visited
-            nodeVisit.add(node);
+            node.setFixed();
             for (Node child : node.getChildren()) {
                 //perform fixing on all children
-                fixNode(child, nodeVisit, sourceSpans);
+                fixNode(child, sourceSpans);
             }
         }
     }
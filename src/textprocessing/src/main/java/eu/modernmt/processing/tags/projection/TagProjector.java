@@ -2,6 +2,8 @@ package eu.modernmt.processing.tags.projection;
 
 import eu.modernmt.model.*;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.regex.Pattern;
 
 public class TagProjector {
@@ -18,23 +20,28 @@ public class TagProjector {
 
                     Word[] sourceWords = source.getWords();
                     Word[] translationWords = translation.getWords();
-                    TagCollection translationTags = new TagCollection();
-                    SpanCollection sourceSpans = new SpanCollection(sourceTags.getTags(), sourceWords.length);
+                    Alignment alignment = new Alignment(translation.getWordAlignment(), sourceWords.length, translationWords.length);
 
-                    SpanTree sourceTree = new SpanTree(sourceSpans);
-                    sourceTree.create();
+                    if (translationWords.length > 0 && isTriviallyProjectable(sourceTags)) {
+                        translation.setTags(projectTrivially(sourceTags, alignment, sourceWords.length, translationWords.length));
+                    } else {
+                        TagCollection translationTags = new TagCollection();
+                        SpanCollection sourceSpans = new SpanCollection(sourceTags.getTags(), sourceWords.length);
 
-                    Alignment alignment = new Alignment(translation.getWordAlignment(), sourceWords.length, translationWords.length);
+                        SpanTree sourceTree = new SpanTree(sourceSpans);
+                        sourceTree.create();
 
-                    SpanCollection translationSpans = new SpanCollection();
-                    translationSpans.project(sourceSpans, alignment, translationWords.length);
+                        SpanCollection translationSpans = new SpanCollection();
+                        translationSpans.project(sourceSpans, alignment, translationWords.length);
 
-                    SpanTree translationTree = new SpanTree(translationSpans);
-                    translationTree.project(sourceTree, sourceSpans);
-                    translationTree.sort();
-                    translationTags.populate(translationTree);
+                        SpanTree translationTree = new SpanTree(translationSpans);
+                        translationTree.project(sourceTree, sourceSpans);
+                        translationTree.sort();
+                        translationTags.populate(translationTree);
+
+                        translation.setTags(translationTags.toArray());
+                    }
 
-                    translation.setTags(translationTags.toArray());
                     simpleSpaceAnalysis(translation);
                 }
             } else { //there are no source words; just copy the source tags in the target tags
@@ -62,6 +69,70 @@ public class TagProjector {
         return translation;
     }
 
+    /**
+     * Returns true if no tag encloses any word: tags are only self-closing tags
+     * or well-nested opening/closing pairs with nothing but other tags in between
+     * (e.g. placeholders, line breaks, images).
+     * In this case every span is empty and the full span-tree projection
+     * simply moves each group of tags to the anchor of its source position.
+     */
+    private static boolean isTriviallyProjectable(TagCollection tags) {
+        int size = tags.size();
+        Tag[] stack = new Tag[size];
+        int depth = 0;
+
+        for (int i = 0; i < size; i++) {
+            Tag tag = tags.get(i);
+
+            switch (tag.getType()) {
+                case OPENING_TAG:
+                    stack[depth++] = tag;
+                    break;
+                case CLOSING_TAG:
+                    if (depth == 0)
+                        return false;
+                    Tag opening = stack[--depth];
+                    if (!opening.getName().equals(tag.getName()) || opening.getPosition() != tag.getPosition())
+                        return false;
+                    break;
+                case EMPTY_TAG:
+                    break;
+                default:
+                    return false;
+            }
+        }
+
+        return depth == 0;
+    }
+
+    /*
+     * Same anchors computed by SpanTree for empty spans: the first target word aligned to the source position,
+     * the end of the translation for tags at the end of the source sentence, or the relative position in the translation
+     * if the source word is not aligned. Tags are stable-sorted by anchor as SpanTree.sort() does.
+     */
+    private static Tag[] projectTrivially(TagCollection tags, Alignment alignment, int sourceWords, int targetWords) {
+        Tag[] result = new Tag[tags.size()];
+
+        for (int i = 0; i < result.length; i++) {
+            Tag tag = tags.get(i);
+            int position = tag.getPosition();
+
+            int anchor;
+            if (alignment.size(position) > 0) {
+                anchor = alignment.first(position);
+            } else {
+                float ratio = (float) position / sourceWords;
+                anchor = Math.round(targetWords * ratio);
+            }
+
+            tag.setPosition(anchor);
+            result[i] = tag;
+        }
+
+        Arrays.sort(result, Comparator.comparingInt(Tag::getPosition));
+        return result;
+    }
+
     public static void simpleSpaceAnalysis(Sentence sentence) {
 
         int wordN = sentence.getWords().length;
@@ -0,0 +1,90 @@
+package eu.modernmt.processing.tokenizer;
+
+import eu.modernmt.io.RuntimeIOException;
+import eu.modernmt.lang.Language;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the immutable models used by tokenizer annotators (OpenNLP models, Lucene analyzers, dictionaries).
+ * <p>
+ * A new ProcessingPipeline is created for every concurrent user of a language direction,
+ * so annotators must not load their own copy of a model: every model is loaded once per JVM
+ * and shared by all the pipelines, while annotators are lightweight thread-confined wrappers around it.
+ * <p>
+ * Models must be thread-safe, or immutable.
+ */
+public class TokenizerModels {
+
+    public interface Loader<T> {
+
+        T load() throws IOException;
+
+    }
+
+    private static class Entry {
+
+        private final Language language;
+        private final Object model;
+        private final long size;
+
+        private Entry(Language language, Object model, long size) {
+            this.language = language;
+            this.model = model;
+            this.size = size;
+        }
+
+    }
+
+    private static final Logger logger = LogManager.getLogger(TokenizerModels.class);
+    private static final ConcurrentHashMap<String, Entry> models = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the model with the given name for a language, loading it the first time it is requested.
+     *
+     * @param language      the language of the model
+     * @param name          the name of the model, unique for the language (e.g. "opennlp")
+     * @param estimatedSize the estimated memory footprint of the model in bytes (e.g. the size of the model file),
+     *                      or 0 if negligible
+     * @param loader        the function that loads the model
+     * @return the shared instance of the model
+     * @throws RuntimeIOException if the model cannot be loaded
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(Language language, String name, long estimatedSize, Loader<T> loader) {
+        String key = language.getLanguage() + '/' + name;
+
+        Entry entry = models.computeIfAbsent(key, k -> {
+            try {
+                Entry loaded = new Entry(language, loader.load(), estimatedSize);
+                logger.info("Tokenizer model " + key + " loaded (" + (estimatedSize / 1024) + " KB)");
+                return loaded;
+            } catch (IOException e) {
+                throw new RuntimeIOException(e);
+            }
+        });
+
+        return (T) entry.model;
+    }
+
+    /**
+     * Models registered with a 0 estimated size (e.g. Lucene analyzers) are not included.
+     *
+     * @return the estimated memory footprint in bytes of the models loaded so far, by language
+     */
+    public static Map<Language, Long> getMemoryUsage() {
+        HashMap<Language, Long> usage = new HashMap<>();
+        for (Entry entry : models.values()) {
+            if (entry.size > 0)
+                usage.merge(entry.language, entry.size, Long::sum);
+        }
+
+        return usage;
+    }
+
+}
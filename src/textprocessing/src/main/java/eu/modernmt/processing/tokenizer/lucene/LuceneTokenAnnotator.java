@@ -6,6 +6,7 @@ import eu.modernmt.lang.UnsupportedLanguageException;
 import eu.modernmt.processing.ProcessingException;
 import eu.modernmt.processing.tokenizer.BaseTokenizer;
 import eu.modernmt.processing.tokenizer.TokenizedString;
+import eu.modernmt.processing.tokenizer.TokenizerModels;
 import eu.modernmt.processing.tokenizer.lucene.analyzers.*;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.TokenStream;
@@ -62,11 +63,19 @@ public class LuceneTokenAnnotator implements BaseTokenizer.Annotator {
         if (analyzerClass == null)
             throw new UnsupportedLanguageException(language);
 
-        try {
-            return new LuceneTokenAnnotator(analyzerClass.newInstance());
-        } catch (IllegalAccessException | InstantiationException e) {
-            throw new Error("Error during class instantiation: " + analyzerClass.getName(), e);
-        }
+        /*analyzers are thread-safe (token streams are reused per thread),
+         * so a single instance is shared by all the pipelines.
+         * They are excluded from the memory estimate: they only hold small stop word sets,
+         * while tokenizer grammars and stemmer tables are static data of the Lucene classes*/
+        Analyzer analyzer = TokenizerModels.get(language, "lucene", 0, () -> {
+            try {
+                return analyzerClass.newInstance();
+            } catch (IllegalAccessException | InstantiationException e) {
+                throw new Error("Error during class instantiation: " + analyzerClass.getName(), e);
+            }
+        });
+
+        return new LuceneTokenAnnotator(analyzer);
     }
 
     private LuceneTokenAnnotator(Analyzer analyzer) {
@@ -5,6 +5,7 @@ import eu.modernmt.lang.UnsupportedLanguageException;
 import eu.modernmt.processing.TextProcessingModels;
 import eu.modernmt.processing.tokenizer.BaseTokenizer;
 import eu.modernmt.processing.tokenizer.TokenizedString;
+import eu.modernmt.processing.tokenizer.TokenizerModels;
 import opennlp.tools.tokenize.TokenizerME;
 import opennlp.tools.tokenize.TokenizerModel;
 import opennlp.tools.util.Span;
@@ -28,16 +29,22 @@ public class OpenNLPTokenAnnotator implements BaseTokenizer.Annotator {
         if (!modelFile.isFile())
             throw new UnsupportedLanguageException(language);
 
+        /*the model is immutable and shared by all the pipelines,
+         * while TokenizerME is not thread-safe and is created for each annotator*/
+        TokenizerModel model = TokenizerModels.get(language, "opennlp", modelFile.length(), () -> loadModel(modelFile));
+        return new OpenNLPTokenAnnotator(new TokenizerME(model));
+    }
+
+    private static TokenizerModel loadModel(File modelFile) throws IOException {
         InputStream modelResource = null;
 
         /*try to open the language model file
          * and to use it to create a tokenizer*/
         try {
             modelResource = new FileInputStream(modelFile);
-            TokenizerModel model = new TokenizerModel(modelResource);
-            return new OpenNLPTokenAnnotator(new TokenizerME(model));
+            return new TokenizerModel(modelResource);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to load OpenNLP model at " + modelFile, e);
+            throw new IOException("Failed to load OpenNLP model at " + modelFile, e);
         } finally {
             IOUtils.closeQuietly(modelResource);
         }
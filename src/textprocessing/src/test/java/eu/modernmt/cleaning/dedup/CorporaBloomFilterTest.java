@@ -0,0 +1,89 @@
+package eu.modernmt.cleaning.dedup;
+
+import eu.modernmt.lang.Language;
+import eu.modernmt.lang.LanguageDirection;
+import eu.modernmt.model.corpus.TranslationUnit;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CorporaBloomFilterTest {
+
+    private static final LanguageDirection EN_IT = new LanguageDirection(Language.fromString("en"), Language.fromString("it"));
+    private static final LanguageDirection EN_FR = new LanguageDirection(Language.fromString("en"), Language.fromString("fr"));
+
+    private static TranslationUnit tu(LanguageDirection language, String source, String target) {
+        return new TranslationUnit(null, language, source, target);
+    }
+
+    @Test
+    public void testTranslationUnits() {
+        CorporaBloomFilter filter = new CorporaBloomFilter(1000);
+
+        assertTrue(filter.put(tu(EN_IT, "Hello world", "Ciao mondo")));
+        assertFalse(filter.put(tu(EN_IT, "Hello world", "Ciao mondo")));
+        assertTrue(filter.contains(tu(EN_IT, "Hello world", "Ciao mondo")));
+
+        // new lines are equivalent to spaces
+        assertTrue(filter.contains(tu(EN_IT, "Hello\nworld", "Ciao mondo")));
+
+        assertFalse(filter.contains(tu(EN_FR, "Hello world", "Ciao mondo")));
+        assertFalse(filter.contains(tu(EN_IT, "Hello world\nCiao", "mondo")));
+        assertFalse(filter.contains(tu(EN_IT, "Hello world", "Ciao mondo!")));
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        int size = 100000;
+        CorporaBloomFilter filter = new CorporaBloomFilter(size, 0.01);
+
+        for (int i = 0; i < size; i++)
+            filter.put("line " + i);
+
+        for (int i = 0; i < size; i++)
+            assertTrue(filter.contains("line " + i));
+
+        int falsePositives = 0;
+        for (int i = size; i < size * 2; i++) {
+            if (filter.contains("line " + i))
+                falsePositives++;
+        }
+
+        assertTrue("False positives: " + falsePositives, falsePositives < size * 0.02);
+    }
+
+    @Test
+    public void testConcurrentPut() throws InterruptedException {
+        int size = 50000;
+        int threads = 8;
+
+        CorporaBloomFilter filter = new CorporaBloomFilter(size);
+        AtomicInteger added = new AtomicInteger();
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            workers.add(new Thread(() -> {
+                for (int i = offset; i < size; i += threads) {
+                    if (filter.put("line " + i))
+                        added.incrementAndGet();
+                }
+            }));
+        }
+
+        for (Thread worker : workers)
+            worker.start();
+        for (Thread worker : workers)
+            worker.join();
+
+        // put() may legitimately return false for a new element in case of a false positive
+        assertTrue("Added: " + added.get(), added.get() > size * 0.999);
+        for (int i = 0; i < size; i++)
+            assertTrue(filter.contains("line " + i));
+    }
+
+}
@@ -0,0 +1,88 @@
+package eu.modernmt.cleaning.filters;
+
+import eu.modernmt.cleaning.CorpusFilter;
+import eu.modernmt.lang.Language;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class RareNgramFilterTest {
+
+    /*
+     * A line made of a single repeated char counts 28 occurrences of one trigram
+     */
+    private static String line(char c) {
+        char[] chars = new char[30];
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = c;
+        return new String(chars);
+    }
+
+    private static List<String> corpus(String counts) {
+        ArrayList<String> lines = new ArrayList<>();
+        for (String entry : counts.split(" "))
+            for (int i = 0; i < Integer.parseInt(entry.substring(1)); i++)
+                lines.add(line(entry.charAt(0)));
+
+        // short lines are not counted, but make the corpus large enough to be filtered
+        while (lines.size() < 500)
+            lines.add("x");
+
+        return lines;
+    }
+
+    private static String selected(List<String> corpus) {
+        RareNgramFilter filter = new RareNgramFilter();
+
+        CorpusFilter.Initializer initializer = filter.getInitializer();
+        initializer.onBegin();
+        for (int i = 0; i < corpus.size(); i++)
+            initializer.onLine(Language.ENGLISH, corpus.get(i), i);
+        initializer.onEnd();
+
+        StringBuilder result = new StringBuilder();
+        for (char c = 'a'; c <= 'z'; c++) {
+            if (filter.accept(Language.ENGLISH, line(c), 0))
+                result.append(c);
+        }
+
+        return result.toString();
+    }
+
+    @Test
+    public void testMostFrequentTrigrams() {
+        // a and b cover 364 / 392 = 93% of the occurrences
+        assertEquals("ab", selected(corpus("a10 b3 c1")));
+    }
+
+    @Test
+    public void testTiesAtTheCutoffInLexicographicOrder() {
+        // a covers 280 / 392 = 71%, three of the four tied trigrams are needed to reach 90%
+        assertEquals("abcd", selected(corpus("a10 e1 d1 c1 b1")));
+        assertEquals("abcd", selected(corpus("a10 b1 c1 d1 e1")));
+    }
+
+    @Test
+    public void testAllTiesSelected() {
+        // a covers 140 / 196 = 71%, both tied trigrams are needed to reach 90%
+        assertEquals("abc", selected(corpus("a5 c1 b1")));
+    }
+
+    @Test
+    public void testSelectionDoesNotDependOnTheOrderOfTheCorpus() {
+        List<String> corpus = corpus("a30 z4 y4 x4 w4 v4 u4 t4 s4 r4 b2");
+        String expected = selected(corpus);
+
+        Random random = new Random(3);
+        for (int i = 0; i < 10; i++) {
+            Collections.shuffle(corpus, random);
+            assertEquals(expected, selected(corpus));
+        }
+    }
+
+}
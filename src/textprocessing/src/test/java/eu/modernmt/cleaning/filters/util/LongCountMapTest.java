@@ -0,0 +1,51 @@
+package eu.modernmt.cleaning.filters.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LongCountMapTest {
+
+    @Test
+    public void testCountsMatchHashMap() {
+        Random random = new Random(7);
+        LongCountMap map = new LongCountMap(4);
+        HashMap<Long, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 200000; i++) {
+            long key = random.nextInt(50000) * 0x100000001L;
+            map.increment(key);
+            expected.merge(key, 1, Integer::sum);
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Integer> e : expected.entrySet())
+            assertEquals((int) e.getValue(), map.get(e.getKey()));
+
+        int[] entries = {0};
+        map.forEach((key, count) -> {
+            assertEquals((int) expected.get(key), count);
+            entries[0]++;
+        });
+        assertEquals(expected.size(), entries[0]);
+
+        assertFalse(map.contains(1L));
+        assertEquals(0, map.get(1L));
+    }
+
+    @Test
+    public void testCountSaturates() {
+        LongCountMap map = new LongCountMap();
+        map.add(0L, Integer.MAX_VALUE - 1);
+        map.increment(0L);
+        map.increment(0L);
+
+        assertTrue(map.contains(0L));
+        assertEquals(Integer.MAX_VALUE, map.get(0L));
+    }
+
+}
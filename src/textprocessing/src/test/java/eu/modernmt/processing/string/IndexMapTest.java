@@ -0,0 +1,123 @@
+package eu.modernmt.processing.string;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class IndexMapTest {
+
+    private static void assertSameMapping(IndexMap expected, IndexMap actual, int length) {
+        for (int i = 0; i <= length; i++)
+            assertEquals("position " + i, expected.get(i), actual.get(i));
+    }
+
+    /*applies the replacements one by one, as the Editor did before the single pass update*/
+    private static int updateInOrder(IndexMap map, int[] starts, int[] ends, int[] lengths, int count) {
+        int offset = 0;
+        for (int k = 0; k < count; k++) {
+            map.update(starts[k] + offset, ends[k] + offset, lengths[k]);
+            offset += lengths[k] - (ends[k] - starts[k]);
+        }
+        return offset;
+    }
+
+    @Test
+    public void shrinkingReplacements() {
+        int[] starts = {2, 10, 15};
+        int[] ends = {6, 11, 20};
+        int[] lengths = {1, 1, 2};
+
+        IndexMap expected = new IndexMap(30);
+        int offset = updateInOrder(expected, starts, ends, lengths, 3);
+
+        IndexMap actual = new IndexMap(30);
+        actual.update(starts, ends, lengths, 3);
+
+        assertSameMapping(expected, actual, 30 + offset);
+    }
+
+    @Test
+    public void deletionsAtStartAndEnd() {
+        int[] starts = {0, 8, 17};
+        int[] ends = {3, 12, 20};
+        int[] lengths = {0, 1, 0};
+
+        IndexMap expected = new IndexMap(20);
+        int offset = updateInOrder(expected, starts, ends, lengths, 3);
+
+        IndexMap actual = new IndexMap(20);
+        actual.update(starts, ends, lengths, 3);
+
+        assertSameMapping(expected, actual, 20 + offset);
+    }
+
+    private interface LengthGenerator {
+        int next(Random random, int size);
+    }
+
+    /*applies random left-to-right replacements both one by one and in a single pass, and compares the mappings*/
+    private static void repeatedRandomUpdates(LengthGenerator generator) {
+        Random random = new Random(42);
+
+        for (int round = 0; round < 200; round++) {
+            int length = 50 + random.nextInt(200);
+            IndexMap expected = new IndexMap(length);
+            IndexMap actual = new IndexMap(length);
+
+            for (int commit = 0; commit < 5; commit++) {
+                int[] starts = new int[length];
+                int[] ends = new int[length];
+                int[] lengths = new int[length];
+                int count = 0;
+
+                for (int position = 1 + random.nextInt(4); position < length - 1; position += 1 + random.nextInt(8)) {
+                    int size = 1 + random.nextInt(Math.min(6, length - 1 - position));
+                    starts[count] = position;
+                    ends[count] = position + size;
+                    lengths[count] = generator.next(random, size);
+                    position += size;
+                    count++;
+                }
+
+                length += updateInOrder(expected, starts, ends, lengths, count);
+                actual.update(starts, ends, lengths, count);
+
+                assertSameMapping(expected, actual, length);
+            }
+        }
+    }
+
+    @Test
+    public void repeatedRandomShrinkingUpdates() {
+        repeatedRandomUpdates((random, size) -> 1 + random.nextInt(size));
+    }
+
+    @Test
+    public void repeatedRandomGrowingUpdates() {
+        repeatedRandomUpdates((random, size) -> size + 1 + random.nextInt(2 * size));
+    }
+
+    @Test
+    public void repeatedRandomMixedUpdates() {
+        repeatedRandomUpdates((random, size) -> 1 + random.nextInt(3 * size));
+    }
+
+    @Test
+    public void growingReplacementAtTheEnd() {
+        int[] starts = {3, 17};
+        int[] ends = {5, 20};
+        int[] lengths = {6, 9};
+
+        IndexMap expected = new IndexMap(20);
+        int offset = updateInOrder(expected, starts, ends, lengths, 2);
+
+        IndexMap actual = new IndexMap(20);
+        actual.update(starts, ends, lengths, 2);
+
+        assertSameMapping(expected, actual, 20 + offset);
+        assertEquals(20, actual.get(20 + offset));
+    }
+
+}
@@ -0,0 +1,84 @@
+package eu.modernmt.processing.tokenizer;
+
+import eu.modernmt.lang.Language;
+import eu.modernmt.processing.tokenizer.lucene.LuceneTokenAnnotator;
+import eu.modernmt.processing.tokenizer.opennlp.OpenNLPTokenAnnotator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeNoException;
+
+public class TokenizerModelsTest {
+
+    private static <T> TokenizerModels.Loader<T> notExpected() {
+        return () -> {
+            throw new AssertionError("Model loaded twice");
+        };
+    }
+
+    @Test
+    public void testModelIsLoadedOncePerLanguageAndShared() throws Throwable {
+        AtomicInteger loads = new AtomicInteger();
+        TokenizerModels.Loader<Object> loader = () -> {
+            loads.incrementAndGet();
+            return new Object();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++)
+                futures.add(executor.submit(() -> TokenizerModels.get(Language.ENGLISH, "test-shared", 1000, loader)));
+
+            Object model = futures.get(0).get();
+            for (Future<Object> future : futures)
+                assertSame(model, future.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+
+        // regional variants share the model of the language
+        Object model = TokenizerModels.get(Language.ENGLISH, "test-shared", 1000, notExpected());
+        assertSame(model, TokenizerModels.get(Language.fromString("en-US"), "test-shared", 1000, notExpected()));
+
+        // other languages have their own model
+        Object italian = TokenizerModels.get(Language.ITALIAN, "test-shared", 1000, loader);
+        assertNotSame(model, italian);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testLuceneAnnotatorsShareTheAnalyzer() throws Throwable {
+        LuceneTokenAnnotator.forLanguage(Language.TURKISH);
+        LuceneTokenAnnotator.forLanguage(Language.TURKISH);
+
+        assertNotNull(TokenizerModels.get(Language.TURKISH, "lucene", 0, notExpected()));
+
+        // Lucene analyzers are excluded from the memory estimate
+        assertFalse(TokenizerModels.getMemoryUsage().containsKey(Language.TURKISH));
+    }
+
+    @Test
+    public void testOpenNLPAnnotatorsShareTheModel() throws Throwable {
+        try {
+            OpenNLPTokenAnnotator.forLanguage(Language.DANISH);
+        } catch (IllegalStateException e) {
+            assumeNoException("Text processing models not available", e);
+        }
+
+        OpenNLPTokenAnnotator.forLanguage(Language.DANISH);
+
+        assertNotNull(TokenizerModels.get(Language.DANISH, "opennlp", 0, notExpected()));
+
+        // the memory estimate is the size of the model file
+        assertTrue(TokenizerModels.getMemoryUsage().get(Language.DANISH) > 0);
+    }
+
+}
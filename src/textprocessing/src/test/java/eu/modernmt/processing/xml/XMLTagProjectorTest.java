@@ -429,4 +429,40 @@ public class XMLTagProjectorTest {
         }, translation.getTags());
     }
 
+    @Test
+    public void testEmptyTagsOnlyNonMonotone() {
+        Sentence source = new Sentence(new Word[]{
+                new Word("hello", null, " ", false, true),
+                new Word("world", " ", null, true, false),
+                new Word("!", null, null, false, false),
+        }, new Tag[]{
+                XMLTag.fromText("<x id=\"1\"/>", " ", null, 1),
+                XMLTag.fromText("<g id=\"2\">", null, null, 2),
+                XMLTag.fromText("</g>", null, null, 2),
+                XMLTag.fromText("<x id=\"3\"/>", null, null, 3),
+        });
+
+        Translation translation = new Translation(new Word[]{
+                new Word("mondo", null, " ", false, true),
+                new Word("ciao", " ", null, true, false),
+                new Word("!", null, null, false, false),
+        }, source, Alignment.fromAlignmentPairs(new int[][]{
+                {0, 1},
+                {1, 0},
+                {2, 2},
+        }));
+
+        translation.fixWordSpacing();
+        new TagProjector().project(translation);
+
+        assertEquals("<x id=\"1\"/>mondo ciao<g id=\"2\"></g>!<x id=\"3\"/>", translation.toString());
+        assertEquals("mondo ciao!", translation.toString(false, false));
+        assertArrayEquals(new Tag[]{
+                XMLTag.fromText("<x id=\"1\"/>", null, null, 0),
+                XMLTag.fromText("<g id=\"2\">", null, null, 2),
+                XMLTag.fromText("</g>", null, null, 2),
+                XMLTag.fromText("<x id=\"3\"/>", null, null, 3),
+        }, translation.getTags());
+    }
+
 }